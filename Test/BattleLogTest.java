@@ -0,0 +1,42 @@
+import domain.BattleLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del historial de mensajes de batalla.
+ */
+public class BattleLogTest {
+
+    @Test
+    public void shouldKeepFullHistoryWithinMemoryBudget() {
+        try (BattleLog log = new BattleLog(8 * 1024)) {
+            for (int i = 0; i < 2000; i++) {
+                log.append(i % 2 == 0 ? BattleLog.Type.ATTACK : BattleLog.Type.DAMAGE, "Mensaje " + i);
+            }
+
+            assertEquals(2000, log.size());
+            assertTrue(log.getSpilledChunks() > 0);
+            assertTrue(log.getMemoryBytes() <= 8 * 1024 + BattleLog.CHUNK_SIZE * 100);
+            assertEquals("Mensaje 0", log.get(0).getText());
+            assertEquals(BattleLog.Type.DAMAGE, log.get(1001).getType());
+            assertEquals("Mensaje 1999", log.get(1999).getText());
+        }
+    }
+
+    @Test
+    public void shouldFindMessagesByTypeAndText() {
+        try (BattleLog log = new BattleLog(1024)) {
+            for (int i = 0; i < 500; i++) {
+                log.append(BattleLog.Type.DAMAGE, "Pikachu perdió " + i + " PS!");
+            }
+            log.append(BattleLog.Type.FAINT, "Pikachu se debilitó!");
+
+            assertArrayEquals(new int[]{500}, log.find(EnumSet.of(BattleLog.Type.FAINT), "", 0));
+            assertArrayEquals(new int[]{42}, log.find(EnumSet.allOf(BattleLog.Type.class), "perdió 42 PS", 0));
+            assertEquals(501, log.find(EnumSet.allOf(BattleLog.Type.class), "PIKACHU", 0).length);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del servidor de batallas.
+ */
+public class BattleServerTest {
+
+    private static Pokemon pikachu() {
+        return new Pokemon("Pikachu", "ELECTRIC", 100, 55, 40, 50, 50, 90, 100, 100,
+                Arrays.asList(MoveDatabase.getMove("THUNDERBOLT"), MoveDatabase.getMove("AERIAL ACE")));
+    }
+
+    private static Trainer trainer(Trainer trainer) {
+        trainer.addPokemonToTeam(pikachu());
+        return trainer;
+    }
+
+    @Test
+    public void shouldAnswerHumanActionWithCpuTurn() throws Exception {
+        try (BattleServer server = new BattleServer(2)) {
+            long id = server.createBattle(trainer(new Trainer("Ash", "Rojo")), trainer(new CPUTrainer("CPU", "Azul")));
+
+            BattleState state = server.submit(id, 1, Action.createAttack(0)).get(5, TimeUnit.SECONDS);
+
+            assertTrue(state.isPlayer1Turn() || server.getState(id).get().getPlayer1Pokemon().getHp() <= 0);
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> server.submit(id, 2, Action.createAttack(0)).get(5, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidActionsWithoutTouchingTheBattle() throws Exception {
+        try (BattleServer server = new BattleServer(2)) {
+            long id = server.createBattle(trainer(new Trainer("Ash", "Rojo")), trainer(new Trainer("Gary", "Azul")));
+
+            for (Action invalid : new Action[]{Action.createAttack(7), Action.createSwitchPokemon(3),
+                    Action.createUseItem(0, 0)}) {
+                ExecutionException error = assertThrows(ExecutionException.class,
+                        () -> server.submit(id, 1, invalid).get(5, TimeUnit.SECONDS));
+                assertTrue(error.getCause() instanceof IllegalArgumentException);
+            }
+            BattleState state = server.getState(id).get(5, TimeUnit.SECONDS);
+            assertTrue(state.isPlayer1Turn());
+            assertEquals(100, state.getPlayer2Pokemon().getHp());
+
+            assertFalse(server.submit(id, 1, Action.createAttack(0)).get(5, TimeUnit.SECONDS).isPlayer1Turn());
+        }
+    }
+
+    @Test
+    public void shouldApplyQueuedActionsInOrderAndPushBackWhenFull() throws Exception {
+        try (BattleServer server = new BattleServer(2)) {
+            long id = server.createBattle(trainer(new Trainer("Ash", "Rojo")), trainer(new Trainer("Gary", "Azul")));
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            server.attach(id, (battleId, state, finished) -> {
+                if (blocked.getCount() > 0) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            int threads = 4;
+            int perThread = 50;
+            List<CompletableFuture<BattleState>> results = new CopyOnWriteArrayList<>();
+            ExecutorService clients = Executors.newFixedThreadPool(threads);
+            try {
+                CompletableFuture<BattleState> first = server.submit(id, 1, Action.createAttack(0));
+                List<Future<?>> sent = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    sent.add(clients.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            results.add(server.submit(id, 1, Action.createAttack(1)));
+                        }
+                    }));
+                }
+                for (Future<?> future : sent) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+                int queued = BattleServer.ACTION_QUEUE_CAPACITY - 1;
+                int rejected = 0;
+                for (CompletableFuture<BattleState> result : results) {
+                    if (result.isCompletedExceptionally()) {
+                        rejected++;
+                        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+                        assertTrue(error.getCause() instanceof RejectedExecutionException);
+                    }
+                }
+                assertEquals(threads * perThread - queued, rejected);
+
+                release.countDown();
+                assertFalse(first.get(5, TimeUnit.SECONDS).isPlayer1Turn());
+                int late = 0;
+                for (CompletableFuture<BattleState> result : results) {
+                    ExecutionException error = assertThrows(ExecutionException.class,
+                            () -> result.get(5, TimeUnit.SECONDS));
+                    if (error.getCause() instanceof IllegalStateException) {
+                        late++;
+                    }
+                }
+                assertEquals(queued, late);
+            } finally {
+                release.countDown();
+                clients.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void shouldPlayManyCpuBattlesConcurrently() throws Exception {
+        int battles = 200;
+        try (BattleServer server = new BattleServer(4)) {
+            CountDownLatch finished = new CountDownLatch(battles);
+            for (int i = 0; i < battles; i++) {
+                long id = server.createBattle(trainer(new CPUTrainer("A" + i, "Rojo")),
+                        trainer(new CPUTrainer("B" + i, "Azul")));
+                server.attach(id, (battleId, state, done) -> {
+                    if (done) {
+                        finished.countDown();
+                    }
+                });
+            }
+
+            assertTrue(finished.await(30, TimeUnit.SECONDS));
+            assertEquals(battles, server.getBattleCount());
+        }
+    }
+
+    @Test
+    public void shouldBatchDeltasPerTickAndShareThemAmongSubscribers() throws Exception {
+        try (BattleServer server = new BattleServer(2, 300)) {
+            Trainer ash = new Trainer("Ash", "Rojo");
+            Trainer gary = new Trainer("Gary", "Azul");
+            for (Trainer trainer : new Trainer[]{ash, gary}) {
+                trainer.addPokemonToTeam(new Pokemon("Snorlax", "NORMAL", 1000, 55, 200, 50, 200, 30, 100, 100,
+                        Arrays.asList(MoveDatabase.getMove("THUNDERBOLT"), MoveDatabase.getMove("AERIAL ACE"))));
+            }
+            long id = server.createBattle(ash, gary);
+            List<List<byte[]>> received = new ArrayList<>();
+            CountDownLatch snapshots = new CountDownLatch(20);
+            for (int i = 0; i < 20; i++) {
+                List<byte[]> frames = new ArrayList<>();
+                received.add(frames);
+                server.subscribe(id, (battleId, state, frame) -> {
+                    byte[] bytes = new byte[frame.remaining()];
+                    frame.get(bytes);
+                    synchronized (frames) {
+                        frames.add(bytes);
+                    }
+                    snapshots.countDown();
+                });
+            }
+            assertTrue(snapshots.await(5, TimeUnit.SECONDS));
+
+            BattleState state = null;
+            for (int turn = 0; turn < 4; turn++) {
+                state = server.submit(id, turn % 2 + 1, Action.createAttack(1)).get(5, TimeUnit.SECONDS);
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (size(received.get(19)) < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Thread.sleep(400);
+
+            List<byte[]> first = received.get(0);
+            assertTrue(first.size() >= 2 && first.size() < 5, "Mensajes: " + first.size());
+            for (List<byte[]> frames : received) {
+                assertEquals(first.size(), size(frames));
+                for (int i = 0; i < first.size(); i++) {
+                    assertArrayEquals(first.get(i), frames.get(i));
+                }
+            }
+
+            WireProtocol.StateView decoded = null;
+            for (byte[] frame : first) {
+                ByteBuffer payload = ByteBuffer.wrap(frame);
+                while ((payload.get() & 0x80) != 0) {
+                    // largo del marco
+                }
+                payload.get();
+                payload.get();
+                decoded = WireProtocol.decodeState(payload, decoded);
+            }
+            assertEquals(state.getPlayer1Pokemon().getHp(), decoded.getPlayer1().getHp());
+            assertEquals(state.getPlayer2Pokemon().getHp(), decoded.getPlayer2().getHp());
+            assertEquals(state.getPlayer1Pokemon().getMoves().get(1).pp(), decoded.getPlayer1().getPp(1));
+        }
+    }
+
+    @Test
+    public void shouldResolveRoundOnceBothPlayersSubmit() throws Exception {
+        try (BattleServer server = new BattleServer(2)) {
+            long id = server.createRoundBattle(slammer(new Trainer("Ash", "Rojo")), slammer(new Trainer("Gary", "Azul")));
+
+            CompletableFuture<BattleState> first = server.submitRound(id, 1, Action.createAttack(0));
+            BattleState before = server.getState(id).get(5, TimeUnit.SECONDS);
+            int pp = before.getPlayer1Pokemon().getMoves().get(0).pp();
+            int hp = before.getPlayer1Pokemon().getHp();
+            assertFalse(first.isDone());
+            for (CompletableFuture<BattleState> rejected : List.of(server.submitRound(id, 1, Action.createAttack(0)),
+                    server.submit(id, 1, Action.createAttack(0)))) {
+                ExecutionException error = assertThrows(ExecutionException.class,
+                        () -> rejected.get(5, TimeUnit.SECONDS));
+                assertTrue(error.getCause() instanceof IllegalStateException);
+            }
+            ExecutionException invalid = assertThrows(ExecutionException.class,
+                    () -> server.submitRound(id, 2, Action.createAttack(7)).get(5, TimeUnit.SECONDS));
+            assertTrue(invalid.getCause() instanceof IllegalArgumentException);
+            assertFalse(first.isDone());
+
+            BattleState second = server.submitRound(id, 2, Action.createAttack(0)).get(5, TimeUnit.SECONDS);
+            assertSame(second, first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.isPlayer1Turn());
+            for (Pokemon pokemon : new Pokemon[]{second.getPlayer1Pokemon(), second.getPlayer2Pokemon()}) {
+                assertEquals(pp - 1, pokemon.getMoves().get(0).pp());
+                assertTrue(pokemon.getHp() < hp);
+            }
+
+            long turns = server.createBattle(tank(new Trainer("A", "Rojo")), tank(new Trainer("B", "Azul")));
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> server.submitRound(turns, 1, Action.createAttack(0)).get(5, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldRecoverRoundBattleAgainstCpuFromJournal() throws Exception {
+        long id;
+        BattleState state = null;
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            id = server.createRoundBattle(tank(new Trainer("Ash", "Rojo")), tank(new CPUTrainer("CPU", "Azul")));
+            int move = 0;
+            for (int round = 0; round < 40; round++) {
+                state = server.submitRound(id, 1, Action.createAttack(move)).get(5, TimeUnit.SECONDS);
+                assertTrue(state.isPlayer1Turn());
+                move = (move + 1) % 3;
+                if (state.getPlayer1Pokemon().getMoves().get(move).pp() == 0) {
+                    move = -1;
+                }
+            }
+        }
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            assertSameState(state, server.getState(id).get(5, TimeUnit.SECONDS));
+            assertTrue(server.submitRound(id, 1, Action.createAttack(-1)).get(5, TimeUnit.SECONDS).isPlayer1Turn());
+        }
+    }
+
+    private static int size(List<byte[]> frames) {
+        synchronized (frames) {
+            return frames.size();
+        }
+    }
+
+    private static Trainer tank(Trainer trainer) {
+        trainer.addPokemonToTeam(new Pokemon("Snorlax", "NORMAL", 1000, 55, 200, 50, 200, 30, 100, 100,
+                Arrays.asList(MoveDatabase.getMove("THUNDER"), MoveDatabase.getMove("RAZOR LEAF"),
+                        MoveDatabase.getMove("AERIAL ACE"))));
+        return trainer;
+    }
+
+    private static Trainer slammer(Trainer trainer) {
+        trainer.addPokemonToTeam(new Pokemon("Snorlax", "NORMAL", 1000, 55, 200, 50, 200, 30, 100, 100,
+                Arrays.asList(MoveDatabase.getMove("BODY SLAM"))));
+        return trainer;
+    }
+
+    private static void assertSameState(BattleState expected, BattleState actual) {
+        assertEquals(expected.isPlayer1Turn(), actual.isPlayer1Turn());
+        Pokemon[][] pairs = {{expected.getPlayer1Pokemon(), actual.getPlayer1Pokemon()},
+                {expected.getPlayer2Pokemon(), actual.getPlayer2Pokemon()}};
+        for (Pokemon[] pair : pairs) {
+            assertEquals(pair[0].getHp(), pair[1].getHp());
+            for (int i = 0; i < pair[0].getMoves().size(); i++) {
+                assertEquals(pair[0].getMoves().get(i).pp(), pair[1].getMoves().get(i).pp());
+            }
+        }
+    }
+
+    @TempDir
+    Path journal;
+
+    @Test
+    public void shouldEvictIdleBattlesAndRehydrateThem() throws Exception {
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            long id = server.createBattle(tank(new Trainer("Ash", "Rojo")), tank(new CPUTrainer("CPU", "Azul")));
+            BattleState state = null;
+            for (int turn = 0; turn < 20; turn++) {
+                state = server.submit(id, 1, Action.createAttack(turn % 3)).get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(1, server.evictIdle(0));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.getLoadedCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, server.getLoadedCount());
+            assertEquals(1, server.getBattleCount());
+
+            assertSameState(state, server.getState(id).get(5, TimeUnit.SECONDS));
+            assertEquals(1, server.getLoadedCount());
+            server.submit(id, 1, Action.createAttack(2)).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void shouldEvictAndRehydrateBattleWithActiveEffects() throws Exception {
+        Trainer cpu = tank(new CPUTrainer("CPU", "Azul"));
+        Pokemon poisoned = cpu.getTeam().getPokemons().get(0);
+        poisoned.setStatus("toxic");
+        poisoned.addEffect(new Effect(EffectType.STATUS, Target.OPPONENT, null, "toxic", 50, false, false));
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            long id = server.createBattle(tank(new Trainer("Ash", "Rojo")), cpu);
+            BattleState state = null;
+            for (int turn = 0; turn < 2; turn++) {
+                state = server.submit(id, 1, Action.createAttack(turn % 3)).get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(1, server.evictIdle(0));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.getLoadedCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, server.getLoadedCount());
+
+            BattleState rehydrated = server.getState(id).get(5, TimeUnit.SECONDS);
+            assertSameState(state, rehydrated);
+            assertEquals("toxic", rehydrated.getPlayer2Pokemon().getStatus());
+            int hp = rehydrated.getPlayer2Pokemon().getHp();
+            BattleState next = server.submit(id, 1, Action.createAttack(2)).get(5, TimeUnit.SECONDS);
+            assertTrue(next.getPlayer2Pokemon().getHp() < hp);
+        }
+    }
+
+    @Test
+    public void shouldRecoverBattlesAfterRestart() throws Exception {
+        long id;
+        BattleState state = null;
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            id = server.createBattle(tank(new Trainer("Ash", "Rojo")), tank(new Trainer("Gary", "Azul")));
+            for (int turn = 0; turn < 45; turn++) {
+                state = server.submit(id, turn % 2 + 1, Action.createAttack(turn % 3)).get(5, TimeUnit.SECONDS);
+            }
+        }
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            assertEquals(1, server.getBattleCount());
+            assertSameState(state, server.getState(id).get(5, TimeUnit.SECONDS));
+            server.submit(id, 2, Action.createAttack(2)).get(5, TimeUnit.SECONDS);
+            assertNotEquals(id, server.createBattle(tank(new Trainer("A", "Rojo")), tank(new Trainer("B", "Azul"))));
+            assertTrue(server.closeBattle(id));
+        }
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            assertEquals(1, server.getBattleCount());
+        }
+    }
+
+    @Test
+    public void shouldIgnoreCorruptTailOfJournal() throws Exception {
+        long id;
+        BattleState state = null;
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            id = server.createBattle(tank(new Trainer("Ash", "Rojo")), tank(new Trainer("Gary", "Azul")));
+            for (int turn = 0; turn < 10; turn++) {
+                state = server.submit(id, turn % 2 + 1, Action.createAttack(turn % 3)).get(5, TimeUnit.SECONDS);
+            }
+        }
+        Files.write(journal.resolve(id + ".log"), new byte[]{0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 1, 2},
+                StandardOpenOption.APPEND);
+        try (BattleServer server = new BattleServer(2, 50, journal.toFile())) {
+            assertSameState(state, server.getState(id).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void shouldKeepClimatePerBattle() {
+        Battle hosted = new Battle(trainer(new Trainer("A", "Rojo")), trainer(new Trainer("B", "Azul")));
+        hosted.useOwnClimate();
+        Battle shared = new Battle(trainer(new Trainer("C", "Rojo")), trainer(new Trainer("D", "Azul")));
+
+        Battle.setClimate("RAIN", 5);
+
+        assertNull(hosted.getBattleState().getClimate());
+        assertEquals("RAIN", shared.getBattleState().getClimate());
+        Battle.setClimate(null, 0);
+    }
+}
@@ -1,6 +1,16 @@
+import domain.Action;
+import domain.AttackingStrategy;
 import domain.Battle;
 import domain.BattleState;
+import domain.CPUTrainer;
+import domain.Effect;
+import domain.EffectType;
+import domain.Item;
+import domain.MoveDatabase;
+import domain.PhysicalMove;
 import domain.Pokemon;
+import domain.Potion;
+import domain.Target;
 import domain.Trainer;
 import org.junit.jupiter.api.Test;
 
@@ -119,4 +129,215 @@ public class BattleTest {
         assertTrue(turn < maxTurns);
         assertTrue(ash.getActivePokemon().getHp() > 0 || gary.getActivePokemon().getHp() > 0);
     }
+
+    /**
+     * Juega sin interfaz una batalla entre dos CPUs y verifica que termine con un ganador,
+     * y que no se jueguen turnos cuando le toca a un humano.
+     */
+    @Test
+    public void shouldPlayCpuBattleToTheEndWithoutUi() {
+        CPUTrainer ash = new CPUTrainer("CPU Ash", "Rojo");
+        CPUTrainer gary = new CPUTrainer("CPU Gary", "Azul");
+        ash.setStrategy(new AttackingStrategy());
+        gary.setStrategy(new AttackingStrategy());
+        ash.addPokemonToTeam(new Pokemon("Pikachu", "ELECTRIC", 100, 55, 40, 50, 50, 90, 100, 100,
+                List.of(MoveDatabase.getMove("THUNDERBOLT"))));
+        gary.addPokemonToTeam(new Pokemon("Squirtle", "WATER", 110, 48, 65, 50, 64, 43, 110, 110,
+                List.of(MoveDatabase.getMove("BODY SLAM"))));
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+
+        Battle battle = new Battle(ash, gary);
+        assertEquals(1, battle.playCpuTurns(1));
+        int turns = battle.playCpuTurns(1000);
+
+        assertTrue(turns > 0 && turns < 1000);
+        assertTrue(battle.isFinished());
+        assertNotNull(battle.getWinner());
+        assertEquals(0, battle.playCpuTurns(1000));
+
+        Trainer human = new Trainer("Ash", "Rojo");
+        human.addPokemonToTeam(new Pokemon("Pikachu", "ELECTRIC", 100, 55, 40, 50, 50, 90, 100, 100,
+                List.of(MoveDatabase.getMove("THUNDERBOLT"))));
+        human.setActivePokemon(0);
+        assertEquals(0, new Battle(human, gary).playCpuTurns(1000));
+    }
+
+    /**
+     * Una copia con clima propio se juega hasta el final sin tocar la batalla original ni el
+     * clima compartido, aunque algún Pokémon tenga efectos activos.
+     */
+    @Test
+    public void shouldPlayCopyWithoutTouchingTheOriginal() {
+        CPUTrainer ash = new CPUTrainer("CPU Ash", "Rojo");
+        CPUTrainer gary = new CPUTrainer("CPU Gary", "Azul");
+        ash.addPokemonToTeam(new Pokemon("Pikachu", "ELECTRIC", 100, 55, 40, 50, 50, 90, 100, 100,
+                List.of(MoveDatabase.getMove("THUNDERBOLT"))));
+        gary.addPokemonToTeam(new Pokemon("Squirtle", "WATER", 110, 48, 65, 50, 64, 43, 110, 110,
+                List.of(MoveDatabase.getMove("BODY SLAM"))));
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+        gary.getActivePokemon().setStatus("toxic");
+        gary.getActivePokemon().addEffect(new Effect(EffectType.STATUS, Target.OPPONENT, null, "toxic", 5, false, false));
+        Battle battle = new Battle(ash, gary);
+        Battle.setClimate("RAIN", 1);
+
+        try {
+            Battle copy = battle.copyWithOwnClimate();
+            assertEquals("RAIN", copy.getBattleState().getClimate());
+            assertTrue(copy.playCpuTurns(1000) > 0);
+
+            assertTrue(copy.isFinished());
+            assertNull(copy.getBattleState().getClimate());
+            assertFalse(battle.isFinished());
+            assertEquals(ash.getActivePokemon().getMaxHp(), ash.getActivePokemon().getHp());
+            assertEquals(gary.getActivePokemon().getMaxHp(), gary.getActivePokemon().getHp());
+            assertEquals("RAIN", Battle.getClimate());
+        } finally {
+            Battle.setClimate(null, 0);
+        }
+    }
+
+    /**
+     * En una ronda simultánea ataca primero el Pokémon más rápido; si debilita al rival, el
+     * ataque de este no se realiza.
+     */
+    @Test
+    public void shouldResolveFasterAttackFirstInSimultaneousRound() {
+        Trainer ash = new Trainer("Ash", "Rojo");
+        Trainer gary = new Trainer("Gary", "Azul");
+        Pokemon slow = new Pokemon("Snorlax", "NORMAL", 160, 110, 65, 65, 110, 30, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM")));
+        Pokemon fast = new Pokemon("Jolteon", "ELECTRIC", 65, 65, 60, 110, 95, 130, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM")));
+        slow.setHp(1);
+        ash.addPokemonToTeam(slow);
+        gary.addPokemonToTeam(fast);
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+        Battle battle = new Battle(ash, gary);
+
+        int[] order = battle.resolveRound(Action.createAttack(0), Action.createAttack(0));
+
+        assertArrayEquals(new int[]{2, 1}, order);
+        assertEquals(fast.getMaxHp(), fast.getHp());
+        assertTrue(battle.isFinished());
+        assertSame(gary, battle.getWinner());
+    }
+
+    /**
+     * Los cambios van antes que los ítems, los ítems antes que los ataques y un movimiento con
+     * prioridad antes que uno más rápido sin ella. Una acción inválida no cambia la batalla.
+     */
+    @Test
+    public void shouldOrderSimultaneousActionsBySwitchItemPriorityAndSpeed() {
+        Trainer ash = new Trainer("Ash", "Rojo");
+        Trainer gary = new Trainer("Gary", "Azul");
+        ash.addPokemonToTeam(new Pokemon("Snorlax", "NORMAL", 1000, 55, 200, 50, 200, 30, 100, 100,
+                List.of(new PhysicalMove("QUICK ATTACK", "NORMAL", 40, 100, 30, 1))));
+        for (int i = 0; i < 2; i++) {
+            gary.addPokemonToTeam(new Pokemon("Jolteon", "ELECTRIC", 1000, 65, 200, 110, 200, 130, 100, 100,
+                    List.of(MoveDatabase.getMove("BODY SLAM"))));
+        }
+        ash.getItems().add(new Potion());
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+        Battle battle = new Battle(ash, gary);
+
+        assertArrayEquals(new int[]{1, 2}, battle.resolveRound(Action.createAttack(0), Action.createAttack(0)));
+        assertArrayEquals(new int[]{2, 1}, battle.resolveRound(Action.createAttack(0), Action.createSwitchPokemon(1)));
+        assertSame(gary.getTeam().getPokemons().get(1), gary.getActivePokemon());
+        assertTrue(gary.getActivePokemon().getHp() < gary.getActivePokemon().getMaxHp());
+        assertArrayEquals(new int[]{1, 2}, battle.resolveRound(Action.createUseItem(0, 0), Action.createAttack(0)));
+        assertEquals(1, battle.getTurn());
+
+        int hp = gary.getActivePokemon().getHp();
+        assertThrows(IllegalArgumentException.class, () -> battle.resolveRound(Action.createAttack(0), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> battle.resolveRound(Action.createAttack(0), Action.createSwitchPokemon(5)));
+        assertEquals(hp, gary.getActivePokemon().getHp());
+        assertEquals(1, battle.getTurn());
+    }
+
+    /**
+     * Si el primer ataque debilita al Pokémon de la CPU, este no ataca y su reemplazo entra recién
+     * al terminar la ronda. Una acción inválida deja el turno como estaba.
+     */
+    @Test
+    public void shouldSkipAttackOfCpuPokemonFaintedEarlierInTheRound() {
+        Trainer ash = new Trainer("Ash", "Rojo");
+        CPUTrainer cpu = new CPUTrainer("CPU", "Azul");
+        Pokemon fast = new Pokemon("Jolteon", "ELECTRIC", 65, 600, 60, 110, 95, 130, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM")));
+        Pokemon slow = new Pokemon("Snorlax", "NORMAL", 160, 110, 65, 65, 110, 30, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM")));
+        Pokemon reserve = new Pokemon("Snorlax", "NORMAL", 160, 110, 65, 65, 110, 30, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM")));
+        slow.setHp(40);
+        ash.addPokemonToTeam(fast);
+        cpu.addPokemonToTeam(slow);
+        cpu.addPokemonToTeam(reserve);
+        ash.setActivePokemon(0);
+        cpu.setActivePokemon(0);
+        Battle battle = new Battle(ash, cpu);
+
+        assertArrayEquals(new int[]{1, 2}, battle.resolveRound(Action.createAttack(0), null));
+        assertEquals(fast.getMaxHp(), fast.getHp());
+        assertEquals(0, slow.getHp());
+        assertSame(reserve, cpu.getActivePokemon());
+        assertEquals(reserve.getMaxHp(), reserve.getHp());
+        assertFalse(battle.isFinished());
+
+        battle.changeTurn();
+        assertThrows(IllegalArgumentException.class, () -> battle.resolveRound(Action.createAttack(3), null));
+        assertEquals(2, battle.getTurn());
+    }
+
+    /**
+     * Ítem que falla al usarse, para probar una ronda que se rompe a mitad.
+     */
+    private static class BrokenItem extends Item {
+        BrokenItem() {
+            super("Roto", false, 0);
+        }
+
+        @Override
+        public void use(Pokemon pokemon) {
+            throw new IllegalStateException("Ítem roto");
+        }
+    }
+
+    /**
+     * Si una acción falla después de que la otra ya se ejecutó, la ronda se deshace entera.
+     */
+    @Test
+    public void shouldRollBackRoundThatFailsHalfway() {
+        Trainer ash = new Trainer("Ash", "Rojo");
+        Trainer gary = new Trainer("Gary", "Azul");
+        ash.addPokemonToTeam(new Pokemon("Snorlax", "NORMAL", 160, 110, 65, 65, 110, 30, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM"))));
+        ash.addPokemonToTeam(new Pokemon("Jolteon", "ELECTRIC", 65, 65, 60, 110, 95, 130, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM"))));
+        gary.addPokemonToTeam(new Pokemon("Golem", "ROCK", 80, 120, 130, 55, 65, 45, 100, 100,
+                List.of(MoveDatabase.getMove("BODY SLAM"))));
+        gary.getItems().add(new BrokenItem());
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+        Battle battle = new Battle(ash, gary);
+
+        assertThrows(IllegalStateException.class,
+                () -> battle.resolveRound(Action.createSwitchPokemon(1), Action.createUseItem(0, 0)));
+
+        assertEquals("Snorlax", battle.getPlayer1().getActivePokemon().getName());
+        assertEquals(1, battle.getPlayer2().getItems().size());
+        assertEquals(1, battle.getTurn());
+        assertFalse(battle.isFinished());
+
+        battle.getPlayer2().getItems().clear();
+        battle.getPlayer2().getItems().add(new Potion());
+        battle.getPlayer2().getActivePokemon().setHp(40);
+        assertArrayEquals(new int[]{1, 2},
+                battle.resolveRound(Action.createSwitchPokemon(1), Action.createUseItem(0, 0)));
+        assertEquals("Jolteon", battle.getPlayer1().getActivePokemon().getName());
+    }
 }
@@ -0,0 +1,74 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los datos compartidos del catálogo de movimientos y especies.
+ */
+public class CatalogInterningTest {
+
+    @Test
+    public void shouldShareSpeciesBetweenPokemonOfTheSameKind() {
+        Pokemon a = PokemonDataBase.getPokemon("Snorlax");
+        Pokemon b = PokemonDataBase.getPokemon("Snorlax");
+
+        assertSame(a.getSpecies(), b.getSpecies());
+        assertSame(PokemonDataBase.getSpecies("Snorlax"), PokemonDataBase.getSpecies(a.getSpecies().getId()));
+
+        a.takeDamage(100);
+        assertEquals(424, a.getHp());
+        assertEquals(524, b.getHp());
+    }
+
+    @Test
+    public void shouldShareDefinitionButNotPP() {
+        Move a = MoveDatabase.getMove("SURF");
+        Move b = MoveDatabase.getMove("SURF");
+
+        assertSame(a.getDefinition(), b.getDefinition());
+        assertSame(a.getDefinition(), MoveDatabase.getDefinition(a.getDefinition().getId()));
+
+        a.setPP(3);
+        assertEquals(3, a.pp());
+        assertEquals(b.maxPP(), b.pp());
+    }
+
+    @Test
+    public void shouldKeepCloneStateIndependent() {
+        Pokemon original = PokemonDataBase.getPokemon("Gengar");
+        original.setMoves(new ArrayList<>(Arrays.asList(MoveDatabase.getMove("LICK"))));
+        Pokemon copy = original.clone();
+
+        copy.modifyStat("attack", 2);
+        copy.getMoves().get(0).setPP(0);
+
+        assertSame(original.getSpecies(), copy.getSpecies());
+        assertEquals(original.getAttack(), original.getEffectiveStat("attack"));
+        assertEquals(30, original.getMoves().get(0).pp());
+    }
+
+    @Test
+    public void shouldResolveToCatalogInstancesAfterDeserialization() throws Exception {
+        Pokemon original = PokemonDataBase.getPokemon("Blastoise");
+        original.setMoves(new ArrayList<>(Arrays.asList(MoveDatabase.getMove("SURF"))));
+        original.getMoves().get(0).setPP(7);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(original);
+        }
+        Pokemon restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (Pokemon) in.readObject();
+        }
+
+        assertSame(original.getSpecies(), restored.getSpecies());
+        assertSame(original.getMoves().get(0).getDefinition(), restored.getMoves().get(0).getDefinition());
+        assertEquals(7, restored.getMoves().get(0).pp());
+    }
+}
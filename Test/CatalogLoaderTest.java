@@ -0,0 +1,91 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la carga de catálogos desde archivos de datos.
+ */
+public class CatalogLoaderTest {
+
+    @TempDir
+    Path dataDir;
+
+    /**
+     * Formato de prueba que cuenta cuántas filas del CSV se leyeron.
+     */
+    private static class CountingFormat implements CatalogLoader.Format<String> {
+        final AtomicInteger parsed = new AtomicInteger();
+
+        @Override
+        public String parse(String[] columns) {
+            parsed.incrementAndGet();
+            return columns[0] + "=" + Integer.parseInt(columns[1]);
+        }
+
+        @Override
+        public void write(String entry, DataOutputStream out) throws IOException {
+            out.writeUTF(entry);
+        }
+
+        @Override
+        public String read(DataInputStream in) throws IOException {
+            return in.readUTF();
+        }
+    }
+
+    @Test
+    public void shouldUsePackWhileCsvIsUnchanged() throws Exception {
+        Path csv = dataDir.resolve("test.csv");
+        Path pack = dataDir.resolve("test.pack");
+        Files.writeString(csv, "# version 1\nnombre,valor\nA,1\n# comentario\nB,2\n");
+
+        CountingFormat first = new CountingFormat();
+        assertEquals(Arrays.asList("A=1", "B=2"), CatalogLoader.load(csv, pack, first));
+        assertEquals(2, first.parsed.get());
+        assertTrue(Files.exists(pack));
+
+        CountingFormat second = new CountingFormat();
+        assertEquals(Arrays.asList("A=1", "B=2"), CatalogLoader.load(csv, pack, second));
+        assertEquals(0, second.parsed.get());
+
+        Files.writeString(csv, "# version 1\nnombre,valor\nA,5\n");
+        CountingFormat third = new CountingFormat();
+        assertEquals(List.of("A=5"), CatalogLoader.load(csv, pack, third));
+        assertEquals(1, third.parsed.get());
+    }
+
+    @Test
+    public void shouldRejectInvalidRowsAndVersions() throws Exception {
+        Path csv = dataDir.resolve("test.csv");
+        Files.writeString(csv, "# version 1\nnombre,valor\nA,uno\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CatalogLoader.readCsv(csv, new CountingFormat()));
+        assertTrue(e.getMessage().startsWith("Línea 3"));
+
+        Files.writeString(csv, "# version 99\nnombre,valor\n");
+        assertThrows(IllegalArgumentException.class, () -> CatalogLoader.readCsv(csv, new CountingFormat()));
+    }
+
+    @Test
+    public void shouldIndexTheLoadedCatalogs() {
+        assertFalse(MoveDatabase.getMovesByType("fire").isEmpty());
+        for (MoveDefinition move : MoveDatabase.getMovesByPowerRange(90, 100)) {
+            assertTrue(move.getPower() >= 90 && move.getPower() <= 100);
+        }
+        assertTrue(MoveDatabase.getMovesByCategory(MoveDefinition.Category.STATUS).stream()
+                .allMatch(move -> move.getPower() == 0));
+        assertEquals(2, PokemonDataBase.getSpeciesByType("WATER").size());
+        assertNull(MoveDatabase.getMove("p1"));
+    }
+}
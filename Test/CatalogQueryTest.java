@@ -0,0 +1,70 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las consultas sobre los catálogos de movimientos y especies.
+ */
+public class CatalogQueryTest {
+
+    @Test
+    public void shouldQueryMovesByPrecisionRange() {
+        List<MoveDefinition> inaccurate = MoveDatabase.getMovesByPrecisionRange(0, 80);
+
+        assertFalse(inaccurate.isEmpty());
+        int previous = Integer.MIN_VALUE;
+        for (MoveDefinition move : inaccurate) {
+            assertTrue(move.getPrecision() <= 80);
+            assertTrue(move.getPrecision() >= previous);
+            previous = move.getPrecision();
+        }
+        assertTrue(MoveDatabase.getMovesByPrecisionRange(101, 200).isEmpty());
+    }
+
+    @Test
+    public void shouldQuerySpeciesByStatThreshold() {
+        List<Species> fast = PokemonDataBase.getSpeciesWithStatAtLeast(Species.Stat.SPEED, 350);
+
+        assertTrue(fast.contains(PokemonDataBase.getSpecies("Raichu")));
+        assertTrue(fast.stream().allMatch(species -> species.getSpeed() >= 350));
+        assertEquals(PokemonDataBase.getAllSpecies().size(),
+                PokemonDataBase.getSpeciesWithStatAtLeast(Species.Stat.HP, 0).size());
+    }
+
+    @Test
+    public void shouldRelateSpeciesWithLearnableMoves() {
+        Species gengar = PokemonDataBase.getSpecies("Gengar");
+        MoveDefinition surf = MoveDatabase.getDefinition("SURF");
+
+        assertTrue(PokemonDataBase.getLearnableMoves(gengar).contains(surf));
+        assertTrue(PokemonDataBase.getLearners(surf).contains(gengar));
+    }
+
+    @Test
+    public void shouldSearchCatalogsByNamePrefix() {
+        List<Species> found = PokemonDataBase.searchSpecies("  gEn");
+
+        assertEquals(List.of(PokemonDataBase.getSpecies("Gengar")), found);
+        assertTrue(PokemonDataBase.searchSpecies("zzz").isEmpty());
+        assertEquals(PokemonDataBase.getAllSpecies().size(), PokemonDataBase.searchSpecies("").size());
+
+        List<MoveDefinition> thunder = MoveDatabase.searchMoves("thunder");
+        assertFalse(thunder.isEmpty());
+        assertTrue(thunder.stream().allMatch(move -> move.getName().startsWith("THUNDER")));
+        assertEquals(thunder, PokemonDataBase.searchLearnableMoves(PokemonDataBase.getSpecies("Raichu"), "Thunder"));
+    }
+
+    @Test
+    public void shouldReturnImmutableViews() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> MoveDatabase.getAllMoves().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> MoveDatabase.getMovesByPowerRange(0, 100).remove(0));
+        assertThrows(UnsupportedOperationException.class,
+                () -> PokemonDataBase.getSpeciesByType("FIRE").clear());
+        assertSame(MoveDatabase.getAllMoves(), MoveDatabase.getAllMoves());
+    }
+}
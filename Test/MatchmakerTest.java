@@ -0,0 +1,133 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la cola de emparejamiento.
+ */
+public class MatchmakerTest {
+
+    private static Trainer cpu(String name) {
+        CPUTrainer trainer = new CPUTrainer(name, "Rojo");
+        trainer.setStrategy(new DefensiveStrategy());
+        trainer.addPokemonToTeam(new Pokemon("Pikachu", "ELECTRIC", 100, 55, 40, 50, 50, 90, 100, 100,
+                Arrays.asList(MoveDatabase.getMove("THUNDERBOLT"), MoveDatabase.getMove("AERIAL ACE"))));
+        return trainer;
+    }
+
+    @Test
+    public void shouldPairCloseRatingsRightAway() throws Exception {
+        try (BattleServer server = new BattleServer(2);
+             Matchmaker matchmaker = new Matchmaker(server)) {
+            Matchmaker.Ticket first = matchmaker.enqueue(cpu("A"), 1500);
+            Matchmaker.Ticket far = matchmaker.enqueue(cpu("B"), 1800);
+            Matchmaker.Ticket second = matchmaker.enqueue(cpu("C"), 1530);
+
+            Matchmaker.Match a = first.getMatch().get(1, TimeUnit.SECONDS);
+            Matchmaker.Match c = second.getMatch().get(1, TimeUnit.SECONDS);
+            assertEquals(a.getBattleId(), c.getBattleId());
+            assertEquals(1, a.getPlayer());
+            assertEquals(2, c.getPlayer());
+            assertFalse(far.getMatch().isDone());
+            assertEquals(1, matchmaker.getWaitingCount());
+            assertTrue(far.cancel());
+            assertTrue(far.getMatch().isCancelled());
+            assertFalse(first.cancel());
+        }
+    }
+
+    @Test
+    public void shouldWidenBandsWhileWaiting() throws Exception {
+        try (BattleServer server = new BattleServer(2);
+             Matchmaker matchmaker = new Matchmaker(server, 10, 200, 300)) {
+            Matchmaker.Ticket low = matchmaker.enqueue(cpu("A"), 1000);
+            Matchmaker.Ticket high = matchmaker.enqueue(cpu("B"), 1150);
+            Matchmaker.Ticket outside = matchmaker.enqueue(cpu("C"), 2000);
+            assertFalse(low.getMatch().isDone());
+
+            Matchmaker.Match match = low.getMatch().get(3, TimeUnit.SECONDS);
+            assertEquals(match.getBattleId(), high.getMatch().get(1, TimeUnit.SECONDS).getBattleId());
+            Thread.sleep(Matchmaker.SWEEP_MILLIS * 3);
+            assertFalse(outside.getMatch().isDone());
+        }
+    }
+
+    @Test
+    public void shouldPairEveryoneExactlyOnceUnderConcurrentLoad() throws Exception {
+        int threads = 4;
+        int perThread = 1000;
+        try (BattleServer server = new BattleServer(4);
+             Matchmaker matchmaker = new Matchmaker(server)) {
+            ExecutorService clients = Executors.newFixedThreadPool(threads);
+            List<Future<List<Matchmaker.Ticket>>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                results.add(clients.submit(() -> {
+                    Random random = new Random(seed);
+                    List<Matchmaker.Ticket> tickets = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        tickets.add(matchmaker.enqueue(cpu("T" + seed + "-" + i), 1000 + random.nextInt(200)));
+                    }
+                    return tickets;
+                }));
+            }
+            Map<Long, Integer> players = new HashMap<>();
+            for (Future<List<Matchmaker.Ticket>> result : results) {
+                for (Matchmaker.Ticket ticket : result.get(10, TimeUnit.SECONDS)) {
+                    Matchmaker.Match match = ticket.getMatch().get(5, TimeUnit.SECONDS);
+                    players.merge(match.getBattleId(), match.getPlayer(), Integer::sum);
+                }
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            clients.shutdown();
+
+            assertEquals(threads * perThread / 2, players.size());
+            for (int sum : players.values()) {
+                assertEquals(3, sum);
+            }
+            assertEquals(0, matchmaker.getWaitingCount());
+            assertTrue(millis < 5000, "Emparejar tardó " + millis + " ms");
+        }
+    }
+
+    @Test
+    public void cancelAndSweepShouldNeverBothWin() throws Exception {
+        try (BattleServer server = new BattleServer(4);
+             Matchmaker matchmaker = new Matchmaker(server, 0, 1_000_000, 1000)) {
+            ExecutorService cancellers = Executors.newFixedThreadPool(2);
+            Random random = new Random(7);
+            Map<Long, Integer> players = new HashMap<>();
+            for (int round = 0; round < 10; round++) {
+                List<Matchmaker.Ticket> tickets = new ArrayList<>();
+                for (int i = 0; i < 300; i++) {
+                    tickets.add(matchmaker.enqueue(cpu("R" + round + "-" + i), 1000 + 10 * i));
+                }
+                Thread.sleep(random.nextInt((int) Matchmaker.SWEEP_MILLIS));
+                List<Future<Boolean>> cancelled = new ArrayList<>();
+                for (Matchmaker.Ticket ticket : tickets) {
+                    cancelled.add(cancellers.submit(ticket::cancel));
+                }
+                for (int i = 0; i < tickets.size(); i++) {
+                    CompletableFuture<Matchmaker.Match> match = tickets.get(i).getMatch();
+                    if (cancelled.get(i).get(5, TimeUnit.SECONDS)) {
+                        assertTrue(match.isCancelled());
+                    } else {
+                        Matchmaker.Match m = match.get(5, TimeUnit.SECONDS);
+                        players.merge(m.getBattleId(), m.getPlayer(), Integer::sum);
+                    }
+                }
+                assertEquals(0, matchmaker.getWaitingCount());
+            }
+            cancellers.shutdown();
+
+            for (int sum : players.values()) {
+                assertEquals(3, sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del analizador de partidas guardadas.
+ */
+public class SaveAnalyzerTest {
+
+    @TempDir
+    Path savesDir;
+
+    private GameState createFinishedGame(String species, String rival) {
+        Trainer winner = new Trainer("Ash", "Rojo");
+        Pokemon p1 = PokemonDataBase.getPokemon(species);
+        p1.setMoves(new ArrayList<>(Arrays.asList(MoveDatabase.getMove("SURF"), MoveDatabase.getMove("BITE"))));
+        winner.addPokemonToTeam(p1);
+
+        CPUTrainer loser = new CPUTrainer("CPU", "Azul");
+        loser.setStrategy(new DefensiveStrategy());
+        Pokemon p2 = PokemonDataBase.getPokemon(rival);
+        p2.setMoves(new ArrayList<>(Arrays.asList(MoveDatabase.getMove("SURF"))));
+        loser.addPokemonToTeam(p2);
+
+        Battle battle = new Battle(winner, loser);
+        p2.takeDamage(p2.getMaxHp());
+        battle.performAction(Action.createSwitchPokemon(0));
+        return new GameState(battle, 2, "Ash", "CPU");
+    }
+
+    @Test
+    public void shouldAggregateStatisticsFromEverySave() throws Exception {
+        Files.write(savesDir.resolve("a.dat"),
+                PersistenceManager.encodeGameState(createFinishedGame("Blastoise", "Charizard"), new DeflateSaveCodec()));
+        Files.write(savesDir.resolve("b.dat"),
+                PersistenceManager.encodeGameState(createFinishedGame("Blastoise", "Golem"), new LzSaveCodec()));
+        Files.write(savesDir.resolve("roto.dat"), new byte[]{1, 2, 3});
+        Files.write(savesDir.resolve("notas.txt"), new byte[]{1, 2, 3});
+
+        SaveStatistics stats = new SaveAnalyzer(2).analyze(savesDir);
+
+        assertEquals(2, stats.getGames());
+        assertEquals(1, stats.getUnreadable());
+        assertEquals(2, stats.getFinishedGames());
+        assertEquals("Blastoise", stats.getMostPickedSpecies(1).get(0).getKey());
+        assertEquals(4L, stats.getMostPickedMoves(1).get(0).getValue());
+
+        Map<String, Double> hp = stats.getAverageRemainingHpByStrategy();
+        assertEquals(100.0, hp.get("Humano"), 0.001);
+        assertEquals(0.0, hp.get("DefensiveStrategy"), 0.001);
+
+        long[] waterRecord = stats.getRecordByComposition().get("WATER");
+        assertArrayEquals(new long[]{2, 0, 0}, waterRecord);
+    }
+
+    @Test
+    public void corruptSaveShouldNotAbortTheWholeAnalysis() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            Files.write(savesDir.resolve("partida" + i + ".dat"),
+                    PersistenceManager.encodeGameState(createFinishedGame("Blastoise", "Golem"), new LzSaveCodec()));
+        }
+        ByteArrayOutputStream notAGame = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(notAGame)) {
+            oos.writeObject("no es una partida");
+        }
+        Files.write(savesDir.resolve("intrusa.dat"), notAGame.toByteArray());
+
+        SaveStatistics stats = new SaveAnalyzer(4).analyze(savesDir);
+
+        assertEquals(8, stats.getGames());
+        assertEquals(1, stats.getUnreadable());
+        assertEquals(Arrays.asList("intrusa.dat"), stats.getUnreadableFiles());
+        assertArrayEquals(new long[]{8, 0, 0}, stats.getRecordByComposition().get("WATER"));
+    }
+}
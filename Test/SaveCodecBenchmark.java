@@ -0,0 +1,90 @@
+import domain.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark que compara el tamaño y el tiempo de compresión/descompresión de cada
+ * {@link SaveCodec} sobre partidas típicas (dos equipos de 6 Pokémon con 4 movimientos
+ * e ítems). Se ejecuta como programa independiente:
+ *
+ * <pre>
+ *   javac -d out -cp src src/domain/*.java Test/SaveCodecBenchmark.java
+ *   java -cp out SaveCodecBenchmark [partidas] [iteraciones]
+ * </pre>
+ */
+public class SaveCodecBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<GameState> states = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            states.add(createTypicalGameState(i));
+        }
+
+        System.out.printf("%-8s %12s %10s %14s %14s%n", "codec", "bytes/save", "ratio", "encode us", "decode us");
+        long rawSize = -1;
+        for (SaveCodec codec : PersistenceManager.getCodecs()) {
+            List<byte[]> encoded = new ArrayList<>();
+            long totalSize = 0;
+            for (GameState state : states) {
+                byte[] bytes = PersistenceManager.encodeGameState(state, codec);
+                encoded.add(bytes);
+                totalSize += bytes.length;
+            }
+            if (rawSize < 0) {
+                rawSize = totalSize;
+            }
+
+            // Calentamiento para que el JIT compile las rutas de codificación
+            for (int i = 0; i < iterations; i++) {
+                for (GameState state : states) PersistenceManager.encodeGameState(state, codec);
+                for (byte[] bytes : encoded) PersistenceManager.decodeGameState(bytes);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (GameState state : states) PersistenceManager.encodeGameState(state, codec);
+            }
+            long encodeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (byte[] bytes : encoded) PersistenceManager.decodeGameState(bytes);
+            }
+            long decodeNanos = System.nanoTime() - start;
+
+            long operations = (long) games * iterations;
+            System.out.printf("%-8s %12d %10.2f %14.1f %14.1f%n",
+                    codec.getName(),
+                    totalSize / games,
+                    (double) totalSize / rawSize,
+                    encodeNanos / 1000.0 / operations,
+                    decodeNanos / 1000.0 / operations);
+        }
+    }
+
+    /**
+     * Crea una partida con equipos y movimientos aleatorios, similar a las que guarda un jugador.
+     */
+    private static GameState createTypicalGameState(int seed) {
+        Trainer player = new Trainer("Jugador " + seed, "Rojo");
+        CPUTrainer cpu = new CPUTrainer("CPU Gary", "Azul");
+        cpu.setStrategy(seed % 2 == 0 ? new ExpertStrategy() : new DefensiveStrategy());
+        for (int i = 0; i < 6; i++) {
+            Pokemon p1 = PokemonDataBase.getRandomPokemon();
+            p1.setMoves(MoveDatabase.getRandomMoves(4));
+            player.addPokemonToTeam(p1);
+            Pokemon p2 = PokemonDataBase.getRandomPokemon();
+            p2.setMoves(MoveDatabase.getRandomMoves(4));
+            cpu.addPokemonToTeam(p2);
+        }
+        player.addItem(new Potion());
+        player.addItem(new HyperPotion());
+        cpu.addItem(new SuperPotion());
+        cpu.addItem(new Revive());
+        return new GameState(new Battle(player, cpu), 2, player.getName(), cpu.getName());
+    }
+}
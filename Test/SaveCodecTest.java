@@ -0,0 +1,111 @@
+import domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los códecs de compresión de partidas y del formato con cabecera
+ * de {@code PersistenceManager}.
+ */
+public class SaveCodecTest {
+    private GameState gameState;
+
+    @BeforeEach
+    public void setUp() {
+        Trainer ash = new Trainer("Ash", "Rojo");
+        Trainer gary = new CPUTrainer("Gary", "Azul");
+        for (int i = 0; i < 6; i++) {
+            Pokemon p1 = PokemonDataBase.getRandomPokemon();
+            p1.setMoves(MoveDatabase.getRandomMoves(4));
+            ash.addPokemonToTeam(p1);
+            Pokemon p2 = PokemonDataBase.getRandomPokemon();
+            p2.setMoves(MoveDatabase.getRandomMoves(4));
+            gary.addPokemonToTeam(p2);
+        }
+        ash.addItem(new Potion());
+        gary.addItem(new Revive());
+        gameState = new GameState(new Battle(ash, gary), 2, "Ash", "Gary");
+    }
+
+    @Test
+    public void shouldRoundTripGameStateWithEveryCodec() throws Exception {
+        for (SaveCodec codec : PersistenceManager.getCodecs()) {
+            byte[] encoded = PersistenceManager.encodeGameState(gameState, codec);
+            GameState decoded = PersistenceManager.decodeGameState(encoded);
+
+            assertEquals(codec.getId(), PersistenceManager.detectCodec(encoded).getId());
+            assertEquals("Ash", decoded.getPlayer1Name());
+            assertEquals(2, decoded.getGameMode());
+            assertEquals(gameState.getBattle().getPlayer2().getActivePokemon().getName(),
+                    decoded.getBattle().getPlayer2().getActivePokemon().getName());
+        }
+    }
+
+    @Test
+    public void compressedSavesShouldBeSmallerThanRaw() throws Exception {
+        int raw = PersistenceManager.encodeGameState(gameState, new RawSaveCodec()).length;
+        int deflate = PersistenceManager.encodeGameState(gameState, new DeflateSaveCodec()).length;
+        int lz = PersistenceManager.encodeGameState(gameState, new LzSaveCodec()).length;
+
+        assertTrue(deflate < raw);
+        assertTrue(lz < raw);
+    }
+
+    @Test
+    public void lzCodecShouldRoundTripArbitraryData() throws IOException {
+        LzSaveCodec codec = new LzSaveCodec();
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 3, 4, 17, 300, 70_000}) {
+            byte[] data = new byte[size];
+            for (int i = 0; i < size; i++) {
+                // Mezcla de datos repetitivos y aleatorios
+                data[i] = (byte) (i % 7 == 0 ? random.nextInt(256) : i % 13);
+            }
+            assertArrayEquals(data, codec.decode(codec.encode(data), size));
+        }
+    }
+
+    @Test
+    public void lzCodecShouldRejectTruncatedData() {
+        LzSaveCodec codec = new LzSaveCodec();
+        byte[] data = "POOBkemon POOBkemon POOBkemon POOBkemon".getBytes();
+        byte[] encoded = codec.encode(data);
+        byte[] truncated = java.util.Arrays.copyOf(encoded, encoded.length - 3);
+
+        assertThrows(IOException.class, () -> codec.decode(truncated, data.length));
+    }
+
+    @Test
+    public void codecsShouldRejectImpossibleLengthWithoutAllocatingIt() {
+        byte[] data = new byte[16];
+        for (SaveCodec codec : new SaveCodec[]{new RawSaveCodec(), new DeflateSaveCodec(), new LzSaveCodec()}) {
+            assertThrows(IOException.class, () -> codec.decode(data, Integer.MAX_VALUE), codec.getName());
+            assertThrows(IOException.class, () -> codec.decode(data, -1), codec.getName());
+        }
+    }
+
+    @Test
+    public void shouldRejectHeaderWithHugeOriginalLength() throws Exception {
+        for (SaveCodec codec : new SaveCodec[]{new RawSaveCodec(), new DeflateSaveCodec(), new LzSaveCodec()}) {
+            byte[] bytes = PersistenceManager.encodeGameState(gameState, codec);
+            java.nio.ByteBuffer.wrap(bytes).putInt(6, Integer.MAX_VALUE);
+
+            assertThrows(IOException.class, () -> PersistenceManager.decodeGameState(bytes), codec.getName());
+        }
+    }
+
+    @Test
+    public void shouldStillLoadLegacyUncompressedSaves() throws Exception {
+        java.io.ByteArrayOutputStream raw = new java.io.ByteArrayOutputStream();
+        try (java.io.ObjectOutputStream oos = new java.io.ObjectOutputStream(raw)) {
+            oos.writeObject(gameState);
+        }
+
+        GameState decoded = PersistenceManager.decodeGameState(raw.toByteArray());
+        assertEquals("Gary", decoded.getPlayer2Name());
+    }
+}
@@ -0,0 +1,218 @@
+import domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del protocolo binario y del servidor de red.
+ */
+public class WireProtocolTest {
+
+    private static Pokemon pikachu() {
+        return new Pokemon("Pikachu", "ELECTRIC", 100, 55, 40, 50, 50, 90, 100, 100,
+                Arrays.asList(MoveDatabase.getMove("THUNDERBOLT"), MoveDatabase.getMove("AERIAL ACE")));
+    }
+
+    private static Trainer trainer(Trainer trainer) {
+        trainer.addPokemonToTeam(pikachu());
+        return trainer;
+    }
+
+    private static ByteBuffer readFrame(ByteBuffer frame) {
+        WireProtocol.FrameReader reader = new WireProtocol.FrameReader();
+        reader.writableBuffer().put(frame);
+        ByteBuffer payload = reader.next();
+        assertNotNull(payload);
+        assertNull(reader.next());
+        return payload;
+    }
+
+    private static WireClient.Message receive(WireClient client, byte type) throws Exception {
+        while (true) {
+            WireClient.Message message = client.receive();
+            if (message.getType() == type) {
+                return message;
+            }
+        }
+    }
+
+    @Test
+    public void actionsShouldSurviveRoundTrip() {
+        for (Action action : new Action[]{Action.createAttack(3), Action.createAttack(-1),
+                Action.createUseItem(2, 5), Action.createSwitchPokemon(4)}) {
+            ByteBuffer payload = readFrame(WireProtocol.encodeAction(action));
+            assertEquals(WireProtocol.ACTION, payload.get());
+            Action decoded = WireProtocol.decodeAction(payload);
+            assertEquals(action.getType(), decoded.getType());
+            switch (action.getType()) {
+                case ATTACK:
+                    assertEquals(action.getMoveIndex(), decoded.getMoveIndex());
+                    break;
+                case USE_ITEM:
+                    assertEquals(action.getItemIndex(), decoded.getItemIndex());
+                    assertEquals(action.getTargetIndex(), decoded.getTargetIndex());
+                    break;
+                default:
+                    assertEquals(action.getTargetIndex(), decoded.getTargetIndex());
+            }
+        }
+    }
+
+    @Test
+    public void frameReaderShouldWaitForCompleteFrames() {
+        ByteBuffer frame = WireProtocol.encodeError("Texto con ñ largo ".repeat(20));
+        WireProtocol.FrameReader reader = new WireProtocol.FrameReader();
+        while (frame.hasRemaining()) {
+            assertNull(reader.next());
+            reader.writableBuffer().put(frame.get());
+        }
+        ByteBuffer payload = reader.next();
+        assertEquals(WireProtocol.ERROR, payload.get());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void stateDeltasShouldBeSmall() {
+        Trainer ash = trainer(new Trainer("Ash", "Rojo"));
+        Trainer gary = trainer(new Trainer("Gary", "Azul"));
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+        Battle battle = new Battle(ash, gary);
+        WireProtocol.StateView first = WireProtocol.StateView.of(battle);
+
+        gary.getActivePokemon().setHp(gary.getActivePokemon().getHp() - 37);
+        battle.changeTurn();
+        WireProtocol.StateView second = WireProtocol.StateView.of(battle);
+
+        ByteBuffer full = WireProtocol.encodeState(300000, null, first);
+        ByteBuffer delta = WireProtocol.encodeState(300000, first, second);
+        assertTrue(delta.remaining() < 10, "Delta de " + delta.remaining() + " bytes");
+        assertTrue(delta.remaining() < full.remaining());
+        assertNull(WireProtocol.encodeState(300000, second, WireProtocol.StateView.of(battle)));
+
+        WireProtocol.StateView decoded = decodeState(full, null);
+        decoded = decodeState(delta, decoded);
+        assertFalse(decoded.isPlayer1Turn());
+        assertEquals(second.getPlayer2().getHp(), decoded.getPlayer2().getHp());
+        assertEquals("Pikachu", decoded.getPlayer2().getPokemon());
+        assertEquals(first.getPlayer1().getHp(), decoded.getPlayer1().getHp());
+    }
+
+    @Test
+    public void stateDeltasShouldCarryPpStatusAndBoosts() {
+        Trainer ash = trainer(new Trainer("Ash", "Rojo"));
+        Trainer gary = trainer(new Trainer("Gary", "Azul"));
+        gary.addPokemonToTeam(pikachu());
+        ash.setActivePokemon(0);
+        gary.setActivePokemon(0);
+        Battle battle = new Battle(ash, gary);
+        WireProtocol.StateView first = WireProtocol.StateView.of(battle);
+        WireProtocol.StateView decoded = decodeState(WireProtocol.encodeState(1, null, first), null);
+
+        Pokemon pokemon = ash.getActivePokemon();
+        pokemon.getMoves().get(1).setPP(3);
+        pokemon.setStatus("PARALYZED");
+        pokemon.modifyStat("attack", -2);
+        gary.switchPokemon(1);
+        WireProtocol.StateView second = WireProtocol.StateView.of(battle);
+        decoded = decodeState(WireProtocol.encodeState(1, first, second), decoded);
+
+        assertEquals(3, decoded.getPlayer1().getPp(1));
+        assertEquals(first.getPlayer1().getPp(0), decoded.getPlayer1().getPp(0));
+        assertEquals("PARALYZED", decoded.getPlayer1().getStatus());
+        assertEquals(-2, decoded.getPlayer1().getBoosts().get("attack"));
+        assertEquals(1, decoded.getPlayer2().getSlot());
+        assertEquals(2, decoded.getPlayer2().getMoveCount());
+
+        pokemon.setStatus(null);
+        pokemon.resetBoosts();
+        decoded = decodeState(WireProtocol.encodeState(1, second, WireProtocol.StateView.of(battle)), decoded);
+        assertNull(decoded.getPlayer1().getStatus());
+        assertTrue(decoded.getPlayer1().getBoosts().isEmpty());
+    }
+
+    private static WireProtocol.StateView decodeState(ByteBuffer frame, WireProtocol.StateView previous) {
+        ByteBuffer payload = readFrame(frame);
+        assertEquals(WireProtocol.STATE, payload.get());
+        while ((payload.get() & 0x80) != 0) {
+            // identificador de la batalla
+        }
+        return WireProtocol.decodeState(payload, previous);
+    }
+
+    @Test
+    public void shouldPlayAgainstCpuOverLocalhost() throws Exception {
+        try (BattleServer battles = new BattleServer(2);
+             WireServer server = new WireServer(battles, 0)) {
+            server.start();
+            long id = battles.createBattle(trainer(new Trainer("Ash", "Rojo")), trainer(new CPUTrainer("CPU", "Azul")));
+            try (WireClient client = new WireClient("localhost", server.getPort());
+                 WireClient spectator = new WireClient("localhost", server.getPort())) {
+                client.join(id, 1);
+                spectator.join(id, WireProtocol.SPECTATOR);
+                WireProtocol.StateView initial = receive(client, WireProtocol.STATE).getState();
+                assertTrue(initial.isPlayer1Turn());
+                int maxHp = initial.getPlayer2().getMaxHp();
+
+                client.send(Action.createAttack(0));
+                WireClient.Message afterTurn = receive(client, WireProtocol.STATE);
+                assertTrue(afterTurn.getState().getPlayer2().getHp() < maxHp);
+                assertTrue(afterTurn.getState().isPlayer1Turn() || afterTurn.getState().isFinished());
+                assertTrue(afterTurn.getSize() < 24, "Mensaje de " + afterTurn.getSize() + " bytes");
+
+                receive(spectator, WireProtocol.STATE);
+                WireProtocol.StateView seen = receive(spectator, WireProtocol.STATE).getState();
+                assertEquals(afterTurn.getState().getPlayer1().getHp(), seen.getPlayer1().getHp());
+                assertEquals(afterTurn.getState().getPlayer2().getHp(), seen.getPlayer2().getHp());
+                spectator.send(Action.createAttack(0));
+                assertFalse(receive(spectator, WireProtocol.ERROR).getError().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void shouldPassTurnWhenTimeRunsOut() throws Exception {
+        try (BattleServer battles = new BattleServer(1);
+             WireServer server = new WireServer(battles, 0, 1)) {
+            server.start();
+            long id = battles.createBattle(trainer(new Trainer("Ash", "Rojo")), trainer(new Trainer("Gary", "Azul")));
+            try (WireClient client = new WireClient("localhost", server.getPort())) {
+                client.join(id, 1);
+                assertTrue(receive(client, WireProtocol.STATE).getState().isPlayer1Turn());
+                try (WireClient rival = new WireClient("localhost", server.getPort())) {
+                    rival.join(id, 2);
+                    rival.send(Action.createAttack(0));
+                    assertEquals("No es el turno del jugador 2", receive(rival, WireProtocol.ERROR).getError());
+                }
+                assertEquals(0, receive(client, WireProtocol.TICK).getSeconds());
+                assertFalse(receive(client, WireProtocol.STATE).getState().isPlayer1Turn());
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectSecondConnectionForTakenSeat() throws Exception {
+        try (BattleServer battles = new BattleServer(1);
+             WireServer server = new WireServer(battles, 0)) {
+            server.start();
+            long id = battles.createBattle(trainer(new Trainer("Ash", "Rojo")), trainer(new Trainer("Gary", "Azul")));
+            try (WireClient client = new WireClient("localhost", server.getPort())) {
+                client.join(id, 1);
+                assertTrue(receive(client, WireProtocol.STATE).getState().isPlayer1Turn());
+                try (WireClient intruder = new WireClient("localhost", server.getPort())) {
+                    intruder.join(id, 1);
+                    assertEquals("El puesto del jugador 1 ya está ocupado", receive(intruder, WireProtocol.ERROR).getError());
+                    intruder.send(Action.createAttack(0));
+                    assertEquals("Solo un jugador puede enviar acciones", receive(intruder, WireProtocol.ERROR).getError());
+                }
+            }
+            try (WireClient again = new WireClient("localhost", server.getPort())) {
+                again.join(id, 1);
+                assertTrue(receive(again, WireProtocol.STATE).getState().isPlayer1Turn());
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package presentation.components;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del reloj del juego y de las esperas del planificador de cuadros. Cada prueba corre en
+ * el hilo de eventos, como la interfaz, y avanza el tiempo llamando a {@code tick} a mano.
+ */
+public class FrameSchedulerTest {
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static void onEdt(Body body) throws Exception {
+        Exception[] failure = {null};
+        Error[] error = {null};
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                body.run();
+            } catch (Exception e) {
+                failure[0] = e;
+            } catch (Error e) {
+                error[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    public void gameTasksShouldNotRunWhilePausedNorCountThePause() throws Exception {
+        onEdt(() -> {
+            FrameScheduler scheduler = new FrameScheduler();
+            int[] runs = {0};
+            long before = System.nanoTime();
+            scheduler.schedule(100, () -> runs[0]++);
+
+            scheduler.pause();
+            assertTrue(scheduler.isPaused());
+            assertEquals(-1, scheduler.getTimerDelay());
+            scheduler.tick(before + millis(500));
+            assertEquals(0, runs[0]);
+
+            Thread.sleep(150);
+            scheduler.resume();
+            assertFalse(scheduler.isPaused());
+            scheduler.tick(System.nanoTime());
+            assertEquals(0, runs[0]);
+            scheduler.tick(System.nanoTime() + millis(100));
+            assertEquals(1, runs[0]);
+            assertEquals(-1, scheduler.getTimerDelay());
+        });
+    }
+
+    @Test
+    public void uiTasksShouldRunWhilePaused() throws Exception {
+        onEdt(() -> {
+            FrameScheduler scheduler = new FrameScheduler();
+            int[] runs = {0};
+            boolean[] resumed = {false};
+            scheduler.scheduleUi(50, () -> runs[0]++);
+
+            scheduler.pause();
+            scheduler.whenRunning(() -> resumed[0] = true);
+            assertTrue(scheduler.getTimerDelay() > 0);
+            scheduler.tick(System.nanoTime() + millis(50));
+            assertEquals(1, runs[0]);
+            assertFalse(resumed[0]);
+
+            scheduler.resume();
+            assertTrue(resumed[0]);
+        });
+    }
+
+    @Test
+    public void timerShouldWakeForTheNextTaskInsteadOfEveryFrame() throws Exception {
+        onEdt(() -> {
+            FrameScheduler scheduler = new FrameScheduler();
+            FrameScheduler.Task countdown = scheduler.scheduleRepeating(1000, () -> { });
+            int delay = scheduler.getTimerDelay();
+            assertTrue(delay > 900 && delay <= 1000, "Espera de " + delay + " ms");
+
+            scheduler.schedule(200, () -> { });
+            delay = scheduler.getTimerDelay();
+            assertTrue(delay > 100 && delay <= 200, "Espera de " + delay + " ms");
+
+            FrameScheduler.FrameListener animation = now -> true;
+            scheduler.subscribe(animation);
+            assertEquals(FrameScheduler.FRAME_MILLIS, scheduler.getTimerDelay());
+            scheduler.unsubscribe(animation);
+            assertTrue(scheduler.getTimerDelay() <= 200);
+
+            scheduler.tick(System.nanoTime() + millis(200));
+            delay = scheduler.getTimerDelay();
+            assertTrue(delay > 700 && delay <= 1000, "Espera de " + delay + " ms");
+
+            countdown.cancel();
+            assertEquals(-1, scheduler.getTimerDelay());
+        });
+    }
+
+    @Test
+    public void repeatingTaskShouldNotPileUpMissedRuns() throws Exception {
+        onEdt(() -> {
+            FrameScheduler scheduler = new FrameScheduler();
+            int[] runs = {0};
+            FrameScheduler.Task task = scheduler.scheduleRepeating(1000, () -> runs[0]++);
+            long after = System.nanoTime();
+
+            scheduler.tick(after + millis(5000));
+            assertEquals(1, runs[0]);
+            scheduler.tick(after + millis(5500));
+            assertEquals(1, runs[0]);
+            scheduler.tick(after + millis(6000));
+            assertEquals(2, runs[0]);
+            task.cancel();
+        });
+    }
+
+    @Test
+    public void pausedTaskShouldResumeWithTheTimeItHadLeft() throws Exception {
+        onEdt(() -> {
+            FrameScheduler scheduler = new FrameScheduler();
+            int[] runs = {0};
+            FrameScheduler.Task task = scheduler.schedule(1000, () -> runs[0]++);
+
+            task.pause();
+            assertTrue(task.isPaused());
+            assertEquals(-1, scheduler.getTimerDelay());
+            scheduler.tick(System.nanoTime() + millis(5000));
+            assertEquals(0, runs[0]);
+
+            task.resume();
+            assertFalse(task.isPaused());
+            scheduler.tick(System.nanoTime() + millis(500));
+            assertEquals(0, runs[0]);
+            scheduler.tick(System.nanoTime() + millis(1000));
+            assertEquals(1, runs[0]);
+            assertFalse(task.isActive());
+        });
+    }
+}
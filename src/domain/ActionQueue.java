@@ -0,0 +1,105 @@
+package domain;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola acotada sin bloqueos para muchos productores y un solo consumidor. Es la entrada de
+ * acciones de cada batalla del {@link BattleServer}: cualquier hilo (clientes de red, la API en
+ * proceso, el reloj de turnos) agrega, y solo el hilo que ejecuta la batalla saca. La batalla del
+ * juego de escritorio usa la misma cola en el {@link GameController}, con el hilo de eventos como
+ * consumidor.
+ *
+ * <p>Los productores reservan un lugar avanzando la cola con una comparación atómica y después
+ * publican el elemento en su casilla; el consumidor solo toma una casilla cuando ya tiene
+ * elemento, la vacía y recién entonces avanza la cabeza. Como la capacidad es fija, una cola llena
+ * rechaza el elemento en lugar de crecer: así se frena al que envía más rápido de lo que la
+ * batalla puede procesar.
+ *
+ * @param <E> tipo de los elementos
+ */
+final class ActionQueue<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity máximo de elementos en espera; se redondea a la siguiente potencia de dos
+     * @throws IllegalArgumentException si la capacidad no es positiva
+     */
+    ActionQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacidad inválida: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Agrega un elemento. Se puede llamar desde cualquier hilo.
+     *
+     * @param element elemento a agregar
+     * @return false si la cola está llena
+     */
+    boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                // La casilla ya la vació el consumidor: la cabeza pasó por ella
+                slots.set((int) t & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Saca el siguiente elemento. Solo lo puede llamar el consumidor.
+     *
+     * @return el elemento, o null si no hay ninguno publicado todavía
+     */
+    E poll() {
+        long h = head.get();
+        int index = (int) h & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * Solo lo puede llamar el consumidor.
+     *
+     * @return true si el siguiente elemento ya está publicado
+     */
+    boolean hasNext() {
+        return slots.get((int) head.get() & mask) != null;
+    }
+
+    /**
+     * @return número aproximado de elementos en espera
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return número de elementos que caben
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
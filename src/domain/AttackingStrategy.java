@@ -2,7 +2,6 @@ package domain;
 
 import java.io.Serializable;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Estrategia de batalla que prioriza los movimientos ofensivos,
@@ -11,7 +10,6 @@ import java.util.Random;
  * pero su enfoque principal es maximizar el daño causado al rival.
  */
 public class AttackingStrategy implements BattleStrategy, Serializable {
-    private Random random = new Random();
     private static final long serialVersionUID = 1L;
 
     /**
@@ -69,7 +67,7 @@ public class AttackingStrategy implements BattleStrategy, Serializable {
     private Action getRandomUsableMove(List<Move> moves) {
         int intentos = 0;
         while (intentos < 10) {
-            int indice = random.nextInt(moves.size());
+            int indice = Battle.roll(moves.size());
             if (moves.get(indice).pp() > 0) {
                 return Action.createAttack(indice);
             }
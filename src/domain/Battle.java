@@ -1,20 +1,56 @@
 package domain;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Clase que gestiona la lógica de una batalla Pokémon entre dos entrenadores.
  * Administra el flujo de turnos, la ejecución de acciones, la verificación de estados
  * y las condiciones climáticas durante la batalla.
+ *
+ * <p>Por defecto el clima es compartido, como en el juego de escritorio. Una batalla marcada con
+ * {@link #useOwnClimate()} (las que aloja el {@link BattleServer}) guarda su propio clima: mientras
+ * ejecuta una acción, los métodos estáticos {@link #setClimate} y {@link #getClimate}, que usan los
+ * movimientos y los Pokémon, se refieren a ella. Así varias batallas pueden ejecutarse a la vez en
+ * hilos distintos sin compartir clima.
+ *
+ * <p>Las tiradas al azar de los movimientos y de las estrategias del CPU pasan por {@link #roll}.
+ * Una batalla con clima propio puede tener su propio {@link Dice}, lo que permite registrar las
+ * tiradas y reproducirlas después.
  */
 public class Battle implements Serializable {
+
+    /**
+     * Fuente de las tiradas al azar de una batalla.
+     */
+    public interface Dice {
+        /**
+         * @param bound límite exclusivo, positivo
+         * @return un número entre 0 y {@code bound - 1}
+         */
+        int roll(int bound);
+    }
+
     private Trainer player1;
     private Trainer player2;
     private int turn;
     private boolean battleEnded;
-    private static String currentClimate = null;
-    private static int climateDuration = 0;
+    private static String sharedClimate = null;
+    private static int sharedClimateDuration = 0;
+    private boolean ownClimate;
+    private boolean simultaneous;
+    private String currentClimate;
+    private int climateDuration;
+    private transient Dice dice;
     private static final long serialVersionUID = 1L;
+    // Batalla con clima propio que está ejecutando una acción en cada hilo
+    private static final ThreadLocal<Battle> ACTIVE = new ThreadLocal<>();
 
     /**
      * Crea una nueva batalla entre dos entrenadores.
@@ -42,10 +78,76 @@ public class Battle implements Serializable {
                 player2.getActivePokemon(),
                 turn == 1,
                 !getCurrentPlayer().isCPU(),
-                currentClimate
+                getCurrentClimate()
         );
     }
 
+    /**
+     * Verifica, sin cambiar nada, que un jugador pueda realizar una acción en el turno actual:
+     * que la batalla siga, que sea su turno y que los índices de la acción apunten a un movimiento
+     * con PP, a un ítem aplicable o a un Pokémon al que se pueda cambiar.
+     *
+     * @param player jugador que realiza la acción (1 o 2)
+     * @param action acción a verificar
+     * @throws IllegalStateException    si la batalla terminó o no es el turno del jugador
+     * @throws IllegalArgumentException si la acción no es válida para el equipo del jugador
+     */
+    public void validateAction(int player, Action action) {
+        if (battleEnded) {
+            throw new IllegalStateException("La batalla ha terminado");
+        }
+        if (turn != player) {
+            throw new IllegalStateException("No es el turno del jugador " + player);
+        }
+        checkAction(player == 1 ? player1 : player2, action);
+    }
+
+    /**
+     * Verifica que los índices de una acción sean válidos para el equipo de un entrenador, sin
+     * mirar de quién es el turno.
+     */
+    private static void checkAction(Trainer current, Action action) {
+        List<Pokemon> team = current.getTeam().getPokemons();
+        switch (action.getType()) {
+            case ATTACK: {
+                Pokemon active = current.getActivePokemon();
+                int index = action.getMoveIndex();
+                if (active == null || index < -1 || index >= active.getMoves().size()) {
+                    throw new IllegalArgumentException("Movimiento inválido: " + index);
+                }
+                if (index >= 0 && active.getMoves().get(index).pp() <= 0 && active.hasPPAvailable()) {
+                    throw new IllegalArgumentException("El movimiento " + active.getMoves().get(index).name()
+                            + " no tiene PP");
+                }
+                break;
+            }
+            case USE_ITEM: {
+                int index = action.getItemIndex();
+                int target = action.getTargetIndex();
+                if (index < 0 || index >= current.getItems().size()) {
+                    throw new IllegalArgumentException("Ítem inválido: " + index);
+                }
+                if (target < 0 || target >= team.size()) {
+                    throw new IllegalArgumentException("Pokémon inválido: " + target);
+                }
+                boolean fainted = team.get(target).getHp() <= 0;
+                if (current.getItems().get(index) instanceof Revive != fainted) {
+                    throw new IllegalArgumentException(fainted
+                            ? "¡No puedes usar pociones en un Pokémon debilitado!"
+                            : "¡No puedes usar Revive en un Pokémon que no está debilitado!");
+                }
+                break;
+            }
+            case SWITCH_POKEMON: {
+                int target = action.getTargetIndex();
+                if (target < 0 || target >= team.size() || team.get(target).getHp() <= 0) {
+                    throw new IllegalArgumentException("No se puede cambiar al Pokémon " + target);
+                }
+                break;
+            }
+        }
+    }
+
     /**
      * Ejecuta una acción realizada por el jugador actual.
      *
@@ -62,9 +164,14 @@ public class Battle implements Serializable {
             throw new IllegalStateException("No se pueden ejecutar acciones manuales para una CPU");
         }
 
-        processTurnStartEffects();
-        executeAction(current, action);
-        postAction();
+        Battle previous = bind();
+        try {
+            processTurnStartEffects();
+            executeAction(current, action);
+            postAction();
+        } finally {
+            restore(previous);
+        }
     }
 
     /**
@@ -72,11 +179,216 @@ public class Battle implements Serializable {
      */
     public void executeCpuTurn() {
         if (!battleEnded && getCurrentPlayer().isCPU()) {
+            Battle previous = bind();
+            try {
+                processTurnStartEffects();
+                CPUTrainer cpu = (CPUTrainer) getCurrentPlayer();
+                Action action = cpu.decideAction(this);
+                executeAction(cpu, action);
+                postAction();
+            } finally {
+                restore(previous);
+            }
+        }
+    }
+
+    /**
+     * Juega turnos seguidos mientras le toque a una CPU, sin interfaz de por medio. Sirve para
+     * adelantar una batalla entre CPUs hasta el final.
+     *
+     * @param maxTurns máximo de turnos a jugar
+     * @return número de turnos jugados
+     */
+    public int playCpuTurns(int maxTurns) {
+        int played = 0;
+        while (played < maxTurns && !battleEnded && getCurrentPlayer().isCPU()) {
+            executeCpuTurn();
+            played++;
+            if (!battleEnded) {
+                changeTurn();
+            }
+        }
+        return played;
+    }
+
+    /**
+     * Resuelve una ronda con turnos simultáneos: cada entrenador se compromete con una acción y
+     * las dos se ejecutan en un solo paso. Primero van los cambios de Pokémon, luego los ítems y al
+     * final los ataques; entre dos ataques actúa primero el movimiento de mayor prioridad
+     * ({@link Move#priority()}) y, a igual prioridad, el Pokémon con más velocidad efectiva. Un
+     * empate de velocidad se decide al azar con {@link #roll}.
+     *
+     * <p>Las acciones de los humanos se verifican antes de tocar nada; después las CPU deciden la
+     * suya, antes de que se ejecute ninguna. Los efectos de inicio de turno y la duración del clima
+     * avanzan una vez por ronda. Un ataque solo se realiza si el Pokémon que estaba en el campo al
+     * empezar la ronda sigue ahí y en pie, así que si la primera acción debilita al Pokémon del
+     * rival, el ataque de este se pierde. Los debilitados se revisan al final de la ronda, y recién
+     * entonces una CPU saca a su reemplazo. Al terminar, el turno vuelve al jugador 1.
+     *
+     * <p>La ronda es todo o nada. Antes de ejecutar la primera acción se guarda una copia de la
+     * batalla; si algo lanza una excepción a mitad de la ronda (por ejemplo, un ítem sobre un
+     * Pokémon que el veneno debilitó al empezar), la batalla vuelve entera a esa copia, con su
+     * turno y su clima, y la excepción se propaga. Al volver atrás los entrenadores se reemplazan
+     * por los de la copia, así que las referencias a entrenadores o Pokémon tomadas antes de la
+     * ronda dejan de pertenecer a la batalla.
+     *
+     * @param action1 acción del jugador 1, o null si es una CPU y debe decidir su estrategia
+     * @param action2 acción del jugador 2, o null si es una CPU y debe decidir su estrategia
+     * @return los números de jugador en el orden en que actuaron
+     * @throws IllegalStateException    si la batalla ya terminó o no se puede copiar
+     * @throws IllegalArgumentException si falta la acción de un humano o alguna no es válida; en
+     *                                  ese caso la batalla no cambia
+     */
+    public int[] resolveRound(Action action1, Action action2) {
+        if (battleEnded) {
+            throw new IllegalStateException("La batalla ha terminado");
+        }
+        Trainer[] trainers = {null, player1, player2};
+        Action[] actions = {null, action1, action2};
+        for (int player = 1; player <= 2; player++) {
+            if (actions[player] != null) {
+                checkAction(trainers[player], actions[player]);
+            } else if (!trainers[player].isCPU()) {
+                throw new IllegalArgumentException("Falta la acción del jugador " + player);
+            }
+        }
+
+        Battle saved = deepCopy();
+        String savedSharedClimate = sharedClimate;
+        int savedSharedClimateDuration = sharedClimateDuration;
+        Battle previous = bind();
+        try {
+            for (int player = 1; player <= 2; player++) {
+                if (actions[player] == null) {
+                    turn = player;
+                    actions[player] = ((CPUTrainer) trainers[player]).decideAction(this);
+                }
+            }
+
+            int first = actsFirst(actions[1], actions[2]);
+            int[] order = {first, 3 - first};
+            Pokemon[] active = {null, player1.getActivePokemon(), player2.getActivePokemon()};
             processTurnStartEffects();
-            CPUTrainer cpu = (CPUTrainer) getCurrentPlayer();
-            Action action = cpu.decideAction(this);
-            executeAction(cpu, action);
-            postAction();
+            for (int player : order) {
+                Pokemon attacker = trainers[player].getActivePokemon();
+                if (actions[player].getType() == Action.Type.ATTACK
+                        && (attacker != active[player] || attacker.getHp() <= 0)) {
+                    continue;
+                }
+                turn = player;
+                executeAction(trainers[player], actions[player]);
+            }
+            turn = 2;
+            checkFaintedPokemon();
+            turn = 1;
+            if (!battleEnded) {
+                checkFaintedPokemon();
+            }
+            updateClimate();
+            return order;
+        } catch (RuntimeException e) {
+            player1 = saved.player1;
+            player2 = saved.player2;
+            turn = saved.turn;
+            battleEnded = saved.battleEnded;
+            currentClimate = saved.currentClimate;
+            climateDuration = saved.climateDuration;
+            if (!ownClimate) {
+                sharedClimate = savedSharedClimate;
+                sharedClimateDuration = savedSharedClimateDuration;
+            }
+            throw e;
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Verifica la acción con la que un jugador humano se compromete para la próxima ronda
+     * simultánea ({@link #resolveRound}), sin mirar de quién es el turno.
+     *
+     * @param player jugador que elige la acción (1 o 2)
+     * @param action acción elegida
+     * @throws IllegalStateException    si la batalla terminó o el jugador es una CPU
+     * @throws IllegalArgumentException si el jugador no existe o la acción no es válida para su
+     *                                  equipo
+     */
+    public void validateRoundAction(int player, Action action) {
+        if (battleEnded) {
+            throw new IllegalStateException("La batalla ha terminado");
+        }
+        if (player != 1 && player != 2) {
+            throw new IllegalArgumentException("Jugador inválido: " + player);
+        }
+        Trainer trainer = player == 1 ? player1 : player2;
+        if (trainer.isCPU()) {
+            throw new IllegalStateException("El jugador " + player + " es una CPU");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("Falta la acción del jugador " + player);
+        }
+        checkAction(trainer, action);
+    }
+
+    /**
+     * @return el jugador (1 o 2) cuya acción se ejecuta primero en una ronda simultánea
+     */
+    private int actsFirst(Action action1, Action action2) {
+        int byType = Integer.compare(rank(action1), rank(action2));
+        if (byType != 0) {
+            return byType > 0 ? 1 : 2;
+        }
+        if (action1.getType() == Action.Type.ATTACK) {
+            int byPriority = Integer.compare(priority(player1, action1), priority(player2, action2));
+            if (byPriority != 0) {
+                return byPriority > 0 ? 1 : 2;
+            }
+            int bySpeed = Integer.compare(player1.getActivePokemon().getEffectiveStat("speed"),
+                    player2.getActivePokemon().getEffectiveStat("speed"));
+            if (bySpeed != 0) {
+                return bySpeed > 0 ? 1 : 2;
+            }
+            return roll(2) + 1;
+        }
+        return 1;
+    }
+
+    /**
+     * @return orden de la acción según su tipo: cambio antes que ítem antes que ataque
+     */
+    private static int rank(Action action) {
+        switch (action.getType()) {
+            case SWITCH_POKEMON:
+                return 2;
+            case USE_ITEM:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @return prioridad del movimiento del ataque; Forcejeo tiene prioridad 0
+     */
+    private static int priority(Trainer trainer, Action attack) {
+        List<Move> moves = trainer.getActivePokemon().getMoves();
+        int index = attack.getMoveIndex();
+        return index >= 0 && index < moves.size() ? moves.get(index).priority() : 0;
+    }
+
+    /**
+     * Aplica la penalización por agotar el tiempo del turno al jugador actual:
+     * todos los movimientos especiales de su Pokémon activo pierden 1 punto de poder (PP).
+     */
+    public void applyTurnTimeoutPenalty() {
+        Pokemon p = getCurrentPlayer().getActivePokemon();
+        if (p == null) {
+            return;
+        }
+        for (Move move : p.getMoves()) {
+            if (move instanceof SpecialMove && move.pp() > 0) {
+                ((SpecialMove) move).setPP(move.pp() - 1);
+            }
         }
     }
 
@@ -113,23 +425,144 @@ public class Battle implements Serializable {
     }
 
     /**
-     * Establece el clima actual y su duración.
+     * Establece el clima actual y su duración: el de la batalla con clima propio que se está
+     * ejecutando en el hilo o, si no hay ninguna, el compartido.
      *
      * @param climate Nombre de la condición climática
      * @param duration Duración en turnos del clima
      */
     public static void setClimate(String climate, int duration) {
-        currentClimate = climate;
-        climateDuration = duration;
+        Battle battle = ACTIVE.get();
+        if (battle != null) {
+            battle.currentClimate = climate;
+            battle.climateDuration = duration;
+        } else {
+            sharedClimate = climate;
+            sharedClimateDuration = duration;
+        }
     }
 
     /**
-     * Obtiene el clima actual de la batalla.
+     * Obtiene el clima actual: el de la batalla con clima propio que se está ejecutando en el
+     * hilo o, si no hay ninguna, el compartido.
      *
      * @return Nombre del clima actual o {@code null} si no hay clima activo
      */
     public static String getClimate() {
-        return currentClimate;
+        Battle battle = ACTIVE.get();
+        return battle != null ? battle.currentClimate : sharedClimate;
+    }
+
+    /**
+     * Obtiene el clima actual de esta batalla.
+     *
+     * @return Nombre del clima actual o {@code null} si no hay clima activo
+     */
+    public String getCurrentClimate() {
+        return ownClimate ? currentClimate : sharedClimate;
+    }
+
+    /**
+     * Hace que esta batalla guarde su propio clima en lugar de usar el compartido.
+     * Debe llamarse antes de ejecutar la primera acción.
+     */
+    public void useOwnClimate() {
+        ownClimate = true;
+    }
+
+    /**
+     * Marca la batalla para jugarse por rondas simultáneas ({@link #resolveRound}) en lugar de
+     * turnos alternados. Lo usa {@link BattleServer} para saber cómo aplicar las jugadas.
+     */
+    public void useSimultaneousRounds() {
+        simultaneous = true;
+    }
+
+    /**
+     * @return true si la batalla se juega por rondas simultáneas
+     */
+    public boolean isSimultaneous() {
+        return simultaneous;
+    }
+
+    /**
+     * Crea una copia independiente de la batalla, con clima propio ({@link #useOwnClimate()}) que
+     * arranca igual al de esta. Sirve para jugarla en otro hilo sin tocar la original.
+     *
+     * @return la copia
+     * @throws IllegalStateException si la batalla no se puede copiar
+     */
+    public Battle copyWithOwnClimate() {
+        Battle copy = deepCopy();
+        copy.useOwnClimate();
+        copy.currentClimate = getCurrentClimate();
+        copy.climateDuration = ownClimate ? climateDuration : sharedClimateDuration;
+        copy.dice = dice;
+        return copy;
+    }
+
+    /**
+     * Copia la batalla serializándola; la copia no tiene dado.
+     */
+    private Battle deepCopy() {
+        Battle copy;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(this);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                copy = (Battle) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("No se pudo copiar la batalla", e);
+        }
+        return copy;
+    }
+
+    /**
+     * Hace que las tiradas al azar de esta batalla salgan del dado indicado. Solo tiene efecto
+     * en batallas con clima propio ({@link #useOwnClimate()}).
+     *
+     * @param dice dado a usar, o null para volver al azar normal
+     */
+    public void setDice(Dice dice) {
+        this.dice = dice;
+    }
+
+    /**
+     * Hace una tirada al azar con el dado de la batalla con clima propio que se está ejecutando
+     * en el hilo o, si no hay ninguna o no tiene dado, con el azar normal.
+     *
+     * @param bound límite exclusivo, positivo
+     * @return un número entre 0 y {@code bound - 1}
+     */
+    public static int roll(int bound) {
+        Battle battle = ACTIVE.get();
+        if (battle != null && battle.dice != null) {
+            return battle.dice.roll(bound);
+        }
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    /**
+     * Si la batalla tiene clima propio, la convierte en la activa del hilo actual.
+     *
+     * @return la batalla que estaba activa antes, para restaurarla
+     */
+    Battle bind() {
+        Battle previous = ACTIVE.get();
+        ACTIVE.set(ownClimate ? this : null);
+        return previous;
+    }
+
+    /**
+     * Restaura la batalla activa del hilo que devolvió {@link #bind()}.
+     *
+     * @param previous batalla activa anterior, o null
+     */
+    static void restore(Battle previous) {
+        ACTIVE.set(previous);
     }
 
     /**
@@ -230,7 +663,14 @@ public class Battle implements Serializable {
      * Actualiza la duración restante del clima activo y lo elimina si expira.
      */
     private void updateClimate() {
-        if (climateDuration > 0) {
+        if (!ownClimate) {
+            if (sharedClimateDuration > 0) {
+                sharedClimateDuration--;
+                if (sharedClimateDuration == 0) {
+                    sharedClimate = null;
+                }
+            }
+        } else if (climateDuration > 0) {
             climateDuration--;
             if (climateDuration == 0) {
                 currentClimate = null;
@@ -0,0 +1,295 @@
+package domain;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda en disco las batallas del {@link BattleServer} como una foto más el registro de lo que
+ * pasó después.
+ *
+ * <p>Por cada batalla hay dos archivos en la carpeta del diario: {@code <id>.snap}, con el número
+ * de eventos que ya incluye y la batalla codificada como una partida guardada
+ * ({@link PersistenceManager#encodeGameState}), y {@code <id>.log}, donde se agrega cada evento
+ * (acción, turno del CPU, tiempo agotado o ronda simultánea) con las tiradas al azar que hizo. Para reconstruir la
+ * batalla se carga la foto y se reproducen los eventos posteriores.
+ *
+ * <p>Cada evento va precedido por su largo; si el proceso se corta a mitad de una escritura, el
+ * último evento incompleto se descarta al leer. Un largo que no cabe en lo que queda del archivo o
+ * que pasa de {@value #MAX_RECORD_BYTES} bytes se trata igual, como el final del registro.
+ */
+final class BattleJournal {
+    /** Eventos entre dos fotos. */
+    static final int SNAPSHOT_EVERY = 32;
+    /** Largo máximo de un evento en el registro. */
+    static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private static final String SNAPSHOT = ".snap";
+    private static final String LOG = ".log";
+
+    enum Kind {ACTION, CPU_TURN, TIMEOUT, ROUND}
+
+    /**
+     * Algo que se le aplicó a una batalla, con las tiradas al azar que salieron.
+     */
+    static final class Event {
+        final long sequence;
+        final Kind kind;
+        final int player;
+        // En una ronda, la acción del jugador 1; null si es una CPU
+        final Action action;
+        // Solo en una ronda: la acción del jugador 2; null si es una CPU
+        final Action action2;
+        final int[] rolls;
+
+        Event(long sequence, Kind kind, int player, Action action, int[] rolls) {
+            this(sequence, kind, player, action, null, rolls);
+        }
+
+        Event(long sequence, Kind kind, int player, Action action, Action action2, int[] rolls) {
+            this.sequence = sequence;
+            this.kind = kind;
+            this.player = player;
+            this.action = action;
+            this.action2 = action2;
+            this.rolls = rolls;
+        }
+    }
+
+    /**
+     * Batalla leída de una foto.
+     */
+    static final class Snapshot {
+        final long sequence;
+        final Battle battle;
+
+        Snapshot(long sequence, Battle battle) {
+            this.sequence = sequence;
+            this.battle = battle;
+        }
+    }
+
+    private final File directory;
+
+    /**
+     * @param directory carpeta del diario; se crea si no existe
+     * @throws IOException si no se puede crear la carpeta
+     */
+    BattleJournal(File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        this.directory = directory;
+    }
+
+    /**
+     * @return identificadores de las batallas guardadas
+     */
+    List<Long> list() {
+        List<Long> ids = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return ids;
+        }
+        for (String name : names) {
+            if (name.endsWith(SNAPSHOT)) {
+                try {
+                    ids.add(Long.parseLong(name.substring(0, name.length() - SNAPSHOT.length())));
+                } catch (NumberFormatException e) {
+                    // No es de una batalla
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Guarda una foto de la batalla y vacía su registro de eventos. La foto se escribe aparte y
+     * luego reemplaza a la anterior, así que nunca queda una foto a medias.
+     *
+     * @param id       identificador de la batalla
+     * @param sequence número de eventos que incluye la foto
+     * @param battle   batalla
+     * @throws IOException si falla la escritura
+     */
+    void writeSnapshot(long id, long sequence, Battle battle) throws IOException {
+        GameState state = new GameState(battle, 0, battle.getPlayer1().getName(), battle.getPlayer2().getName());
+        byte[] encoded = PersistenceManager.encodeGameState(state, PersistenceManager.getDefaultCodec());
+        File temp = new File(directory, id + SNAPSHOT + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeLong(sequence);
+            out.write(encoded);
+        }
+        Files.move(temp.toPath(), file(id, SNAPSHOT).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        new FileOutputStream(file(id, LOG)).close();
+    }
+
+    /**
+     * @param id identificador de la batalla
+     * @return la última foto de la batalla
+     * @throws IOException si no existe o está dañada
+     */
+    Snapshot readSnapshot(long id) throws IOException {
+        byte[] bytes = Files.readAllBytes(file(id, SNAPSHOT).toPath());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        long sequence = in.readLong();
+        try {
+            GameState state = PersistenceManager.decodeGameState(in.readAllBytes());
+            return new Snapshot(sequence, state.getBattle());
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Foto de batalla inválida: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Abre el registro de una batalla para agregar eventos.
+     *
+     * @param id identificador de la batalla
+     * @return el flujo donde escribir con {@link #append}
+     * @throws IOException si no se puede abrir
+     */
+    DataOutputStream openLog(long id) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file(id, LOG), true)));
+    }
+
+    /**
+     * Agrega un evento al registro y lo entrega al sistema operativo.
+     *
+     * @param log   registro abierto con {@link #openLog}
+     * @param event evento
+     * @throws IOException si falla la escritura
+     */
+    static void append(DataOutputStream log, Event event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + 4 * event.rolls.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(event.sequence);
+        out.writeByte(event.kind.ordinal());
+        out.writeByte(event.player);
+        writeAction(out, event.action);
+        if (event.kind == Kind.ROUND) {
+            writeAction(out, event.action2);
+        }
+        out.writeInt(event.rolls.length);
+        for (int roll : event.rolls) {
+            out.writeInt(roll);
+        }
+        log.writeInt(bytes.size());
+        bytes.writeTo(log);
+        log.flush();
+    }
+
+    /**
+     * Lee los eventos del registro posteriores a una foto.
+     *
+     * @param id    identificador de la batalla
+     * @param after número de eventos que ya incluye la foto
+     * @return los eventos en orden
+     * @throws IOException si el registro está dañado
+     */
+    List<Event> readLog(long id, long after) throws IOException {
+        List<Event> events = new ArrayList<>();
+        File log = file(id, LOG);
+        if (!log.exists()) {
+            return events;
+        }
+        long remaining = log.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(log)))) {
+            while (true) {
+                byte[] record;
+                try {
+                    int length = in.readInt();
+                    remaining -= Integer.BYTES;
+                    if (length < 0 || length > MAX_RECORD_BYTES || length > remaining) {
+                        break;
+                    }
+                    record = new byte[length];
+                    in.readFully(record);
+                    remaining -= length;
+                } catch (EOFException e) {
+                    break;
+                }
+                Event event;
+                try {
+                    event = readEvent(new DataInputStream(new ByteArrayInputStream(record)));
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    throw new IOException("Registro de la batalla " + id + " dañado", e);
+                }
+                if (event.sequence > after) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Borra los archivos de una batalla.
+     *
+     * @param id identificador de la batalla
+     */
+    void delete(long id) {
+        file(id, SNAPSHOT).delete();
+        file(id, LOG).delete();
+    }
+
+    private static void writeAction(DataOutputStream out, Action action) throws IOException {
+        if (action == null) {
+            out.writeByte(-1);
+            return;
+        }
+        out.writeByte(action.getType().ordinal());
+        switch (action.getType()) {
+            case ATTACK:
+                out.writeInt(action.getMoveIndex());
+                out.writeInt(0);
+                break;
+            case USE_ITEM:
+                out.writeInt(action.getItemIndex());
+                out.writeInt(action.getTargetIndex());
+                break;
+            case SWITCH_POKEMON:
+                out.writeInt(0);
+                out.writeInt(action.getTargetIndex());
+                break;
+        }
+    }
+
+    private static Event readEvent(DataInputStream in) throws IOException {
+        long sequence = in.readLong();
+        Kind kind = Kind.values()[in.readByte()];
+        int player = in.readByte();
+        Action action = readAction(in);
+        Action action2 = kind == Kind.ROUND ? readAction(in) : null;
+        int count = in.readInt();
+        if (count < 0 || count > in.available() / Integer.BYTES) {
+            throw new IllegalArgumentException("Cantidad de tiradas inválida: " + count);
+        }
+        int[] rolls = new int[count];
+        for (int i = 0; i < rolls.length; i++) {
+            rolls[i] = in.readInt();
+        }
+        return new Event(sequence, kind, player, action, action2, rolls);
+    }
+
+    private static Action readAction(DataInputStream in) throws IOException {
+        int type = in.readByte();
+        if (type < 0) {
+            return null;
+        }
+        int first = in.readInt();
+        int target = in.readInt();
+        switch (Action.Type.values()[type]) {
+            case ATTACK:
+                return Action.createAttack(first);
+            case USE_ITEM:
+                return Action.createUseItem(first, target);
+            default:
+                return Action.createSwitchPokemon(target);
+        }
+    }
+
+    private File file(long id, String extension) {
+        return new File(directory, id + extension);
+    }
+}
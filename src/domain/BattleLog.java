@@ -0,0 +1,271 @@
+package domain;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Historial completo de los mensajes de una batalla, con memoria acotada.
+ *
+ * <p>Los mensajes se guardan en bloques de {@value #CHUNK_SIZE}. Mientras el total en memoria no
+ * supere el límite indicado, los bloques se quedan en memoria; cuando lo supera, los bloques más
+ * antiguos se escriben al final de un archivo temporal y se liberan. Leer un mensaje de un bloque
+ * escrito en disco carga ese bloque (se conservan en caché los últimos leídos), de modo que recorrer
+ * el historial en orden no vuelve a leer el archivo por cada mensaje.
+ *
+ * <p>Agregar un mensaje cuesta O(1) sin importar el tamaño del historial.
+ */
+public class BattleLog implements Closeable {
+    /** Mensajes por bloque. */
+    public static final int CHUNK_SIZE = 128;
+    /** Memoria por defecto para los bloques en memoria. */
+    public static final long DEFAULT_MAX_BYTES = 256 * 1024;
+
+    private static final int CACHED_CHUNKS = 4;
+    // Costo aproximado de un mensaje además de sus caracteres (objeto, arreglo, referencias)
+    private static final int ENTRY_OVERHEAD = 48;
+
+    /**
+     * Tipo de evento que originó un mensaje.
+     */
+    public enum Type {
+        ATTACK, ITEM, SWITCH, DAMAGE, FAINT, INFO
+    }
+
+    /**
+     * Un mensaje del historial.
+     */
+    public static final class Entry {
+        private final Type type;
+        private final String text;
+
+        Entry(Type type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    /**
+     * Bloque de mensajes consecutivos. Si {@code entries} es null, el bloque está en disco
+     * a partir de {@code offset}.
+     */
+    private static final class Chunk {
+        private Entry[] entries = new Entry[CHUNK_SIZE];
+        private int count;
+        private long bytes;
+        private long offset = -1;
+    }
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final long maxBytes;
+    private final Map<Integer, Entry[]> loaded = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entry[]> eldest) {
+            return size() > CACHED_CHUNKS;
+        }
+    };
+    private long memoryBytes;
+    private int size;
+    private int firstInMemory;
+    private File spillFile;
+    private RandomAccessFile spill;
+
+    /**
+     * Crea un historial con el límite de memoria por defecto.
+     */
+    public BattleLog() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Crea un historial que guarda en disco los bloques que excedan la memoria indicada.
+     *
+     * @param maxBytes memoria aproximada máxima para los mensajes en memoria
+     */
+    public BattleLog(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Agrega un mensaje al final del historial.
+     *
+     * @param type tipo de evento
+     * @param text texto del mensaje
+     * @return posición del mensaje en el historial
+     */
+    public synchronized int append(Type type, String text) {
+        Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (last == null || last.count == CHUNK_SIZE) {
+            last = new Chunk();
+            chunks.add(last);
+        }
+        long bytes = ENTRY_OVERHEAD + 2L * text.length();
+        last.entries[last.count++] = new Entry(type, text);
+        last.bytes += bytes;
+        memoryBytes += bytes;
+        spillIfNeeded();
+        return size++;
+    }
+
+    /**
+     * @return número de mensajes del historial
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param index posición del mensaje
+     * @return el mensaje
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @throws UncheckedIOException      si no se pudo leer el bloque desde el disco
+     */
+    public synchronized Entry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Mensaje " + index + " de " + size);
+        }
+        int chunkIndex = index / CHUNK_SIZE;
+        Chunk chunk = chunks.get(chunkIndex);
+        Entry[] entries = chunk.entries != null ? chunk.entries : load(chunkIndex, chunk);
+        return entries[index % CHUNK_SIZE];
+    }
+
+    /**
+     * Busca los mensajes de los tipos indicados que contienen el texto, sin distinguir mayúsculas.
+     *
+     * @param types tipos aceptados
+     * @param text  texto a buscar; vacío para aceptar cualquier mensaje
+     * @param from  primera posición a revisar
+     * @return posiciones de los mensajes encontrados, en orden
+     */
+    public synchronized int[] find(Set<Type> types, String text, int from) {
+        String needle = text.trim().toLowerCase(Locale.ROOT);
+        boolean allTypes = types.containsAll(EnumSet.allOf(Type.class));
+        int[] found = new int[Math.max(0, size - from)];
+        int count = 0;
+        for (int i = Math.max(0, from); i < size; i++) {
+            Entry entry = get(i);
+            if ((allTypes || types.contains(entry.type))
+                    && (needle.isEmpty() || entry.text.toLowerCase(Locale.ROOT).contains(needle))) {
+                found[count++] = i;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(found, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * @return memoria aproximada ocupada por los bloques en memoria
+     */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * @return número de bloques guardados en disco
+     */
+    public synchronized int getSpilledChunks() {
+        return firstInMemory;
+    }
+
+    /**
+     * Cierra y borra el archivo temporal, si se creó. El historial deja de poder leer
+     * los bloques que estaban en disco.
+     */
+    @Override
+    public synchronized void close() {
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el historial de batalla: " + e.getMessage());
+            }
+            spill = null;
+            if (!spillFile.delete()) {
+                spillFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Escribe en disco los bloques completos más antiguos hasta volver al límite de memoria.
+     * El último bloque, que todavía recibe mensajes, nunca se escribe.
+     */
+    private void spillIfNeeded() {
+        while (memoryBytes > maxBytes && firstInMemory < chunks.size() - 1) {
+            Chunk chunk = chunks.get(firstInMemory);
+            try {
+                chunk.offset = write(chunk.entries, chunk.count);
+            } catch (IOException e) {
+                // Sin disco disponible se conserva todo en memoria
+                System.err.println("Error al guardar el historial de batalla: " + e.getMessage());
+                return;
+            }
+            memoryBytes -= chunk.bytes;
+            chunk.entries = null;
+            firstInMemory++;
+        }
+    }
+
+    private long write(Entry[] entries, int count) throws IOException {
+        if (spill == null) {
+            spillFile = File.createTempFile("battle-log", ".bin");
+            spillFile.deleteOnExit();
+            spill = new RandomAccessFile(spillFile, "rw");
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeByte(entries[i].type.ordinal());
+            byte[] text = entries[i].text.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(text.length);
+            out.write(text);
+        }
+        long offset = spill.length();
+        spill.seek(offset);
+        spill.write(buffer.toByteArray());
+        return offset;
+    }
+
+    private Entry[] load(int chunkIndex, Chunk chunk) {
+        Entry[] entries = loaded.get(chunkIndex);
+        if (entries != null) {
+            return entries;
+        }
+        if (spill == null) {
+            throw new IllegalStateException("El historial de batalla ya fue cerrado");
+        }
+        try {
+            spill.seek(chunk.offset);
+            int count = spill.readInt();
+            entries = new Entry[count];
+            Type[] types = Type.values();
+            for (int i = 0; i < count; i++) {
+                Type type = types[spill.readUnsignedByte()];
+                byte[] text = new byte[spill.readInt()];
+                spill.readFully(text);
+                entries[i] = new Entry(type, new String(text, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el historial de batalla", e);
+        }
+        loaded.put(chunkIndex, entries);
+        return entries;
+    }
+}
@@ -0,0 +1,901 @@
+package domain;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor de batallas: aloja muchas batallas independientes en la misma JVM.
+ *
+ * <p>Cada batalla tiene su propio {@link SerialExecutor}, así que sus acciones se aplican de a una y
+ * en orden sin necesidad de bloqueos, y batallas distintas avanzan en paralelo sobre un grupo
+ * compartido de hilos. Una batalla que espera la jugada de un humano no ocupa ningún hilo: solo
+ * guarda la batalla, su cola de tareas y sus espectadores.
+ *
+ * <p>Cada batalla guarda su propio clima ({@link Battle#useOwnClimate()}), de modo que el clima
+ * de una no afecta a las demás.
+ *
+ * <p>Los turnos del CPU se juegan solos en cuanto le toca. Entre dos CPU, cada turno es una
+ * tarea aparte para que una batalla automática larga no retrase a las demás.
+ *
+ * <p>Una batalla creada con {@link #createRoundBattle} se juega por rondas simultáneas: cada
+ * humano elige su acción con {@link #submitRound} sin esperar al otro, y cuando están las dos (o
+ * la única, si el rival es una CPU) se resuelven juntas con {@link Battle#resolveRound}. Una ronda
+ * que falla a mitad no deja la batalla a medias.
+ *
+ * <p>La API es en proceso; las jugadas llegan con {@link #submit} y cualquier número de
+ * espectadores puede seguir una batalla con {@link #attach}.
+ *
+ * <p>Las jugadas y los tiempos agotados de todos los orígenes entran a una sola
+ * {@link ActionQueue} por batalla, sin bloqueos, y solo el hilo que ejecuta la batalla las saca,
+ * así que el orden en que se aplican es único. Cada una se valida contra el turno vigente al
+ * sacarla ({@link Battle#validateAction}); una jugada inválida o que llegó tarde se rechaza sin
+ * tocar la batalla. La cola tiene capacidad fija ({@value #ACTION_QUEUE_CAPACITY}): si está llena,
+ * la jugada se rechaza enseguida en lugar de acumularse.
+ *
+ * <p>Para los clientes remotos ({@link #subscribe}) no se envía el estado completo en cada cambio:
+ * una vez por tick ({@value #TICK_MILLIS} ms por defecto) cada batalla que cambió compara su
+ * estado con el último difundido, codifica solo las diferencias con {@link WireProtocol} una vez
+ * y entrega el mismo búfer a todos sus suscriptores. Varios turnos dentro de un mismo tick (por
+ * ejemplo entre dos CPU) salen en un solo mensaje.
+ *
+ * <p>Con una carpeta de diario ({@link #BattleServer(int, long, File)}) cada batalla se guarda en
+ * disco como foto más registro de eventos ({@link BattleJournal}), con las tiradas al azar de cada
+ * evento. Una batalla sin espectadores que no recibe jugadas durante {@value #EVICT_AFTER_MILLIS}
+ * ms se saca de memoria y se reconstruye con la foto y los eventos posteriores en cuanto se la
+ * vuelve a usar, así que la memoria crece con las batallas activas y no con las alojadas. Un
+ * servidor nuevo sobre la misma carpeta retoma todas las batallas que quedaron en curso.
+ */
+public class BattleServer implements Closeable {
+
+    /**
+     * Recibe los cambios de una batalla. Se llama desde el hilo que esté ejecutando la batalla,
+     * siempre de a uno y en orden; no debe bloquearse.
+     */
+    public interface Spectator {
+        /**
+         * @param battleId identificador de la batalla
+         * @param state    estado de la batalla después del cambio
+         * @param finished true si la batalla terminó
+         */
+        void onUpdate(long battleId, BattleState state, boolean finished);
+    }
+
+    /**
+     * Recibe los cambios de una batalla ya codificados. Se llama desde el hilo que esté
+     * ejecutando la batalla, siempre de a uno y en orden; no debe bloquearse.
+     */
+    public interface Subscriber {
+        /**
+         * @param battleId identificador de la batalla
+         * @param state    estado de la batalla que queda después de aplicar el mensaje
+         * @param frame    marco {@link WireProtocol#STATE} listo para enviar; es de solo lectura y
+         *                 comparte el contenido con el de los demás suscriptores
+         */
+        void onDelta(long battleId, WireProtocol.StateView state, ByteBuffer frame);
+    }
+
+    /** Milisegundos entre dos envíos de cambios a los suscriptores. */
+    public static final long TICK_MILLIS = 50;
+    /** Milisegundos sin actividad tras los que una batalla con diario se saca de memoria. */
+    public static final long EVICT_AFTER_MILLIS = 60_000;
+    /** Jugadas que pueden esperar a la vez en la cola de una batalla. */
+    public static final int ACTION_QUEUE_CAPACITY = 64;
+
+    /**
+     * Jugada o tiempo agotado esperando en la cola de una batalla.
+     */
+    private static final class Pending {
+        private final BattleJournal.Kind kind;
+        private final int player;
+        private final Action action;
+        private final CompletableFuture<BattleState> result = new CompletableFuture<>();
+
+        Pending(BattleJournal.Kind kind, int player, Action action) {
+            this.kind = kind;
+            this.player = player;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Batalla alojada con su cola de tareas y sus espectadores.
+     */
+    private static final class Session {
+        private final long id;
+        private final SerialExecutor executor;
+        // null mientras la batalla está fuera de memoria; solo se cambia desde el ejecutor
+        private volatile Battle battle;
+        private volatile long lastActive = System.nanoTime();
+        private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final ActionQueue<Pending> actions = new ActionQueue<>(ACTION_QUEUE_CAPACITY);
+        // true mientras haya una tarea del ejecutor encargada de vaciar la cola de jugadas
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Acción de ronda que espera la del rival; solo se usa desde el ejecutor de la batalla
+        private Pending waiting;
+        // Último estado difundido a los suscriptores; solo se usa desde el ejecutor de la batalla
+        private WireProtocol.StateView broadcast;
+        // Diario de la batalla; solo se usan desde el ejecutor de la batalla
+        private DataOutputStream log;
+        private long sequence;
+        private long snapshotSequence;
+
+        Session(long id, Battle battle, SerialExecutor executor) {
+            this.id = id;
+            this.battle = battle;
+            this.executor = executor;
+        }
+    }
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService ticker;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    // Batallas cerradas cuyo diario todavía no se borró
+    private final Set<Session> closing = ConcurrentHashMap.newKeySet();
+    private final Queue<Session> changed = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final BattleJournal journal;
+
+    /**
+     * Crea un servidor con un hilo por procesador.
+     */
+    public BattleServer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un servidor con el número de hilos indicado.
+     *
+     * @param threads hilos compartidos por todas las batallas
+     */
+    public BattleServer(int threads) {
+        this(threads, TICK_MILLIS);
+    }
+
+    /**
+     * Crea un servidor con el número de hilos y el tick indicados.
+     *
+     * @param threads    hilos compartidos por todas las batallas
+     * @param tickMillis milisegundos entre dos envíos de cambios a los suscriptores
+     */
+    public BattleServer(int threads, long tickMillis) {
+        this(threads, tickMillis, (BattleJournal) null);
+    }
+
+    /**
+     * Crea un servidor que guarda sus batallas en disco y retoma las que ya había en la carpeta.
+     *
+     * @param threads          hilos compartidos por todas las batallas
+     * @param tickMillis       milisegundos entre dos envíos de cambios a los suscriptores
+     * @param journalDirectory carpeta del diario; se crea si no existe
+     * @throws IOException si no se puede usar la carpeta
+     */
+    public BattleServer(int threads, long tickMillis, File journalDirectory) throws IOException {
+        this(threads, tickMillis, new BattleJournal(journalDirectory));
+        for (long id : journal.list()) {
+            Session session = new Session(id, null, new SerialExecutor(workers));
+            sessions.put(id, session);
+            nextId.accumulateAndGet(id + 1, Math::max);
+            // Se cargan para seguir las que avanzan solas; las que esperan a un humano se
+            // vuelven a sacar de memoria al quedar inactivas
+            session.executor.execute(() -> playCpuTurn(session));
+        }
+    }
+
+    private BattleServer(int threads, long tickMillis, BattleJournal journal) {
+        this.journal = journal;
+        AtomicLong threadCount = new AtomicLong();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "battle-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "battle-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        if (journal != null) {
+            ticker.scheduleWithFixedDelay(() -> evictIdle(EVICT_AFTER_MILLIS), 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Crea una batalla nueva. Si a alguno de los entrenadores no se le eligió un Pokémon activo,
+     * empieza con el primero de su equipo. Si el primer turno es del CPU, se juega enseguida.
+     *
+     * @param player1 primer entrenador
+     * @param player2 segundo entrenador
+     * @return identificador de la batalla
+     */
+    public long createBattle(Trainer player1, Trainer player2) {
+        return host(newBattle(player1, player2));
+    }
+
+    /**
+     * Crea una batalla nueva que se juega por rondas simultáneas: las jugadas llegan con
+     * {@link #submitRound}. Si los dos entrenadores son CPU, las rondas se juegan solas.
+     *
+     * @param player1 primer entrenador
+     * @param player2 segundo entrenador
+     * @return identificador de la batalla
+     */
+    public long createRoundBattle(Trainer player1, Trainer player2) {
+        Battle battle = newBattle(player1, player2);
+        battle.useSimultaneousRounds();
+        return host(battle);
+    }
+
+    private static Battle newBattle(Trainer player1, Trainer player2) {
+        for (Trainer trainer : new Trainer[]{player1, player2}) {
+            if (trainer.getActivePokemon() == null && !trainer.getTeam().getPokemons().isEmpty()) {
+                trainer.setActivePokemon(0);
+            }
+        }
+        Battle battle = new Battle(player1, player2);
+        battle.useOwnClimate();
+        return battle;
+    }
+
+    private long host(Battle battle) {
+        long id = nextId.getAndIncrement();
+        Session session = new Session(id, battle, new SerialExecutor(workers));
+        startJournal(session);
+        sessions.put(id, session);
+        session.executor.execute(() -> playCpuTurn(session));
+        return id;
+    }
+
+    /**
+     * Envía la jugada de un jugador. Se aplica en el orden en que llega, después de las jugadas
+     * anteriores de la misma batalla, y luego se juega el turno del CPU si le toca.
+     *
+     * @param battleId identificador de la batalla
+     * @param player   jugador que envía la acción (1 o 2)
+     * @param action   acción a ejecutar
+     * @return el estado después de aplicar la acción y la respuesta del CPU; se completa con
+     * {@link IllegalStateException} si la batalla terminó, se juega por rondas o no es el turno
+     * del jugador, con
+     * {@link IllegalArgumentException} si la acción no es válida para su equipo y con
+     * {@link RejectedExecutionException} si la cola de jugadas de la batalla está llena
+     * @throws IllegalArgumentException si la batalla no existe
+     */
+    public CompletableFuture<BattleState> submit(long battleId, int player, Action action) {
+        return enqueue(getSession(battleId), BattleJournal.Kind.ACTION, player, action);
+    }
+
+    /**
+     * Envía la acción de un jugador para la próxima ronda de una batalla por rondas
+     * ({@link #createRoundBattle}). La acción se valida al llegar y queda esperando la del rival;
+     * si el rival es una CPU, o su acción ya estaba esperando, la ronda se resuelve enseguida
+     * con {@link Battle#resolveRound}. La ronda es todo o nada: si falla, la batalla queda como
+     * antes y las dos acciones se rechazan.
+     *
+     * @param battleId identificador de la batalla
+     * @param player   jugador que envía la acción (1 o 2)
+     * @param action   acción para la ronda
+     * @return el estado después de resolver la ronda, el mismo para los dos jugadores; se
+     * completa con {@link IllegalStateException} si la batalla terminó o se juega por turnos, si el
+     * jugador es una CPU o si ya eligió su acción para esta ronda, con
+     * {@link IllegalArgumentException} si la acción no es válida para su equipo y con
+     * {@link RejectedExecutionException} si la cola de jugadas de la batalla está llena
+     * @throws IllegalArgumentException si la batalla no existe
+     */
+    public CompletableFuture<BattleState> submitRound(long battleId, int player, Action action) {
+        return enqueue(getSession(battleId), BattleJournal.Kind.ROUND, player, action);
+    }
+
+    /**
+     * Da por agotado el tiempo del turno de un jugador: aplica la penalización
+     * ({@link Battle#applyTurnTimeoutPenalty()}) y pasa el turno al rival.
+     *
+     * @param battleId identificador de la batalla
+     * @param player   jugador que agotó su tiempo (1 o 2)
+     * @return el estado después de pasar el turno; se completa con {@link IllegalStateException}
+     * si la batalla terminó, se juega por rondas o ya no es el turno del jugador
+     * @throws IllegalArgumentException si la batalla no existe
+     */
+    public CompletableFuture<BattleState> expireTurn(long battleId, int player) {
+        return enqueue(getSession(battleId), BattleJournal.Kind.TIMEOUT, player, null);
+    }
+
+    /**
+     * Obtiene el estado de una batalla, leído en orden con sus jugadas.
+     *
+     * @param battleId identificador de la batalla
+     * @return el estado actual
+     * @throws IllegalArgumentException si la batalla no existe
+     */
+    public CompletableFuture<BattleState> getState(long battleId) {
+        Session session = getSession(battleId);
+        return CompletableFuture.supplyAsync(() -> load(session).getBattleState(), session.executor);
+    }
+
+    /**
+     * Suma un espectador a una batalla. Recibe el estado actual enseguida y luego cada cambio.
+     *
+     * @param battleId  identificador de la batalla
+     * @param spectator espectador
+     * @throws IllegalArgumentException si la batalla no existe
+     */
+    public void attach(long battleId, Spectator spectator) {
+        Session session = getSession(battleId);
+        session.executor.execute(() -> {
+            Battle battle = load(session);
+            session.spectators.add(spectator);
+            spectator.onUpdate(session.id, battle.getBattleState(), battle.isFinished());
+        });
+    }
+
+    /**
+     * Quita un espectador de una batalla. No hace nada si la batalla o el espectador no existen.
+     *
+     * @param battleId  identificador de la batalla
+     * @param spectator espectador
+     */
+    public void detach(long battleId, Spectator spectator) {
+        Session session = sessions.get(battleId);
+        if (session != null) {
+            session.spectators.remove(spectator);
+        }
+    }
+
+    /**
+     * Suscribe un cliente remoto a una batalla. Recibe enseguida el último estado difundido
+     * completo y después, en cada tick en que la batalla cambie, solo las diferencias.
+     *
+     * @param battleId   identificador de la batalla
+     * @param subscriber suscriptor
+     * @throws IllegalArgumentException si la batalla no existe
+     */
+    public void subscribe(long battleId, Subscriber subscriber) {
+        Session session = getSession(battleId);
+        session.executor.execute(() -> {
+            Battle battle = load(session);
+            if (session.subscribers.isEmpty()) {
+                // Sin suscriptores no se registraron los cambios: se empieza de nuevo
+                session.broadcast = WireProtocol.StateView.of(battle);
+            }
+            session.subscribers.add(subscriber);
+            deliver(session, subscriber, WireProtocol.encodeState(session.id, null, session.broadcast));
+        });
+    }
+
+    /**
+     * Quita un suscriptor de una batalla. No hace nada si la batalla o el suscriptor no existen.
+     *
+     * @param battleId   identificador de la batalla
+     * @param subscriber suscriptor
+     */
+    public void unsubscribe(long battleId, Subscriber subscriber) {
+        Session session = sessions.get(battleId);
+        if (session != null) {
+            session.subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * Descarta una batalla y borra su diario. Las jugadas que ya estaban en cola se terminan de
+     * aplicar.
+     *
+     * @param battleId identificador de la batalla
+     * @return true si la batalla existía
+     */
+    public boolean closeBattle(long battleId) {
+        Session session = sessions.remove(battleId);
+        if (session == null) {
+            return false;
+        }
+        if (journal != null) {
+            closing.add(session);
+        }
+        // Después de lo que la batalla tenga en curso, así ninguna foto vuelve a crear sus archivos
+        session.executor.execute(() -> {
+            Pending waiting = session.waiting;
+            session.waiting = null;
+            if (waiting != null) {
+                waiting.result.completeExceptionally(
+                        new IllegalStateException("La batalla " + session.id + " fue cerrada"));
+            }
+            if (journal != null) {
+                deleteJournal(session);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Saca de memoria las batallas con diario que llevan el tiempo indicado sin actividad y sin
+     * espectadores. Se reconstruyen solas cuando se las vuelve a usar. Sin diario no hace nada.
+     *
+     * @param idleMillis milisegundos sin actividad
+     * @return número de batallas que se van a sacar de memoria
+     */
+    public int evictIdle(long idleMillis) {
+        if (journal == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Session session : sessions.values()) {
+            if (isEvictable(session, idleMillis)) {
+                count++;
+                session.executor.execute(() -> {
+                    if (isEvictable(session, idleMillis) && sessions.containsKey(session.id)) {
+                        evict(session);
+                    }
+                });
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return número de batallas alojadas, estén o no en memoria
+     */
+    public int getBattleCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return número de batallas alojadas que están en memoria
+     */
+    public int getLoadedCount() {
+        int count = 0;
+        for (Session session : sessions.values()) {
+            if (session.battle != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Detiene los hilos del servidor. Las batallas alojadas se descartan.
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Session session : closing) {
+            deleteJournal(session);
+        }
+        for (Session session : sessions.values()) {
+            closeLog(session);
+        }
+        sessions.clear();
+    }
+
+    private void deleteJournal(Session session) {
+        closeLog(session);
+        journal.delete(session.id);
+        closing.remove(session);
+    }
+
+    /**
+     * Pone una jugada en la cola de la batalla y, si nadie la está vaciando, encarga vaciarla al
+     * ejecutor de la batalla.
+     */
+    private CompletableFuture<BattleState> enqueue(Session session, BattleJournal.Kind kind, int player,
+                                                   Action action) {
+        Pending pending = new Pending(kind, player, action);
+        if (!session.actions.offer(pending)) {
+            pending.result.completeExceptionally(new RejectedExecutionException(
+                    "Demasiadas jugadas pendientes en la batalla " + session.id));
+            return pending.result;
+        }
+        scheduleDrain(session);
+        return pending.result;
+    }
+
+    private void scheduleDrain(Session session) {
+        if (session.draining.compareAndSet(false, true)) {
+            try {
+                session.executor.execute(() -> drain(session));
+            } catch (RejectedExecutionException e) {
+                session.draining.set(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Aplica en orden las jugadas de la cola. Cede el hilo cada {@value SerialExecutor#BATCH}
+     * jugadas para no retrasar las tareas de la batalla que llegaron por otro lado.
+     */
+    private void drain(Session session) {
+        try {
+            for (int i = 0; i < SerialExecutor.BATCH; i++) {
+                Pending pending = session.actions.poll();
+                if (pending == null) {
+                    break;
+                }
+                try {
+                    if (pending.kind == BattleJournal.Kind.ROUND) {
+                        collectRound(session, pending);
+                    } else {
+                        pending.result.complete(apply(session, pending));
+                    }
+                } catch (RuntimeException e) {
+                    pending.result.completeExceptionally(e);
+                }
+            }
+        } finally {
+            session.draining.set(false);
+            if (session.actions.hasNext()) {
+                scheduleDrain(session);
+            }
+        }
+    }
+
+    private BattleState apply(Session session, Pending pending) {
+        if (!sessions.containsKey(session.id)) {
+            throw new IllegalStateException("La batalla " + session.id + " fue cerrada");
+        }
+        Battle battle = load(session);
+        if (battle.isSimultaneous()) {
+            throw new IllegalStateException("La batalla " + session.id + " se juega por rondas");
+        }
+        if (pending.kind == BattleJournal.Kind.ACTION) {
+            battle.validateAction(pending.player, pending.action);
+        } else {
+            checkTurn(battle, pending.player);
+        }
+        apply(session, pending.kind, pending.player, pending.action, null);
+        publish(session);
+        playCpuTurn(session);
+        return battle.getBattleState();
+    }
+
+    /**
+     * Guarda la acción de ronda de un jugador hasta tener la del rival y entonces resuelve la
+     * ronda. Las dos acciones se completan con el mismo resultado.
+     */
+    private void collectRound(Session session, Pending pending) {
+        if (!sessions.containsKey(session.id)) {
+            throw new IllegalStateException("La batalla " + session.id + " fue cerrada");
+        }
+        Battle battle = load(session);
+        if (!battle.isSimultaneous()) {
+            throw new IllegalStateException("La batalla " + session.id + " se juega por turnos");
+        }
+        battle.validateRoundAction(pending.player, pending.action);
+        Pending waiting = session.waiting;
+        if (waiting != null && waiting.player == pending.player) {
+            throw new IllegalStateException("El jugador " + pending.player + " ya eligió su acción");
+        }
+        Trainer rival = pending.player == 1 ? battle.getPlayer2() : battle.getPlayer1();
+        if (waiting == null && !rival.isCPU()) {
+            session.waiting = pending;
+            return;
+        }
+        session.waiting = null;
+
+        Action[] actions = new Action[3];
+        actions[pending.player] = pending.action;
+        if (waiting != null) {
+            actions[waiting.player] = waiting.action;
+        }
+        try {
+            apply(session, BattleJournal.Kind.ROUND, 0, actions[1], actions[2]);
+        } catch (RuntimeException e) {
+            if (waiting != null) {
+                waiting.result.completeExceptionally(e);
+            }
+            throw e;
+        }
+        publish(session);
+        BattleState state = battle.getBattleState();
+        if (waiting != null) {
+            waiting.result.complete(state);
+        }
+        pending.result.complete(state);
+    }
+
+    private static void checkTurn(Battle battle, int player) {
+        if (battle.isFinished()) {
+            throw new IllegalStateException("La batalla ha terminado");
+        }
+        if (battle.getTurn() != player) {
+            throw new IllegalStateException("No es el turno del jugador " + player);
+        }
+    }
+
+    private Session getSession(long battleId) {
+        Session session = sessions.get(battleId);
+        if (session == null) {
+            throw new IllegalArgumentException("No existe la batalla " + battleId);
+        }
+        return session;
+    }
+
+    /**
+     * Juega un turno del CPU si le toca, o una ronda si la batalla es por rondas entre dos CPU. Si
+     * el siguiente turno también es del CPU, lo encola como otra tarea.
+     */
+    private void playCpuTurn(Session session) {
+        if (!sessions.containsKey(session.id)) {
+            return;
+        }
+        Battle battle = load(session);
+        if (battle.isFinished() || !battle.getCurrentPlayer().isCPU()) {
+            return;
+        }
+        if (battle.isSimultaneous()) {
+            if (!battle.getOpponent().isCPU()) {
+                return;
+            }
+            apply(session, BattleJournal.Kind.ROUND, 0, null, null);
+        } else {
+            apply(session, BattleJournal.Kind.CPU_TURN, battle.getTurn(), null, null);
+        }
+        publish(session);
+        if (!battle.isFinished() && battle.getCurrentPlayer().isCPU()) {
+            session.executor.execute(() -> playCpuTurn(session));
+        }
+    }
+
+    private void publish(Session session) {
+        if (!session.subscribers.isEmpty() && session.dirty.compareAndSet(false, true)) {
+            changed.add(session);
+        }
+        if (session.spectators.isEmpty()) {
+            return;
+        }
+        BattleState state = session.battle.getBattleState();
+        boolean finished = session.battle.isFinished();
+        for (Spectator spectator : session.spectators) {
+            try {
+                spectator.onUpdate(session.id, state, finished);
+            } catch (RuntimeException e) {
+                System.err.println("Error al notificar a un espectador: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Encola la difusión de cada batalla que cambió desde el tick anterior.
+     */
+    private void tick() {
+        Session session;
+        while ((session = changed.poll()) != null) {
+            Session target = session;
+            try {
+                target.executor.execute(() -> broadcast(target));
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Codifica una sola vez lo que cambió desde la última difusión y lo entrega a todos los
+     * suscriptores.
+     */
+    private void broadcast(Session session) {
+        session.dirty.set(false);
+        if (session.subscribers.isEmpty() || session.battle == null) {
+            return;
+        }
+        WireProtocol.StateView current = WireProtocol.StateView.of(session.battle);
+        ByteBuffer frame = WireProtocol.encodeState(session.id, session.broadcast, current);
+        session.broadcast = current;
+        if (frame == null) {
+            return;
+        }
+        for (Subscriber subscriber : session.subscribers) {
+            deliver(session, subscriber, frame);
+        }
+    }
+
+    private static void deliver(Session session, Subscriber subscriber, ByteBuffer frame) {
+        try {
+            subscriber.onDelta(session.id, session.broadcast, frame.asReadOnlyBuffer());
+        } catch (RuntimeException e) {
+            System.err.println("Error al notificar a un suscriptor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica un evento a la batalla en memoria y, si hay diario, lo registra con sus tiradas.
+     * Se registra aunque falle, porque puede haber cambiado la batalla antes de fallar.
+     */
+    private void apply(Session session, BattleJournal.Kind kind, int player, Action action, Action action2) {
+        Battle battle = session.battle;
+        if (session.log == null) {
+            apply(battle, kind, action, action2);
+            return;
+        }
+        RecordingDice dice = new RecordingDice();
+        battle.setDice(dice);
+        try {
+            apply(battle, kind, action, action2);
+        } finally {
+            battle.setDice(null);
+            record(session, new BattleJournal.Event(++session.sequence, kind, player, action, action2,
+                    dice.getRolls()));
+        }
+    }
+
+    /**
+     * Aplica un evento como lo hacen {@link #submit}, {@link #expireTurn}, {@link #submitRound} y
+     * los turnos del CPU. En una ronda, {@code action} es la del jugador 1 y {@code action2} la
+     * del jugador 2.
+     */
+    private static void apply(Battle battle, BattleJournal.Kind kind, Action action, Action action2) {
+        switch (kind) {
+            case ROUND:
+                battle.resolveRound(action, action2);
+                return;
+            case ACTION:
+                battle.performAction(action);
+                break;
+            case CPU_TURN:
+                battle.executeCpuTurn();
+                break;
+            case TIMEOUT:
+                battle.applyTurnTimeoutPenalty();
+                battle.changeTurn();
+                return;
+        }
+        if (!battle.isFinished()) {
+            battle.changeTurn();
+        }
+    }
+
+    /**
+     * Devuelve la batalla de la sesión, reconstruyéndola desde el diario si no está en memoria.
+     */
+    private Battle load(Session session) {
+        session.lastActive = System.nanoTime();
+        Battle battle = session.battle;
+        if (battle != null) {
+            return battle;
+        }
+        try {
+            BattleJournal.Snapshot snapshot = journal.readSnapshot(session.id);
+            battle = snapshot.battle;
+            long sequence = snapshot.sequence;
+            for (BattleJournal.Event event : journal.readLog(session.id, snapshot.sequence)) {
+                battle.setDice(new ReplayDice(event.rolls));
+                try {
+                    apply(battle, event.kind, event.action, event.action2);
+                } catch (RuntimeException e) {
+                    // También falló cuando se aplicó por primera vez
+                } finally {
+                    battle.setDice(null);
+                }
+                sequence = event.sequence;
+            }
+            session.sequence = sequence;
+            session.snapshotSequence = snapshot.sequence;
+            session.log = journal.openLog(session.id);
+            session.battle = battle;
+            return battle;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo recuperar la batalla " + session.id + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void startJournal(Session session) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.writeSnapshot(session.id, 0, session.battle);
+            session.log = journal.openLog(session.id);
+        } catch (IOException e) {
+            System.err.println("Error al crear el diario de la batalla " + session.id + ": " + e.getMessage());
+        }
+    }
+
+    private void record(Session session, BattleJournal.Event event) {
+        if (session.log == null || !sessions.containsKey(session.id)) {
+            return;
+        }
+        try {
+            BattleJournal.append(session.log, event);
+            if (session.sequence - session.snapshotSequence >= BattleJournal.SNAPSHOT_EVERY) {
+                journal.writeSnapshot(session.id, session.sequence, session.battle);
+                session.snapshotSequence = session.sequence;
+            }
+        } catch (IOException e) {
+            System.err.println("Error al guardar el diario de la batalla " + session.id + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isEvictable(Session session, long idleMillis) {
+        return session.battle != null && session.spectators.isEmpty() && session.subscribers.isEmpty()
+                && System.nanoTime() - session.lastActive >= TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    }
+
+    /**
+     * Guarda una foto de la batalla y la saca de memoria; si no se puede guardar, la deja.
+     */
+    private void evict(Session session) {
+        // Una acción de ronda que espera al rival solo está en memoria
+        if (session.log == null || session.waiting != null) {
+            return;
+        }
+        try {
+            journal.writeSnapshot(session.id, session.sequence, session.battle);
+        } catch (IOException e) {
+            System.err.println("Error al guardar la batalla " + session.id + ": " + e.getMessage());
+            return;
+        }
+        session.snapshotSequence = session.sequence;
+        closeLog(session);
+        session.broadcast = null;
+        session.battle = null;
+    }
+
+    private static void closeLog(Session session) {
+        DataOutputStream log = session.log;
+        session.log = null;
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el diario de la batalla " + session.id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Dado que tira al azar y anota las tiradas para el diario.
+     */
+    private static final class RecordingDice implements Battle.Dice {
+        private int[] rolls = new int[8];
+        private int count;
+
+        @Override
+        public int roll(int bound) {
+            int value = ThreadLocalRandom.current().nextInt(bound);
+            if (count == rolls.length) {
+                rolls = Arrays.copyOf(rolls, count * 2);
+            }
+            rolls[count++] = value;
+            return value;
+        }
+
+        int[] getRolls() {
+            return Arrays.copyOf(rolls, count);
+        }
+    }
+
+    /**
+     * Dado que repite las tiradas anotadas en el diario.
+     */
+    private static final class ReplayDice implements Battle.Dice {
+        private final int[] rolls;
+        private int next;
+
+        ReplayDice(int[] rolls) {
+            this.rolls = rolls;
+        }
+
+        @Override
+        public int roll(int bound) {
+            if (next == rolls.length) {
+                throw new IllegalStateException("El diario no tiene más tiradas");
+            }
+            return rolls[next++];
+        }
+    }
+}
@@ -32,6 +32,15 @@ public class CPUTrainer extends Trainer implements Serializable {
         this.strategy = strategy;
     }
 
+    /**
+     * Obtiene la estrategia de batalla actual de este entrenador CPU.
+     *
+     * @return Estrategia que define el comportamiento en batalla
+     */
+    public BattleStrategy getStrategy() {
+        return strategy;
+    }
+
     /**
      * Decide la acción a ejecutar durante el turno del CPU, usando la estrategia actual.
      *
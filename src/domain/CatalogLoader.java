@@ -0,0 +1,251 @@
+package domain;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Carga los catálogos del juego (movimientos y especies) desde archivos de datos externos.
+ *
+ * <p>Los datos se escriben en archivos CSV versionados, de modo que se pueden ajustar sin
+ * recompilar. Se buscan en la carpeta indicada por la propiedad de sistema {@value #DATA_PROPERTY}
+ * ({@value #DATA_FOLDER} por defecto) y, si no están ahí, como recursos {@code /data/} del
+ * classpath. Cada CSV se lee línea a línea y, tras cargarlo, se guarda una versión binaria
+ * precompilada junto con el hash SHA-256 del CSV en la carpeta de caché (propiedad
+ * {@value #CACHE_PROPERTY}, por defecto {@code ~/.poobkemon/cache}), nunca junto a los datos. En
+ * los siguientes arranques se usa el archivo binario mientras el hash coincida; si el CSV cambió,
+ * se vuelve a leer y se regenera el binario.
+ *
+ * <p>Formato del CSV: las líneas que empiezan por {@code #} son comentarios, la primera debe ser
+ * {@code # version N}, y la primera línea sin comentario es la cabecera de columnas.
+ */
+public class CatalogLoader {
+    public static final String DATA_FOLDER = "src/data";
+    /** Propiedad de sistema con la carpeta de los CSV. */
+    public static final String DATA_PROPERTY = "poobkemon.data";
+    /** Propiedad de sistema con la carpeta donde se guardan los catálogos precompilados. */
+    public static final String CACHE_PROPERTY = "poobkemon.cache";
+    public static final int VERSION = 1;
+
+    private static final int PACK_MAGIC = 0x504B4354; // "PKCT"
+    private static final String VERSION_PREFIX = "# version ";
+
+    /**
+     * Traduce las entradas de un catálogo entre filas CSV y su forma binaria.
+     *
+     * @param <T> tipo de las entradas del catálogo
+     */
+    public interface Format<T> {
+        /**
+         * Crea una entrada a partir de las columnas de una fila del CSV.
+         *
+         * @throws IllegalArgumentException si la fila no es válida
+         */
+        T parse(String[] columns);
+
+        /**
+         * Escribe una entrada en el archivo binario.
+         */
+        void write(T entry, DataOutputStream out) throws IOException;
+
+        /**
+         * Lee una entrada escrita con {@link #write}.
+         */
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Carga un catálogo del directorio de datos, usando su versión binaria si está al día.
+     *
+     * @param name   nombre base del catálogo (por ejemplo {@code "moves"})
+     * @param format formato de las entradas
+     * @return entradas en el orden del archivo
+     * @throws IllegalStateException si el catálogo no se puede leer
+     */
+    public static <T> List<T> load(String name, Format<T> format) {
+        Path cache = cacheFolder();
+        try {
+            Files.createDirectories(cache);
+        } catch (IOException e) {
+            System.err.println("Error al crear la carpeta de caché " + cache + ": " + e.getMessage());
+        }
+        try {
+            return load(locate(name + ".csv", cache), cache.resolve(name + ".pack"), format);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo cargar el catálogo " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return carpeta de los CSV
+     */
+    public static Path dataFolder() {
+        return Paths.get(System.getProperty(DATA_PROPERTY, DATA_FOLDER));
+    }
+
+    /**
+     * @return carpeta donde se guardan los catálogos precompilados
+     */
+    public static Path cacheFolder() {
+        String configured = System.getProperty(CACHE_PROPERTY);
+        return configured != null ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".poobkemon", "cache");
+    }
+
+    /**
+     * Busca un archivo de datos en la carpeta de datos y, si no está, en el classpath. Un recurso
+     * empaquetado en un jar se copia a la caché para poder leerlo como archivo.
+     *
+     * @throws FileNotFoundException si no está en ninguno de los dos lugares
+     */
+    private static Path locate(String file, Path cache) throws IOException {
+        Path local = dataFolder().resolve(file);
+        if (Files.isRegularFile(local)) {
+            return local;
+        }
+        URL resource = CatalogLoader.class.getResource("/data/" + file);
+        if (resource == null) {
+            throw new FileNotFoundException(local + " no existe ni está en el classpath");
+        }
+        if ("file".equals(resource.getProtocol())) {
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("Ruta inválida: " + resource, e);
+            }
+        }
+        Path copy = cache.resolve(file);
+        try (InputStream in = resource.openStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copy;
+    }
+
+    /**
+     * Carga un catálogo desde un CSV, usando el archivo binario indicado como caché.
+     *
+     * @param csv    archivo CSV con los datos
+     * @param pack   archivo binario precompilado
+     * @param format formato de las entradas
+     * @return entradas en el orden del archivo
+     * @throws IOException si el CSV no se puede leer
+     */
+    public static <T> List<T> load(Path csv, Path pack, Format<T> format) throws IOException {
+        byte[] hash = hash(csv);
+
+        if (Files.isRegularFile(pack)) {
+            try {
+                List<T> entries = readPack(pack, hash, format);
+                if (entries != null) {
+                    return entries;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error al leer el catálogo precompilado " + pack + ": " + e.getMessage());
+            }
+        }
+
+        List<T> entries = readCsv(csv, format);
+        try {
+            writePack(pack, hash, entries, format);
+        } catch (IOException e) {
+            System.err.println("Error al guardar el catálogo precompilado " + pack + ": " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * Lee un catálogo desde un CSV, fila a fila.
+     *
+     * @throws IOException              si el archivo no se puede leer
+     * @throws IllegalArgumentException si la versión o alguna fila no son válidas
+     */
+    public static <T> List<T> readCsv(Path csv, Format<T> format) throws IOException {
+        List<T> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith(VERSION_PREFIX)) {
+                throw new IllegalArgumentException(csv + " no indica la versión del catálogo");
+            }
+            int version = Integer.parseInt(line.substring(VERSION_PREFIX.length()).trim());
+            if (version != VERSION) {
+                throw new IllegalArgumentException(csv + " tiene la versión " + version
+                        + ", se esperaba la " + VERSION);
+            }
+
+            boolean header = true;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                try {
+                    entries.add(format.parse(line.split(",", -1)));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Línea " + lineNumber + " de " + csv + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Devuelve la columna indicada, o una cadena vacía si la fila es más corta.
+     */
+    public static String column(String[] columns, int index) {
+        return index < columns.length ? columns[index].trim() : "";
+    }
+
+    private static <T> List<T> readPack(Path pack, byte[] hash, Format<T> format) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(pack)))) {
+            if (in.readInt() != PACK_MAGIC || in.readUnsignedByte() != VERSION) {
+                return null;
+            }
+            byte[] stored = new byte[hash.length];
+            in.readFully(stored);
+            if (!Arrays.equals(stored, hash)) {
+                return null;
+            }
+            int count = in.readInt();
+            List<T> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(format.read(in));
+            }
+            return entries;
+        }
+    }
+
+    private static <T> void writePack(Path pack, byte[] hash, List<T> entries, Format<T> format) throws IOException {
+        Path temp = pack.resolveSibling(pack.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(PACK_MAGIC);
+            out.writeByte(VERSION);
+            out.write(hash);
+            out.writeInt(entries.size());
+            for (T entry : entries) {
+                format.write(entry, out);
+            }
+        }
+        Files.move(temp, pack, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static byte[] hash(Path file) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -18,7 +18,20 @@ public class CurseMove extends StatusMove implements Serializable {
      * Construye el movimiento "CURSE" con tipo Fantasma, precisión 100 y 10 PP.
      */
     public CurseMove() {
-        super("CURSE", "GHOST", 100, 10, 0, null);
+        this("CURSE", "GHOST", 100, 10, 0);
+    }
+
+    /**
+     * Construye el movimiento con los datos indicados.
+     *
+     * @param name      nombre del movimiento
+     * @param type      tipo del movimiento
+     * @param precision precisión (0–100)
+     * @param maxPP     puntos de poder máximos
+     * @param priority  prioridad del movimiento
+     */
+    public CurseMove(String name, String type, int precision, int maxPP, int priority) {
+        super(name, type, precision, maxPP, priority, null);
     }
 
     /**
@@ -67,14 +80,4 @@ public class CurseMove extends StatusMove implements Serializable {
             curse.apply(user, target);
         }
     }
-
-    /**
-     * Devuelve una nueva instancia de CurseMove.
-     *
-     * @return una copia de este movimiento
-     */
-    @Override
-    public Move clone() {
-        return new CurseMove();
-    }
 }
@@ -2,7 +2,6 @@ package domain;
 
 import java.io.Serializable;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Estrategia defensiva utilizada por entrenadores CPU. Esta estrategia prioriza el uso
@@ -11,7 +10,6 @@ import java.util.Random;
  * viable, ejecuta un movimiento al azar.
  */
 public class DefensiveStrategy implements BattleStrategy, Serializable {
-    private Random random = new Random();
     private static final long serialVersionUID = 1L;
 
     /**
@@ -81,7 +79,7 @@ public class DefensiveStrategy implements BattleStrategy, Serializable {
     private Action getRandomUsableMove(List<Move> moves) {
         int attempts = 0;
         while (attempts < 10) {
-            int index = random.nextInt(moves.size());
+            int index = Battle.roll(moves.size());
             if (moves.get(index).pp() > 0) {
                 return Action.createAttack(index);
             }
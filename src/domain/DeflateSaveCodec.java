@@ -0,0 +1,106 @@
+package domain;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Códec basado en {@link Deflater}. Ofrece la mejor relación de compresión a costa
+ * de más tiempo de CPU, por lo que es el códec por defecto para las partidas guardadas.
+ */
+public class DeflateSaveCodec implements SaveCodec {
+    public static final byte ID = 1;
+    /** Deflate no puede expandir más de 1032 a 1. */
+    private static final int MAX_EXPANSION = 1032;
+
+    private final int level;
+
+    /**
+     * Crea un códec Deflate con el nivel de compresión máximo.
+     */
+    public DeflateSaveCodec() {
+        this(Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * Crea un códec Deflate con el nivel de compresión indicado.
+     *
+     * @param level nivel de compresión entre 0 y 9
+     * @throws IllegalArgumentException si el nivel está fuera de rango
+     */
+    public DeflateSaveCodec(int level) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Nivel de compresión inválido: " + level);
+        }
+        this.level = level;
+    }
+
+    @Override
+    public byte getId() { return ID; }
+
+    @Override
+    public String getName() { return "deflate"; }
+
+    @Override
+    public int getMaxExpansion() { return MAX_EXPANSION; }
+
+    /**
+     * Comprime los datos usando Deflate con el nivel configurado.
+     *
+     * @param data bytes sin comprimir
+     * @return bytes comprimidos
+     */
+    @Override
+    public byte[] encode(byte[] data) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Descomprime los datos generados por {@link #encode(byte[])}.
+     *
+     * @param data           bytes comprimidos
+     * @param originalLength longitud original de los datos
+     * @return bytes descomprimidos
+     * @throws IOException si los datos están corruptos o incompletos, o la longitud no es posible
+     */
+    @Override
+    public byte[] decode(byte[] data, int originalLength) throws IOException {
+        SaveCodec.checkLength(this, data, originalLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[originalLength];
+            int offset = 0;
+            while (offset < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(result, offset, originalLength - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != originalLength) {
+                throw new IOException("Datos Deflate incompletos: " + offset + " de " + originalLength + " bytes");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Datos Deflate corruptos: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
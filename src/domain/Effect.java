@@ -8,6 +8,8 @@ import java.util.Map;
  * Puede modificar estadísticas, aplicar estados, forzar cambios, entre otros.
  */
 public class Effect implements Serializable {
+    // Valor calculado de la versión anterior de la clase, para seguir leyendo partidas antiguas
+    private static final long serialVersionUID = -3779236251934099205L;
 
     private EffectType effectType;
     private Map<String, Integer> statChanges;
@@ -125,4 +127,22 @@ public class Effect implements Serializable {
     public EffectType getEffectType() {
         return effectType;
     }
+
+    /**
+     * Retorna a quién se aplica el efecto.
+     *
+     * @return objetivo del efecto (usuario u oponente)
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * Indica si el efecto obliga a cambiar de Pokémon.
+     *
+     * @return true si fuerza un cambio, false si no
+     */
+    public boolean isForceSwitch() {
+        return forceSwitch;
+    }
 }
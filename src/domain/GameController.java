@@ -4,25 +4,136 @@ import presentation.BattleGUI;
 import presentation.ItemSelectionGUI;
 import presentation.MoveSelectionGUI;
 import presentation.PokemonSelectionGUI;
+import presentation.components.ChoiceDialog;
+import presentation.components.EdtWatchdog;
+import presentation.components.FrameScheduler;
+import presentation.components.SpriteCache;
+import presentation.components.SpritePreloader;
 
 import javax.swing.*;
-import javax.swing.Timer;
 import java.awt.*;
-import java.io.File;
 import java.io.Serializable;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 public class GameController implements Serializable {
     private Battle currentBattle;
     private BattleGUI gui;
-    private Timer turnTimer;
+    private transient FrameScheduler.Task turnTimer;
+    private transient FrameScheduler.Task cpuTurnTask;
+    private transient FrameScheduler.Task autoBattleTask;
+    private transient ChoiceDialog switchDialog;
+    private transient ChoiceDialog itemDialog;
+    private transient ChoiceDialog targetDialog;
+    private transient Battle dialogsBattle;
     private int remainingSeconds;
+    private PlaybackSpeed playbackSpeed = PlaybackSpeed.NORMAL;
+    // Batalla que se está adelantando en segundo plano, si hay una
+    private transient Battle skipping;
+    private final transient ActionQueue<Command> commands = new ActionQueue<>(COMMAND_QUEUE_CAPACITY);
+    private final transient AtomicBoolean draining = new AtomicBoolean();
     public static final int MODO_NORMAL = 0;
     public static final int MODO_SUPERVIVENCIA = 1;
     private static final long serialVersionUID = 1L;
+    /** Milisegundos entre dos turnos de una batalla automática a velocidad normal. */
+    private static final long AUTO_TURN_MILLIS = 1500;
+    /** Milisegundos entre dos turnos seguidos del CPU fuera de la batalla automática. */
+    private static final long CPU_TURN_MILLIS = 1000;
+    /** Tiempo de cada cuadro que se dedica a jugar turnos en velocidad turbo. */
+    private static final long TURBO_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(FrameScheduler.FRAME_MILLIS / 2);
+    /** Tope de turnos al saltar al resultado, por si ninguna CPU logra debilitar a la otra. */
+    private static final int MAX_SKIPPED_TURNS = 10_000;
+    /** Pedidos para la batalla en curso que pueden esperar en la cola. */
+    private static final int COMMAND_QUEUE_CAPACITY = 64;
+    /** Ejecuta los pasos de la preparación que tocan la interfaz y vacía la cola de pedidos. */
+    private static final Executor EDT = SwingUtilities::invokeLater;
     private BattleEventListener eventListener;
-    private boolean isTimerPaused = false;
+
+    /**
+     * Velocidades de reproducción de las batallas entre CPUs.
+     */
+    public enum PlaybackSpeed {
+        /** Un turno cada 1,5 segundos. */
+        NORMAL("1x", 1),
+        /** Cuatro veces más rápido. */
+        FAST("4x", 4),
+        /** Tantos turnos como quepan en cada cuadro; la interfaz se redibuja una vez por cuadro. */
+        TURBO("Turbo", 0);
+
+        private final String label;
+        private final int factor;
+
+        PlaybackSpeed(String label, int factor) {
+            this.label = label;
+            this.factor = factor;
+        }
+
+        /** @return nombre para mostrar en el menú */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @param normalMillis espera a velocidad normal
+         * @return la espera a esta velocidad
+         */
+        long scale(long normalMillis) {
+            return factor == 0 ? 0 : normalMillis / factor;
+        }
+    }
+
+    /**
+     * Pedido para la batalla en curso. Todo lo que la hace avanzar (las acciones de la interfaz,
+     * los turnos del CPU, el tiempo agotado, la batalla automática y el resultado adelantado)
+     * entra por la misma cola y lo aplica el hilo de eventos en orden, igual que en el
+     * {@link BattleServer}. Un pedido hecho para otra batalla (se cargó una partida o empezó
+     * otra) se descarta.
+     */
+    private static final class Command {
+        enum Kind {ACTION, TIMEOUT, CPU_TURN, AUTO_TURN, RESULT}
+
+        final Kind kind;
+        final Battle battle;
+        final int player;
+        final Action action;
+        final Battle result;
+        final int turns;
+
+        private Command(Kind kind, Battle battle, int player, Action action, Battle result, int turns) {
+            this.kind = kind;
+            this.battle = battle;
+            this.player = player;
+            this.action = action;
+            this.result = result;
+            this.turns = turns;
+        }
+
+        /** Acción del jugador al que le toca. */
+        static Command action(Battle battle, Action action) {
+            return new Command(Kind.ACTION, battle, battle.getTurn(), action, null, 0);
+        }
+
+        /** Se le acabó el tiempo al jugador al que le toca. */
+        static Command timeout(Battle battle) {
+            return new Command(Kind.TIMEOUT, battle, battle.getTurn(), null, null, 0);
+        }
+
+        /** Turno del CPU o de la batalla automática. */
+        static Command of(Kind kind, Battle battle) {
+            return new Command(kind, battle, 0, null, null, 0);
+        }
+
+        /** Batalla adelantada en segundo plano, o null si falló. */
+        static Command result(Battle battle, Battle result, int turns) {
+            return new Command(Kind.RESULT, battle, 0, null, result, turns);
+        }
+    }
 
     /**
      * Crea un nuevo controlador del juego con la interfaz de usuario dada.
@@ -36,7 +147,11 @@ public class GameController implements Serializable {
 
     /**
      * Inicia el juego con el modo y los nombres de los jugadores especificados.
-     * Configura la selección de Pokémon, ítems y estrategias según el modo de juego.
+     *
+     * <p>Los equipos de los entrenadores CPU se arman en segundo plano (Pokémon, movimientos e
+     * ítems al azar, más la precarga de sus sprites) mientras los jugadores humanos eligen los
+     * suyos en orden. Al final se elige la estrategia de cada CPU y la batalla empieza cuando todo
+     * lo anterior terminó.
      *
      * @param gameMode    el modo de juego (1 = PvP, 2 = PvM, 3 = MvM)
      * @param player1Name nombre del primer jugador
@@ -45,43 +160,64 @@ public class GameController implements Serializable {
     public void startGame(int gameMode, String player1Name, String player2Name) {
         Trainer player1 = gameMode == 3 ? new CPUTrainer("CPU Ash", "Rojo") : new Trainer(player1Name, "Rojo");
         Trainer player2 = gameMode == 1 ? new Trainer(player2Name, "Azul") : new CPUTrainer("CPU Gary", "Azul");
+        List<Trainer> trainers = Arrays.asList(player1, player2);
 
-        showPokemonSelection(player1, () -> {
-            showItemSelection(player1, () -> {
-                if (gameMode == 1 || gameMode == 3) {
-                    showPokemonSelection(player2, () -> {
-                        showItemSelection(player2, () -> {
-                            if (gameMode == 3) {
-                                selectCPUStrategy((CPUTrainer) player1, () -> {
-                                    selectCPUStrategy((CPUTrainer) player2, () -> {
-                                        startBattle(player1, player2);
-                                    });
-                                });
-                            } else {
-                                startBattle(player1, player2);
-                            }
-                        });
-                    });
-                } else {
-                    selectCPUStrategy((CPUTrainer) player2, () -> {
-                        showPokemonSelection(player2, () -> {
-                            showItemSelection(player2, () -> {
-                                startBattle(player1, player2);
-                            });
-                        });
-                    });
-                }
-            });
-        });
+        List<CompletableFuture<Void>> cpuTeams = new ArrayList<>();
+        CompletableFuture<Void> choices = CompletableFuture.completedFuture(null);
+        for (Trainer trainer : trainers) {
+            if (trainer.isCPU()) {
+                cpuTeams.add(CompletableFuture.runAsync(() -> prepareCPUTeam(trainer)));
+            } else {
+                choices = choices
+                        .thenComposeAsync(ignored -> showPokemonSelection(trainer), EDT)
+                        .thenRunAsync(() -> ItemSelectionGUI.showItemSelection(gui, trainer), EDT);
+            }
+        }
+        for (Trainer trainer : trainers) {
+            if (trainer.isCPU()) {
+                choices = choices.thenRunAsync(() -> selectCPUStrategy((CPUTrainer) trainer), EDT);
+            }
+        }
+
+        choices.thenCombine(CompletableFuture.allOf(cpuTeams.toArray(new CompletableFuture<?>[0])), (a, b) -> b)
+                .thenRunAsync(() -> startBattle(player1, player2), EDT)
+                .whenCompleteAsync((ignored, e) -> {
+                    if (e != null) {
+                        setupFailed(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                }, EDT);
+    }
+
+    /**
+     * Avisa que no se pudo preparar la partida y vuelve al menú principal. Se llama en el EDT.
+     *
+     * @param e el error que cortó la preparación
+     */
+    private void setupFailed(Throwable e) {
+        System.err.println("Error al preparar la partida: " + e.getMessage());
+        JOptionPane.showMessageDialog(gui, "No se pudo preparar la partida: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        gui.showGameModeSelection();
+    }
+
+    /**
+     * Arma el equipo de un entrenador CPU: seis Pokémon al azar con sus movimientos, tres ítems
+     * y la precarga de los sprites. No toca la interfaz, así que puede correr fuera del EDT.
+     *
+     * @param cpu el entrenador CPU
+     */
+    private void prepareCPUTeam(Trainer cpu) {
+        assignRandomTeam(cpu);
+        selectItemsForCPU(cpu);
+        SpritePreloader.getInstance().preloadTeam(cpu.getTeam().getPokemons());
     }
 
     /**
      * Permite seleccionar la estrategia de combate de un entrenador CPU.
      *
-     * @param cpu        el entrenador CPU
-     * @param onComplete acción a ejecutar tras la selección de estrategia
+     * @param cpu el entrenador CPU
      */
-    private void selectCPUStrategy(CPUTrainer cpu, Runnable onComplete) {
+    private void selectCPUStrategy(CPUTrainer cpu) {
         String[] options = {"Defensivo", "Ofensivo", "Cambiador", "Experto"};
         String selected = (String) JOptionPane.showInputDialog(
                 gui,
@@ -108,7 +244,6 @@ public class GameController implements Serializable {
                     break;
             }
         }
-        onComplete.run();
     }
 
     /**
@@ -127,6 +262,7 @@ public class GameController implements Serializable {
         }
 
         this.currentBattle = new Battle(player1, player2);
+        SpritePreloader.getInstance().preloadBattle(player1, player2);
         gui.setupBattleWindow();
         updateUI();
 
@@ -156,23 +292,29 @@ public class GameController implements Serializable {
      */
     private void startTurnTimer() {
         if (!currentBattle.getCurrentPlayer().isCPU()) {
-            if (turnTimer != null) {
-                turnTimer.stop();
-            }
+            stopTurnTimer();
 
             remainingSeconds = 20;
             gui.updateTurnTimer(remainingSeconds);
 
-            turnTimer = new Timer(1000, e -> {
+            turnTimer = FrameScheduler.getInstance().scheduleRepeating(1000, () -> {
                 remainingSeconds--;
                 gui.updateTurnTimer(remainingSeconds);
                 if (remainingSeconds <= 0) {
-                    turnTimer.stop();
-                    applyTurnTimeoutPenalty();
-                    endPlayerTurn();
+                    stopTurnTimer();
+                    enqueue(Command.timeout(currentBattle));
                 }
             });
-            turnTimer.start();
+        }
+    }
+
+    /**
+     * Detiene la cuenta regresiva del turno, si hay una en curso.
+     */
+    private void stopTurnTimer() {
+        if (turnTimer != null) {
+            turnTimer.cancel();
+            turnTimer = null;
         }
     }
 
@@ -182,13 +324,7 @@ public class GameController implements Serializable {
      */
     private void applyTurnTimeoutPenalty() {
         Trainer current = currentBattle.getCurrentPlayer();
-        Pokemon p = current.getActivePokemon();
-
-        for (Move move : p.getMoves()) {
-            if (move instanceof SpecialMove && move.pp() > 0) {
-                ((SpecialMove) move).setPP(move.pp() - 1);
-            }
-        }
+        currentBattle.applyTurnTimeoutPenalty();
 
         JOptionPane.showMessageDialog(gui,
                 current.getName() + " se tardó demasiado. ¡Todos los movimientos especiales pierden 1 PP!");
@@ -248,100 +384,25 @@ public class GameController implements Serializable {
      * @param moveIndex índice del movimiento seleccionado
      */
     public void executeAttack(int moveIndex) {
-        gui.getBattleLogPanel().clearMessages();
-        Pokemon attacker = currentBattle.getCurrentPlayer().getActivePokemon();
-        Pokemon target = currentBattle.getOpponent().getActivePokemon();
-        Move move = attacker.getMoves().get(moveIndex);
-        // Notificar el evento de ataque
-        if (eventListener != null) {
-            eventListener.onAttackPerformed(attacker.getName(), target.getName(), move.name());
-        }
-
-        currentBattle.performAction(Action.createAttack(moveIndex));
-        updateUI();
-
-        if (!currentBattle.isFinished()) {
-            if (turnTimer != null) {
-                turnTimer.stop();
-            }
-
-            endPlayerTurn();
-        } else {
-            checkBattleEnd();
-        }
+        EdtWatchdog.getInstance().markAction("executeAttack");
+        enqueue(Command.action(currentBattle, Action.createAttack(moveIndex)));
     }
 
     /**
      * Muestra un cuadro de diálogo para cambiar el Pokémon activo del jugador actual.
      */
     public void showSwitchPokemonDialog() {
-        gui.getBattleLogPanel().clearMessages();
+        EdtWatchdog.getInstance().markAction("showSwitchPokemonDialog");
         Trainer current = currentBattle.getCurrentPlayer();
+        ensureChoiceDialogs();
 
-        JDialog switchDialog = new JDialog(gui, "Cambiar Pokémon", true);
-        switchDialog.setLayout(new BorderLayout());
-        switchDialog.setSize(450, 300);
-        switchDialog.setLocationRelativeTo(gui);
-        switchDialog.getContentPane().setBackground(new Color(152, 251, 152)); // Verde Esmeralda
-
-        JLabel titleLabel = new JLabel("Selecciona un Pokémon", SwingConstants.CENTER);
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
-        titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-        switchDialog.add(titleLabel, BorderLayout.NORTH);
-
-        JPanel pokePanel = new JPanel(new GridLayout(0, 1, 5, 5));
-        pokePanel.setBackground(new Color(152, 251, 152));
-
-        for (int i = 0; i < current.getTeam().getPokemons().size(); i++) {
-            Pokemon p = current.getTeam().getPokemons().get(i);
-            String pokeName = p.getName();
-            int hp = p.getHp();
-            int maxHp = p.getMaxHp();
-            boolean isFainted = (hp <= 0);
-
-            String label = pokeName + " (HP: " + hp + "/" + maxHp + ")";
-            if (isFainted) label += " - Debilitado";
-
-            JButton pokeButton = new JButton(label);
-
-            // Cargar imagen
-            String path = "src/sprites/" + pokeName.toLowerCase() + "_front.png";
-            File imageFile = new File(path);
-            if (imageFile.exists()) {
-                ImageIcon icon = new ImageIcon(path);
-                Image scaled = icon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                pokeButton.setIcon(new ImageIcon(scaled));
-            }
-
-            pokeButton.setHorizontalAlignment(SwingConstants.LEFT);
-            pokeButton.setBackground(isFainted ? Color.LIGHT_GRAY : new Color(176, 224, 230));
-            pokeButton.setEnabled(!isFainted);
-            pokeButton.setFocusPainted(false);
-
-            int index = i;
-            pokeButton.addActionListener(e -> {
-                switchDialog.dispose();
-
-                // Notificar evento
-                if (eventListener != null) {
-                    eventListener.onPokemonSwitched(current.getName(), pokeName);
-                }
-
-                currentBattle.performAction(Action.createSwitchPokemon(index));
-                updateUI();
-                if (turnTimer != null) {
-                    turnTimer.stop();
-                }
-                endPlayerTurn();
-            });
-
-            pokePanel.add(pokeButton);
+        List<ChoiceDialog.Row> rows = new ArrayList<>();
+        for (Pokemon p : current.getTeam().getPokemons()) {
+            rows.add(pokemonRow(p, p.getHp() > 0));
         }
 
-        JScrollPane scrollPane = new JScrollPane(pokePanel);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        switchDialog.add(scrollPane, BorderLayout.CENTER);
-        switchDialog.setVisible(true);
+        switchDialog.showChoices(rows,
+                index -> enqueue(Command.action(currentBattle, Action.createSwitchPokemon(index))));
     }
 
     /**
@@ -349,142 +410,66 @@ public class GameController implements Serializable {
      * Si hay ítems disponibles, permite usarlos sobre un Pokémon del equipo.
      */
     public void showItemSelectionDialog() {
-        gui.getBattleLogPanel().clearMessages();
+        EdtWatchdog.getInstance().markAction("showItemSelectionDialog");
         Trainer current = currentBattle.getCurrentPlayer();
 
         if (current.getItems().isEmpty()) {
             JOptionPane.showMessageDialog(gui, "No tienes ítems disponibles.");
             return;
         }
+        ensureChoiceDialogs();
 
-        JDialog itemDialog = new JDialog(gui, "Usar Ítem", true);
-        itemDialog.setLayout(new BorderLayout());
-        itemDialog.setSize(400, 300);
-        itemDialog.setLocationRelativeTo(gui);
-        itemDialog.getContentPane().setBackground(new Color(152, 251, 152)); // Verde Esmeralda
-
-        JLabel titleLabel = new JLabel("Selecciona un ítem", SwingConstants.CENTER);
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
-        titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-        itemDialog.add(titleLabel, BorderLayout.NORTH);
-
-        JPanel itemPanel = new JPanel();
-        itemPanel.setLayout(new GridLayout(0, 1, 5, 5));
-        itemPanel.setBackground(new Color(152, 251, 152));
-
-        for (int i = 0; i < current.getItems().size(); i++) {
-            Item item = current.getItems().get(i);
-            String itemName = item.getName();
-            JButton itemButton = new JButton(itemName);
-
-            // Cargar imagen del ítem
-            String imagePath = "src/sprites/" + itemName.toLowerCase() + ".png";
-            File imageFile = new File(imagePath);
-            if (imageFile.exists()) {
-                ImageIcon icon = new ImageIcon(imagePath);
-                Image scaled = icon.getImage().getScaledInstance(32, 32, Image.SCALE_SMOOTH);
-                itemButton.setIcon(new ImageIcon(scaled));
-            }
-
-            itemButton.setBackground(new Color(176, 224, 230));
-            itemButton.setFocusPainted(false);
-            itemButton.setHorizontalAlignment(SwingConstants.LEFT);
-
-            int itemIndex = i;
-            itemButton.addActionListener(e -> {
-                itemDialog.dispose();
-
-                // Determinar si el ítem es un revive
-                boolean isReviveItem = isReviveItem(item);
-
-                // Segunda ventana: selección de Pokémon objetivo
-                JDialog targetDialog = new JDialog(gui, "Objetivo del Ítem", true);
-                targetDialog.setLayout(new BorderLayout());
-                targetDialog.setSize(450, 300);
-                targetDialog.setLocationRelativeTo(gui);
-                targetDialog.getContentPane().setBackground(new Color(152, 251, 152));
-
-                JLabel targetLabel = new JLabel("Selecciona un Pokémon objetivo", SwingConstants.CENTER);
-                targetLabel.setFont(new Font("Arial", Font.BOLD, 16));
-                targetLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-                targetDialog.add(targetLabel, BorderLayout.NORTH);
-
-                JPanel pokePanel = new JPanel(new GridLayout(0, 1, 5, 5));
-                pokePanel.setBackground(new Color(152, 251, 152));
-
-                for (int j = 0; j < current.getTeam().getPokemons().size(); j++) {
-                    Pokemon p = current.getTeam().getPokemons().get(j);
-                    String pokeName = p.getName();
-                    int hp = p.getHp();
-                    int maxHp = p.getMaxHp();
-                    boolean isFainted = (hp <= 0);
-
-                    String label = pokeName + " (HP: " + hp + "/" + maxHp + ")";
-                    if (isFainted) label += " - Debilitado";
-
-                    JButton pokeButton = new JButton(label);
-
-                    // Imagen del Pokémon
-                    String pokeImagePath = "src/sprites/" + pokeName.toLowerCase() + "_front.png";
-                    File pokeImageFile = new File(pokeImagePath);
-                    if (pokeImageFile.exists()) {
-                        ImageIcon icon = new ImageIcon(pokeImagePath);
-                        Image scaled = icon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                        pokeButton.setIcon(new ImageIcon(scaled));
-                    }
-
-                    pokeButton.setHorizontalAlignment(SwingConstants.LEFT);
-
-                    // Lógica corregida para habilitar/deshabilitar botones según el tipo de ítem
-                    boolean canUseItem;
-                    if (isReviveItem) {
-                        // Para revive: solo pokémon debilitados
-                        canUseItem = isFainted;
-                        pokeButton.setBackground(isFainted ? new Color(176, 224, 230) : Color.LIGHT_GRAY);
-                    } else {
-                        // Para otros ítems (pociones, etc.): solo pokémon no debilitados
-                        canUseItem = !isFainted;
-                        pokeButton.setBackground(isFainted ? Color.LIGHT_GRAY : new Color(176, 224, 230));
-                    }
-
-                    pokeButton.setEnabled(canUseItem);
-                    pokeButton.setFocusPainted(false);
-
-                    int targetIndex = j;
-                    pokeButton.addActionListener(ev -> {
-                        targetDialog.dispose();
-
-                        Item selectedItem = current.getItems().get(itemIndex);
-                        Pokemon targetPokemon = current.getTeam().getPokemons().get(targetIndex);
+        List<ChoiceDialog.Row> rows = new ArrayList<>();
+        for (Item item : current.getItems()) {
+            rows.add(new ChoiceDialog.Row(item.getName(), item.getName(), SpriteCache.View.PLAIN,
+                    SpritePreloader.ITEM_ICON_SIZE, true));
+        }
 
-                        if (eventListener != null) {
-                            eventListener.onItemUsed(current.getName(), selectedItem.getName(), targetPokemon.getName());
-                        }
+        itemDialog.showChoices(rows, itemIndex -> showItemTargetDialog(current, itemIndex));
+    }
 
-                        currentBattle.performAction(Action.createUseItem(itemIndex, targetIndex));
-                        updateUI();
-                        if (turnTimer != null) {
-                            turnTimer.stop();
-                        }
-                        endPlayerTurn();
-                    });
+    /**
+     * Segunda ventana del uso de ítems: selección del Pokémon objetivo.
+     */
+    private void showItemTargetDialog(Trainer current, int itemIndex) {
+        // Determinar si el ítem es un revive
+        boolean isReviveItem = isReviveItem(current.getItems().get(itemIndex));
+
+        List<ChoiceDialog.Row> rows = new ArrayList<>();
+        for (Pokemon p : current.getTeam().getPokemons()) {
+            boolean isFainted = p.getHp() <= 0;
+            // Revive: solo pokémon debilitados; otros ítems (pociones, etc.): solo no debilitados
+            rows.add(pokemonRow(p, isReviveItem == isFainted));
+        }
 
-                    pokePanel.add(pokeButton);
-                }
+        targetDialog.showChoices(rows,
+                targetIndex -> enqueue(Command.action(currentBattle, Action.createUseItem(itemIndex, targetIndex))));
+    }
 
-                JScrollPane scrollPane = new JScrollPane(pokePanel);
-                scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-                targetDialog.add(scrollPane, BorderLayout.CENTER);
-                targetDialog.setVisible(true);
-            });
+    private ChoiceDialog.Row pokemonRow(Pokemon p, boolean enabled) {
+        String label = p.getName() + " (HP: " + p.getHp() + "/" + p.getMaxHp() + ")";
+        if (p.getHp() <= 0) label += " - Debilitado";
+        return new ChoiceDialog.Row(label, p.getName(), SpriteCache.View.FRONT,
+                SpritePreloader.DIALOG_ICON_SIZE, enabled);
+    }
 
-            itemPanel.add(itemButton);
+    /**
+     * Crea los diálogos de cambio e ítems la primera vez que se usan en una batalla. Se reutilizan
+     * durante toda la batalla y se descartan al empezar otra.
+     */
+    private void ensureChoiceDialogs() {
+        if (switchDialog != null && dialogsBattle == currentBattle) {
+            return;
         }
-
-        JScrollPane scrollPane = new JScrollPane(itemPanel);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        itemDialog.add(scrollPane, BorderLayout.CENTER);
-        itemDialog.setVisible(true);
+        if (switchDialog != null) {
+            switchDialog.dispose();
+            itemDialog.dispose();
+            targetDialog.dispose();
+        }
+        switchDialog = new ChoiceDialog(gui, "Cambiar Pokémon", "Selecciona un Pokémon", 450, 300);
+        itemDialog = new ChoiceDialog(gui, "Usar Ítem", "Selecciona un ítem", 400, 300);
+        targetDialog = new ChoiceDialog(gui, "Objetivo del Ítem", "Selecciona un Pokémon objetivo", 450, 300);
+        dialogsBattle = currentBattle;
     }
 
     private boolean isReviveItem(Item item) {
@@ -532,71 +517,326 @@ public class GameController implements Serializable {
     }
 
     /**
-     * Ejecuta el turno del jugador CPU de forma automatizada y recursiva si sigue siendo CPU.
-     * Se utiliza un pequeño retardo entre turnos para simular tiempo de juego.
+     * Pide el turno del jugador CPU. Se juega cuando la cola llega a él, y si después le vuelve
+     * a tocar a un CPU se programa el siguiente con un pequeño retardo para simular tiempo de juego.
      */
     private void executeCpuTurn() {
-        SwingUtilities.invokeLater(() -> {
-            // Verificar si el juego está pausado
-            if (gui.isPaused()) {
-                // Retrasar la ejecución hasta que se reanude
-                Timer pauseCheck = new Timer(100, null);
-                pauseCheck.addActionListener(e -> {
-                    if (!gui.isPaused()) {
-                        pauseCheck.stop();
-                        executeCpuTurn(); // Recursión cuando se reanude
-                    }
-                });
-                pauseCheck.start();
-                return;
-            }
+        EdtWatchdog.getInstance().markAction("executeCpuTurn");
+        Battle battle = currentBattle;
+        // Si el juego está pausado, el turno queda en espera hasta que se reanude
+        FrameScheduler.getInstance().whenRunning(() -> enqueue(Command.of(Command.Kind.CPU_TURN, battle)));
+    }
 
-            if (!currentBattle.isFinished()) {
-                currentBattle.executeCpuTurn();
-                updateUI();
+    /**
+     * Juega el turno del CPU al que le toca y pasa el turno.
+     */
+    private void playCpuTurn() {
+        if (currentBattle.isFinished() || !currentBattle.getCurrentPlayer().isCPU()) {
+            return;
+        }
+        currentBattle.executeCpuTurn();
+        updateUI();
 
-                if (!currentBattle.isFinished()) {
-                    currentBattle.changeTurn();
-                    updateUI();
+        if (!currentBattle.isFinished()) {
+            currentBattle.changeTurn();
+            updateUI();
 
-                    if (currentBattle.getCurrentPlayer().isCPU()) {
-                        Timer timer = new Timer(1000, e -> executeCpuTurn());
-                        timer.setRepeats(false);
-                        timer.start();
-                    } else {
-                        gui.showMainOptions();
-                    }
-                } else {
-                    checkBattleEnd();
-                }
+            if (currentBattle.getCurrentPlayer().isCPU()) {
+                scheduleCpuTurn(playbackSpeed.scale(CPU_TURN_MILLIS));
+            } else {
+                gui.showMainOptions();
             }
-        });
+        } else {
+            checkBattleEnd();
+        }
+    }
+
+    /**
+     * Programa el siguiente turno del CPU tras una espera. Mientras el juego esté pausado,
+     * la espera queda detenida.
+     *
+     * @param delayMillis espera en milisegundos
+     */
+    private void scheduleCpuTurn(long delayMillis) {
+        if (cpuTurnTask != null) {
+            cpuTurnTask.cancel();
+        }
+        cpuTurnTask = FrameScheduler.getInstance().schedule(delayMillis, this::executeCpuTurn);
     }
 
     /**
      * Inicia una batalla automática completa entre dos entrenadores CPU.
-     * El combate continúa de forma automatizada hasta que finalice.
+     * El combate continúa de forma automatizada hasta que finalice, al ritmo de
+     * {@link #getPlaybackSpeed()}.
      */
     private void startAutoBattle() {
-        Timer timer = new Timer(1500, e -> {
-            if (gui.isPaused()) {
-                return;
+        if (autoBattleTask != null) {
+            autoBattleTask.cancel();
+        }
+        long period = playbackSpeed == PlaybackSpeed.TURBO
+                ? FrameScheduler.FRAME_MILLIS : playbackSpeed.scale(AUTO_TURN_MILLIS);
+        autoBattleTask = FrameScheduler.getInstance().scheduleRepeating(period,
+                () -> enqueue(Command.of(Command.Kind.AUTO_TURN, currentBattle)));
+    }
+
+    /**
+     * Juega un paso de la batalla automática: un turno, o en turbo los que quepan en el cuadro.
+     */
+    private void playAutoTurn() {
+        if (!currentBattle.isFinished()) {
+            if (playbackSpeed == PlaybackSpeed.TURBO) {
+                long deadline = System.nanoTime() + TURBO_BUDGET_NANOS;
+                do {
+                    currentBattle.playCpuTurns(1);
+                } while (!currentBattle.isFinished() && System.nanoTime() < deadline);
+            } else {
+                currentBattle.playCpuTurns(1);
+            }
+            updateUI();
+        } else {
+            if (autoBattleTask != null) {
+                autoBattleTask.cancel();
+            }
+            checkBattleEnd();
+        }
+    }
+
+    /**
+     * @return la velocidad de reproducción de las batallas entre CPUs
+     */
+    public PlaybackSpeed getPlaybackSpeed() {
+        return playbackSpeed;
+    }
+
+    /**
+     * Cambia la velocidad de reproducción. Si hay una batalla automática en curso, sigue desde el
+     * turno actual con la nueva velocidad.
+     *
+     * @param speed nueva velocidad
+     */
+    public void setPlaybackSpeed(PlaybackSpeed speed) {
+        this.playbackSpeed = speed;
+        if (autoBattleTask != null && autoBattleTask.isActive()) {
+            startAutoBattle();
+        }
+    }
+
+    /**
+     * Juega el resto de una batalla entre CPUs en segundo plano y al terminar muestra el estado
+     * final con un resumen. La pausa también detiene este trabajo.
+     *
+     * <p>Lo que se juega es una copia con clima propio; la batalla de la interfaz no cambia
+     * mientras tanto, así que se puede guardar. Al terminar, la copia entra por la cola de pedidos
+     * y reemplaza a la original. Si antes se cargó otra partida, el resultado se descarta.
+     * No hace nada si la batalla no es entre dos CPUs, ya terminó o ya se está adelantando.
+     */
+    public void skipToResult() {
+        if (currentBattle == null || currentBattle.isFinished() || skipping == currentBattle
+                || !currentBattle.getPlayer1().isCPU() || !currentBattle.getPlayer2().isCPU()) {
+            return;
+        }
+        Battle original = currentBattle;
+        Battle copy;
+        try {
+            copy = original.copyWithOwnClimate();
+        } catch (IllegalStateException e) {
+            // La batalla sigue a la velocidad actual
+            System.err.println("Error al adelantar la batalla: " + e.getMessage());
+            return;
+        }
+        if (autoBattleTask != null) {
+            autoBattleTask.cancel();
+        }
+        skipping = original;
+        CompletableFuture.supplyAsync(() -> playOut(copy))
+                .whenComplete((turns, error) -> {
+                    if (error != null) {
+                        System.err.println("Error al adelantar la batalla: " + error.getMessage());
+                    }
+                    Command command = Command.result(original, error == null ? copy : null,
+                            turns == null ? 0 : turns);
+                    // Este hilo no es el consumidor, así que puede esperar a que haya lugar
+                    while (!submit(command)) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(FrameScheduler.FRAME_MILLIS));
+                    }
+                });
+    }
+
+    /**
+     * Reemplaza la batalla por la que se adelantó en segundo plano y muestra el resumen. Si
+     * falló, sigue con la batalla automática.
+     */
+    private void showSkippedResult(Battle result, int turns) {
+        if (result == null) {
+            startAutoBattle();
+            return;
+        }
+        currentBattle = result;
+        updateUI();
+        if (result.isFinished()) {
+            gui.showBattleEnd(resultMessage() + "\n\n" + summary(result, turns));
+        } else {
+            JOptionPane.showMessageDialog(gui, summary(result, turns));
+            startAutoBattle();
+        }
+    }
+
+    /**
+     * Juega en segundo plano los turnos que faltan. Si el juego se pausa, el hilo espera entre
+     * un turno y el siguiente hasta que se reanude.
+     *
+     * @param battle batalla entre CPUs
+     * @return turnos jugados
+     */
+    private static int playOut(Battle battle) {
+        FrameScheduler clock = FrameScheduler.getInstance();
+        int played = 0;
+        try {
+            while (played < MAX_SKIPPED_TURNS && battle.playCpuTurns(1) == 1) {
+                played++;
+                clock.awaitRunning();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return played;
+    }
+
+    /**
+     * Arma el resumen que se muestra al saltar al resultado: turnos jugados y cómo quedó el
+     * equipo de cada entrenador.
+     *
+     * @param battle batalla adelantada
+     * @param turns  turnos jugados en segundo plano
+     * @return el resumen
+     */
+    private String summary(Battle battle, int turns) {
+        StringBuilder text = new StringBuilder("Turnos adelantados: ").append(turns);
+        for (Trainer trainer : new Trainer[]{battle.getPlayer1(), battle.getPlayer2()}) {
+            text.append("\n\n").append(trainer.getName()).append(':');
+            for (Pokemon p : trainer.getTeam().getPokemons()) {
+                text.append("\n  ").append(p.getName()).append(' ')
+                        .append(Math.max(0, p.getHp())).append('/').append(p.getMaxHp()).append(" PS");
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Encola un pedido desde el hilo de eventos. Si la cola está llena se descarta: quien la
+     * vacía es este mismo hilo, así que no se puede esperar.
+     */
+    private void enqueue(Command command) {
+        if (!submit(command)) {
+            System.err.println("Error al encolar un pedido: hay demasiados pendientes");
+        }
+    }
+
+    /**
+     * Pone un pedido en la cola y, si nadie la está vaciando, encarga vaciarla al hilo de eventos.
+     * Se puede llamar desde cualquier hilo.
+     *
+     * @return false si la cola está llena
+     */
+    private boolean submit(Command command) {
+        if (!commands.offer(command)) {
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
 
-            if (!currentBattle.isFinished()) {
-                currentBattle.executeCpuTurn();
-                updateUI();
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            EDT.execute(this::drain);
+        }
+    }
+
+    /**
+     * Aplica el siguiente pedido de la cola. Aplica uno por evento y deja el resto para otra
+     * pasada, así la interfaz se redibuja entre la acción de un jugador y la respuesta del CPU.
+     */
+    private void drain() {
+        try {
+            Command command = commands.poll();
+            if (command != null) {
+                apply(command);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error al aplicar un pedido: " + e.getMessage());
+        } finally {
+            draining.set(false);
+            if (commands.hasNext()) {
+                scheduleDrain();
+            }
+        }
+    }
 
-                if (currentBattle.getCurrentPlayer().isCPU()) {
-                    currentBattle.changeTurn();
-                    updateUI();
+    private void apply(Command command) {
+        if (command.kind == Command.Kind.RESULT && skipping == command.battle) {
+            skipping = null;
+        }
+        if (command.battle != currentBattle) {
+            return;
+        }
+        if (skipping == currentBattle && command.kind != Command.Kind.RESULT) {
+            return; // La batalla se está adelantando; la reemplaza el resultado
+        }
+        switch (command.kind) {
+            case ACTION:
+                playerAction(command.player, command.action);
+                break;
+            case TIMEOUT:
+                if (!currentBattle.isFinished() && currentBattle.getTurn() == command.player) {
+                    applyTurnTimeoutPenalty();
+                    endPlayerTurn();
                 }
-            } else {
-                ((Timer) e.getSource()).stop();
-                checkBattleEnd();
+                break;
+            case CPU_TURN:
+                playCpuTurn();
+                break;
+            case AUTO_TURN:
+                playAutoTurn();
+                break;
+            case RESULT:
+                showSkippedResult(command.result, command.turns);
+                break;
+        }
+    }
+
+    /**
+     * Aplica la acción de un jugador humano, avisa al oyente de eventos y pasa el turno.
+     *
+     * @throws IllegalStateException    si ya no es el turno del jugador
+     * @throws IllegalArgumentException si la acción no es válida
+     */
+    private void playerAction(int player, Action action) {
+        currentBattle.validateAction(player, action);
+        Trainer current = currentBattle.getCurrentPlayer();
+        if (eventListener != null) {
+            List<Pokemon> team = current.getTeam().getPokemons();
+            switch (action.getType()) {
+                case ATTACK:
+                    Pokemon attacker = current.getActivePokemon();
+                    int moveIndex = action.getMoveIndex();
+                    eventListener.onAttackPerformed(attacker.getName(),
+                            currentBattle.getOpponent().getActivePokemon().getName(),
+                            moveIndex >= 0 ? attacker.getMoves().get(moveIndex).name() : "Forcejeo");
+                    break;
+                case USE_ITEM:
+                    eventListener.onItemUsed(current.getName(), current.getItems().get(action.getItemIndex()).getName(),
+                            team.get(action.getTargetIndex()).getName());
+                    break;
+                case SWITCH_POKEMON:
+                    eventListener.onPokemonSwitched(current.getName(), team.get(action.getTargetIndex()).getName());
+                    break;
             }
-        });
-        timer.start();
+        }
+
+        currentBattle.performAction(action);
+        updateUI();
+        stopTurnTimer();
+        endPlayerTurn();
     }
 
     /**
@@ -604,26 +844,34 @@ public class GameController implements Serializable {
      */
     private void checkBattleEnd() {
         if (currentBattle.isFinished()) {
-            Trainer winner = currentBattle.getWinner();
-            String message = winner != null ?
-                    "¡" + winner.getName() + " ha ganado la batalla!" :
-                    "¡La batalla ha terminado en empate!";
-            gui.showBattleEnd(message);
+            gui.showBattleEnd(resultMessage());
         }
     }
 
+    /**
+     * @return el mensaje con el ganador de la batalla actual
+     */
+    private String resultMessage() {
+        Trainer winner = currentBattle.getWinner();
+        return winner != null ?
+                "¡" + winner.getName() + " ha ganado la batalla!" :
+                "¡La batalla ha terminado en empate!";
+    }
+
     /**
      * Muestra la interfaz de selección de Pokémon para un entrenador.
      * Luego de seleccionar, se procede a seleccionar los movimientos de cada Pokémon.
      *
-     * @param trainer    el entrenador que selecciona Pokémon
-     * @param onComplete acción a ejecutar al finalizar la selección
+     * @param trainer el entrenador que selecciona Pokémon
+     * @return se completa cuando el último Pokémon tiene sus movimientos
      */
-    private void showPokemonSelection(Trainer trainer, Runnable onComplete) {
+    private CompletableFuture<Void> showPokemonSelection(Trainer trainer) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
         PokemonSelectionGUI selectionGUI = new PokemonSelectionGUI(gui, trainer, 6, selectedPokemons -> {
-            selectMovesForPokemons(selectedPokemons, onComplete);
+            selectMovesForPokemons(selectedPokemons, () -> done.complete(null));
         });
         selectionGUI.setVisible(true);
+        return done;
     }
 
     /**
@@ -657,32 +905,15 @@ public class GameController implements Serializable {
      * @param pokemon el Pokémon al que se le asignarán los movimientos
      */
     private void selectRandomMoves(Pokemon pokemon) {
-        List<Move> allMoves = MoveDatabase.getAvailableMoves();
-        Collections.shuffle(allMoves);
-        pokemon.setMoves(allMoves.subList(0, Math.min(4, allMoves.size())));
+        pokemon.setMoves(MoveDatabase.getRandomMoves(Math.min(4, MoveDatabase.getAllMoves().size())));
     }
 
-    /**
-     * Muestra la interfaz de selección de ítems para un entrenador.
-     *
-     * @param trainer    el entrenador que selecciona los ítems
-     * @param onComplete acción a ejecutar al finalizar
-     */
-    private void showItemSelection(Trainer trainer, Runnable onComplete) {
-        SwingUtilities.invokeLater(() -> {
-            ItemSelectionGUI.showItemSelection(gui, trainer);
-            onComplete.run();
-        });
-    }
-
-
     /**
      * Asigna ítems aleatorios al entrenador CPU.
      *
-     * @param cpu        entrenador CPU
-     * @param onComplete acción a ejecutar al finalizar
+     * @param cpu entrenador CPU
      */
-    private void selectItemsForCPU(Trainer cpu, Runnable onComplete) {
+    private void selectItemsForCPU(Trainer cpu) {
         List<Item> items = Arrays.asList(
                 new Potion(),
                 new SuperPotion(),
@@ -692,7 +923,6 @@ public class GameController implements Serializable {
         Collections.shuffle(items);
         cpu.getItems().clear();
         cpu.getItems().addAll(items.subList(0, Math.min(3, items.size())));
-        onComplete.run();
     }
 
     /**
@@ -725,6 +955,7 @@ public class GameController implements Serializable {
         }
 
         this.currentBattle = new Battle(player1, player2);
+        SpritePreloader.getInstance().preloadBattle(player1, player2);
 
         updateUI();
     }
@@ -752,45 +983,4 @@ public class GameController implements Serializable {
         this.gui.setGameMode(gameState.getGameMode());
     }
 
-    /**
-     * Pauses the turn timer if it is currently running.
-     * This will stop the countdown and preserve the remaining time.
-     * The timer can be resumed later with {@link #resumeTimer()}.
-     *
-     * <p>This method has no effect if:
-     * <ul>
-     *   <li>The timer is not initialized (null)</li>
-     *   <li>The timer is already paused or stopped</li>
-     * </ul>
-     *
-     * @see #resumeTimer()
-     */
-    public void pauseTimer() {
-        if (turnTimer != null && turnTimer.isRunning()) {
-            turnTimer.stop();
-            isTimerPaused = true;
-        }
-    }
-
-    /**
-     * Resumes the turn timer if it was previously paused.
-     * The countdown will continue from where it was paused.
-     *
-     * <p>This method has no effect if:
-     * <ul>
-     *   <li>The timer is not initialized (null)</li>
-     *   <li>The timer was not previously paused</li>
-     *   <li>The timer is already running</li>
-     * </ul>
-     *
-     * @see #pauseTimer()
-     * @throws IllegalStateException if attempting to resume when battle has ended
-     */
-    public void resumeTimer() {
-        if (isTimerPaused && turnTimer != null) {
-            turnTimer.start();
-            isTimerPaused = false;
-        }
-    }
-
 }
\ No newline at end of file
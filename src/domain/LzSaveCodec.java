@@ -0,0 +1,204 @@
+package domain;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Códec rápido estilo LZ77, implementado completamente en Java.
+ * Busca repeticiones de al menos 4 bytes con una tabla hash de una sola entrada
+ * y las codifica como secuencias (literales, desplazamiento, longitud) con un
+ * formato similar al de LZ4. Comprime menos que Deflate pero es mucho más rápido,
+ * especialmente al descomprimir.
+ *
+ * <p>Formato de cada secuencia:
+ * <ul>
+ *     <li>Un byte token: 4 bits altos con la cantidad de literales y 4 bits bajos
+ *     con la longitud de la coincidencia menos 4. El valor 15 indica que la longitud
+ *     continúa en bytes adicionales (255 significa "sigue").</li>
+ *     <li>Los literales.</li>
+ *     <li>El desplazamiento de la coincidencia en 2 bytes (little endian).</li>
+ * </ul>
+ * La última secuencia solo contiene literales y no lleva desplazamiento.
+ */
+public class LzSaveCodec implements SaveCodec {
+    public static final byte ID = 2;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_BITS = 14;
+    private static final int RUN_MASK = 15;
+    /** Cada byte 255 de una longitud agrega 255 bytes a la salida. */
+    private static final int MAX_EXPANSION = 255;
+
+    @Override
+    public byte getId() { return ID; }
+
+    @Override
+    public String getName() { return "lz"; }
+
+    @Override
+    public int getMaxExpansion() { return MAX_EXPANSION; }
+
+    /**
+     * Comprime los datos buscando coincidencias con una tabla hash de secuencias de 4 bytes.
+     *
+     * @param data bytes sin comprimir
+     * @return bytes comprimidos
+     */
+    @Override
+    public byte[] encode(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+        int[] table = new int[1 << HASH_BITS];
+        Arrays.fill(table, -1);
+
+        int anchor = 0;
+        int pos = 0;
+        int limit = data.length - MIN_MATCH;
+
+        while (pos <= limit) {
+            int sequence = readInt(data, pos);
+            int slot = hash(sequence);
+            int ref = table[slot];
+            table[slot] = pos;
+
+            if (ref >= 0 && pos - ref <= MAX_OFFSET && readInt(data, ref) == sequence) {
+                int length = MIN_MATCH;
+                while (pos + length < data.length && data[ref + length] == data[pos + length]) {
+                    length++;
+                }
+                writeSequence(out, data, anchor, pos - anchor, pos - ref, length);
+                pos += length;
+                anchor = pos;
+            } else {
+                pos++;
+            }
+        }
+
+        writeLastLiterals(out, data, anchor, data.length - anchor);
+        return out.toByteArray();
+    }
+
+    /**
+     * Descomprime los datos generados por {@link #encode(byte[])}.
+     *
+     * @param data           bytes comprimidos
+     * @param originalLength longitud original de los datos
+     * @return bytes descomprimidos
+     * @throws IOException si los datos están corruptos o incompletos, o la longitud no es posible
+     */
+    @Override
+    public byte[] decode(byte[] data, int originalLength) throws IOException {
+        SaveCodec.checkLength(this, data, originalLength);
+        byte[] result = new byte[originalLength];
+        int in = 0;
+        int out = 0;
+
+        try {
+            while (in < data.length) {
+                int token = data[in++] & 0xFF;
+
+                int literals = token >>> 4;
+                if (literals == RUN_MASK) {
+                    int b;
+                    do {
+                        b = data[in++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                System.arraycopy(data, in, result, out, literals);
+                in += literals;
+                out += literals;
+
+                if (in >= data.length) {
+                    break;
+                }
+
+                int offset = (data[in] & 0xFF) | ((data[in + 1] & 0xFF) << 8);
+                in += 2;
+                if (offset == 0 || offset > out) {
+                    throw new IOException("Desplazamiento LZ inválido: " + offset);
+                }
+
+                int length = token & RUN_MASK;
+                if (length == RUN_MASK) {
+                    int b;
+                    do {
+                        b = data[in++] & 0xFF;
+                        length += b;
+                    } while (b == 255);
+                }
+                length += MIN_MATCH;
+
+                int ref = out - offset;
+                if (offset >= length) {
+                    System.arraycopy(result, ref, result, out, length);
+                    out += length;
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        result[out++] = result[ref + i];
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Datos LZ corruptos o truncados", e);
+        }
+
+        if (out != originalLength) {
+            throw new IOException("Datos LZ incompletos: " + out + " de " + originalLength + " bytes");
+        }
+        return result;
+    }
+
+    /**
+     * Escribe una secuencia completa: token, literales, desplazamiento y extensión de longitud.
+     */
+    private void writeSequence(ByteArrayOutputStream out, byte[] data, int literalStart, int literals,
+                               int offset, int matchLength) {
+        int matchCode = matchLength - MIN_MATCH;
+        int token = (Math.min(literals, RUN_MASK) << 4) | Math.min(matchCode, RUN_MASK);
+        out.write(token);
+        if (literals >= RUN_MASK) {
+            writeLength(out, literals - RUN_MASK);
+        }
+        out.write(data, literalStart, literals);
+        out.write(offset & 0xFF);
+        out.write((offset >>> 8) & 0xFF);
+        if (matchCode >= RUN_MASK) {
+            writeLength(out, matchCode - RUN_MASK);
+        }
+    }
+
+    /**
+     * Escribe la secuencia final, que solo contiene literales.
+     */
+    private void writeLastLiterals(ByteArrayOutputStream out, byte[] data, int literalStart, int literals) {
+        out.write(Math.min(literals, RUN_MASK) << 4);
+        if (literals >= RUN_MASK) {
+            writeLength(out, literals - RUN_MASK);
+        }
+        out.write(data, literalStart, literals);
+    }
+
+    /**
+     * Escribe la parte extendida de una longitud en bloques de 255.
+     */
+    private void writeLength(ByteArrayOutputStream out, int remaining) {
+        while (remaining >= 255) {
+            out.write(255);
+            remaining -= 255;
+        }
+        out.write(remaining);
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF)
+                | ((data[pos + 1] & 0xFF) << 8)
+                | ((data[pos + 2] & 0xFF) << 16)
+                | ((data[pos + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_BITS);
+    }
+}
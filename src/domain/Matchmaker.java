@@ -0,0 +1,305 @@
+package domain;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cola de emparejamiento para el {@link BattleServer}.
+ *
+ * <p>Los entrenadores (humanos o {@link CPUTrainer} con la estrategia que se les haya elegido)
+ * entran con una puntuación y esperan rival. Dos entrenadores se emparejan si la diferencia de
+ * puntuación cabe en la banda de alguno de los dos; la banda empieza angosta y se ensancha con el
+ * tiempo de espera hasta un máximo, así que nadie espera para siempre si hay alguien dentro del
+ * máximo.
+ *
+ * <p>La cola está ordenada por puntuación en un {@link ConcurrentSkipListMap}: al entrar solo se
+ * miran los vecinos más cercanos, y un barrido periódico compara cada entrenador con el siguiente
+ * para aprovechar las bandas que se ensancharon.
+ *
+ * <p>Cada lugar en la cola tiene un estado atómico: espera, se reclama para una batalla o se
+ * cancela, y solo se sale de la espera con {@code compareAndSet}. El mapa solo sirve para buscar
+ * rivales; un lugar que ya no espera se ignora aunque siga un momento en el mapa. Así un
+ * entrenador nunca queda en dos batallas, y cancelar y emparejar no pueden ganar los dos.
+ */
+public class Matchmaker implements Closeable {
+    /** Diferencia de puntuación aceptada al entrar. */
+    public static final int INITIAL_BAND = 50;
+    /** Cuánto se ensancha la banda por cada segundo de espera. */
+    public static final int BAND_GROWTH_PER_SECOND = 50;
+    /** Banda máxima. */
+    public static final int MAX_BAND = 400;
+    /** Milisegundos entre dos barridos de la cola. */
+    public static final long SWEEP_MILLIS = 200;
+
+    /**
+     * Resultado de un emparejamiento para uno de los entrenadores.
+     */
+    public static final class Match {
+        private final long battleId;
+        private final int player;
+
+        Match(long battleId, int player) {
+            this.battleId = battleId;
+            this.player = player;
+        }
+
+        /** @return identificador de la batalla en el {@link BattleServer} */
+        public long getBattleId() { return battleId; }
+        /** @return número de jugador del entrenador en la batalla (1 o 2) */
+        public int getPlayer() { return player; }
+    }
+
+    /**
+     * Estado de un lugar en la cola. {@code CLAIMING} dura lo que tarda el barrido en intentar
+     * reclamar al rival; si no lo consigue, el lugar vuelve a {@code WAITING}.
+     */
+    private enum State {WAITING, CLAIMING, CLAIMED, CANCELLED}
+
+    /**
+     * Lugar de un entrenador en la cola.
+     */
+    public final class Ticket implements Comparable<Ticket> {
+        private final Trainer trainer;
+        private final int rating;
+        private final long sequence;
+        private final long enqueuedAt;
+        private final CompletableFuture<Match> match = new CompletableFuture<>();
+        private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+
+        private Ticket(Trainer trainer, int rating, long sequence, long enqueuedAt) {
+            this.trainer = trainer;
+            this.rating = rating;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        public Trainer getTrainer() { return trainer; }
+        public int getRating() { return rating; }
+
+        /**
+         * @return se completa cuando el entrenador tiene rival y la batalla ya existe
+         */
+        public CompletableFuture<Match> getMatch() {
+            return match;
+        }
+
+        /**
+         * Saca al entrenador de la cola si todavía esperaba. Si el barrido lo está reclamando en
+         * ese momento, espera a saber si lo emparejó.
+         *
+         * @return true si se sacó; false si ya había sido emparejado o cancelado
+         */
+        public boolean cancel() {
+            while (true) {
+                State current = state.get();
+                if (current == State.CLAIMING) {
+                    Thread.onSpinWait();
+                } else if (current != State.WAITING) {
+                    return false;
+                } else if (state.compareAndSet(State.WAITING, State.CANCELLED)) {
+                    queue.remove(this);
+                    match.cancel(false);
+                    return true;
+                }
+            }
+        }
+
+        private boolean isWaiting() {
+            return state.get() == State.WAITING;
+        }
+
+        /**
+         * @param now instante actual en nanosegundos
+         * @return diferencia de puntuación que acepta el entrenador
+         */
+        int band(long now) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(now - enqueuedAt);
+            return (int) Math.min(maxBand, initialBand + growthPerSecond * waited / 1000);
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byRating = Integer.compare(rating, other.rating);
+            return byRating != 0 ? byRating : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final BattleServer server;
+    private final int initialBand;
+    private final int growthPerSecond;
+    private final int maxBand;
+    private final ConcurrentSkipListMap<Ticket, Ticket> queue = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Crea una cola con las bandas por defecto.
+     *
+     * @param server servidor donde se crean las batallas
+     */
+    public Matchmaker(BattleServer server) {
+        this(server, INITIAL_BAND, BAND_GROWTH_PER_SECOND, MAX_BAND);
+    }
+
+    /**
+     * @param server          servidor donde se crean las batallas
+     * @param initialBand     diferencia de puntuación aceptada al entrar
+     * @param growthPerSecond cuánto se ensancha la banda por segundo de espera
+     * @param maxBand         banda máxima
+     */
+    public Matchmaker(BattleServer server, int initialBand, int growthPerSecond, int maxBand) {
+        if (initialBand < 0 || growthPerSecond < 0 || maxBand < initialBand) {
+            throw new IllegalArgumentException("Bandas de puntuación inválidas");
+        }
+        this.server = server;
+        this.initialBand = initialBand;
+        this.growthPerSecond = growthPerSecond;
+        this.maxBand = maxBand;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "matchmaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_MILLIS, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pone a un entrenador en la cola. Si ya hay un rival dentro de la banda, la batalla se crea
+     * enseguida.
+     *
+     * @param trainer entrenador con su equipo armado
+     * @param rating  puntuación del entrenador
+     * @return el lugar en la cola
+     * @throws IllegalArgumentException si el entrenador no tiene Pokémon
+     */
+    public Ticket enqueue(Trainer trainer, int rating) {
+        if (trainer.getTeam().getPokemons().isEmpty()) {
+            throw new IllegalArgumentException("El entrenador " + trainer.getName() + " no tiene Pokémon");
+        }
+        long now = System.nanoTime();
+        Ticket ticket = new Ticket(trainer, rating, sequence.getAndIncrement(), now);
+        while (true) {
+            Ticket rival = closest(ticket, now);
+            if (rival == null) {
+                break;
+            }
+            if (rival.state.compareAndSet(State.WAITING, State.CLAIMED)) {
+                queue.remove(rival);
+                ticket.state.set(State.CLAIMED);
+                pair(rival, ticket);
+                return ticket;
+            }
+            // Otro hilo se lo llevó o lo está reclamando; se busca de nuevo
+        }
+        queue.put(ticket, ticket);
+        return ticket;
+    }
+
+    /**
+     * @return número de entrenadores esperando rival
+     */
+    public int getWaitingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Detiene el barrido. Los que esperaban se quedan sin rival.
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        for (Ticket ticket : queue.keySet()) {
+            ticket.cancel();
+        }
+    }
+
+    /**
+     * @return el vecino más cercano en puntuación que espera y acepta al entrenador, o null. Un
+     * vecino que ya no espera se salta; si vuelve a esperar, lo empareja un barrido posterior.
+     */
+    private Ticket closest(Ticket ticket, long now) {
+        Ticket lower = queue.lowerKey(ticket);
+        while (lower != null && !lower.isWaiting()) {
+            lower = queue.lowerKey(lower);
+        }
+        Ticket higher = queue.higherKey(ticket);
+        while (higher != null && !higher.isWaiting()) {
+            higher = queue.higherKey(higher);
+        }
+        Ticket best = null;
+        if (lower != null && accepts(lower, ticket, now)) {
+            best = lower;
+        }
+        if (higher != null && accepts(higher, ticket, now)
+                && (best == null || higher.rating - ticket.rating < ticket.rating - best.rating)) {
+            best = higher;
+        }
+        return best;
+    }
+
+    private boolean accepts(Ticket a, Ticket b, long now) {
+        return Math.abs(a.rating - b.rating) <= Math.max(a.band(now), b.band(now));
+    }
+
+    /**
+     * Recorre la cola en orden y empareja a cada entrenador con el siguiente si alguna de sus
+     * bandas ya los alcanza.
+     */
+    private void sweep() {
+        try {
+            long now = System.nanoTime();
+            Iterator<Ticket> tickets = queue.keySet().iterator();
+            Ticket previous = null;
+            while (tickets.hasNext()) {
+                Ticket current = tickets.next();
+                if (!current.isWaiting()) {
+                    continue;
+                }
+                if (previous != null && accepts(previous, current, now) && claim(previous, current)) {
+                    pair(previous, current);
+                    previous = null;
+                } else {
+                    previous = current;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error al emparejar entrenadores: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reclama a los dos para una batalla, o a ninguno si alguno ya no espera. Mientras se intenta
+     * con el segundo, el primero queda en {@code CLAIMING} y su {@link Ticket#cancel()} espera.
+     */
+    private boolean claim(Ticket a, Ticket b) {
+        if (!a.state.compareAndSet(State.WAITING, State.CLAIMING)) {
+            return false;
+        }
+        boolean claimed = b.state.compareAndSet(State.WAITING, State.CLAIMED);
+        a.state.set(claimed ? State.CLAIMED : State.WAITING);
+        if (claimed) {
+            queue.remove(a);
+            queue.remove(b);
+        }
+        return claimed;
+    }
+
+    /**
+     * Crea la batalla; el que esperaba desde antes es el jugador 1.
+     */
+    private void pair(Ticket a, Ticket b) {
+        Ticket first = a.sequence < b.sequence ? a : b;
+        Ticket second = first == a ? b : a;
+        try {
+            long battleId = server.createBattle(first.trainer, second.trainer);
+            first.match.complete(new Match(battleId, 1));
+            second.match.complete(new Match(battleId, 2));
+        } catch (RuntimeException e) {
+            first.match.completeExceptionally(e);
+            second.match.completeExceptionally(e);
+        }
+    }
+}
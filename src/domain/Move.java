@@ -1,46 +1,96 @@
 package domain;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
 import java.io.Serializable;
 
 /**
  * Representa un movimiento que un Pokémon puede usar en combate.
+ * Los datos fijos del movimiento se comparten a través de una {@link MoveDefinition}
+ * del catálogo; cada instancia solo guarda sus PP actuales.
  */
 public abstract class Move implements Cloneable, Serializable {
+    // Valor calculado de la versión anterior de la clase, para seguir leyendo partidas antiguas
+    private static final long serialVersionUID = -1714472216109280134L;
+
+    private MoveDefinition definition;
+    private int currentPP;
+
+    /**
+     * Crea un movimiento a partir de su definición, con los PP al máximo.
+     *
+     * @param definition definición compartida del movimiento
+     */
+    protected Move(MoveDefinition definition) {
+        this.definition = MoveDatabase.intern(definition);
+        this.currentPP = definition.getMaxPP();
+    }
 
     /**
      * @return Nombre del movimiento.
      */
-    public abstract String name();
+    public String name() {
+        return definition.getName();
+    }
 
     /**
      * @return Tipo del movimiento (por ejemplo, Fuego, Agua, etc.).
      */
-    public abstract String type();
+    public String type() {
+        return definition.getType();
+    }
 
     /**
      * @return Poder base del movimiento.
      */
-    public abstract int power();
+    public int power() {
+        return definition.getPower();
+    }
 
     /**
      * @return Precisión del movimiento (0–100).
      */
-    public abstract int precision();
+    public int precision() {
+        return definition.getPrecision();
+    }
 
     /**
      * @return PP actuales del movimiento.
      */
-    public abstract int pp();
+    public int pp() {
+        return currentPP;
+    }
 
     /**
      * @return PP máximos del movimiento.
      */
-    public abstract int maxPP();
+    public int maxPP() {
+        return definition.getMaxPP();
+    }
 
     /**
      * @return Prioridad del movimiento en la secuencia del turno.
      */
-    public abstract int priority();
+    public int priority() {
+        return definition.getPriority();
+    }
+
+    /**
+     * @return Definición compartida del movimiento en el catálogo.
+     */
+    public MoveDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Establece el valor actual de PP asegurando que esté dentro de los límites válidos.
+     *
+     * @param newPP nuevo valor de PP
+     */
+    public void setPP(int newPP) {
+        this.currentPP = Math.max(0, Math.min(maxPP(), newPP));
+    }
 
     /**
      * Aplica el efecto del movimiento entre el Pokémon usuario y el objetivo.
@@ -51,7 +101,7 @@ public abstract class Move implements Cloneable, Serializable {
     public abstract void use(Pokemon user, Pokemon target);
 
     /**
-     * Clona el movimiento actual.
+     * Clona el movimiento actual. La copia comparte la definición y tiene sus propios PP.
      *
      * @return una copia exacta del movimiento
      */
@@ -63,4 +113,39 @@ public abstract class Move implements Cloneable, Serializable {
             throw new AssertionError(); // No debería ocurrir
         }
     }
+
+    /**
+     * Lee los campos de las partidas guardadas antes de compartir las definiciones,
+     * en las que cada subclase guardaba nombre, tipo, poder, precisión y PP.
+     * No hace nada si los campos leídos ya tienen el formato actual.
+     *
+     * @param fields   campos leídos de la subclase
+     * @param category categoría del movimiento
+     */
+    protected void readLegacyFields(ObjectInputStream.GetField fields, MoveDefinition.Category category)
+            throws IOException {
+        ObjectStreamClass desc = fields.getObjectStreamClass();
+        if (desc.getField("name") == null) {
+            return;
+        }
+        int power = desc.getField("power") != null ? fields.get("power", 0) : 0;
+        this.definition = MoveDatabase.intern(new MoveDefinition(
+                (String) fields.get("name", null),
+                (String) fields.get("type", null),
+                power,
+                fields.get("precision", 0),
+                fields.get("maxPP", 0),
+                fields.get("priority", 0),
+                category));
+        this.currentPP = fields.get("currentPP", 0);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        // En partidas antiguas esta clase no tenía campos; la subclase los restaura
+        if (fields.getObjectStreamClass().getField("definition") != null) {
+            definition = (MoveDefinition) fields.get("definition", null);
+            currentPP = fields.get("currentPP", 0);
+        }
+    }
 }
@@ -1,141 +1,90 @@
     package domain;
 
+    import java.io.DataInputStream;
+    import java.io.DataOutputStream;
+    import java.io.IOException;
     import java.io.Serializable;
     import java.util.*;
 
     /**
      * Base de datos de movimientos disponibles en el juego.
      * Proporciona acceso a movimientos predefinidos y utilidades para obtener copias y selecciones aleatorias.
+     * Los movimientos se cargan desde {@code moves.csv} a través de {@link CatalogLoader}.
      */
     public class MoveDatabase implements Serializable {
-        private static final Map<String, Move> moves = new HashMap<>();
+        // Se declaran antes que el catálogo: cada movimiento registra su definición al construirse
+        private static final Map<MoveDefinition, MoveDefinition> definitions = new HashMap<>();
+        private static final List<MoveDefinition> definitionsById = new ArrayList<>();
+        private static final Map<String, Move> moves = new LinkedHashMap<>();
+        private static final Map<String, List<MoveDefinition>> movesByType = new HashMap<>();
+        private static final Map<MoveDefinition.Category, List<MoveDefinition>> movesByCategory =
+                new EnumMap<>(MoveDefinition.Category.class);
+        private static List<MoveDefinition> movesByName;
+        private static RangeIndex<MoveDefinition> movesByPower;
+        private static RangeIndex<MoveDefinition> movesByPrecision;
+        private static PrefixIndex<MoveDefinition> movesByPrefix;
         private static final long serialVersionUID = 1L;
+
         static {
-            moves.put("BODY SLAM", new PhysicalMove("BODY SLAM", "NORMAL", 85, 100, 15, 0));
-            moves.put("HYPER BEAM", new PhysicalMove("HYPER BEAM", "NORMAL", 150, 90, 5, 0));
-            moves.put("CROSS CHOP", new PhysicalMove("CROSS CHOP", "FIGHTING", 100, 80, 5, 0));
-            moves.put("BRICK BREAK", new PhysicalMove("BRICK BREAK", "FIGHTING", 75, 100, 15, 0));
-            moves.put("WING ATTACK", new PhysicalMove("WING ATTACK", "FLYING", 60, 100, 35, 0));
-            moves.put("AERIAL ACE", new PhysicalMove("AERIAL ACE", "FLYING", 60, 100, 20, 0));
-            moves.put("SLUDGE BOMB", new PhysicalMove("SLUDGE BOMB", "POISON", 90, 100, 10, 0));
-            moves.put("POISON STING", new PhysicalMove("POISON STING", "POISON", 15, 100, 35, 0));
-            moves.put("EARTHQUAKE", new PhysicalMove("EARTHQUAKE", "GROUND", 100, 100, 10, 0));
-            moves.put("DIG", new PhysicalMove("DIG", "GROUND", 60, 100, 10, 0));
-            moves.put("ROCK SLIDE", new PhysicalMove("ROCK SLIDE", "ROCK", 75, 90, 10, 0));
-            moves.put("ANCIENTPOWER", new PhysicalMove("ANCIENTPOWER", "ROCK", 60, 100, 5, 0));
-            moves.put("MEGAHORN", new PhysicalMove("MEGAHORN", "BUG", 120, 85, 10, 0));
-            moves.put("TWINNEEDLE", new PhysicalMove("TWINNEEDLE", "BUG", 25, 100, 20, 0));
-            moves.put("LICK", new PhysicalMove("LICK", "GHOST", 20, 100, 30, 0));
-            moves.put("SHADOW PUNCH", new PhysicalMove("SHADOW PUNCH", "GHOST", 60, 100, 20, 0));
-            moves.put("METAL CLAW", new PhysicalMove("METAL CLAW", "STEEL", 50, 95, 35, 0));
-            moves.put("IRON TAIL", new PhysicalMove("IRON TAIL", "STEEL", 100, 75, 15, 0));
-            moves.put("DRAGON CLAW", new PhysicalMove("DRAGON CLAW", "DRAGON", 80, 100, 15, 0));
-            moves.put("TWISTER", new PhysicalMove("TWISTER", "DRAGON", 40, 100, 20, 0));
-            moves.put("BITE", new PhysicalMove("BITE", "DARK", 60, 100, 25, 0));
-            moves.put("CRUNCH", new PhysicalMove("CRUNCH", "DARK", 80, 100, 15, 0));
-
-            moves.put("FLAMETHROWER", new SpecialMove("FLAMETHROWER", "FIRE", 90, 100, 15, 0));
-            moves.put("FIRE BLAST", new SpecialMove("FIRE BLAST", "FIRE", 110, 85, 5, 0));
-            moves.put("SURF", new SpecialMove("SURF", "WATER", 90, 100, 15, 0));
-            moves.put("HYDRO PUMP", new SpecialMove("HYDRO PUMP", "WATER", 110, 80, 5, 0));
-            moves.put("RAZOR LEAF", new SpecialMove("RAZOR LEAF", "GRASS", 55, 95, 25, 0));
-            moves.put("GIGA DRAIN", new SpecialMove("GIGA DRAIN", "GRASS", 60, 100, 5, 0));
-            moves.put("THUNDERBOLT", new SpecialMove("THUNDERBOLT", "ELECTRIC", 90, 100, 15, 0));
-            moves.put("THUNDER", new SpecialMove("THUNDER", "ELECTRIC", 110, 70, 10, 0));
-            moves.put("PSYCHIC", new SpecialMove("PSYCHIC", "PSYCHIC", 90, 100, 10, 0));
-            moves.put("CONFUSION", new SpecialMove("CONFUSION", "PSYCHIC", 50, 100, 25, 0));
-            moves.put("ICE BEAM", new SpecialMove("ICE BEAM", "ICE", 90, 100, 10, 0));
-            moves.put("BLIZZARD", new SpecialMove("BLIZZARD", "ICE", 110, 70, 5, 0));
-            // forcejeo
-            moves.put("STRUGGLE", new StruggleMove());;
-
-            //estado
-            moves.put("SANDSTORM", new WeatherMove("SANDSTORM", "ROCK", 100, 10, 0, "sandstorm", 5));
-            moves.put("TOXIC", new StatusMove("TOXIC", "POISON", 90, 10, 0, new Effect(
-                    EffectType.STATUS,
-                    Target.OPPONENT,
-                    null,
-                    "toxic",
-                    999,
-                    false,
-                    false
-            )));
-            moves.put("BULK UP", new StatusMove("BULK UP", "FIGHTING", 100, 20, 0, new Effect(
-                    EffectType.BUFF,
-                    Target.USER,
-                    new HashMap<String, Integer>() {{
-                        put("attack", 1);
-                        put("defense", 1);
-                    }},
-                    null,
-                    999,
-                    true,
-                    false
-            )));
-            moves.put("IRON DEFENSE", new StatusMove("IRON DEFENSE", "STEEL", 100, 15, 0, new Effect(
-                    EffectType.BUFF,
-                    Target.USER,
-                    new HashMap<String, Integer>() {{
-                        put("defense", 2);
-                    }},
-                    null,
-                    999,    
-                    true,  
-                    false  
-            )));
-
-            moves.put("WITHDRAW", new StatusMove("WITHDRAW", "WATER", 100, 40, 0, new Effect(
-                    EffectType.BUFF,
-                    Target.USER,
-                    new HashMap<String, Integer>() {{
-                        put("defense", 1);
-                    }},
-                    null,
-                    999,
-                    true,
-                    false
-            )));
-            moves.put("WILL-O-WISP", new StatusMove("WILL-O-WISP", "FIRE", 85, 15, 0, new Effect(
-                    EffectType.STATUS,
-                    Target.OPPONENT,
-                    null,         
-                    "burned",      
-                    999,          
-                    false,       
-                    false
-            )));
-            moves.put("CURSE", new CurseMove());
-            moves.put("TAIL WHIP", new StatusMove("TAIL WHIP", "NORMAL", 100, 30, 0, new Effect(
-                    EffectType.DEBUFF,
-                    Target.OPPONENT,
-                    new HashMap<String, Integer>() {{
-                        put("defense", -1);
-                    }},
-                    null,
-                    999,   
-                    true,
-                    false
-            )));
-            moves.put("STRING SHOT", new StatusMove("STRING SHOT", "BUG", 95, 40, 0, new Effect(
-                    EffectType.DEBUFF,
-                    Target.OPPONENT,
-                    new HashMap<String, Integer>() {{
-                        put("speed", -1);
-                    }},
-                    null,
-                    999,  
-                    true, 
-                    false
-            )));
-
-
-
-
-            //pruebas
-            moves.put("p1", new SpecialMove("p1", "PSYCHIC", 1, 100, 1, 0));
-            moves.put("p2", new SpecialMove("p2", "PSYCHIC", 1, 100, 1, 0));
-            moves.put("p3", new SpecialMove("p3", "PSYCHIC", 1, 100, 1, 0));
-            moves.put("p4", new SpecialMove("p4", "PSYCHIC", 5, 70, 1, 0));
+            for (Move move : CatalogLoader.load("moves", new MoveFormat())) {
+                moves.put(move.name(), move);
+            }
+            buildIndexes();
+        }
+
+        /**
+         * Construye los índices secundarios del catálogo. Se ejecuta una sola vez al cargarlo.
+         * Las listas por tipo y por categoría quedan ordenadas por nombre.
+         */
+        private static void buildIndexes() {
+            List<MoveDefinition> definitions = new ArrayList<>();
+            for (Move move : moves.values()) {
+                definitions.add(move.getDefinition());
+            }
+            definitions.sort(Comparator.comparing(MoveDefinition::getName));
+            movesByName = Collections.unmodifiableList(definitions);
+
+            for (MoveDefinition definition : movesByName) {
+                movesByType.computeIfAbsent(definition.getType(), t -> new ArrayList<>()).add(definition);
+                movesByCategory.computeIfAbsent(definition.getCategory(), c -> new ArrayList<>()).add(definition);
+            }
+            movesByType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+            movesByCategory.replaceAll((category, list) -> Collections.unmodifiableList(list));
+
+            movesByPower = new RangeIndex<>(movesByName, MoveDefinition::getPower, MoveDefinition[]::new);
+            movesByPrecision = new RangeIndex<>(movesByName, MoveDefinition::getPrecision, MoveDefinition[]::new);
+            movesByPrefix = new PrefixIndex<>(movesByName, MoveDefinition::getName, MoveDefinition[]::new);
+        }
+
+        /**
+         * Devuelve la definición compartida equivalente a la indicada, registrándola si es nueva.
+         * Todos los movimientos iguales usan así la misma instancia de {@link MoveDefinition}.
+         *
+         * @param definition definición a buscar
+         * @return definición compartida con su identificador asignado
+         */
+        public static synchronized MoveDefinition intern(MoveDefinition definition) {
+            MoveDefinition shared = definitions.get(definition);
+            if (shared == null) {
+                shared = new MoveDefinition(definitionsById.size(), definition);
+                definitions.put(shared, shared);
+                definitionsById.add(shared);
+            }
+            return shared;
+        }
+
+        /**
+         * Devuelve la definición registrada con el identificador indicado.
+         *
+         * @param id identificador de la definición
+         * @return definición compartida
+         * @throws IllegalArgumentException si no existe una definición con ese identificador
+         */
+        public static synchronized MoveDefinition getDefinition(int id) {
+            if (id < 0 || id >= definitionsById.size()) {
+                throw new IllegalArgumentException("No existe el movimiento con id: " + id);
+            }
+            return definitionsById.get(id);
         }
 
         /**
@@ -149,8 +98,83 @@
             return base != null ? base.clone() : null;
         }
 
+        /**
+         * Devuelve las definiciones de los movimientos de un tipo.
+         *
+         * @param type tipo de los movimientos (por ejemplo, "FIRE")
+         * @return lista inmodificable, vacía si no hay movimientos de ese tipo
+         */
+        public static List<MoveDefinition> getMovesByType(String type) {
+            return movesByType.getOrDefault(type.toUpperCase(), Collections.emptyList());
+        }
+
+        /**
+         * Devuelve las definiciones de los movimientos de una categoría.
+         *
+         * @param category categoría de los movimientos
+         * @return lista inmodificable, vacía si no hay movimientos de esa categoría
+         */
+        public static List<MoveDefinition> getMovesByCategory(MoveDefinition.Category category) {
+            return movesByCategory.getOrDefault(category, Collections.emptyList());
+        }
+
+        /**
+         * Devuelve las definiciones de los movimientos con poder dentro del rango indicado,
+         * ordenadas de menor a mayor poder.
+         *
+         * @param minPower poder mínimo (incluido)
+         * @param maxPower poder máximo (incluido)
+         * @return lista inmodificable de definiciones
+         */
+        public static List<MoveDefinition> getMovesByPowerRange(int minPower, int maxPower) {
+            return movesByPower.range(minPower, maxPower);
+        }
+
+        /**
+         * Devuelve las definiciones de los movimientos con precisión dentro del rango indicado,
+         * ordenadas de menor a mayor precisión.
+         *
+         * @param minPrecision precisión mínima (incluida)
+         * @param maxPrecision precisión máxima (incluida)
+         * @return lista inmodificable de definiciones
+         */
+        public static List<MoveDefinition> getMovesByPrecisionRange(int minPrecision, int maxPrecision) {
+            return movesByPrecision.range(minPrecision, maxPrecision);
+        }
+
+        /**
+         * Devuelve las definiciones de todos los movimientos del catálogo, ordenadas por nombre.
+         *
+         * @return lista inmodificable de definiciones
+         */
+        public static List<MoveDefinition> getAllMoves() {
+            return movesByName;
+        }
+
+        /**
+         * Busca los movimientos cuyo nombre empieza por el texto indicado, sin distinguir mayúsculas.
+         *
+         * @param prefix comienzo del nombre; vacío para todos
+         * @return lista inmodificable de definiciones, ordenadas por nombre
+         */
+        public static List<MoveDefinition> searchMoves(String prefix) {
+            return movesByPrefix.withPrefix(prefix);
+        }
+
+        /**
+         * Devuelve la definición del movimiento con el nombre indicado.
+         *
+         * @param name nombre del movimiento
+         * @return definición compartida o null si no existe
+         */
+        public static MoveDefinition getDefinition(String name) {
+            Move base = moves.get(name.toUpperCase());
+            return base != null ? base.getDefinition() : null;
+        }
+
         /**
          * Devuelve una lista con todos los movimientos disponibles.
+         * Para consultar el catálogo sin copiarlo se prefiere {@link #getAllMoves()}.
          *
          * @return lista de movimientos
          */
@@ -178,5 +202,147 @@
             return selected;
         }
 
-    }
+        /**
+         * Formato de las filas de {@code moves.csv}. La primera columna indica la clase del movimiento.
+         */
+        private static class MoveFormat implements CatalogLoader.Format<Move> {
+            private enum Kind { PHYSICAL, SPECIAL, STATUS, WEATHER, CURSE, STRUGGLE }
+
+            @Override
+            public Move parse(String[] columns) {
+                Kind kind = Kind.valueOf(CatalogLoader.column(columns, 0));
+                String name = CatalogLoader.column(columns, 1);
+                String type = CatalogLoader.column(columns, 2);
+                int power = Integer.parseInt(CatalogLoader.column(columns, 3));
+                int precision = Integer.parseInt(CatalogLoader.column(columns, 4));
+                String pp = CatalogLoader.column(columns, 5);
+                int maxPP = pp.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(pp);
+                int priority = Integer.parseInt(CatalogLoader.column(columns, 6));
+
+                if (kind == Kind.WEATHER) {
+                    return new WeatherMove(name, type, precision, maxPP, priority,
+                            CatalogLoader.column(columns, 10), Integer.parseInt(CatalogLoader.column(columns, 11)));
+                }
+                Effect effect = null;
+                if (kind == Kind.STATUS) {
+                    effect = new Effect(
+                            EffectType.valueOf(CatalogLoader.column(columns, 7)),
+                            Target.valueOf(CatalogLoader.column(columns, 8)),
+                            parseStatChanges(CatalogLoader.column(columns, 9)),
+                            emptyToNull(CatalogLoader.column(columns, 10)),
+                            Integer.parseInt(CatalogLoader.column(columns, 11)),
+                            Boolean.parseBoolean(CatalogLoader.column(columns, 12)),
+                            Boolean.parseBoolean(CatalogLoader.column(columns, 13)));
+                }
+                return create(kind, name, type, power, precision, maxPP, priority, effect);
+            }
+
+            @Override
+            public void write(Move move, DataOutputStream out) throws IOException {
+                Kind kind = kindOf(move);
+                out.writeByte(kind.ordinal());
+                out.writeUTF(move.name());
+                out.writeUTF(move.type());
+                out.writeInt(move.power());
+                out.writeInt(move.precision());
+                out.writeInt(move.maxPP());
+                out.writeInt(move.priority());
+
+                if (kind == Kind.WEATHER) {
+                    WeatherMove weather = (WeatherMove) move;
+                    out.writeUTF(weather.getClimate());
+                    out.writeInt(weather.getDuration());
+                } else if (kind == Kind.STATUS) {
+                    Effect effect = ((StatusMove) move).getEffect();
+                    out.writeUTF(effect.getEffectType().name());
+                    out.writeUTF(effect.getTarget().name());
+                    Map<String, Integer> changes = effect.getStatChanges();
+                    out.writeInt(changes == null ? -1 : changes.size());
+                    if (changes != null) {
+                        for (Map.Entry<String, Integer> entry : changes.entrySet()) {
+                            out.writeUTF(entry.getKey());
+                            out.writeInt(entry.getValue());
+                        }
+                    }
+                    out.writeUTF(effect.getStatus() == null ? "" : effect.getStatus());
+                    out.writeInt(effect.getDuration());
+                    out.writeBoolean(effect.isStackable());
+                    out.writeBoolean(effect.isForceSwitch());
+                }
+            }
+
+            @Override
+            public Move read(DataInputStream in) throws IOException {
+                Kind kind = Kind.values()[in.readUnsignedByte()];
+                String name = in.readUTF();
+                String type = in.readUTF();
+                int power = in.readInt();
+                int precision = in.readInt();
+                int maxPP = in.readInt();
+                int priority = in.readInt();
+
+                if (kind == Kind.WEATHER) {
+                    return new WeatherMove(name, type, precision, maxPP, priority, in.readUTF(), in.readInt());
+                }
+                Effect effect = null;
+                if (kind == Kind.STATUS) {
+                    EffectType effectType = EffectType.valueOf(in.readUTF());
+                    Target target = Target.valueOf(in.readUTF());
+                    int count = in.readInt();
+                    Map<String, Integer> changes = null;
+                    if (count >= 0) {
+                        changes = new LinkedHashMap<>();
+                        for (int i = 0; i < count; i++) {
+                            changes.put(in.readUTF(), in.readInt());
+                        }
+                    }
+                    effect = new Effect(effectType, target, changes, emptyToNull(in.readUTF()),
+                            in.readInt(), in.readBoolean(), in.readBoolean());
+                }
+                return create(kind, name, type, power, precision, maxPP, priority, effect);
+            }
 
+            private static Move create(Kind kind, String name, String type, int power, int precision, int maxPP,
+                                       int priority, Effect effect) {
+                switch (kind) {
+                    case PHYSICAL:
+                        return new PhysicalMove(name, type, power, precision, maxPP, priority);
+                    case SPECIAL:
+                        return new SpecialMove(name, type, power, precision, maxPP, priority);
+                    case STRUGGLE:
+                        return new StruggleMove(name, type, power, precision, priority);
+                    case CURSE:
+                        return new CurseMove(name, type, precision, maxPP, priority);
+                    default:
+                        return new StatusMove(name, type, precision, maxPP, priority, effect);
+                }
+            }
+
+            private static Kind kindOf(Move move) {
+                if (move instanceof StruggleMove) return Kind.STRUGGLE;
+                if (move instanceof PhysicalMove) return Kind.PHYSICAL;
+                if (move instanceof SpecialMove) return Kind.SPECIAL;
+                if (move instanceof CurseMove) return Kind.CURSE;
+                if (move instanceof WeatherMove) return Kind.WEATHER;
+                return Kind.STATUS;
+            }
+
+            /**
+             * Lee cambios de estadísticas con el formato {@code attack:1;defense:1}.
+             */
+            private static Map<String, Integer> parseStatChanges(String text) {
+                if (text.isEmpty()) return null;
+                Map<String, Integer> changes = new LinkedHashMap<>();
+                for (String change : text.split(";")) {
+                    String[] parts = change.split(":");
+                    changes.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+                }
+                return changes;
+            }
+
+            private static String emptyToNull(String text) {
+                return text.isEmpty() ? null : text;
+            }
+        }
+
+    }
@@ -0,0 +1,112 @@
+package domain;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Datos inmutables de un movimiento (nombre, tipo, poder, precisión, PP máximos y prioridad).
+ * Cada definición existe una sola vez en {@link MoveDatabase}; las instancias de {@link Move}
+ * usadas en batalla solo guardan una referencia a ella y sus PP actuales.
+ */
+public final class MoveDefinition implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Categoría del movimiento según cómo calcula su efecto.
+     */
+    public enum Category {
+        /** Daño basado en ataque y defensa. */
+        PHYSICAL,
+        /** Daño basado en ataque especial y defensa especial. */
+        SPECIAL,
+        /** Sin daño directo; aplica efectos o clima. */
+        STATUS
+    }
+
+    private final transient int id;
+    private final String name;
+    private final String type;
+    private final int power;
+    private final int precision;
+    private final int maxPP;
+    private final int priority;
+    private final Category category;
+
+    /**
+     * Crea una definición de movimiento. Las definiciones se deben obtener a través de
+     * {@link MoveDatabase#intern(MoveDefinition)} para que se compartan.
+     *
+     * @param name      nombre del movimiento
+     * @param type      tipo del movimiento
+     * @param power     poder base
+     * @param precision precisión (0–100)
+     * @param maxPP     puntos de poder máximos
+     * @param priority  prioridad en el turno
+     * @param category  categoría del movimiento
+     */
+    public MoveDefinition(String name, String type, int power, int precision, int maxPP, int priority,
+                          Category category) {
+        this(-1, name, type, power, precision, maxPP, priority, category);
+    }
+
+    /**
+     * Crea una copia de la definición con el identificador asignado por el catálogo.
+     */
+    MoveDefinition(int id, MoveDefinition other) {
+        this(id, other.name, other.type, other.power, other.precision, other.maxPP, other.priority, other.category);
+    }
+
+    private MoveDefinition(int id, String name, String type, int power, int precision, int maxPP, int priority,
+                           Category category) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.power = power;
+        this.precision = precision;
+        this.maxPP = maxPP;
+        this.priority = priority;
+        this.category = category;
+    }
+
+    /**
+     * @return identificador denso asignado por {@link MoveDatabase}, o -1 si no está registrado
+     */
+    public int getId() { return id; }
+
+    public String getName() { return name; }
+    public String getType() { return type; }
+    public int getPower() { return power; }
+    public int getPrecision() { return precision; }
+    public int getMaxPP() { return maxPP; }
+    public int getPriority() { return priority; }
+    public Category getCategory() { return category; }
+
+    /**
+     * Al deserializar se reemplaza por la definición compartida del catálogo.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return MoveDatabase.intern(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MoveDefinition)) return false;
+        MoveDefinition that = (MoveDefinition) o;
+        return power == that.power && precision == that.precision && maxPP == that.maxPP
+                && priority == that.priority && category == that.category
+                && Objects.equals(name, that.name) && Objects.equals(type, that.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type, power, precision, maxPP, priority, category);
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + type + ", " + category + ", poder=" + power + ", precisión=" + precision
+                + ", PP=" + maxPP + "]";
+    }
+}
@@ -2,29 +2,122 @@ package domain;
 
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Clase encargada de manejar la persistencia del juego (guardar/cargar partidas)
+ * Clase encargada de manejar la persistencia del juego (guardar/cargar partidas).
+ *
+ * <p>Las partidas se guardan comprimidas con un {@link SaveCodec}. Cada archivo empieza
+ * con una cabecera que registra el códec usado, así que cada partida puede usar un
+ * códec distinto. La cabecera tiene el formato:
+ * <pre>
+ *   'P' 'K' 'S' 'V'   firma del archivo
+ *   versión           1 byte
+ *   códec             1 byte (identificador del códec)
+ *   longitud          4 bytes (tamaño de la partida serializada sin comprimir)
+ * </pre>
+ * Los archivos antiguos, que contienen directamente la serialización de Java, se siguen
+ * pudiendo cargar.
  */
 public class PersistenceManager {
     public static final String SAVE_FOLDER = "saves/";
 
+    private static final byte[] MAGIC = {'P', 'K', 'S', 'V'};
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 2 + 4;
+
+    private static final Map<Byte, SaveCodec> codecs = new LinkedHashMap<>();
+    private static SaveCodec defaultCodec;
+
     static {
         new File(SAVE_FOLDER).mkdirs();
+        registerCodec(new RawSaveCodec());
+        registerCodec(new DeflateSaveCodec());
+        registerCodec(new LzSaveCodec());
+        defaultCodec = codecs.get(DeflateSaveCodec.ID);
+    }
+
+    /**
+     * Registra un códec para que pueda usarse al guardar y reconocerse al cargar.
+     *
+     * @param codec códec a registrar
+     * @throws IllegalArgumentException si ya existe un códec con el mismo identificador
+     */
+    public static void registerCodec(SaveCodec codec) {
+        SaveCodec previous = codecs.putIfAbsent(codec.getId(), codec);
+        if (previous != null && previous != codec) {
+            throw new IllegalArgumentException("Ya existe un códec con el identificador " + codec.getId());
+        }
+    }
+
+    /**
+     * Obtiene un códec registrado por su nombre.
+     *
+     * @param name nombre del códec (por ejemplo, "deflate" o "lz")
+     * @return el códec correspondiente
+     * @throws IllegalArgumentException si no hay un códec con ese nombre
+     */
+    public static SaveCodec getCodec(String name) {
+        for (SaveCodec codec : codecs.values()) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("No existe el códec: " + name);
+    }
+
+    /**
+     * @return todos los códecs registrados, en orden de registro
+     */
+    public static Collection<SaveCodec> getCodecs() {
+        return Collections.unmodifiableCollection(codecs.values());
+    }
+
+    /**
+     * Establece el códec usado por {@link #saveGame(GameState, String)}.
+     *
+     * @param codec nuevo códec por defecto
+     */
+    public static void setDefaultCodec(SaveCodec codec) {
+        registerCodec(codec);
+        defaultCodec = codec;
     }
 
     /**
-     * Guarda el estado del juego en un archivo
+     * @return el códec usado por defecto al guardar
+     */
+    public static SaveCodec getDefaultCodec() {
+        return defaultCodec;
+    }
+
+    /**
+     * Guarda el estado del juego en un archivo usando el códec por defecto.
      * @param gameState Estado del juego a guardar
      * @param filename Nombre del archivo (sin extensión)
      * @return true si se guardó correctamente
      */
     public static boolean saveGame(GameState gameState, String filename) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
+        return saveGame(gameState, filename, defaultCodec);
+    }
+
+    /**
+     * Guarda el estado del juego en un archivo usando el códec indicado.
+     * @param gameState Estado del juego a guardar
+     * @param filename Nombre del archivo (sin extensión)
+     * @param codec Códec de compresión a usar
+     * @return true si se guardó correctamente
+     */
+    public static boolean saveGame(GameState gameState, String filename, SaveCodec codec) {
+        try (OutputStream out = new BufferedOutputStream(
                 new FileOutputStream(SAVE_FOLDER + filename + ".dat"))) {
-            oos.writeObject(gameState);
+            out.write(encodeGameState(gameState, codec));
             return true;
         } catch (IOException e) {
             System.err.println("Error al guardar la partida: " + e.getMessage());
@@ -38,15 +131,113 @@ public class PersistenceManager {
      * @return Objeto GameState o null si hubo error
      */
     public static GameState loadGame(String filename) {
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(SAVE_FOLDER + filename + ".dat"))) {
-            return (GameState) ois.readObject();
+        return loadGame(new File(SAVE_FOLDER + filename + ".dat"));
+    }
+
+    /**
+     * Carga un estado del juego desde un archivo en cualquier ubicación.
+     * @param file Archivo de la partida
+     * @return Objeto GameState o null si hubo error
+     */
+    public static GameState loadGame(File file) {
+        try {
+            return decodeGameState(Files.readAllBytes(file.toPath()));
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error al cargar la partida: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Serializa y comprime un estado del juego, anteponiendo la cabecera con el códec.
+     *
+     * @param gameState estado del juego
+     * @param codec     códec de compresión
+     * @return bytes listos para escribirse en disco
+     * @throws IOException si falla la serialización o la compresión
+     */
+    public static byte[] encodeGameState(GameState gameState, SaveCodec codec) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(raw)) {
+            oos.writeObject(gameState);
+        }
+        byte[] serialized = raw.toByteArray();
+        byte[] payload = codec.encode(serialized);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(HEADER_SIZE + payload.length);
+        DataOutputStream dos = new DataOutputStream(result);
+        dos.write(MAGIC);
+        dos.writeByte(FORMAT_VERSION);
+        dos.writeByte(codec.getId());
+        dos.writeInt(serialized.length);
+        dos.write(payload);
+        dos.flush();
+        return result.toByteArray();
+    }
+
+    /**
+     * Descomprime y deserializa un estado del juego. Acepta tanto el formato con cabecera
+     * como los archivos antiguos sin comprimir.
+     *
+     * @param bytes contenido completo del archivo
+     * @return el estado del juego
+     * @throws IOException            si el archivo está corrupto o usa un códec desconocido
+     * @throws ClassNotFoundException si alguna clase serializada no existe
+     */
+    public static GameState decodeGameState(byte[] bytes) throws IOException, ClassNotFoundException {
+        byte[] serialized = hasHeader(bytes) ? unwrap(bytes) : bytes;
+        try (ObjectInputStream ois = new SaveInputStream(new ByteArrayInputStream(serialized))) {
+            return (GameState) ois.readObject();
+        }
+    }
+
+    /**
+     * Obtiene el códec con el que fue guardada una partida.
+     *
+     * @param bytes contenido completo del archivo
+     * @return el códec usado, o {@link RawSaveCodec} si es un archivo antiguo sin cabecera
+     * @throws IOException si el códec de la cabecera no está registrado
+     */
+    public static SaveCodec detectCodec(byte[] bytes) throws IOException {
+        if (!hasHeader(bytes)) {
+            return codecs.get(RawSaveCodec.ID);
+        }
+        return codecFor(bytes[MAGIC.length + 1]);
+    }
+
+    /**
+     * Extrae los bytes serializados de un archivo con cabecera.
+     */
+    private static byte[] unwrap(byte[] bytes) throws IOException {
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes, MAGIC.length, bytes.length));
+        byte version = dis.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Versión de archivo no soportada: " + version);
+        }
+        SaveCodec codec = codecFor(dis.readByte());
+        int originalLength = dis.readInt();
+        byte[] payload = new byte[bytes.length - HEADER_SIZE];
+        System.arraycopy(bytes, HEADER_SIZE, payload, 0, payload.length);
+        SaveCodec.checkLength(codec, payload, originalLength);
+        return codec.decode(payload, originalLength);
+    }
+
+    private static SaveCodec codecFor(byte id) throws IOException {
+        SaveCodec codec = codecs.get(id);
+        if (codec == null) {
+            throw new IOException("Códec desconocido: " + id);
+        }
+        return codec;
+    }
+
+    private static boolean hasHeader(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
     /**
      * Obtiene la lista de partidas guardadas
      * @return Lista de nombres de archivos guardados
@@ -63,4 +254,36 @@ public class PersistenceManager {
         return savedGames;
     }
 
-}
\ No newline at end of file
+    /**
+     * Flujo de lectura de partidas que traduce clases que ya no existen en el código actual.
+     * Las partidas antiguas guardan los cambios de estadísticas de los movimientos como
+     * subclases anónimas de {@link HashMap} declaradas en {@link MoveDatabase}.
+     */
+    private static class SaveInputStream extends ObjectInputStream {
+        private static final String LEGACY_STAT_CHANGES = MoveDatabase.class.getName() + "$";
+
+        SaveInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass desc = super.readClassDescriptor();
+            if (desc.getName().startsWith(LEGACY_STAT_CHANGES)) {
+                return ObjectStreamClass.lookup(LegacyStatChanges.class);
+            }
+            return desc;
+        }
+    }
+
+    /**
+     * Sustituye a los mapas anónimos de las partidas antiguas; al leerse se reemplaza por un mapa normal.
+     */
+    private static class LegacyStatChanges extends HashMap<String, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private Object readResolve() {
+            return new HashMap<>(this);
+        }
+    }
+}
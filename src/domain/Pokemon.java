@@ -1,31 +1,23 @@
 package domain;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 
 /**
  * Representa un Pokémon con estadísticas, movimientos y estado de batalla.
+ * Los datos fijos (nombre, tipo y estadísticas base) se comparten a través de su {@link Species}.
  */
 public class Pokemon implements Cloneable, Serializable {
     private static final long serialVersionUID = 1L;
 
-    private String name;
-    private String type;
+    private Species species;
     private int hp;
-    private int level;
-    private int attack;
-    private int defense;
-    private int specialAttack;
-    private int specialDefense;
-    private int speed;
-    private int accuracy;
-    private int evasion;
     private List<Move> moves;
     private String status;
     private boolean hasSubstitute = false;
-    private int maxHp;
     private Map<String, Integer> statBoosts = new HashMap<>();
-    private int evasionStage = 0;
     private static final int LEVEL = 100;
     private List<ActiveEffect> activeEffects = new ArrayList<>();
     private boolean forcedToSwitch = false;
@@ -34,23 +26,25 @@ public class Pokemon implements Cloneable, Serializable {
 
     /**
      * Crea un nuevo Pokémon con sus atributos básicos y lista de movimientos.
+     * Las estadísticas base se comparten con las de cualquier otro Pokémon de la misma especie.
      */
     public Pokemon(String name, String type, int hp, int attack, int defense,
                    int specialAttack, int specialDefense, int speed, int accuracy,
                    int evasion, List<Move> moves) {
-        this.name = name;
-        this.type = type;
-        this.hp = hp;
-        this.level = LEVEL;
-        this.attack = attack;
-        this.defense = defense;
-        this.specialAttack = specialAttack;
-        this.specialDefense = specialDefense;
-        this.speed = speed;
-        this.accuracy = accuracy;
-        this.evasion = evasion;
+        this(new Species(name, type, hp, attack, defense, specialAttack, specialDefense, speed, accuracy, evasion),
+                moves);
+    }
+
+    /**
+     * Crea un nuevo Pokémon de la especie indicada con los HP al máximo.
+     *
+     * @param species especie del Pokémon
+     * @param moves   movimientos del Pokémon
+     */
+    public Pokemon(Species species, List<Move> moves) {
+        this.species = PokemonDataBase.intern(species);
+        this.hp = this.species.getHp();
         this.moves = moves;
-        this.maxHp = hp;
     }
 
     /**
@@ -80,6 +74,8 @@ public class Pokemon implements Cloneable, Serializable {
             for (Move move : this.moves) {
                 cloned.moves.add(move.clone());
             }
+            cloned.statBoosts = new HashMap<>(this.statBoosts);
+            cloned.activeEffects = new ArrayList<>(this.activeEffects);
             return cloned;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError();
@@ -98,7 +94,7 @@ public class Pokemon implements Cloneable, Serializable {
      */
     public void takeDamage(int amount) {
         if (hasSubstitute) {
-            System.out.println(name + " está protegido por el sustituto.");
+            System.out.println(getName() + " está protegido por el sustituto.");
             hasSubstitute = false;
         } else {
             hp = Math.max(0, hp - amount);
@@ -140,7 +136,7 @@ public class Pokemon implements Cloneable, Serializable {
      * @return HP máximo del Pokémon
      */
     public int getMaxHp() {
-        return maxHp;
+        return species.getHp();
     }
 
     /**
@@ -187,6 +183,13 @@ public class Pokemon implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * @return los aumentos y reducciones de estadísticas vigentes, por nombre del estadístico
+     */
+    public Map<String, Integer> getStatBoosts() {
+        return Collections.unmodifiableMap(statBoosts);
+    }
+
     /**
      * Reinicia todos los aumentos y reducciones de estadísticas del Pokémon.
      */
@@ -261,13 +264,13 @@ public class Pokemon implements Cloneable, Serializable {
      */
     public int getEffectiveStat(String stat) {
         int base = switch (stat.toLowerCase()) {
-            case "attack" -> attack;
-            case "defense" -> defense;
-            case "specialattack" -> specialAttack;
-            case "specialdefense" -> specialDefense;
-            case "speed" -> speed;
-            case "accuracy" -> accuracy;
-            case "evasion" -> evasion;
+            case "attack" -> species.getAttack();
+            case "defense" -> species.getDefense();
+            case "specialattack" -> species.getSpecialAttack();
+            case "specialdefense" -> species.getSpecialDefense();
+            case "speed" -> species.getSpeed();
+            case "accuracy" -> species.getAccuracy();
+            case "evasion" -> species.getEvasion();
             default -> 0;
         };
 
@@ -276,7 +279,7 @@ public class Pokemon implements Cloneable, Serializable {
 
 
         int total = base + boost;
-        System.out.println("📊 [" + name + "] " + stat + ": base=" + base + ", boost=" + boost + ", total=" + total);
+        System.out.println("📊 [" + getName() + "] " + stat + ": base=" + base + ", boost=" + boost + ", total=" + total);
         return result;
     }
 
@@ -368,22 +371,65 @@ public class Pokemon implements Cloneable, Serializable {
     // Getters
 
     public boolean mustSwitch() {return forcedToSwitch;}
-    public String getName() { return name; }
-    public String getType() { return type; }
-    public int getLevel() { return level; }
-    public int getAttack() { return attack; }
-    public int getDefense() { return defense; }
-    public int getSpecialAttack() { return specialAttack; }
-    public int getSpecialDefense() { return specialDefense; }
+    public Species getSpecies() { return species; }
+    public String getName() { return species.getName(); }
+    public String getType() { return species.getType(); }
+    public int getLevel() { return LEVEL; }
+    public int getAttack() { return species.getAttack(); }
+    public int getDefense() { return species.getDefense(); }
+    public int getSpecialAttack() { return species.getSpecialAttack(); }
+    public int getSpecialDefense() { return species.getSpecialDefense(); }
     public int getHp() { return hp; }
-    public int getSpeed() { return speed; }
-    public int getAccuracy() { return accuracy; }
-    public int getEvasion() { return evasion; }
+    public int getSpeed() { return species.getSpeed(); }
+    public int getAccuracy() { return species.getAccuracy(); }
+    public int getEvasion() { return species.getEvasion(); }
     public List<Move> getMoves() { return moves; }
 
+    /**
+     * Lee el Pokémon, aceptando también partidas guardadas antes de compartir las especies,
+     * en las que cada Pokémon guardaba su nombre, tipo y estadísticas base.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        if (fields.getObjectStreamClass().getField("species") != null) {
+            species = (Species) fields.get("species", null);
+        } else {
+            species = PokemonDataBase.intern(new Species(
+                    (String) fields.get("name", null),
+                    (String) fields.get("type", null),
+                    fields.get("maxHp", 0),
+                    fields.get("attack", 0),
+                    fields.get("defense", 0),
+                    fields.get("specialAttack", 0),
+                    fields.get("specialDefense", 0),
+                    fields.get("speed", 0),
+                    fields.get("accuracy", 0),
+                    fields.get("evasion", 0)));
+        }
+        hp = fields.get("hp", 0);
+        moves = (List<Move>) fields.get("moves", null);
+        status = (String) fields.get("status", null);
+        hasSubstitute = fields.get("hasSubstitute", false);
+        statBoosts = (Map<String, Integer>) fields.get("statBoosts", null);
+        if (statBoosts == null) statBoosts = new HashMap<>();
+        activeEffects = (List<ActiveEffect>) fields.get("activeEffects", null);
+        if (activeEffects == null) activeEffects = new ArrayList<>();
+        forcedToSwitch = fields.get("forcedToSwitch", false);
+        restriction = (String) fields.get("restriction", null);
+        restrictionDuration = fields.get("restrictionDuration", 0);
+    }
 
 
-    public class ActiveEffect {
+
+    /**
+     * Efecto aplicado al Pokémon con los turnos que lleva y los que le quedan. Es una clase
+     * anidada estática y serializable para que un Pokémon con efectos activos se pueda guardar
+     * y copiar.
+     */
+    public static class ActiveEffect implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final Effect effect;
         private int remainingTurns;
         private int turnsApplied = 0;
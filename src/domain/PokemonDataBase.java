@@ -1,5 +1,8 @@
 package domain;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 
@@ -7,290 +10,227 @@ import java.util.*;
  * Esta clase representa una base de datos de Pokémon que contiene información sobre
  * diversos Pokémon, incluyendo sus estadísticas y tipos. Proporciona métodos para
  * acceder a los Pokémon de manera individual o aleatoria.
+ * Las especies se cargan desde {@code pokemons.csv} a través de {@link CatalogLoader}.
  */
 public class PokemonDataBase implements Serializable {
-    private static Map<String, Pokemon> pokemons = new HashMap<>();
+    private static final Map<Species, Species> speciesPool = new HashMap<>();
+    private static final List<Species> speciesById = new ArrayList<>();
+    private static final Map<String, Species> pokemons = new LinkedHashMap<>();
+    private static final Map<String, List<Species>> speciesByType = new HashMap<>();
+    private static final Map<Species.Stat, RangeIndex<Species>> speciesByStat = new EnumMap<>(Species.Stat.class);
+    private static final Map<Species, List<MoveDefinition>> learnableMoves = new HashMap<>();
+    private static final Map<MoveDefinition, List<Species>> learners = new HashMap<>();
+    private static final Map<Species, PrefixIndex<MoveDefinition>> learnableByPrefix = new HashMap<>();
+    private static List<Species> allSpecies;
+    private static PrefixIndex<Species> speciesByPrefix;
     private static final long serialVersionUID = 1L;
 
     static {
-        loadInitialPokemons();
+        for (Species species : CatalogLoader.load("pokemons", new SpeciesFormat())) {
+            pokemons.put(species.getName(), intern(species));
+        }
+        allSpecies = Collections.unmodifiableList(new ArrayList<>(pokemons.values()));
+        for (Species species : allSpecies) {
+            speciesByType.computeIfAbsent(species.getType(), t -> new ArrayList<>()).add(species);
+        }
+        speciesByType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+        for (Species.Stat stat : Species.Stat.values()) {
+            speciesByStat.put(stat, new RangeIndex<>(allSpecies, stat::of, Species[]::new));
+        }
+        speciesByPrefix = new PrefixIndex<>(allSpecies, Species::getName, Species[]::new);
+        buildLearnsets(CatalogLoader.load("learnsets", new LearnsetFormat()));
     }
 
     /**
-     * Carga los Pokémon iniciales en la base de datos con sus respectivas estadísticas.
+     * Construye la relación entre especies y movimientos que pueden aprender.
+     * Las especies sin fila en {@code learnsets.csv} pueden aprender cualquier movimiento.
+     *
+     * @throws IllegalStateException si una fila nombra una especie o un movimiento inexistente
      */
-    private static void loadInitialPokemons() {
-        pokemons.put("Snorlax", new Pokemon(
-                "Snorlax", "NORMAL", 524,
-                350, 251, 251, 350,
-                174, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Porygon2", new Pokemon(
-                "Porygon2", "NORMAL", 424,
-                251, 262, 262, 273,
-                174, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Charizard", new Pokemon(
-                "Charizard", "FIRE", 360,
-                293, 280, 348, 295,
-                328, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Houndoom", new Pokemon(
-                "Houndoom", "FIRE", 364,
-                273, 211, 319, 251,
-                309, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Blastoise", new Pokemon(
-                "Blastoise", "WATER", 362,
-                291, 328, 295, 339,
-                280, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Vaporeon", new Pokemon(
-                "Vaporeon", "WATER", 464,
-                251, 211, 273, 319,
-                251, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Venusaur", new Pokemon(
-                "Venusaur", "GRASS", 364,
-                289, 291, 328, 328,
-                284, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Sceptile", new Pokemon(
-                "Sceptile", "GRASS", 344,
-                251, 219, 273, 251,
-                339, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Raichu", new Pokemon(
-                "Raichu", "ELECTRIC", 324,
-                306, 229, 306, 284,
-                350, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Manectric", new Pokemon(
-                "Manectric", "ELECTRIC", 324,
-                251, 219, 289, 239,
-                319, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Delibird", new Pokemon(
-                "Delibird", "ICE", 294,
-                229, 207, 251, 207,
-                273, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Lapras", new Pokemon(
-                "Lapras", "ICE", 464,
-                273, 251, 273, 273,
-                219, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Machamp", new Pokemon(
-                "Machamp", "FIGHTING", 384,
-                394, 284, 251, 295,
-                229, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Heracross", new Pokemon(
-                "Heracross", "FIGHTING", 364,
-                339, 229, 229, 249,
-                295, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Muk", new Pokemon(
-                "Muk", "POISON", 434,
-                306, 251, 219, 273,
-                174, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Crobat", new Pokemon(
-                "Crobat", "POISON", 374,
-                295, 229, 229, 249,
-                339, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Donphan", new Pokemon(
-                "Donphan", "GROUND", 384,
-                372, 372, 240, 240,
-                218, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Flygon", new Pokemon(
-                "Flygon", "GROUND", 344,
-                289, 251, 229, 251,
-                299, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Aerodactyl", new Pokemon(
-                "Aerodactyl", "FLYING", 344,
-                309, 229, 229, 229,
-                379, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Skarmory", new Pokemon(
-                "Skarmory", "FLYING", 334,
-                251, 379, 149, 249,
-                259, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Gardevoir", new Pokemon(
-                "Gardevoir", "PSYCHIC", 340,
-                251, 251, 383, 361,
-                284, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Alakazam", new Pokemon(
-                "Alakazam", "PSYCHIC", 314,
-                229, 195, 369, 249,
-                339, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Scyther", new Pokemon(
-                "Scyther", "BUG", 344,
-                309, 229, 229, 229,
-                339, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Shuckle", new Pokemon(
-                "Shuckle", "BUG", 244,
-                95, 479, 95, 479,
-                85, 100, 100,
-                new ArrayList<>()
-        ));
-
-        pokemons.put("Golem", new Pokemon(
-                "Golem", "ROCK", 364,
-                295, 339, 195, 229,
-                174, 100, 100,
-                new ArrayList<>()
-        ));
+    private static void buildLearnsets(List<String[]> rows) {
+        Map<Species, List<MoveDefinition>> listed = new HashMap<>();
+        for (String[] row : rows) {
+            Species species = pokemons.get(row[0]);
+            if (species == null) {
+                throw new IllegalStateException("learnsets.csv nombra un pokémon inexistente: " + row[0]);
+            }
+            List<MoveDefinition> moves = new ArrayList<>();
+            for (int i = 1; i < row.length; i++) {
+                MoveDefinition move = MoveDatabase.getDefinition(row[i]);
+                if (move == null) {
+                    throw new IllegalStateException("learnsets.csv nombra un movimiento inexistente: " + row[i]);
+                }
+                moves.add(move);
+            }
+            moves.sort(Comparator.comparing(MoveDefinition::getName));
+            listed.put(species, Collections.unmodifiableList(moves));
+            learnableByPrefix.put(species, new PrefixIndex<>(moves, MoveDefinition::getName, MoveDefinition[]::new));
+        }
 
-        pokemons.put("Tyranitar", new Pokemon(
-                "Tyranitar", "ROCK", 404,
-                403, 350, 317, 328,
-                243, 100, 100,
-                new ArrayList<>()
-        ));
+        Map<MoveDefinition, List<Species>> byMove = new HashMap<>();
+        for (Species species : allSpecies) {
+            List<MoveDefinition> moves = listed.getOrDefault(species, MoveDatabase.getAllMoves());
+            learnableMoves.put(species, moves);
+            for (MoveDefinition move : moves) {
+                byMove.computeIfAbsent(move, m -> new ArrayList<>()).add(species);
+            }
+        }
+        byMove.forEach((move, list) -> learners.put(move, Collections.unmodifiableList(list)));
+    }
 
-        pokemons.put("Dusclops", new Pokemon(
-                "Dusclops", "GHOST", 284,
-                195, 339, 195, 339,
-                135, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Devuelve la especie compartida equivalente a la indicada, registrándola si es nueva.
+     * Todos los Pokémon de la misma especie usan así la misma instancia de {@link Species}.
+     *
+     * @param species especie a buscar
+     * @return especie compartida con su identificador asignado
+     */
+    public static synchronized Species intern(Species species) {
+        Species shared = speciesPool.get(species);
+        if (shared == null) {
+            shared = new Species(speciesById.size(), species);
+            speciesPool.put(shared, shared);
+            speciesById.add(shared);
+        }
+        return shared;
+    }
 
-        pokemons.put("Gengar", new Pokemon(
-                "Gengar", "GHOST", 324,
-                251, 240, 394, 273,
-                350, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene la especie con el nombre especificado.
+     *
+     * @param name El nombre de la especie.
+     * @return La especie compartida.
+     * @throws IllegalArgumentException Si la especie no existe en la base de datos.
+     */
+    public static Species getSpecies(String name) {
+        Species species = pokemons.get(name);
+        if (species == null) {
+            throw new IllegalArgumentException("No existe el pokémon: " + name);
+        }
+        return species;
+    }
 
-        pokemons.put("Kingdra", new Pokemon(
-                "Kingdra", "DRAGON", 374,
-                273, 273, 273, 273,
-                251, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene la especie registrada con el identificador indicado.
+     *
+     * @param id El identificador de la especie.
+     * @return La especie compartida.
+     * @throws IllegalArgumentException Si no existe una especie con ese identificador.
+     */
+    public static synchronized Species getSpecies(int id) {
+        if (id < 0 || id >= speciesById.size()) {
+            throw new IllegalArgumentException("No existe el pokémon con id: " + id);
+        }
+        return speciesById.get(id);
+    }
 
-        pokemons.put("Dragonite", new Pokemon(
-                "Dragonite", "DRAGON", 386,
-                403, 317, 328, 328,
-                284, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene un nuevo Pokémon de la especie con el nombre especificado.
+     * Las estadísticas base se comparten; solo el estado de batalla es propio.
+     *
+     * @param name El nombre del Pokémon a buscar.
+     * @return Un Pokémon nuevo de la especie solicitada, sin movimientos.
+     * @throws IllegalArgumentException Si el Pokémon no existe en la base de datos.
+     */
+    public static Pokemon getPokemon(String name) {
+        return new Pokemon(getSpecies(name), new ArrayList<>());
+    }
 
-        pokemons.put("Umbreon", new Pokemon(
-                "Umbreon", "DARK", 394,
-                229, 339, 195, 349,
-                219, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene las especies de un tipo.
+     *
+     * @param type El tipo de las especies (por ejemplo, "FIRE").
+     * @return Una lista inmodificable, vacía si no hay especies de ese tipo.
+     */
+    public static List<Species> getSpeciesByType(String type) {
+        return speciesByType.getOrDefault(type.toUpperCase(), Collections.emptyList());
+    }
 
-        pokemons.put("Absol", new Pokemon(
-                "Absol", "DARK", 344,
-                339, 209, 229, 229,
-                279, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene todas las especies del catálogo, en el orden del archivo de datos.
+     *
+     * @return Una lista inmodificable de especies.
+     */
+    public static List<Species> getAllSpecies() {
+        return allSpecies;
+    }
 
-        pokemons.put("Metagross", new Pokemon(
-                "Metagross", "STEEL", 364,
-                405, 394, 317, 306,
-                262, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Busca las especies cuyo nombre empieza por el texto indicado, sin distinguir mayúsculas.
+     *
+     * @param prefix El comienzo del nombre; vacío para todas.
+     * @return Una lista inmodificable de especies, ordenadas por nombre.
+     */
+    public static List<Species> searchSpecies(String prefix) {
+        return speciesByPrefix.withPrefix(prefix);
+    }
 
-        pokemons.put("Steelix", new Pokemon(
-                "Steelix", "STEEL", 354,
-                229, 439, 195, 229,
-                129, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene las especies cuya estadística base es al menos el valor indicado,
+     * ordenadas de menor a mayor valor de esa estadística.
+     *
+     * @param stat La estadística a consultar.
+     * @param min  El valor mínimo (incluido).
+     * @return Una lista inmodificable de especies.
+     */
+    public static List<Species> getSpeciesWithStatAtLeast(Species.Stat stat, int min) {
+        return speciesByStat.get(stat).atLeast(min);
+    }
 
-        pokemons.put("Wigglytuff", new Pokemon(
-                "Wigglytuff", "FAIRY", 484,
-                229, 179, 229, 219,
-                179, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene las especies cuya estadística base está dentro del rango indicado,
+     * ordenadas de menor a mayor valor de esa estadística.
+     *
+     * @param stat La estadística a consultar.
+     * @param min  El valor mínimo (incluido).
+     * @param max  El valor máximo (incluido).
+     * @return Una lista inmodificable de especies.
+     */
+    public static List<Species> getSpeciesWithStatInRange(Species.Stat stat, int min, int max) {
+        return speciesByStat.get(stat).range(min, max);
+    }
 
-        pokemons.put("Togetic", new Pokemon(
-                "Togetic", "FAIRY", 314,
-                196, 295, 284, 339,
-                196, 100, 100,
-                new ArrayList<>()
-        ));
+    /**
+     * Obtiene los movimientos que puede aprender una especie, ordenados por nombre.
+     *
+     * @param species La especie a consultar.
+     * @return Una lista inmodificable de definiciones de movimientos.
+     * @throws IllegalArgumentException Si la especie no está en el catálogo.
+     */
+    public static List<MoveDefinition> getLearnableMoves(Species species) {
+        List<MoveDefinition> moves = learnableMoves.get(species);
+        if (moves == null) {
+            throw new IllegalArgumentException("No existe el pokémon: " + species.getName());
+        }
+        return moves;
     }
 
     /**
-     * Obtiene una copia del Pokémon con el nombre especificado.
+     * Busca, entre los movimientos que puede aprender una especie, los que empiezan por el texto
+     * indicado, sin distinguir mayúsculas.
      *
-     * @param name El nombre del Pokémon a buscar.
-     * @return Una copia del Pokémon solicitado.
-     * @throws IllegalArgumentException Si el Pokémon no existe en la base de datos.
+     * @param species La especie a consultar.
+     * @param prefix  El comienzo del nombre; vacío para todos.
+     * @return Una lista inmodificable de definiciones, ordenadas por nombre.
+     * @throws IllegalArgumentException Si la especie no está en el catálogo.
      */
-    public static Pokemon getPokemon(String name) {
-        Pokemon base = pokemons.get(name);
-        if (base == null) {
-            throw new IllegalArgumentException("No existe el pokémon: " + name);
+    public static List<MoveDefinition> searchLearnableMoves(Species species, String prefix) {
+        if (!learnableMoves.containsKey(species)) {
+            throw new IllegalArgumentException("No existe el pokémon: " + species.getName());
         }
-        return new Pokemon(
-                base.getName(), base.getType(), base.getHp(),
-                base.getAttack(), base.getDefense(), base.getSpecialAttack(), base.getSpecialDefense(),
-                base.getSpeed(), base.getAccuracy(), base.getEvasion(),
-                new ArrayList<>(base.getMoves())
-        );
+        PrefixIndex<MoveDefinition> index = learnableByPrefix.get(species);
+        // Las especies sin lista propia aprenden todo el catálogo
+        return index != null ? index.withPrefix(prefix) : MoveDatabase.searchMoves(prefix);
+    }
+
+    /**
+     * Obtiene las especies que pueden aprender un movimiento.
+     *
+     * @param move La definición del movimiento.
+     * @return Una lista inmodificable, vacía si ninguna especie puede aprenderlo.
+     */
+    public static List<Species> getLearners(MoveDefinition move) {
+        return learners.getOrDefault(move, Collections.emptyList());
     }
 
     /**
@@ -316,4 +256,70 @@ public class PokemonDataBase implements Serializable {
         String randomName = names.get(new Random().nextInt(names.size()));
         return getPokemon(randomName);
     }
-}
\ No newline at end of file
+
+    /**
+     * Formato de las filas de {@code pokemons.csv}.
+     */
+    private static class SpeciesFormat implements CatalogLoader.Format<Species> {
+        @Override
+        public Species parse(String[] columns) {
+            int[] stats = new int[8];
+            for (int i = 0; i < stats.length; i++) {
+                stats[i] = Integer.parseInt(CatalogLoader.column(columns, i + 2));
+            }
+            return new Species(CatalogLoader.column(columns, 0), CatalogLoader.column(columns, 1),
+                    stats[0], stats[1], stats[2], stats[3], stats[4], stats[5], stats[6], stats[7]);
+        }
+
+        @Override
+        public void write(Species species, DataOutputStream out) throws IOException {
+            out.writeUTF(species.getName());
+            out.writeUTF(species.getType());
+            out.writeInt(species.getHp());
+            out.writeInt(species.getAttack());
+            out.writeInt(species.getDefense());
+            out.writeInt(species.getSpecialAttack());
+            out.writeInt(species.getSpecialDefense());
+            out.writeInt(species.getSpeed());
+            out.writeInt(species.getAccuracy());
+            out.writeInt(species.getEvasion());
+        }
+
+        @Override
+        public Species read(DataInputStream in) throws IOException {
+            return new Species(in.readUTF(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(),
+                    in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        }
+    }
+
+    /**
+     * Formato de las filas de {@code learnsets.csv}: nombre del Pokémon seguido de sus movimientos.
+     */
+    private static class LearnsetFormat implements CatalogLoader.Format<String[]> {
+        @Override
+        public String[] parse(String[] columns) {
+            String[] row = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                row[i] = columns[i].trim();
+            }
+            return row;
+        }
+
+        @Override
+        public void write(String[] row, DataOutputStream out) throws IOException {
+            out.writeInt(row.length);
+            for (String column : row) {
+                out.writeUTF(column);
+            }
+        }
+
+        @Override
+        public String[] read(DataInputStream in) throws IOException {
+            String[] row = new String[in.readInt()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = in.readUTF();
+            }
+            return row;
+        }
+    }
+}
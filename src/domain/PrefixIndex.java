@@ -0,0 +1,68 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Índice de un catálogo ordenado por nombre, sin distinguir mayúsculas, para búsquedas
+ * mientras se escribe. Una búsqueda por prefijo hace dos búsquedas binarias y devuelve una
+ * vista inmodificable del arreglo ordenado, sin recorrer ni copiar el catálogo.
+ *
+ * @param <T> tipo de los elementos indexados
+ */
+class PrefixIndex<T> {
+    private final String[] keys;
+    private final List<T> view;
+
+    /**
+     * Construye el índice ordenando los elementos por nombre.
+     *
+     * @param elements  elementos a indexar
+     * @param name      nombre de cada elemento
+     * @param generator crea el arreglo interno (por ejemplo {@code Species[]::new})
+     */
+    PrefixIndex(Collection<T> elements, Function<T, String> name, IntFunction<T[]> generator) {
+        T[] sorted = elements.toArray(generator.apply(elements.size()));
+        Arrays.sort(sorted, Comparator.comparing(element -> normalize(name.apply(element))));
+        this.keys = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = normalize(name.apply(sorted[i]));
+        }
+        this.view = Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    /**
+     * @param prefix comienzo del nombre, sin distinguir mayúsculas; vacío para todos
+     * @return elementos cuyo nombre empieza por el prefijo, ordenados por nombre
+     */
+    List<T> withPrefix(String prefix) {
+        String key = normalize(prefix.trim());
+        if (key.isEmpty()) {
+            return view;
+        }
+        int from = firstAtLeast(key);
+        // Todo nombre con el prefijo es menor que el prefijo seguido del carácter más alto
+        int to = firstAtLeast(key + Character.MAX_VALUE);
+        return from >= to ? Collections.emptyList() : view.subList(from, to);
+    }
+
+    private int firstAtLeast(String key) {
+        int low = 0, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
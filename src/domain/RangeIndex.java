@@ -0,0 +1,66 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Índice de un catálogo ordenado por un valor entero (poder, precisión, una estadística...).
+ * Las consultas por rango hacen una búsqueda binaria y devuelven una vista inmodificable
+ * del arreglo ordenado, sin copiar elementos.
+ *
+ * @param <T> tipo de los elementos indexados
+ */
+class RangeIndex<T> {
+    private final T[] sorted;
+    private final ToIntFunction<T> key;
+    private final List<T> view;
+
+    /**
+     * Construye el índice ordenando los elementos por la clave, de menor a mayor.
+     * A igual clave se conserva el orden original.
+     *
+     * @param elements  elementos a indexar
+     * @param key       valor por el que se ordena
+     * @param generator crea el arreglo interno (por ejemplo {@code Species[]::new})
+     */
+    RangeIndex(Collection<T> elements, ToIntFunction<T> key, IntFunction<T[]> generator) {
+        this.sorted = elements.toArray(generator.apply(elements.size()));
+        this.key = key;
+        Arrays.sort(sorted, Comparator.comparingInt(key));
+        this.view = Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    /**
+     * @param min valor mínimo (incluido)
+     * @param max valor máximo (incluido)
+     * @return elementos con la clave en el rango, de menor a mayor
+     */
+    List<T> range(int min, int max) {
+        int from = firstAtLeast(min);
+        int to = max == Integer.MAX_VALUE ? sorted.length : firstAtLeast(max + 1);
+        return from >= to ? Collections.emptyList() : view.subList(from, to);
+    }
+
+    /**
+     * @param min valor mínimo (incluido)
+     * @return elementos con la clave mayor o igual al mínimo, de menor a mayor
+     */
+    List<T> atLeast(int min) {
+        return range(min, Integer.MAX_VALUE);
+    }
+
+    private int firstAtLeast(int value) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key.applyAsInt(sorted[mid]) < value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
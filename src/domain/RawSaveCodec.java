@@ -0,0 +1,47 @@
+package domain;
+
+import java.io.IOException;
+
+/**
+ * Códec que no aplica ninguna compresión. Útil para depurar archivos guardados
+ * o como referencia al comparar tamaños con los demás códecs.
+ */
+public class RawSaveCodec implements SaveCodec {
+    public static final byte ID = 0;
+
+    @Override
+    public byte getId() { return ID; }
+
+    @Override
+    public String getName() { return "raw"; }
+
+    @Override
+    public int getMaxExpansion() { return 1; }
+
+    /**
+     * Devuelve los mismos datos sin modificarlos.
+     *
+     * @param data bytes sin comprimir
+     * @return los mismos bytes recibidos
+     */
+    @Override
+    public byte[] encode(byte[] data) {
+        return data;
+    }
+
+    /**
+     * Devuelve los mismos datos verificando que la longitud coincida con la de la cabecera.
+     *
+     * @param data           bytes almacenados
+     * @param originalLength longitud esperada
+     * @return los mismos bytes recibidos
+     * @throws IOException si la longitud no coincide
+     */
+    @Override
+    public byte[] decode(byte[] data, int originalLength) throws IOException {
+        if (data.length != originalLength) {
+            throw new IOException("Longitud inesperada: " + data.length + " (se esperaba " + originalLength + ")");
+        }
+        return data;
+    }
+}
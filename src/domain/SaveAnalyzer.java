@@ -0,0 +1,148 @@
+package domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Herramienta de línea de comandos que analiza un directorio de partidas guardadas
+ * y genera estadísticas agregadas (especies más elegidas, uso de movimientos,
+ * HP restante por estrategia y resultados por composición de equipo).
+ *
+ * <p>Los archivos se recorren como un flujo perezoso y se decodifican en paralelo.
+ * Cada partida se descarta después de incorporarla a un {@link SaveStatistics}
+ * propio de cada hilo, así que la memoria no crece con el número de archivos.
+ *
+ * <pre>
+ *   java -cp out domain.SaveAnalyzer [directorio] [--top N] [--threads N]
+ * </pre>
+ */
+public class SaveAnalyzer {
+    private static final int DEFAULT_TOP = 10;
+
+    private final int parallelism;
+
+    /**
+     * Crea un analizador que usa tantos hilos como procesadores disponibles.
+     */
+    public SaveAnalyzer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un analizador con el nivel de paralelismo indicado.
+     *
+     * @param parallelism número de hilos usados para decodificar partidas
+     * @throws IllegalArgumentException si el paralelismo es menor que 1
+     */
+    public SaveAnalyzer(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Analiza todas las partidas ({@code .dat}) de un directorio.
+     *
+     * @param directory directorio con las partidas guardadas
+     * @return estadísticas agregadas
+     * @throws IOException si no se puede leer el directorio
+     */
+    public SaveStatistics analyze(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("No es un directorio: " + directory);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (Stream<Path> files = Files.list(directory)) {
+            return pool.submit(() -> files
+                    .filter(path -> path.getFileName().toString().endsWith(".dat"))
+                    .parallel()
+                    .collect(SaveStatistics::new,
+                            SaveAnalyzer::analyzeFile,
+                            SaveStatistics::combine))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Análisis interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Error durante el análisis: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Incorpora una partida a las estadísticas del hilo. Cualquier excepción o error al leerla
+     * solo marca ese archivo como ilegible, sin detener el resto del análisis. La partida se
+     * acumula primero en una instancia propia para que un fallo a mitad no deje datos parciales.
+     */
+    private static void analyzeFile(SaveStatistics stats, Path path) {
+        String name = path.getFileName().toString();
+        try {
+            GameState state = PersistenceManager.loadGame(path.toFile());
+            if (state != null && state.getBattle() != null) {
+                SaveStatistics game = new SaveStatistics();
+                game.accept(state);
+                stats.combine(game);
+                return;
+            }
+        } catch (RuntimeException | Error e) {
+            System.err.println("Error al analizar la partida " + name + ": " + e);
+        }
+        stats.addUnreadable(name);
+    }
+
+    /**
+     * Punto de entrada de la herramienta.
+     *
+     * @param args directorio opcional (por defecto {@value PersistenceManager#SAVE_FOLDER}),
+     *             {@code --top N} y {@code --threads N}
+     */
+    public static void main(String[] args) {
+        String directory = PersistenceManager.SAVE_FOLDER;
+        int top = DEFAULT_TOP;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--top":
+                        top = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        directory = args[i];
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Uso: java domain.SaveAnalyzer [directorio] [--top N] [--threads N]");
+            System.exit(1);
+        }
+
+        try {
+            long start = System.nanoTime();
+            SaveStatistics stats = new SaveAnalyzer(threads).analyze(Paths.get(directory));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("Directorio: " + new File(directory).getAbsolutePath());
+            System.out.print(stats.toReport(top));
+            System.out.println("\nTiempo: " + elapsedMs + " ms con " + threads + " hilos");
+        } catch (IOException e) {
+            System.err.println("Error al analizar las partidas: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
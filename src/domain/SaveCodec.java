@@ -0,0 +1,66 @@
+package domain;
+
+import java.io.IOException;
+
+/**
+ * Interfaz que define un códec de compresión para los archivos de partidas guardadas.
+ * Cada códec se identifica con un byte que se escribe en la cabecera del archivo,
+ * de modo que al cargar se pueda elegir el descompresor correcto.
+ */
+public interface SaveCodec {
+
+    /** Tamaño máximo de una partida descomprimida; una cabecera que pide más se rechaza. */
+    int MAX_DECODED_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * @return Identificador único del códec, almacenado en la cabecera del archivo
+     */
+    byte getId();
+
+    /**
+     * @return Nombre legible del códec (por ejemplo, "deflate" o "lz")
+     */
+    String getName();
+
+    /**
+     * Comprime los bytes de una partida serializada.
+     *
+     * @param data bytes sin comprimir
+     * @return bytes comprimidos
+     * @throws IOException si ocurre un error durante la compresión
+     */
+    byte[] encode(byte[] data) throws IOException;
+
+    /**
+     * Descomprime los bytes de una partida guardada.
+     *
+     * @param data           bytes comprimidos
+     * @param originalLength longitud original de los datos, tomada de la cabecera
+     * @return bytes descomprimidos
+     * @throws IOException si los datos están corruptos o no coinciden con la longitud esperada
+     */
+    byte[] decode(byte[] data, int originalLength) throws IOException;
+
+    /**
+     * @return cuántas veces más grande que los datos comprimidos puede llegar a ser el resultado
+     * de {@link #decode}
+     */
+    int getMaxExpansion();
+
+    /**
+     * Verifica, antes de reservar memoria, que la longitud de la cabecera sea posible para los
+     * datos recibidos: no negativa, no mayor que {@link #MAX_DECODED_LENGTH} ni que lo que el
+     * códec puede generar a partir de esos datos.
+     *
+     * @param codec          códec con el que se van a descomprimir los datos
+     * @param data           bytes comprimidos
+     * @param originalLength longitud tomada de la cabecera
+     * @throws IOException si la longitud no es posible
+     */
+    static void checkLength(SaveCodec codec, byte[] data, int originalLength) throws IOException {
+        long limit = Math.min(MAX_DECODED_LENGTH, (long) data.length * codec.getMaxExpansion() + 64);
+        if (originalLength < 0 || originalLength > limit) {
+            throw new IOException("Longitud inválida en la cabecera: " + originalLength);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package domain;
+
+import java.util.*;
+
+/**
+ * Acumulador de estadísticas sobre un conjunto de partidas guardadas.
+ * Cada hilo de análisis usa su propia instancia y al final se combinan con
+ * {@link #combine(SaveStatistics)}, por lo que no requiere sincronización.
+ */
+public class SaveStatistics {
+    private static final String HUMAN = "Humano";
+
+    private long games;
+    private long unreadable;
+    private long finishedGames;
+    private final Map<String, Long> speciesPicks = new HashMap<>();
+    private final Map<String, Long> movePicks = new HashMap<>();
+    private final Map<String, Long> movePPUsed = new HashMap<>();
+    private final Map<String, double[]> hpByStrategy = new HashMap<>();
+    private final Map<String, long[]> recordByComposition = new HashMap<>();
+    private final List<String> unreadableFiles = new ArrayList<>();
+
+    /**
+     * Incorpora una partida a las estadísticas.
+     *
+     * @param state estado del juego leído; {@code null} cuenta como archivo ilegible
+     */
+    public void accept(GameState state) {
+        if (state == null || state.getBattle() == null) {
+            unreadable++;
+            return;
+        }
+        games++;
+
+        Battle battle = state.getBattle();
+        Trainer winner = battle.isFinished() ? battle.getWinner() : null;
+        if (battle.isFinished()) {
+            finishedGames++;
+        }
+
+        for (Trainer trainer : new Trainer[]{battle.getPlayer1(), battle.getPlayer2()}) {
+            if (trainer == null) continue;
+            List<Pokemon> team = trainer.getTeam().getPokemons();
+
+            double hpFraction = 0;
+            for (Pokemon p : team) {
+                increment(speciesPicks, p.getName(), 1);
+                if (p.getMoves() != null) {
+                    for (Move move : p.getMoves()) {
+                        if (move == null) continue;
+                        increment(movePicks, move.name(), 1);
+                        increment(movePPUsed, move.name(), Math.max(0, move.maxPP() - move.pp()));
+                    }
+                }
+                hpFraction += p.getMaxHp() > 0 ? Math.max(0, p.getHp()) / (double) p.getMaxHp() : 0;
+            }
+
+            if (!team.isEmpty()) {
+                double[] hp = hpByStrategy.computeIfAbsent(strategyName(trainer), k -> new double[2]);
+                hp[0] += hpFraction / team.size();
+                hp[1]++;
+            }
+
+            if (battle.isFinished()) {
+                long[] record = recordByComposition.computeIfAbsent(composition(team), k -> new long[3]);
+                if (winner == null) {
+                    record[2]++;
+                } else if (winner == trainer) {
+                    record[0]++;
+                } else {
+                    record[1]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra un archivo que no se pudo leer o analizar.
+     *
+     * @param file nombre del archivo
+     */
+    public void addUnreadable(String file) {
+        unreadable++;
+        unreadableFiles.add(file);
+    }
+
+    /**
+     * Combina las estadísticas de otra instancia en esta.
+     *
+     * @param other estadísticas a incorporar
+     */
+    public void combine(SaveStatistics other) {
+        games += other.games;
+        unreadable += other.unreadable;
+        finishedGames += other.finishedGames;
+        unreadableFiles.addAll(other.unreadableFiles);
+        other.speciesPicks.forEach((k, v) -> increment(speciesPicks, k, v));
+        other.movePicks.forEach((k, v) -> increment(movePicks, k, v));
+        other.movePPUsed.forEach((k, v) -> increment(movePPUsed, k, v));
+        other.hpByStrategy.forEach((k, v) -> {
+            double[] hp = hpByStrategy.computeIfAbsent(k, key -> new double[2]);
+            hp[0] += v[0];
+            hp[1] += v[1];
+        });
+        other.recordByComposition.forEach((k, v) -> {
+            long[] record = recordByComposition.computeIfAbsent(k, key -> new long[3]);
+            for (int i = 0; i < record.length; i++) record[i] += v[i];
+        });
+    }
+
+    /** @return número de partidas analizadas correctamente */
+    public long getGames() { return games; }
+
+    /** @return número de archivos que no se pudieron leer */
+    public long getUnreadable() { return unreadable; }
+
+    /** @return nombres de los archivos ilegibles registrados, ordenados */
+    public List<String> getUnreadableFiles() {
+        List<String> result = new ArrayList<>(unreadableFiles);
+        Collections.sort(result);
+        return result;
+    }
+
+    /** @return número de partidas que ya habían terminado */
+    public long getFinishedGames() { return finishedGames; }
+
+    /**
+     * @param limit cantidad máxima de resultados
+     * @return las especies más elegidas, de mayor a menor
+     */
+    public List<Map.Entry<String, Long>> getMostPickedSpecies(int limit) {
+        return top(speciesPicks, limit);
+    }
+
+    /**
+     * @param limit cantidad máxima de resultados
+     * @return los movimientos más elegidos, de mayor a menor
+     */
+    public List<Map.Entry<String, Long>> getMostPickedMoves(int limit) {
+        return top(movePicks, limit);
+    }
+
+    /**
+     * @param limit cantidad máxima de resultados
+     * @return los movimientos con más PP gastados, de mayor a menor
+     */
+    public List<Map.Entry<String, Long>> getMostUsedMoves(int limit) {
+        return top(movePPUsed, limit);
+    }
+
+    /**
+     * @return porcentaje promedio de HP restante del equipo, agrupado por estrategia
+     */
+    public Map<String, Double> getAverageRemainingHpByStrategy() {
+        Map<String, Double> result = new TreeMap<>();
+        hpByStrategy.forEach((k, v) -> result.put(k, v[1] == 0 ? 0 : 100.0 * v[0] / v[1]));
+        return result;
+    }
+
+    /**
+     * @return victorias, derrotas y empates por composición de tipos del equipo
+     */
+    public Map<String, long[]> getRecordByComposition() {
+        Map<String, long[]> result = new TreeMap<>();
+        recordByComposition.forEach((k, v) -> result.put(k, v.clone()));
+        return result;
+    }
+
+    /**
+     * Construye un informe de texto con todas las estadísticas.
+     *
+     * @param limit cantidad máxima de filas por sección
+     * @return el informe
+     */
+    public String toReport(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Partidas analizadas: ").append(games)
+                .append(" (terminadas: ").append(finishedGames)
+                .append(", ilegibles: ").append(unreadable).append(")\n");
+        for (String file : getUnreadableFiles()) {
+            sb.append("  ilegible: ").append(file).append('\n');
+        }
+
+        sb.append("\nEspecies más elegidas:\n");
+        for (Map.Entry<String, Long> e : getMostPickedSpecies(limit)) {
+            sb.append(String.format("  %-14s %8d%n", e.getKey(), e.getValue()));
+        }
+
+        sb.append("\nMovimientos más elegidos (PP gastados):\n");
+        for (Map.Entry<String, Long> e : getMostPickedMoves(limit)) {
+            sb.append(String.format("  %-14s %8d (%d)%n", e.getKey(), e.getValue(),
+                    movePPUsed.getOrDefault(e.getKey(), 0L)));
+        }
+
+        sb.append("\nHP restante promedio por estrategia:\n");
+        for (Map.Entry<String, Double> e : getAverageRemainingHpByStrategy().entrySet()) {
+            sb.append(String.format("  %-20s %6.1f%%%n", e.getKey(), e.getValue()));
+        }
+
+        sb.append("\nVictorias/derrotas/empates por composición de tipos:\n");
+        List<Map.Entry<String, long[]>> records = new ArrayList<>(recordByComposition.entrySet());
+        records.sort((a, b) -> Long.compare(total(b.getValue()), total(a.getValue())));
+        for (Map.Entry<String, long[]> e : records.subList(0, Math.min(limit, records.size()))) {
+            long[] r = e.getValue();
+            sb.append(String.format("  %-60s %5d/%d/%d%n", e.getKey(), r[0], r[1], r[2]));
+        }
+        return sb.toString();
+    }
+
+    private static long total(long[] record) {
+        return record[0] + record[1] + record[2];
+    }
+
+    private static String strategyName(Trainer trainer) {
+        if (trainer instanceof CPUTrainer) {
+            BattleStrategy strategy = ((CPUTrainer) trainer).getStrategy();
+            return strategy != null ? strategy.getClass().getSimpleName() : "Sin estrategia";
+        }
+        return HUMAN;
+    }
+
+    /**
+     * La composición se identifica por los tipos del equipo ordenados, de modo que
+     * equipos equivalentes en tipos se agrupen aunque tengan especies distintas.
+     */
+    private static String composition(List<Pokemon> team) {
+        List<String> types = new ArrayList<>();
+        for (Pokemon p : team) {
+            types.add(p.getType());
+        }
+        Collections.sort(types);
+        return String.join("/", types);
+    }
+
+    private static void increment(Map<String, Long> map, String key, long amount) {
+        map.merge(key, amount, Long::sum);
+    }
+
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> map, int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(map.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+}
@@ -0,0 +1,74 @@
+package domain;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ejecutor que corre sus tareas de a una y en orden de llegada, prestándose los hilos de otro
+ * ejecutor compartido. Mientras no tiene tareas no ocupa ningún hilo, así que se puede tener uno
+ * por batalla aunque haya miles de batallas.
+ *
+ * <p>Para no acaparar un hilo compartido, después de {@value #BATCH} tareas seguidas cede el
+ * turno y vuelve a la cola del ejecutor compartido.
+ */
+class SerialExecutor implements Executor {
+    static final int BATCH = 32;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor workers;
+
+    /**
+     * @param workers ejecutor compartido que presta los hilos
+     */
+    SerialExecutor(Executor workers) {
+        this.workers = workers;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * @return true si no hay tareas pendientes ni en ejecución
+     */
+    boolean isIdle() {
+        return !scheduled.get() && tasks.isEmpty();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                workers.execute(this::drain);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error al ejecutar una tarea de batalla: " + e.getMessage());
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
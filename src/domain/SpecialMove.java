@@ -1,7 +1,8 @@
 package domain;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Random;
 
 /**
  * Representa un movimiento especial que causa daño con base en el ataque especial del usuario
@@ -10,14 +11,6 @@ import java.util.Random;
 public class SpecialMove extends Move implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private final String name;
-    private final String type;
-    private final int power;
-    private final int precision;
-    private final int maxPP;
-    private final int priority;
-    private int currentPP;
-
     /**
      * Crea un nuevo movimiento especial.
      *
@@ -29,36 +22,9 @@ public class SpecialMove extends Move implements Serializable {
      * @param priority   prioridad en el turno
      */
     public SpecialMove(String name, String type, int power, int precision, int maxPP, int priority) {
-        this.name = name;
-        this.type = type;
-        this.power = power;
-        this.precision = precision;
-        this.maxPP = maxPP;
-        this.priority = priority;
-        this.currentPP = maxPP;
+        super(new MoveDefinition(name, type, power, precision, maxPP, priority, MoveDefinition.Category.SPECIAL));
     }
 
-    @Override
-    public String name() { return name; }
-
-    @Override
-    public String type() { return type; }
-
-    @Override
-    public int power() { return power; }
-
-    @Override
-    public int precision() { return precision; }
-
-    @Override
-    public int pp() { return currentPP; }
-
-    @Override
-    public int maxPP() { return maxPP; }
-
-    @Override
-    public int priority() { return priority; }
-
     /**
      * Aplica el movimiento especial al objetivo si pasa la verificación de precisión.
      *
@@ -67,28 +33,25 @@ public class SpecialMove extends Move implements Serializable {
      */
     @Override
     public void use(Pokemon user, Pokemon target) {
-        if (currentPP <= 0 || target == null) return;
+        if (pp() <= 0 || target == null) return;
         if (target.getHp() <= 0) return;
 
-        Random rand = new Random();
-        if (rand.nextInt(100) < precision) {
-            double multiplier = TypeChart.getEffectiveness(type, target.getType());
+        if (Battle.roll(100) < precision()) {
+            double multiplier = TypeChart.getEffectiveness(type(), target.getType());
             int spAttack = user.getEffectiveStat("specialattack");
             int spDefense = target.getEffectiveStat("specialdefense");
 
-            int damage = (int) (((2 * user.getLevel() / 5 + 2) * power * spAttack / spDefense) / 50.0 + 2);
+            int damage = (int) (((2 * user.getLevel() / 5 + 2) * power() * spAttack / spDefense) / 50.0 + 2);
 
             target.takeDamage((int) (damage * multiplier));
-            currentPP--;
+            setPP(pp() - 1);
         }
     }
 
     /**
-     * Establece un nuevo valor para los PP del movimiento.
-     *
-     * @param newPP nuevo valor de PP
+     * Lee el movimiento, aceptando también partidas guardadas con el formato anterior.
      */
-    public void setPP(int newPP) {
-        this.currentPP = Math.max(0, Math.min(maxPP, newPP));
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        readLegacyFields(in.readFields(), MoveDefinition.Category.SPECIAL);
     }
 }
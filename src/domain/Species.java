@@ -0,0 +1,125 @@
+package domain;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Datos inmutables de una especie de Pokémon: nombre, tipo y estadísticas base.
+ * Cada especie existe una sola vez en {@link PokemonDataBase}; los {@link Pokemon}
+ * de una batalla solo guardan una referencia a ella junto con su estado mutable
+ * (HP, movimientos, estados y modificadores).
+ */
+public final class Species implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Estadísticas base por las que se pueden consultar las especies.
+     */
+    public enum Stat {
+        HP, ATTACK, DEFENSE, SPECIAL_ATTACK, SPECIAL_DEFENSE, SPEED;
+
+        /**
+         * @param species especie a consultar
+         * @return valor de esta estadística en la especie
+         */
+        public int of(Species species) {
+            switch (this) {
+                case HP: return species.hp;
+                case ATTACK: return species.attack;
+                case DEFENSE: return species.defense;
+                case SPECIAL_ATTACK: return species.specialAttack;
+                case SPECIAL_DEFENSE: return species.specialDefense;
+                default: return species.speed;
+            }
+        }
+    }
+
+    private final transient int id;
+    private final String name;
+    private final String type;
+    private final int hp;
+    private final int attack;
+    private final int defense;
+    private final int specialAttack;
+    private final int specialDefense;
+    private final int speed;
+    private final int accuracy;
+    private final int evasion;
+
+    /**
+     * Crea una especie. Las especies se deben obtener a través de
+     * {@link PokemonDataBase#intern(Species)} para que se compartan.
+     */
+    public Species(String name, String type, int hp, int attack, int defense,
+                   int specialAttack, int specialDefense, int speed, int accuracy, int evasion) {
+        this(-1, name, type, hp, attack, defense, specialAttack, specialDefense, speed, accuracy, evasion);
+    }
+
+    /**
+     * Crea una copia de la especie con el identificador asignado por el catálogo.
+     */
+    Species(int id, Species other) {
+        this(id, other.name, other.type, other.hp, other.attack, other.defense,
+                other.specialAttack, other.specialDefense, other.speed, other.accuracy, other.evasion);
+    }
+
+    private Species(int id, String name, String type, int hp, int attack, int defense,
+                    int specialAttack, int specialDefense, int speed, int accuracy, int evasion) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.hp = hp;
+        this.attack = attack;
+        this.defense = defense;
+        this.specialAttack = specialAttack;
+        this.specialDefense = specialDefense;
+        this.speed = speed;
+        this.accuracy = accuracy;
+        this.evasion = evasion;
+    }
+
+    /**
+     * @return identificador denso asignado por {@link PokemonDataBase}, o -1 si no está registrada
+     */
+    public int getId() { return id; }
+
+    public String getName() { return name; }
+    public String getType() { return type; }
+    public int getHp() { return hp; }
+    public int getAttack() { return attack; }
+    public int getDefense() { return defense; }
+    public int getSpecialAttack() { return specialAttack; }
+    public int getSpecialDefense() { return specialDefense; }
+    public int getSpeed() { return speed; }
+    public int getAccuracy() { return accuracy; }
+    public int getEvasion() { return evasion; }
+
+    /**
+     * Al deserializar se reemplaza por la especie compartida del catálogo.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return PokemonDataBase.intern(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Species)) return false;
+        Species that = (Species) o;
+        return hp == that.hp && attack == that.attack && defense == that.defense
+                && specialAttack == that.specialAttack && specialDefense == that.specialDefense
+                && speed == that.speed && accuracy == that.accuracy && evasion == that.evasion
+                && Objects.equals(name, that.name) && Objects.equals(type, that.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type, hp, attack, defense, specialAttack, specialDefense, speed, accuracy, evasion);
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + type + "]";
+    }
+}
@@ -1,7 +1,8 @@
 package domain;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Random;
 
 /**
  * Representa un movimiento de estado que aplica un efecto sin causar daño directo.
@@ -10,13 +11,7 @@ import java.util.Random;
 public class StatusMove extends Move implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private final String name;
-    private final String type;
-    private final int precision;
-    private final int maxPP;
-    private final int priority;
-    private int currentPP;
-    private final Effect effect;
+    private Effect effect;
 
     /**
      * Crea un nuevo movimiento de estado con los parámetros especificados.
@@ -29,70 +24,8 @@ public class StatusMove extends Move implements Serializable {
      * @param effect    efecto que se aplicará si el movimiento acierta
      */
     public StatusMove(String name, String type, int precision, int maxPP, int priority, Effect effect) {
-        this.name = name;
-        this.type = type;
-        this.precision = precision;
-        this.maxPP = maxPP;
-        this.priority = priority;
+        super(new MoveDefinition(name, type, 0, precision, maxPP, priority, MoveDefinition.Category.STATUS));
         this.effect = effect;
-        this.currentPP = maxPP;
-    }
-
-    /**
-     * Retorna el nombre del movimiento.
-     */
-    @Override
-    public String name() {
-        return name;
-    }
-
-    /**
-     * Retorna el tipo del movimiento.
-     */
-    @Override
-    public String type() {
-        return type;
-    }
-
-    /**
-     * Retorna el poder del movimiento.
-     * Para movimientos de estado, el valor siempre es 0.
-     */
-    @Override
-    public int power() {
-        return 0;
-    }
-
-    /**
-     * Retorna la precisión del movimiento.
-     */
-    @Override
-    public int precision() {
-        return precision;
-    }
-
-    /**
-     * Retorna los PP actuales del movimiento.
-     */
-    @Override
-    public int pp() {
-        return currentPP;
-    }
-
-    /**
-     * Retorna los PP máximos del movimiento.
-     */
-    @Override
-    public int maxPP() {
-        return maxPP;
-    }
-
-    /**
-     * Retorna la prioridad del movimiento.
-     */
-    @Override
-    public int priority() {
-        return priority;
     }
 
     /**
@@ -103,23 +36,13 @@ public class StatusMove extends Move implements Serializable {
      */
     @Override
     public void use(Pokemon user, Pokemon target) {
-        if (currentPP <= 0 || target == null) return;
+        if (pp() <= 0 || target == null) return;
 
-        Random rand = new Random();
-        if (rand.nextInt(100) < precision) {
+        if (Battle.roll(100) < precision()) {
             effect.apply(user, target);
         }
 
-        currentPP--;
-    }
-
-    /**
-     * Establece manualmente los PP restantes del movimiento.
-     *
-     * @param newPP nuevo valor de PP
-     */
-    public void setPP(int newPP) {
-        this.currentPP = Math.max(0, Math.min(maxPP, newPP));
+        setPP(pp() - 1);
     }
 
     /**
@@ -130,4 +53,13 @@ public class StatusMove extends Move implements Serializable {
     public Effect getEffect() {
         return effect;
     }
+
+    /**
+     * Lee el movimiento, aceptando también partidas guardadas con el formato anterior.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        effect = (Effect) fields.get("effect", null);
+        readLegacyFields(fields, MoveDefinition.Category.STATUS);
+    }
 }
@@ -13,7 +13,20 @@ public class StruggleMove extends PhysicalMove implements Serializable {
      * Crea una instancia de Struggle con poder fijo y PP ilimitado.
      */
     public StruggleMove() {
-        super("STRUGGLE", "NORMAL", 50, 100, Integer.MAX_VALUE, 0);
+        this("STRUGGLE", "NORMAL", 50, 100, 0);
+    }
+
+    /**
+     * Crea una instancia de Struggle con los datos indicados y PP ilimitado.
+     *
+     * @param name      nombre del movimiento
+     * @param type      tipo del movimiento
+     * @param power     poder fijo del movimiento
+     * @param precision precisión (0–100)
+     * @param priority  prioridad del movimiento
+     */
+    public StruggleMove(String name, String type, int power, int precision, int priority) {
+        super(name, type, power, precision, Integer.MAX_VALUE, priority);
     }
 
     /**
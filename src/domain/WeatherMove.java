@@ -1,7 +1,8 @@
 package domain;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Random;
 
 /**
  * Movimiento que cambia el clima en la batalla.
@@ -10,10 +11,8 @@ import java.util.Random;
 public class WeatherMove extends StatusMove implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private final String climate;
-    private final int duration;
-    private final int precision;
-    private int currentPP;
+    private String climate;
+    private int duration;
 
     /**
      * Construye un nuevo movimiento de tipo climático.
@@ -30,8 +29,6 @@ public class WeatherMove extends StatusMove implements Serializable {
         super(name, type, precision, maxPP, priority, null); // No usa un Effect directamente
         this.climate = climate;
         this.duration = duration;
-        this.precision = precision;
-        this.currentPP = maxPP;
     }
 
     /**
@@ -42,52 +39,39 @@ public class WeatherMove extends StatusMove implements Serializable {
      */
     @Override
     public void use(Pokemon user, Pokemon target) {
-        if (currentPP <= 0) return;
+        if (pp() <= 0) return;
 
-        Random rand = new Random();
-        if (rand.nextInt(100) < precision) {
+        if (Battle.roll(100) < precision()) {
             Battle.setClimate(climate, duration);
         }
 
-        currentPP--;
+        setPP(pp() - 1);
     }
 
     /**
-     * Retorna los PP actuales del movimiento.
-     *
-     * @return cantidad de PP restantes
-     */
-    @Override
-    public int pp() {
-        return currentPP;
-    }
-
-    /**
-     * Retorna los PP máximos del movimiento.
-     *
-     * @return cantidad máxima de PP
+     * @return clima que establece el movimiento
      */
-    @Override
-    public int maxPP() {
-        return super.maxPP();
+    public String getClimate() {
+        return climate;
     }
 
     /**
-     * Retorna la precisión del movimiento.
-     *
-     * @return precisión como un valor de 0 a 100
+     * @return duración del clima, en turnos
      */
-    @Override
-    public int precision() {
-        return precision;
+    public int getDuration() {
+        return duration;
     }
 
     /**
-     * Establece manualmente la cantidad de PP restantes.
-     *
-     * @param newPP nuevo valor de PP
+     * Lee el movimiento, aceptando también partidas guardadas con el formato anterior,
+     * en el que esta clase llevaba su propio contador de PP.
      */
-    public void setPP(int newPP) {
-        this.currentPP = Math.max(0, Math.min(maxPP(), newPP));
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        climate = (String) fields.get("climate", null);
+        duration = fields.get("duration", 0);
+        if (fields.getObjectStreamClass().getField("currentPP") != null) {
+            setPP(fields.get("currentPP", 0));
+        }
     }
 }
@@ -0,0 +1,143 @@
+package domain;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cliente del {@link WireServer}. Es bloqueante y no es seguro entre hilos: pensado para que
+ * un solo hilo juegue o mire una batalla.
+ *
+ * <p>Guarda el último estado de cada batalla para reconstruir los estados completos a partir de
+ * las diferencias que envía el servidor.
+ */
+public class WireClient implements Closeable {
+
+    /**
+     * Mensaje recibido del servidor.
+     */
+    public static final class Message {
+        private final byte type;
+        private final long battleId;
+        private final WireProtocol.StateView state;
+        private final int seconds;
+        private final String error;
+        private final int size;
+
+        Message(byte type, long battleId, WireProtocol.StateView state, int seconds, String error, int size) {
+            this.type = type;
+            this.battleId = battleId;
+            this.state = state;
+            this.seconds = seconds;
+            this.error = error;
+            this.size = size;
+        }
+
+        /** @return {@link WireProtocol#STATE}, {@link WireProtocol#TICK} o {@link WireProtocol#ERROR} */
+        public byte getType() { return type; }
+        /** @return batalla del mensaje, o -1 si es un error */
+        public long getBattleId() { return battleId; }
+        /** @return estado completo de la batalla si es un {@link WireProtocol#STATE} */
+        public WireProtocol.StateView getState() { return state; }
+        /** @return segundos que le quedan al turno si es un {@link WireProtocol#TICK} */
+        public int getSeconds() { return seconds; }
+        /** @return descripción si es un {@link WireProtocol#ERROR} */
+        public String getError() { return error; }
+        /** @return bytes que ocupó el mensaje, sin contar el largo */
+        public int getSize() { return size; }
+    }
+
+    private final SocketChannel channel;
+    private final WireProtocol.FrameReader reader = new WireProtocol.FrameReader();
+    private final Map<Long, WireProtocol.StateView> states = new HashMap<>();
+
+    /**
+     * @param host servidor
+     * @param port puerto del servidor
+     * @throws IOException si no se puede conectar
+     */
+    public WireClient(String host, int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Se une a una batalla.
+     *
+     * @param battleId identificador de la batalla
+     * @param player   1 o 2 para jugar, {@link WireProtocol#SPECTATOR} para mirar
+     * @throws IOException si falla la conexión
+     */
+    public void join(long battleId, int player) throws IOException {
+        write(WireProtocol.encodeJoin(battleId, player));
+    }
+
+    /**
+     * Envía una acción en la batalla a la que se unió.
+     *
+     * @param action acción a ejecutar
+     * @throws IOException si falla la conexión
+     */
+    public void send(Action action) throws IOException {
+        write(WireProtocol.encodeAction(action));
+    }
+
+    /**
+     * Espera el siguiente mensaje del servidor.
+     *
+     * @return el mensaje recibido
+     * @throws IOException si falla la conexión o el servidor la cerró
+     * @throws IllegalArgumentException si el mensaje es inválido
+     */
+    public Message receive() throws IOException {
+        ByteBuffer payload;
+        while ((payload = reader.next()) == null) {
+            if (channel.read(reader.writableBuffer()) < 0) {
+                throw new EOFException("El servidor cerró la conexión");
+            }
+        }
+        int size = payload.remaining();
+        byte type = payload.get();
+        switch (type) {
+            case WireProtocol.STATE: {
+                long battleId = WireProtocol.readVarint(payload);
+                WireProtocol.StateView state = WireProtocol.decodeState(payload, states.get(battleId));
+                states.put(battleId, state);
+                return new Message(type, battleId, state, 0, null, size);
+            }
+            case WireProtocol.TICK: {
+                long battleId = WireProtocol.readVarint(payload);
+                int seconds = (int) WireProtocol.readVarint(payload);
+                return new Message(type, battleId, null, seconds, null, size);
+            }
+            case WireProtocol.ERROR:
+                return new Message(type, -1, null, 0, WireProtocol.readString(payload), size);
+            default:
+                throw new IllegalArgumentException("Tipo de mensaje desconocido: " + type);
+        }
+    }
+
+    /**
+     * @param battleId identificador de la batalla
+     * @return el último estado recibido de la batalla, o null
+     */
+    public WireProtocol.StateView getState(long battleId) {
+        return states.get(battleId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package domain;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Protocolo binario para jugar batallas por la red.
+ *
+ * <p>Cada mensaje viaja en un marco: su largo como varint seguido del contenido, cuyo primer byte
+ * es el tipo de mensaje. Los enteros se escriben como varints (7 bits por byte), los que pueden
+ * ser negativos en zigzag, y los textos como largo más UTF-8. No se usa la serialización de Java.
+ *
+ * <p>Los estados se envían como diferencias: una máscara indica qué campos cambiaron desde el
+ * último estado enviado (PS, PP, estado alterado, cambios de estadísticas y Pokémon activo de
+ * cada jugador, el turno y el clima) y solo esos campos van en el mensaje, así que un turno normal
+ * ocupa alrededor de diez bytes.
+ */
+public final class WireProtocol {
+    /** Tamaño máximo de un mensaje. */
+    public static final int MAX_FRAME = 64 * 1024;
+
+    /** Cliente a servidor: unirse a una batalla como jugador o espectador. */
+    public static final byte JOIN = 1;
+    /** Cliente a servidor: acción del jugador. */
+    public static final byte ACTION = 2;
+    /** Servidor a cliente: cambios del estado de una batalla. */
+    public static final byte STATE = 3;
+    /** Servidor a cliente: segundos que le quedan al turno. */
+    public static final byte TICK = 4;
+    /** Servidor a cliente: error al procesar un mensaje. */
+    public static final byte ERROR = 5;
+
+    /** Número de jugador de quien solo mira la batalla. */
+    public static final int SPECTATOR = 0;
+
+    private static final int FLAGS = 1;
+    // Cada campo de un jugador tiene un bit para el jugador 1 y el siguiente para el 2;
+    // los que cambian en casi todos los turnos van primero para que la máscara ocupe un byte.
+    private static final int HP = 1 << 1;
+    private static final int PP = 1 << 3;
+    private static final int POKEMON = 1 << 5;
+    private static final int STATUS = 1 << 7;
+    private static final int BOOSTS = 1 << 9;
+    private static final int CLIMATE = 1 << 11;
+    private static final int ALL = (1 << 12) - 1;
+
+    private static final int PLAYER1_TURN = 1;
+    private static final int HUMAN_TURN = 1 << 1;
+    private static final int FINISHED = 1 << 2;
+
+    private WireProtocol() {
+    }
+
+    /**
+     * Lo que se transmite de un jugador: su Pokémon activo con sus PS, estado, PP y cambios de
+     * estadísticas.
+     */
+    public static final class Side {
+        private final int slot;
+        private final String pokemon;
+        private final int hp;
+        private final int maxHp;
+        private final String status;
+        private final int[] pp;
+        private final Map<String, Integer> boosts;
+
+        Side(int slot, String pokemon, int hp, int maxHp, String status, int[] pp, Map<String, Integer> boosts) {
+            this.slot = slot;
+            this.pokemon = pokemon;
+            this.hp = hp;
+            this.maxHp = maxHp;
+            this.status = status;
+            this.pp = pp;
+            this.boosts = boosts;
+        }
+
+        static Side of(Trainer trainer) {
+            Pokemon p = trainer.getActivePokemon();
+            if (p == null) {
+                return new Side(-1, "", 0, 0, null, new int[0], Collections.emptyMap());
+            }
+            List<Move> moves = p.getMoves();
+            int[] pp = new int[moves.size()];
+            for (int i = 0; i < pp.length; i++) {
+                pp[i] = moves.get(i).pp();
+            }
+            Map<String, Integer> boosts = new TreeMap<>();
+            for (Map.Entry<String, Integer> boost : p.getStatBoosts().entrySet()) {
+                if (boost.getValue() != 0) {
+                    boosts.put(boost.getKey(), boost.getValue());
+                }
+            }
+            return new Side(trainer.getTeam().getActiveIndex(), p.getName(), Math.max(0, p.getHp()), p.getMaxHp(),
+                    p.getStatus(), pp, Collections.unmodifiableMap(boosts));
+        }
+
+        /** @return posición del Pokémon activo en el equipo, o -1 si no hay */
+        public int getSlot() { return slot; }
+        /** @return nombre del Pokémon activo, o vacío si no hay */
+        public String getPokemon() { return pokemon; }
+        public int getHp() { return hp; }
+        public int getMaxHp() { return maxHp; }
+        /** @return estado alterado, o null si no tiene */
+        public String getStatus() { return status; }
+        public int getMoveCount() { return pp.length; }
+        public int getPp(int move) { return pp[move]; }
+        /** @return cambios de estadísticas distintos de cero, por nombre del estadístico */
+        public Map<String, Integer> getBoosts() { return boosts; }
+
+        /**
+         * @return true si cambió el Pokémon activo o algo que obliga a reenviarlo entero
+         */
+        private boolean replaces(Side other) {
+            return other == null || slot != other.slot || maxHp != other.maxHp || pp.length != other.pp.length
+                    || !pokemon.equals(other.pokemon);
+        }
+    }
+
+    /**
+     * Lo que se transmite del estado de una batalla. Es inmutable para poder compararlo con el
+     * último enviado y mandar solo las diferencias.
+     */
+    public static final class StateView {
+        private final boolean player1Turn;
+        private final boolean humanTurn;
+        private final boolean finished;
+        private final Side player1;
+        private final Side player2;
+        private final String climate;
+
+        StateView(boolean player1Turn, boolean humanTurn, boolean finished, Side player1, Side player2,
+                  String climate) {
+            this.player1Turn = player1Turn;
+            this.humanTurn = humanTurn;
+            this.finished = finished;
+            this.player1 = player1;
+            this.player2 = player2;
+            this.climate = climate;
+        }
+
+        /**
+         * Toma el estado directamente de la batalla, sin pasar por {@link BattleState}.
+         *
+         * @param battle batalla
+         * @return la vista transmisible del estado
+         */
+        public static StateView of(Battle battle) {
+            return new StateView(battle.getTurn() == 1, !battle.getCurrentPlayer().isCPU(), battle.isFinished(),
+                    Side.of(battle.getPlayer1()), Side.of(battle.getPlayer2()), battle.getCurrentClimate());
+        }
+
+        public boolean isPlayer1Turn() { return player1Turn; }
+        public boolean isHumanTurn() { return humanTurn; }
+        public boolean isFinished() { return finished; }
+        public Side getPlayer1() { return player1; }
+        public Side getPlayer2() { return player2; }
+        public String getClimate() { return climate; }
+
+        private Side side(int index) {
+            return index == 0 ? player1 : player2;
+        }
+
+        private int flags() {
+            return (player1Turn ? PLAYER1_TURN : 0) | (humanTurn ? HUMAN_TURN : 0) | (finished ? FINISHED : 0);
+        }
+    }
+
+    /**
+     * Acumula los bytes leídos de un canal y separa los marcos completos.
+     */
+    public static final class FrameReader {
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        /**
+         * @return búfer donde escribir los bytes leídos; puede cambiar entre llamadas
+         */
+        public ByteBuffer writableBuffer() {
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.min(buffer.capacity() * 2, MAX_FRAME + 8));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            return buffer;
+        }
+
+        /**
+         * Extrae el siguiente marco completo.
+         *
+         * @return el contenido del marco (empieza por el tipo), o null si todavía no llegó entero
+         * @throws IllegalArgumentException si el marco es inválido o supera {@link #MAX_FRAME}
+         */
+        public ByteBuffer next() {
+            buffer.flip();
+            try {
+                int start = buffer.position();
+                long length;
+                try {
+                    length = readVarint(buffer);
+                } catch (BufferUnderflowException e) {
+                    buffer.position(start);
+                    return null;
+                }
+                if (length <= 0 || length > MAX_FRAME) {
+                    throw new IllegalArgumentException("Largo de mensaje inválido: " + length);
+                }
+                if (buffer.remaining() < length) {
+                    buffer.position(start);
+                    return null;
+                }
+                byte[] payload = new byte[(int) length];
+                buffer.get(payload);
+                return ByteBuffer.wrap(payload);
+            } finally {
+                buffer.compact();
+            }
+        }
+    }
+
+    /**
+     * @param battleId identificador de la batalla
+     * @param player   1 o 2 para jugar, {@link #SPECTATOR} para mirar
+     * @return el marco del mensaje
+     */
+    public static ByteBuffer encodeJoin(long battleId, int player) {
+        ByteBuffer body = body(JOIN, 16);
+        writeVarint(body, battleId);
+        writeVarint(body, player);
+        return frame(body);
+    }
+
+    /**
+     * @param action acción del jugador
+     * @return el marco del mensaje
+     */
+    public static ByteBuffer encodeAction(Action action) {
+        ByteBuffer body = body(ACTION, 16);
+        body.put((byte) action.getType().ordinal());
+        switch (action.getType()) {
+            case ATTACK:
+                writeVarint(body, zigzag(action.getMoveIndex()));
+                writeVarint(body, 0);
+                break;
+            case USE_ITEM:
+                writeVarint(body, zigzag(action.getItemIndex()));
+                writeVarint(body, action.getTargetIndex());
+                break;
+            case SWITCH_POKEMON:
+                writeVarint(body, 0);
+                writeVarint(body, action.getTargetIndex());
+                break;
+        }
+        return frame(body);
+    }
+
+    /**
+     * Lee una acción de un mensaje {@link #ACTION} cuyo tipo ya se leyó.
+     *
+     * @param payload contenido del mensaje, posicionado después del tipo
+     * @return la acción
+     * @throws IllegalArgumentException si la acción es inválida
+     */
+    public static Action decodeAction(ByteBuffer payload) {
+        int type = payload.get();
+        int first = unzigzag(readVarint(payload));
+        int target = (int) readVarint(payload);
+        Action.Type[] types = Action.Type.values();
+        if (type < 0 || type >= types.length) {
+            throw new IllegalArgumentException("Tipo de acción desconocido: " + type);
+        }
+        switch (types[type]) {
+            case ATTACK:
+                return Action.createAttack(first);
+            case USE_ITEM:
+                return Action.createUseItem(first, target);
+            default:
+                return Action.createSwitchPokemon(target);
+        }
+    }
+
+    /**
+     * Codifica los cambios de una batalla respecto del último estado enviado.
+     *
+     * @param battleId identificador de la batalla
+     * @param previous último estado enviado, o null si es el primero
+     * @param current  estado actual
+     * @return el marco del mensaje, o null si no cambió nada
+     */
+    public static ByteBuffer encodeState(long battleId, StateView previous, StateView current) {
+        int mask = diff(previous, current);
+        if (mask == 0) {
+            return null;
+        }
+        ByteBuffer body = body(STATE, 24 + capacity(current.player1) + capacity(current.player2)
+                + (current.climate == null ? 0 : 3 * current.climate.length()));
+        writeVarint(body, battleId);
+        writeVarint(body, mask);
+        if ((mask & FLAGS) != 0) body.put((byte) current.flags());
+        for (int i = 0; i < 2; i++) {
+            Side cur = current.side(i);
+            Side prev = previous == null ? null : previous.side(i);
+            if ((mask & (POKEMON << i)) != 0) {
+                writeVarint(body, cur.slot + 1);
+                writeString(body, cur.pokemon);
+                writeVarint(body, cur.maxHp);
+                writeVarint(body, cur.pp.length);
+                prev = null;
+            }
+            if ((mask & (HP << i)) != 0) writeVarint(body, cur.hp);
+            if ((mask & (STATUS << i)) != 0) writeString(body, cur.status == null ? "" : cur.status);
+            if ((mask & (PP << i)) != 0) {
+                int changed = 0;
+                for (int m = 0; m < cur.pp.length; m++) {
+                    if (prev == null || prev.pp[m] != cur.pp[m]) changed++;
+                }
+                writeVarint(body, changed);
+                for (int m = 0; m < cur.pp.length; m++) {
+                    if (prev == null || prev.pp[m] != cur.pp[m]) {
+                        writeVarint(body, m);
+                        writeVarint(body, cur.pp[m]);
+                    }
+                }
+            }
+            if ((mask & (BOOSTS << i)) != 0) {
+                writeVarint(body, cur.boosts.size());
+                for (Map.Entry<String, Integer> boost : cur.boosts.entrySet()) {
+                    writeString(body, boost.getKey());
+                    writeVarint(body, zigzag(boost.getValue()));
+                }
+            }
+        }
+        if ((mask & CLIMATE) != 0) writeString(body, current.climate == null ? "" : current.climate);
+        return frame(body);
+    }
+
+    /**
+     * Aplica los cambios de un mensaje {@link #STATE} cuyo tipo e identificador de batalla ya
+     * se leyeron.
+     *
+     * @param payload  contenido del mensaje, posicionado después del identificador
+     * @param previous estado conocido de la batalla, o null si es el primero
+     * @return el estado actualizado
+     * @throws IllegalArgumentException si el mensaje es inválido o no trae todos los campos y no
+     * hay estado previo
+     */
+    public static StateView decodeState(ByteBuffer payload, StateView previous) {
+        int mask = (int) readVarint(payload);
+        if ((mask & ~ALL) != 0 || (previous == null && mask != ALL)) {
+            throw new IllegalArgumentException("Cambios de estado inválidos");
+        }
+        int flags = (mask & FLAGS) != 0 ? payload.get() : previous.flags();
+        Side[] sides = new Side[2];
+        for (int i = 0; i < 2; i++) {
+            Side prev = previous == null ? null : previous.side(i);
+            int slot;
+            String pokemon;
+            int maxHp;
+            int[] pp;
+            if ((mask & (POKEMON << i)) != 0) {
+                slot = (int) readVarint(payload) - 1;
+                pokemon = readString(payload);
+                maxHp = (int) readVarint(payload);
+                pp = new int[checkedLength(readVarint(payload))];
+            } else {
+                slot = prev.slot;
+                pokemon = prev.pokemon;
+                maxHp = prev.maxHp;
+                pp = prev.pp;
+            }
+            int hp = (mask & (HP << i)) != 0 ? (int) readVarint(payload) : prev.hp;
+            String status = (mask & (STATUS << i)) != 0 ? emptyToNull(readString(payload)) : prev.status;
+            if ((mask & (PP << i)) != 0) {
+                pp = pp.clone();
+                long changed = readVarint(payload);
+                for (long m = 0; m < changed; m++) {
+                    long move = readVarint(payload);
+                    if (move >= pp.length) {
+                        throw new IllegalArgumentException("Movimiento inexistente: " + move);
+                    }
+                    pp[(int) move] = (int) readVarint(payload);
+                }
+            }
+            Map<String, Integer> boosts = prev == null ? null : prev.boosts;
+            if ((mask & (BOOSTS << i)) != 0) {
+                Map<String, Integer> read = new TreeMap<>();
+                long count = readVarint(payload);
+                for (long b = 0; b < count; b++) {
+                    read.put(readString(payload), unzigzag(readVarint(payload)));
+                }
+                boosts = Collections.unmodifiableMap(read);
+            }
+            sides[i] = new Side(slot, pokemon, hp, maxHp, status, pp, boosts);
+        }
+        String climate = (mask & CLIMATE) != 0 ? emptyToNull(readString(payload)) : previous.climate;
+        return new StateView((flags & PLAYER1_TURN) != 0, (flags & HUMAN_TURN) != 0, (flags & FINISHED) != 0,
+                sides[0], sides[1], climate);
+    }
+
+    /**
+     * @return máscara con los campos que cambiaron
+     */
+    private static int diff(StateView previous, StateView current) {
+        if (previous == null) {
+            return ALL;
+        }
+        int mask = 0;
+        if (previous.flags() != current.flags()) mask |= FLAGS;
+        for (int i = 0; i < 2; i++) {
+            Side prev = previous.side(i);
+            Side cur = current.side(i);
+            if (cur.replaces(prev)) {
+                mask |= (POKEMON | HP | STATUS | PP | BOOSTS) << i;
+                continue;
+            }
+            if (prev.hp != cur.hp) mask |= HP << i;
+            if (!Objects.equals(prev.status, cur.status)) mask |= STATUS << i;
+            if (!Arrays.equals(prev.pp, cur.pp)) mask |= PP << i;
+            if (!prev.boosts.equals(cur.boosts)) mask |= BOOSTS << i;
+        }
+        if (!Objects.equals(previous.climate, current.climate)) mask |= CLIMATE;
+        return mask;
+    }
+
+    private static int capacity(Side side) {
+        int size = 16 + 3 * side.pokemon.length() + 12 * side.pp.length
+                + (side.status == null ? 0 : 3 * side.status.length());
+        for (String stat : side.boosts.keySet()) {
+            size += 8 + 3 * stat.length();
+        }
+        return size;
+    }
+
+    private static int checkedLength(long length) {
+        if (length > MAX_FRAME) {
+            throw new IllegalArgumentException("Cantidad inválida: " + length);
+        }
+        return (int) length;
+    }
+
+    private static String emptyToNull(String text) {
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * @param battleId identificador de la batalla
+     * @param seconds  segundos que le quedan al turno
+     * @return el marco del mensaje
+     */
+    public static ByteBuffer encodeTick(long battleId, int seconds) {
+        ByteBuffer body = body(TICK, 16);
+        writeVarint(body, battleId);
+        writeVarint(body, Math.max(0, seconds));
+        return frame(body);
+    }
+
+    /**
+     * @param message descripción del error
+     * @return el marco del mensaje
+     */
+    public static ByteBuffer encodeError(String message) {
+        String text = message == null ? "" : message;
+        ByteBuffer body = body(ERROR, 8 + 3 * text.length());
+        writeString(body, text);
+        return frame(body);
+    }
+
+    /**
+     * Escribe un entero sin signo como varint.
+     */
+    static void writeVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Lee un varint.
+     *
+     * @throws BufferUnderflowException si el varint está incompleto
+     * @throws IllegalArgumentException si ocupa más de diez bytes
+     */
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+
+    static long zigzag(int value) {
+        return ((long) value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeString(ByteBuffer out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.put(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        long length = readVarint(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Texto más largo que el mensaje");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer body(byte type, int capacity) {
+        ByteBuffer body = ByteBuffer.allocate(capacity);
+        body.put(type);
+        return body;
+    }
+
+    /**
+     * Antepone el largo al contenido y devuelve el marco listo para escribir.
+     */
+    private static ByteBuffer frame(ByteBuffer body) {
+        body.flip();
+        int length = body.remaining();
+        ByteBuffer frame = ByteBuffer.allocate(varintSize(length) + length);
+        writeVarint(frame, length);
+        frame.put(body);
+        frame.flip();
+        return frame;
+    }
+}
@@ -0,0 +1,395 @@
+package domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor de red para jugar las batallas de un {@link BattleServer} con el protocolo de
+ * {@link WireProtocol}.
+ *
+ * <p>Un solo hilo atiende todas las conexiones con un {@link Selector}: acepta clientes, lee sus
+ * mensajes y escribe las respuestas sin bloquearse. Las batallas se siguen ejecutando en los hilos
+ * del {@link BattleServer}, que codifica una vez por tick las diferencias de cada batalla; cada
+ * conexión suscrita deja ese mismo búfer en su cola de salida y el hilo del selector lo envía.
+ *
+ * <p>Una vez por segundo se manda a cada jugador al que le toca el tiempo que le queda. Si se le
+ * agota, se aplica la penalización y pasa el turno, como en el juego de escritorio.
+ *
+ * <p>Cada puesto de jugador admite una sola conexión. Un cliente que no lee lo que se le manda
+ * acumula como mucho {@value #MAX_OUTBOX_BYTES} bytes pendientes; después se le desconecta.
+ */
+public class WireServer implements Closeable {
+    /** Segundos que tiene un jugador para jugar su turno. */
+    public static final int TURN_SECONDS = 20;
+
+    /** Bytes que puede tener pendientes de envío una conexión antes de cerrarla. */
+    public static final int MAX_OUTBOX_BYTES = 256 * 1024;
+
+    private static final long TICK_NANOS = 1_000_000_000L;
+
+    /**
+     * Cliente conectado. Está suscrito a la batalla a la que se unió.
+     */
+    private final class Connection implements BattleServer.Subscriber {
+        private final SocketChannel channel;
+        private final WireProtocol.FrameReader reader = new WireProtocol.FrameReader();
+        private final Queue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queuedBytes = new AtomicInteger();
+        private volatile boolean overflowed;
+        private SelectionKey key;
+        private long battleId = -1;
+        private int player = WireProtocol.SPECTATOR;
+        private volatile long stateVersion;
+        private volatile boolean myTurn;
+        // Solo los usa el hilo del selector
+        private long seenVersion = -1;
+        private int remainingSeconds;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void onDelta(long id, WireProtocol.StateView state, ByteBuffer frame) {
+            myTurn = !state.isFinished() && player == (state.isPlayer1Turn() ? 1 : 2);
+            stateVersion++;
+            send(frame);
+        }
+
+        /**
+         * Encola un mensaje; lo puede llamar cualquier hilo. Si la conexión ya tiene demasiado
+         * pendiente, se descarta y se marca para que el hilo del selector la cierre.
+         */
+        void send(ByteBuffer frame) {
+            if (overflowed) {
+                return;
+            }
+            if (queuedBytes.addAndGet(frame.remaining()) > MAX_OUTBOX_BYTES) {
+                overflowed = true;
+            } else {
+                outbox.add(frame);
+            }
+            pending.add(this);
+            selector.wakeup();
+        }
+    }
+
+    private final BattleServer battles;
+    private final int turnSeconds;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Queue<Connection> pending = new ConcurrentLinkedQueue<>();
+    private final List<Connection> connections = new ArrayList<>();
+    // Puestos ocupados de cada batalla; solo los usa el hilo del selector
+    private final Map<Long, Connection[]> seats = new HashMap<>();
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Crea un servidor con turnos de {@value #TURN_SECONDS} segundos.
+     *
+     * @param battles servidor que aloja las batallas
+     * @param port    puerto donde escuchar; 0 para elegir uno libre
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public WireServer(BattleServer battles, int port) throws IOException {
+        this(battles, port, TURN_SECONDS);
+    }
+
+    /**
+     * @param battles     servidor que aloja las batallas
+     * @param port        puerto donde escuchar; 0 para elegir uno libre
+     * @param turnSeconds segundos que tiene un jugador para jugar su turno
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public WireServer(BattleServer battles, int port, int turnSeconds) throws IOException {
+        if (turnSeconds <= 0) {
+            throw new IllegalArgumentException("La duración del turno debe ser positiva");
+        }
+        this.battles = battles;
+        this.turnSeconds = turnSeconds;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * @return el puerto donde escucha el servidor
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Empieza a atender conexiones en un hilo propio.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("El servidor ya fue iniciado");
+        }
+        running = true;
+        thread = new Thread(this::loop, "wire-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Cierra el puerto y todas las conexiones. Las batallas siguen en el {@link BattleServer}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        Thread current = thread;
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (current == null) {
+            shutdown();
+        }
+    }
+
+    private void loop() {
+        long nextTick = System.nanoTime() + TICK_NANOS;
+        try {
+            while (running) {
+                long wait = Math.max(1, (nextTick - System.nanoTime()) / 1_000_000);
+                selector.select(wait);
+                Connection connection;
+                while ((connection = pending.poll()) != null) {
+                    if (connection.overflowed) {
+                        if (connection.channel.isOpen()) {
+                            disconnect(connection);
+                        }
+                    } else if (connection.key != null && connection.key.isValid()) {
+                        connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                if (System.nanoTime() - nextTick >= 0) {
+                    nextTick += TICK_NANOS;
+                    tick();
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("Error en el servidor de red: " + e.getMessage());
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                write(connection);
+            }
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            disconnect(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+        } catch (IOException e) {
+            System.err.println("Error al aceptar una conexión: " + e.getMessage());
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.reader.writableBuffer()) < 0) {
+            disconnect(connection);
+            return;
+        }
+        ByteBuffer payload;
+        while ((payload = connection.reader.next()) != null) {
+            dispatch(connection, payload);
+        }
+    }
+
+    private void dispatch(Connection connection, ByteBuffer payload) {
+        byte type = payload.get();
+        switch (type) {
+            case WireProtocol.JOIN:
+                join(connection, WireProtocol.readVarint(payload), (int) WireProtocol.readVarint(payload));
+                break;
+            case WireProtocol.ACTION:
+                Action action = WireProtocol.decodeAction(payload);
+                if (connection.battleId < 0 || connection.player == WireProtocol.SPECTATOR) {
+                    connection.send(WireProtocol.encodeError("Solo un jugador puede enviar acciones"));
+                    return;
+                }
+                try {
+                    battles.submit(connection.battleId, connection.player, action)
+                            .exceptionally(e -> {
+                                connection.send(WireProtocol.encodeError(reason(e)));
+                                return null;
+                            });
+                } catch (IllegalArgumentException e) {
+                    connection.send(WireProtocol.encodeError(e.getMessage()));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de mensaje desconocido: " + type);
+        }
+    }
+
+    private void join(Connection connection, long battleId, int player) {
+        if (connection.battleId >= 0) {
+            connection.send(WireProtocol.encodeError("Ya se unió a la batalla " + connection.battleId));
+            return;
+        }
+        if (player < WireProtocol.SPECTATOR || player > 2) {
+            connection.send(WireProtocol.encodeError("Jugador inválido: " + player));
+            return;
+        }
+        Connection[] taken = seats.get(battleId);
+        if (player != WireProtocol.SPECTATOR && taken != null && taken[player - 1] != null) {
+            connection.send(WireProtocol.encodeError("El puesto del jugador " + player + " ya está ocupado"));
+            return;
+        }
+        connection.battleId = battleId;
+        connection.player = player;
+        try {
+            battles.subscribe(battleId, connection);
+        } catch (IllegalArgumentException e) {
+            connection.battleId = -1;
+            connection.player = WireProtocol.SPECTATOR;
+            connection.send(WireProtocol.encodeError(e.getMessage()));
+            return;
+        }
+        if (player != WireProtocol.SPECTATOR) {
+            seats.computeIfAbsent(battleId, id -> new Connection[2])[player - 1] = connection;
+        }
+    }
+
+    private void leaveSeat(Connection connection) {
+        Connection[] taken = seats.get(connection.battleId);
+        if (taken == null || connection.player == WireProtocol.SPECTATOR
+                || taken[connection.player - 1] != connection) {
+            return;
+        }
+        taken[connection.player - 1] = null;
+        if (taken[0] == null && taken[1] == null) {
+            seats.remove(connection.battleId);
+        }
+    }
+
+    private void write(Connection connection) throws IOException {
+        ByteBuffer frame;
+        while ((frame = connection.outbox.peek()) != null) {
+            connection.queuedBytes.addAndGet(-connection.channel.write(frame));
+            if (frame.hasRemaining()) {
+                return;
+            }
+            connection.outbox.poll();
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+        if (!connection.outbox.isEmpty()) {
+            pending.add(connection);
+        }
+    }
+
+    /**
+     * Descuenta un segundo al turno de cada jugador al que le toca y se lo informa.
+     */
+    private void tick() {
+        for (Connection connection : connections) {
+            if (connection.player == WireProtocol.SPECTATOR || connection.battleId < 0) {
+                continue;
+            }
+            long version = connection.stateVersion;
+            if (version != connection.seenVersion) {
+                connection.seenVersion = version;
+                connection.remainingSeconds = turnSeconds;
+            }
+            if (!connection.myTurn || connection.remainingSeconds <= 0) {
+                continue;
+            }
+            connection.remainingSeconds--;
+            connection.send(WireProtocol.encodeTick(connection.battleId, connection.remainingSeconds));
+            if (connection.remainingSeconds == 0) {
+                try {
+                    battles.expireTurn(connection.battleId, connection.player);
+                } catch (IllegalArgumentException e) {
+                    connection.send(WireProtocol.encodeError(e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.battleId >= 0) {
+            leaveSeat(connection);
+            battles.unsubscribe(connection.battleId, connection);
+        }
+        connections.remove(connection);
+        if (connection.key != null) {
+            connection.key.cancel();
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar una conexión: " + e.getMessage());
+        }
+    }
+
+    private void shutdown() {
+        for (Connection connection : new ArrayList<>(connections)) {
+            disconnect(connection);
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el servidor de red: " + e.getMessage());
+        }
+    }
+
+    private static String reason(Throwable e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
+    }
+}
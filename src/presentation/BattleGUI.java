@@ -4,8 +4,6 @@ import domain.*;
 import presentation.components.*;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
 import java.util.List;
 
 /**
@@ -22,8 +20,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
     private PauseManager pauseManager;
 
     // Componentes de batalla
-    private PokemonInfoPanel pokemonInfo1, pokemonInfo2;
-    private JLabel pok1Label, pok2Label;
+    private BattleCanvas battleCanvas;
     private BattleLogPanel logPanel;
     private JPanel panelOpciones;
     private CardLayout cardLayout;
@@ -34,9 +31,6 @@ public class BattleGUI extends JFrame implements BattleEventListener {
     private GameController controller;
     private Font pokemonFont;
     private int gameMode;
-    private BackgroundPanel battlePanel;
-    private static final int ORIGINAL_WIDTH = 800;
-    private static final int ORIGINAL_HEIGHT = 400;
 
     /**
      * Construye una nueva instancia de BattleGUI que inicializa la ventana del menú principal.
@@ -111,8 +105,9 @@ public class BattleGUI extends JFrame implements BattleEventListener {
 
     /**
      * Prepara la barra de menú superior con:
-     * - Menú Archivo (opciones Guardar/Cargar partida)
+     * - Menú Archivo (opciones Guardar/Cargar partida y reporte de respuesta)
      * - Menú Pausa (opción Pausar/Reanudar)
+     * - Menú Velocidad (velocidad de las batallas entre CPUs y saltar al resultado)
      * Configura los estilos visuales y los listeners de acción
      */
     private void prepareMenuBar() {
@@ -133,8 +128,14 @@ public class BattleGUI extends JFrame implements BattleEventListener {
         loadItem.setFont(pokemonFont);
         loadItem.addActionListener(e -> loadGame());
 
+        JMenuItem reportItem = new JMenuItem("Guardar reporte de respuesta");
+        reportItem.setFont(pokemonFont);
+        reportItem.addActionListener(e -> saveResponsivenessReport());
+
         fileMenu.add(saveItem);
         fileMenu.add(loadItem);
+        fileMenu.addSeparator();
+        fileMenu.add(reportItem);
         menuBar.add(fileMenu);
 
         // Menú Pausa
@@ -149,6 +150,29 @@ public class BattleGUI extends JFrame implements BattleEventListener {
         pauseMenu.add(pauseItem);
         menuBar.add(pauseMenu);
 
+        // Menú Velocidad (batallas entre CPUs)
+        JMenu speedMenu = new JMenu("Velocidad");
+        speedMenu.setForeground(Color.WHITE);
+        speedMenu.setFont(pokemonFont.deriveFont(Font.BOLD, 14));
+
+        ButtonGroup speedGroup = new ButtonGroup();
+        for (GameController.PlaybackSpeed speed : GameController.PlaybackSpeed.values()) {
+            JRadioButtonMenuItem speedItem = new JRadioButtonMenuItem(speed.getLabel(),
+                    speed == GameController.PlaybackSpeed.NORMAL);
+            speedItem.setFont(pokemonFont);
+            speedItem.addActionListener(e -> controller.setPlaybackSpeed(speed));
+            speedGroup.add(speedItem);
+            speedMenu.add(speedItem);
+        }
+
+        JMenuItem skipItem = new JMenuItem("Saltar al resultado");
+        skipItem.setFont(pokemonFont);
+        skipItem.addActionListener(e -> controller.skipToResult());
+
+        speedMenu.addSeparator();
+        speedMenu.add(skipItem);
+        menuBar.add(speedMenu);
+
         setJMenuBar(menuBar);
     }
 
@@ -158,7 +182,6 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      * - Establece título y tamaño (800x600)
      * - Crea y organiza los componentes de batalla
      * - Configura listeners para eventos
-     * - Añade listener para redimensionamiento
      * - Actualiza la interfaz gráfica
      */
     public void setupBattleWindow() {
@@ -172,39 +195,21 @@ public class BattleGUI extends JFrame implements BattleEventListener {
         layoutBattleComponents();
         setupBattleListeners();
 
-        addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentResized(ComponentEvent e) {
-                if (battlePanel != null) {
-                    repositionBattleElements();
-                }
-            }
-        });
-
         revalidate();
         repaint();
     }
 
     /**
      * Crea los componentes principales de la interfaz de batalla:
-     * - Panel de fondo con imagen
-     * - Paneles de información de Pokémon (jugador y oponente)
-     * - Labels para mostrar los sprites de los Pokémon
+     * - Escena de batalla (fondo, sprites e información de los Pokémon)
      * - Panel de registro de eventos (log)
      * - Componentes de control (botones, etc.)
      */
     private void createBattleComponents() {
-        battlePanel = new BackgroundPanel();
-        battlePanel.setPreferredSize(new Dimension(800, 400));
-
-        pokemonInfo1 = new PokemonInfoPanel(pokemonFont);
-        pokemonInfo2 = new PokemonInfoPanel(pokemonFont);
-
-        pok1Label = new JLabel("", JLabel.CENTER);
-        pok2Label = new JLabel("", JLabel.CENTER);
+        battleCanvas = new BattleCanvas(spriteManager, pokemonFont);
 
         logPanel = new BattleLogPanel();
-        logPanel.setPreferredSize(new Dimension(getWidth(), 50));
+        logPanel.setPreferredSize(new Dimension(getWidth(), 80));
         logPanel.setBackground(new Color(64, 120, 192));
         logPanel.setForeground(Color.WHITE);
         logPanel.setFont(pokemonFont.deriveFont(14f));
@@ -308,8 +313,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
 
     /**
      * Organiza los componentes de la interfaz de batalla:
-     * - Distribuye los paneles de información de Pokémon
-     * - Posiciona los sprites de los Pokémon
+     * - Ubica la escena de batalla en el centro
      * - Configura el panel inferior con log y opciones
      * - Ensambla todos los componentes en el layout principal
      */
@@ -317,16 +321,6 @@ public class BattleGUI extends JFrame implements BattleEventListener {
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(new Color(120, 184, 232));
 
-        battlePanel.add(pokemonInfo1);
-        battlePanel.add(pokemonInfo2);
-        battlePanel.add(pok1Label);
-        battlePanel.add(pok2Label);
-
-        pokemonInfo1.setBounds(20, 20, 250, 80);
-        pokemonInfo2.setBounds(530, 20, 250, 80);
-        pok1Label.setBounds(80, 220, 200, 200);
-        pok2Label.setBounds(500, 90, 200, 200);
-
         JPanel panelInferior = new JPanel(new BorderLayout());
         panelInferior.setBackground(new Color(200, 224, 248));
         panelInferior.setBorder(BorderFactory.createLineBorder(new Color(64, 120, 192), 3));
@@ -339,7 +333,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
         bottomPanel.add(logPanel, BorderLayout.NORTH);
         bottomPanel.add(panelInferior, BorderLayout.SOUTH);
 
-        mainPanel.add(battlePanel, BorderLayout.CENTER);
+        mainPanel.add(battleCanvas, BorderLayout.CENTER);
         mainPanel.add(bottomPanel, BorderLayout.SOUTH);
 
         add(mainPanel);
@@ -394,16 +388,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      *              - Nombres de jugadores
      */
     public void updateBattleInfo(BattleState state) {
-        pokemonInfo1.updatePokemonInfo(state.getPlayer1Pokemon());
-        pokemonInfo2.updatePokemonInfo(state.getPlayer2Pokemon());
-
-        pokemonInfo1.setTurnActive(state.isPlayer1Turn());
-        pokemonInfo2.setTurnActive(!state.isPlayer1Turn());
-
-        spriteManager.loadPokemonSprite(pok1Label,
-                state.getPlayer1Pokemon().getName().toLowerCase(), true);
-        spriteManager.loadPokemonSprite(pok2Label,
-                state.getPlayer2Pokemon().getName().toLowerCase(), false);
+        battleCanvas.updateBattle(state.getPlayer1Pokemon(), state.getPlayer2Pokemon(), state.isPlayer1Turn());
 
         updateTurnInfo(state);
         updateButtonStates(state);
@@ -510,6 +495,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      * @see GamePersistenceManager#saveGame(GameController, int)
      */
     private void saveGame() {
+        EdtWatchdog.getInstance().markAction("saveGame");
         persistenceManager.saveGame(controller, gameMode);
     }
 
@@ -518,6 +504,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      * @see GamePersistenceManager#loadGame()
      */
     private void loadGame() {
+        EdtWatchdog.getInstance().markAction("loadGame");
         GameState gameState = persistenceManager.loadGame();
         if (gameState != null) {
             controller.loadGameState(gameState);
@@ -527,6 +514,22 @@ public class BattleGUI extends JFrame implements BattleEventListener {
         }
     }
 
+    /**
+     * Guarda el reporte del {@link EdtWatchdog} con los eventos que bloquearon la interfaz.
+     * @see EdtWatchdog#dumpReport(java.io.File)
+     */
+    private void saveResponsivenessReport() {
+        java.io.File file = new java.io.File(EdtWatchdog.REPORT_FILE);
+        try {
+            EdtWatchdog.getInstance().dumpReport(file);
+            JOptionPane.showMessageDialog(this, "Reporte guardado en " + file.getAbsolutePath());
+        } catch (java.io.IOException e) {
+            System.err.println("Error al guardar el reporte de respuesta: " + e.getMessage());
+            JOptionPane.showMessageDialog(this, "No se pudo guardar el reporte: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Alterna el estado de pausa del juego.
      * @see PauseManager#togglePause()
@@ -600,7 +603,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      */
     @Override
     public void onAttackPerformed(String attackerName, String targetName, String moveName) {
-        logPanel.addMessage(attackerName + " atacó a " + targetName + " con " + moveName + "!");
+        logPanel.addMessage(BattleLog.Type.ATTACK, attackerName + " atacó a " + targetName + " con " + moveName + "!");
     }
 
     /**
@@ -611,7 +614,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      */
     @Override
     public void onItemUsed(String playerName, String itemName, String targetName) {
-        logPanel.addMessage(playerName + " usó " + itemName + " en " + targetName + "!");
+        logPanel.addMessage(BattleLog.Type.ITEM, playerName + " usó " + itemName + " en " + targetName + "!");
     }
 
     /**
@@ -621,7 +624,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      */
     @Override
     public void onPokemonSwitched(String playerName, String pokemonName) {
-        logPanel.addMessage(playerName + " envió a " + pokemonName + "!");
+        logPanel.addMessage(BattleLog.Type.SWITCH, playerName + " envió a " + pokemonName + "!");
     }
 
     /**
@@ -631,7 +634,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      */
     @Override
     public void onDamageReceived(String pokemonName, int damage) {
-        logPanel.addMessage(pokemonName + " perdió " + damage + " PS!");
+        logPanel.addMessage(BattleLog.Type.DAMAGE, pokemonName + " perdió " + damage + " PS!");
     }
 
     /**
@@ -640,99 +643,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      */
     @Override
     public void onPokemonFainted(String pokemonName) {
-        logPanel.addMessage(pokemonName + " se debilitó!");
-    }
-
-    /**
-     * Panel interno para el fondo de batalla con imagen escalable.
-     */
-    private class BackgroundPanel extends JPanel {
-        private java.awt.image.BufferedImage backgroundImage;
-
-        /**
-         * Crea el panel de fondo con layout absoluto.
-         */
-        public BackgroundPanel() {
-            setLayout(null);
-            loadBackgroundImage();
-        }
-
-        /**
-         * Carga la imagen de fondo usando SpriteManager.
-         */
-        private void loadBackgroundImage() {
-            backgroundImage = spriteManager.loadBackgroundImage("battleBackground.png");
-        }
-
-        /**
-         * Dibuja el fondo escalado o color sólido si no hay imagen.
-         * @param g Contexto gráfico para dibujar
-         */
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (backgroundImage != null) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
-                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
-                g2d.dispose();
-            } else {
-                g.setColor(new Color(120, 184, 232));
-                g.fillRect(0, 0, getWidth(), getHeight());
-            }
-        }
-    }
-
-    /**
-     * Reposiciona los elementos de batalla al redimensionar la ventana,
-     * manteniendo las proporciones originales.
-     */
-    private void repositionBattleElements() {
-        if (battlePanel == null) return;
-
-        int battleWidth = battlePanel.getWidth();
-        int battleHeight = battlePanel.getHeight();
-
-        if (battleWidth <= 0 || battleHeight <= 0) return;
-
-        double scaleX = (double) battleWidth / ORIGINAL_WIDTH;
-        double scaleY = (double) battleHeight / ORIGINAL_HEIGHT;
-
-        if (pokemonInfo1 != null) {
-            int x1 = (int) (20 * scaleX);
-            int y1 = (int) (20 * scaleY);
-            int w1 = (int) (250 * scaleX);
-            int h1 = (int) (80 * scaleY);
-            pokemonInfo1.setBounds(x1, y1, w1, h1);
-        }
-
-        if (pokemonInfo2 != null) {
-            int x2 = (int) ((ORIGINAL_WIDTH - 270) * scaleX);
-            int y2 = (int) (20 * scaleY);
-            int w2 = (int) (250 * scaleX);
-            int h2 = (int) (80 * scaleY);
-            pokemonInfo2.setBounds(x2, y2, w2, h2);
-        }
-
-        if (pok1Label != null) {
-            int x1 = (int) (80 * scaleX);
-            int y1 = (int) (220 * scaleY);
-            int w1 = (int) (200 * scaleX);
-            int h1 = (int) (200 * scaleY);
-            pok1Label.setBounds(x1, y1, w1, h1);
-        }
-
-        if (pok2Label != null) {
-            int x2 = (int) ((ORIGINAL_WIDTH - 300) * scaleX);
-            int y2 = (int) (90 * scaleY);
-            int w2 = (int) (200 * scaleX);
-            int h2 = (int) (200 * scaleY);
-            pok2Label.setBounds(x2, y2, w2, h2);
-        }
-
-        battlePanel.revalidate();
-        battlePanel.repaint();
+        logPanel.addMessage(BattleLog.Type.FAINT, pokemonName + " se debilitó!");
     }
 
     /**
@@ -780,6 +691,7 @@ public class BattleGUI extends JFrame implements BattleEventListener {
      * @param args Argumentos de línea de comandos (no utilizados)
      */
     public static void main(String[] args) {
+        EdtWatchdog.getInstance().install();
         SwingUtilities.invokeLater(() -> {
             BattleGUI gui = new BattleGUI();
             gui.showInitialScreen();
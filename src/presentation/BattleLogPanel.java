@@ -1,72 +1,259 @@
 package presentation;
 
+import domain.BattleLog;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Panel dedicado a mostrar el log de acciones de batalla.
  * Responsabilidad única: Mostrar y gestionar los mensajes de acciones durante la batalla.
+ *
+ * <p>Conserva todo el historial de la batalla en un {@link BattleLog}, que mantiene acotada la
+ * memoria guardando en disco los mensajes antiguos. La vista solo pinta las líneas visibles, así que
+ * el costo de pintar no depende del largo de la batalla. Permite filtrar por tipo de evento y
+ * buscar texto.
  */
 public class BattleLogPanel extends JPanel {
-    private JTextArea logArea;
-    private LinkedList<String> messages;
-    private static final int MAX_MESSAGES = 5;
+    private static final Color LOG_BACKGROUND = Color.decode("#FDF074");
+    private static final Color LOG_TEXT = Color.BLACK;
+    private static final Font LOG_FONT = new Font("Monospaced", Font.PLAIN, 14);
+
+    private static final String[] FILTER_NAMES = {
+            "Todos", "Ataques", "Ítems", "Cambios", "Daño", "Debilitados"
+    };
+    private static final BattleLog.Type[] FILTER_TYPES = {
+            null, BattleLog.Type.ATTACK, BattleLog.Type.ITEM, BattleLog.Type.SWITCH,
+            BattleLog.Type.DAMAGE, BattleLog.Type.FAINT
+    };
+
+    private final BattleLog log = new BattleLog();
+    private final LogView logView = new LogView();
+    private final JScrollPane scrollPane;
+    private final JTextField searchField;
+    private final JComboBox<String> filterBox;
+
+    // Mensajes que cumplen el filtro actual; null si no hay filtro y se muestran todos
+    private int[] shown;
+    private int shownCount;
+    private Set<BattleLog.Type> types = EnumSet.allOf(BattleLog.Type.class);
+    private String query = "";
 
     /**
-     * Inicializa el panel de log de batalla con un área de texto
-     * y formato similar al del juego original.
+     * Inicializa el panel de log de batalla con la vista del historial
+     * y los controles de búsqueda y filtro.
      */
     public BattleLogPanel() {
         setLayout(new BorderLayout());
-        setBackground(Color.decode("#FDF074"));
+        setBackground(LOG_BACKGROUND);
         setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
 
-        messages = new LinkedList<>();
-        logArea = new JTextArea(5, 30);
-        logArea.setEditable(false);
-        logArea.setLineWrap(true);
-        logArea.setWrapStyleWord(true);
-        logArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-        logArea.setBackground(Color.decode("#FDF074"));
-        logArea.setBorder(new EmptyBorder(10, 10, 10, 10));
+        scrollPane = new JScrollPane(logView,
+                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.setBorder(null);
+        scrollPane.getViewport().setBackground(LOG_BACKGROUND);
+
+        searchField = new JTextField(12);
+        searchField.setToolTipText("Buscar en el registro");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+        });
+        filterBox = new JComboBox<>(FILTER_NAMES);
+        filterBox.addActionListener(e -> applyFilter());
 
-        add(logArea, BorderLayout.CENTER);
+        JPanel controls = new JPanel(new GridLayout(2, 1, 0, 2));
+        controls.setOpaque(false);
+        controls.setBorder(new EmptyBorder(2, 4, 2, 4));
+        controls.add(searchField);
+        controls.add(filterBox);
+
+        add(scrollPane, BorderLayout.CENTER);
+        add(controls, BorderLayout.EAST);
     }
 
     /**
-     * Añade un mensaje al log y refresca la visualización.
-     * Mantendrá solo un número limitado de mensajes visibles.
+     * Añade un mensaje general al log.
      *
      * @param message Mensaje de acción a mostrar
      */
     public void addMessage(String message) {
-        // Limite de mensajes
-        if (messages.size() >= MAX_MESSAGES) {
-            messages.removeFirst();
+        addMessage(BattleLog.Type.INFO, message);
+    }
+
+    /**
+     * Añade un mensaje al historial. Si cumple el filtro actual se muestra, y si la vista estaba
+     * al final se desplaza para que quede visible.
+     *
+     * @param type    tipo de evento del mensaje
+     * @param message Mensaje de acción a mostrar
+     */
+    public void addMessage(BattleLog.Type type, String message) {
+        int index = log.append(type, message);
+        if (shown != null) {
+            if (!matches(type, message)) {
+                return;
+            }
+            if (shownCount == shown.length) {
+                shown = Arrays.copyOf(shown, Math.max(16, shownCount * 2));
+            }
+            shown[shownCount++] = index;
+        }
+        boolean atBottom = isAtBottom();
+        logView.revalidate();
+        logView.repaint();
+        if (atBottom) {
+            SwingUtilities.invokeLater(this::scrollToBottom);
         }
+    }
 
-        messages.addLast(message);
-        updateDisplay();
+    /**
+     * @return el historial completo de la batalla
+     */
+    public BattleLog getLog() {
+        return log;
     }
 
     /**
-     * Actualiza el área de texto con todos los mensajes actuales.
+     * Borra el archivo temporal del historial cuando el panel deja de mostrarse.
      */
-    private void updateDisplay() {
-        StringBuilder sb = new StringBuilder();
-        for (String msg : messages) {
-            sb.append(msg).append("\n");
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        log.close();
+    }
+
+    private boolean matches(BattleLog.Type type, String message) {
+        return types.contains(type)
+                && (query.isEmpty() || message.toLowerCase(Locale.ROOT).contains(query));
+    }
+
+    /**
+     * Recalcula los mensajes visibles según el texto buscado y el tipo elegido.
+     */
+    private void applyFilter() {
+        BattleLog.Type type = FILTER_TYPES[Math.max(0, filterBox.getSelectedIndex())];
+        types = type == null ? EnumSet.allOf(BattleLog.Type.class) : EnumSet.of(type);
+        query = searchField.getText().trim().toLowerCase(Locale.ROOT);
+        if (type == null && query.isEmpty()) {
+            shown = null;
+            shownCount = 0;
+        } else {
+            shown = log.find(types, query, 0);
+            shownCount = shown.length;
         }
-        logArea.setText(sb.toString());
+        logView.revalidate();
+        logView.repaint();
+        SwingUtilities.invokeLater(this::scrollToBottom);
+    }
+
+    private int getRowCount() {
+        return shown == null ? log.size() : shownCount;
+    }
+
+    private BattleLog.Entry getRow(int row) {
+        return log.get(shown == null ? row : shown[row]);
+    }
+
+    private boolean isAtBottom() {
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        return bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - logView.getLineHeight();
+    }
+
+    private void scrollToBottom() {
+        logView.scrollRectToVisible(new Rectangle(0, logView.getHeight() - 1, 1, 1));
     }
 
     /**
-     * Limpia todos los mensajes del log.
+     * Vista del historial: su alto es el de todas las filas, pero solo pinta las que caen
+     * dentro del área visible.
      */
-    public void clearMessages() {
-        messages.clear();
-        logArea.setText("");
+    private final class LogView extends JComponent implements Scrollable {
+        private static final int PADDING = 6;
+
+        LogView() {
+            setFont(LOG_FONT);
+            setForeground(LOG_TEXT);
+            setBackground(LOG_BACKGROUND);
+            setOpaque(true);
+        }
+
+        int getLineHeight() {
+            return getFontMetrics(getFont()).getHeight();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(0, getRowCount() * getLineHeight() + 2 * PADDING);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(getFont());
+            g.setColor(getForeground());
+            FontMetrics fm = g.getFontMetrics();
+            int lineHeight = fm.getHeight();
+            int rows = getRowCount();
+            int first = Math.max(0, (clip.y - PADDING) / lineHeight);
+            int last = Math.min(rows - 1, (clip.y + clip.height - PADDING) / lineHeight);
+            for (int row = first; row <= last; row++) {
+                int y = PADDING + row * lineHeight + fm.getAscent();
+                g.drawString(getRow(row).getText(), PADDING, y);
+            }
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return new Dimension(0, 3 * getLineHeight());
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return getLineHeight();
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return Math.max(getLineHeight(), visibleRect.height - getLineHeight());
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return true;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package presentation;
 
 import domain.*;
+import presentation.components.SpriteCache;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -165,12 +166,9 @@ public class ItemSelectionGUI extends JDialog {
         contentPanel.setOpaque(false);
 
         // Cargar sprite del ítem
-        String imagePath = "src/sprites/" + item.getName().toLowerCase() + ".png";
-        File imageFile = new File(imagePath);
-        if (imageFile.exists()) {
-            ImageIcon icon = new ImageIcon(imagePath);
-            Image scaledImage = icon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-            JLabel iconLabel = new JLabel(new ImageIcon(scaledImage));
+        ImageIcon icon = SpriteCache.getInstance().getIcon(item.getName(), SpriteCache.View.PLAIN, 40, 40);
+        if (icon != null) {
+            JLabel iconLabel = new JLabel(icon);
             contentPanel.add(iconLabel, BorderLayout.WEST);
         }
 
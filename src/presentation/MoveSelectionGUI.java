@@ -1,8 +1,11 @@
 package presentation;
 
 import domain.*;
+import presentation.components.CatalogGrid;
 import javax.swing.*;
 import javax.swing.border.Border;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
@@ -13,11 +16,13 @@ import java.util.List;
 /**
  * Diálogo para seleccionar movimientos para un Pokémon.
  * Permite al usuario elegir exactamente 4 movimientos desde la base de datos de movimientos disponibles.
+ * La grilla solo dibuja los movimientos visibles y se puede filtrar escribiendo el nombre.
  */
 public class MoveSelectionGUI extends JDialog {
     private Pokemon pokemon;
-    private List<Move> selectedMoves;
-    private JPanel movesPanel;
+    private List<MoveDefinition> selectedMoves;
+    private CatalogGrid<MoveDefinition> movesGrid;
+    private JTextField searchField;
     private JButton confirmButton;
     private JLabel pokemonInfoLabel;
     private Font pokemonFont;
@@ -29,6 +34,9 @@ public class MoveSelectionGUI extends JDialog {
     private static final Color CREAM = new Color(248, 248, 220);
     private static final Color GOLD = new Color(255, 215, 0);
 
+    private static final int CELL_WIDTH = 260;
+    private static final int CELL_HEIGHT = 90;
+
     /**
      * Construye el diálogo MoveSelectionGUI.
      *
@@ -128,17 +136,55 @@ public class MoveSelectionGUI extends JDialog {
         instructionLabel.setForeground(DARK_GREEN);
         instructionLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
 
-        movesPanel = new JPanel(new GridLayout(0, 2, 15, 10));
-        movesPanel.setBackground(LIGHT_GREEN);
-        movesPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        movesGrid = new CatalogGrid<>(CELL_WIDTH, CELL_HEIGHT);
+        movesGrid.setBackground(LIGHT_GREEN);
+        movesGrid.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        movesGrid.setCellRenderer(new MoveCellRenderer());
+        movesGrid.onItemClicked((move, e) -> toggleMoveSelection(move));
 
-        JScrollPane scrollPane = new JScrollPane(movesPanel);
+        JScrollPane scrollPane = new JScrollPane(movesGrid);
         scrollPane.setBorder(createEmeraldBorder());
         scrollPane.getViewport().setBackground(LIGHT_GREEN);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+
+        searchField = new JTextField(18);
+        searchField.setFont(pokemonFont.deriveFont(12f));
+        searchField.setToolTipText("Escribe el comienzo del nombre para filtrar");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                loadAvailableMoves();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                loadAvailableMoves();
+            }
 
-        centerPanel.add(instructionLabel, BorderLayout.NORTH);
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                loadAvailableMoves();
+            }
+        });
+
+        JLabel searchLabel = new JLabel("Buscar:");
+        searchLabel.setFont(pokemonFont.deriveFont(Font.BOLD, 12f));
+        searchLabel.setForeground(DARK_GREEN);
+
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 0));
+        searchPanel.setOpaque(false);
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+        searchPanel.add(searchLabel);
+        searchPanel.add(searchField);
+
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        headerPanel.add(instructionLabel, BorderLayout.NORTH);
+        headerPanel.add(searchPanel, BorderLayout.SOUTH);
+
+        centerPanel.add(headerPanel, BorderLayout.NORTH);
         centerPanel.add(scrollPane, BorderLayout.CENTER);
 
         loadAvailableMoves();
@@ -229,59 +275,12 @@ public class MoveSelectionGUI extends JDialog {
     }
 
     /**
-     * Carga los movimientos disponibles desde la base de datos.
-     * Ordena alfabéticamente y los muestra como botones.
+     * Muestra los movimientos que puede aprender el Pokémon, ordenados alfabéticamente
+     * y filtrados por el texto de búsqueda.
      */
     private void loadAvailableMoves() {
-        List<Move> availableMoves = MoveDatabase.getAvailableMoves();
-        availableMoves.sort(Comparator.comparing(Move::name));
-
-        for (Move move : availableMoves) {
-            JButton moveButton = createMoveButton(move);
-            movesPanel.add(moveButton);
-        }
-
-        movesPanel.revalidate();
-    }
-
-    /**
-     * Crea un botón gráfico con la información del movimiento.
-     *
-     * @param move el movimiento a mostrar
-     * @return botón configurado
-     */
-    private JButton createMoveButton(Move move) {
-        String buttonText = "<html><center><b>" + move.name() + "</b><br>" +
-                "<small>Tipo: " + move.type() + "</small><br>" +
-                "<small>Poder: " + move.power() + " • PP: " + move.maxPP() + "</small></center></html>";
-
-        JButton button = new JButton(buttonText);
-        button.setFont(pokemonFont.deriveFont(10f));
-        button.setHorizontalAlignment(SwingConstants.CENTER);
-        button.setVerticalAlignment(SwingConstants.CENTER);
-        button.setBackground(getMoveTypeColor(move.type()));
-        button.setForeground(Color.WHITE);
-        button.setBorder(createMoveBorder(false));
-        button.setFocusPainted(false);
-        button.setPreferredSize(new Dimension(200, 80));
-
-        // Efecto hover
-        Color originalColor = getMoveTypeColor(move.type());
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                if (!selectedMoves.contains(move)) {
-                    button.setBackground(originalColor.brighter());
-                }
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                if (!selectedMoves.contains(move)) {
-                    button.setBackground(originalColor);
-                }
-            }
-        });
-
-        button.addActionListener(e -> toggleMoveSelection(move, button));
-        return button;
+        String filter = searchField.getText();
+        movesGrid.setItems(PokemonDataBase.searchLearnableMoves(pokemon.getSpecies(), filter));
     }
 
     /**
@@ -334,20 +333,15 @@ public class MoveSelectionGUI extends JDialog {
     }
 
     /**
-     * Añade o quita un movimiento de la selección y actualiza el botón.
+     * Añade o quita un movimiento de la selección y vuelve a dibujar su celda.
      *
-     * @param move   el movimiento seleccionado o deseleccionado
-     * @param button el botón asociado al movimiento
+     * @param move el movimiento seleccionado o deseleccionado
      */
-    private void toggleMoveSelection(Move move, JButton button) {
+    private void toggleMoveSelection(MoveDefinition move) {
         if (selectedMoves.contains(move)) {
             selectedMoves.remove(move);
-            button.setBorder(createMoveBorder(false));
-            button.setBackground(getMoveTypeColor(move.type()));
         } else if (selectedMoves.size() < 4) {
             selectedMoves.add(move);
-            button.setBorder(createMoveBorder(true));
-            button.setBackground(getMoveTypeColor(move.type()).darker());
         } else {
             // Mostrar mensaje cuando ya se han seleccionado 4 movimientos
             JOptionPane.showMessageDialog(this,
@@ -355,6 +349,7 @@ public class MoveSelectionGUI extends JDialog {
                     "Límite alcanzado", JOptionPane.WARNING_MESSAGE);
         }
 
+        movesGrid.repaint();
         updateConfirmButton();
     }
 
@@ -386,8 +381,8 @@ public class MoveSelectionGUI extends JDialog {
         }
 
         List<Move> clonedMoves = new ArrayList<>();
-        for (Move move : selectedMoves) {
-            clonedMoves.add(move.clone());
+        for (MoveDefinition move : selectedMoves) {
+            clonedMoves.add(MoveDatabase.getMove(move.getName()));
         }
 
         pokemon.setMoves(clonedMoves);
@@ -400,6 +395,53 @@ public class MoveSelectionGUI extends JDialog {
         dispose();
     }
 
+    /**
+     * Dibuja la tarjeta de un movimiento: nombre, tipo, poder y PP, con el color de su tipo.
+     * Una sola instancia se reutiliza para todas las celdas visibles.
+     */
+    private class MoveCellRenderer implements ListCellRenderer<MoveDefinition> {
+        private final Border selectedBorder = createMoveBorder(true);
+        private final Border normalBorder = createMoveBorder(false);
+        private final JPanel cell = new JPanel(new BorderLayout());
+        private final JPanel card = new JPanel(new GridLayout(3, 1));
+        private final JLabel nameLabel = new JLabel("", JLabel.CENTER);
+        private final JLabel typeLabel = new JLabel("", JLabel.CENTER);
+        private final JLabel statsLabel = new JLabel("", JLabel.CENTER);
+
+        MoveCellRenderer() {
+            // El borde exterior hace de separación entre tarjetas
+            cell.setOpaque(false);
+            cell.setBorder(BorderFactory.createEmptyBorder(5, 7, 5, 7));
+            cell.add(card, BorderLayout.CENTER);
+
+            nameLabel.setFont(pokemonFont.deriveFont(Font.BOLD, 11f));
+            typeLabel.setFont(pokemonFont.deriveFont(9f));
+            statsLabel.setFont(pokemonFont.deriveFont(9f));
+            for (JLabel label : new JLabel[]{nameLabel, typeLabel, statsLabel}) {
+                label.setForeground(Color.WHITE);
+                card.add(label);
+            }
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends MoveDefinition> list, MoveDefinition move,
+                                                      int index, boolean isSelected, boolean cellHasFocus) {
+            nameLabel.setText(move.getName());
+            typeLabel.setText("Tipo: " + move.getType());
+            statsLabel.setText("Poder: " + move.getPower() + " • PP: " + move.getMaxPP());
+
+            Color color = getMoveTypeColor(move.getType());
+            if (selectedMoves.contains(move)) {
+                card.setBackground(color.darker());
+                card.setBorder(selectedBorder);
+            } else {
+                card.setBackground(index == movesGrid.getHoverIndex() ? color.brighter() : color);
+                card.setBorder(normalBorder);
+            }
+            return cell;
+        }
+    }
+
     /**
      * Muestra el diálogo para seleccionar movimientos.
      *
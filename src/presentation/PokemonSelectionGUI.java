@@ -1,11 +1,20 @@
 package presentation;
 
 import domain.*;
+import presentation.components.CatalogGrid;
+import presentation.components.SpriteCache;
+import presentation.components.SpritePreloader;
 import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.io.File;
 import java.io.IOException;
 
@@ -13,11 +22,14 @@ import java.io.IOException;
  * Diálogo para seleccionar Pokémon que formarán parte del equipo de un entrenador.
  * Permite seleccionar hasta un número máximo especificado de Pokémon desde la base de datos disponible.
  * Permite seleccionar múltiples Pokémon del mismo tipo.
+ * La grilla solo dibuja las tarjetas visibles y se puede filtrar escribiendo el nombre.
  */
 public class PokemonSelectionGUI extends JDialog {
     private List<Pokemon> selectedPokemons;
+    private Map<String, Integer> selectedCounts;
     private Trainer trainer;
-    private JPanel pokemonGrid;
+    private CatalogGrid<Species> pokemonGrid;
+    private JTextField searchField;
     private JButton confirmButton;
     private int maxPokemons;
     private MoveSelectionCallback moveSelectionCallback;
@@ -32,7 +44,17 @@ public class PokemonSelectionGUI extends JDialog {
     private static final Color EMERALD_TEXT = new Color(33, 33, 33);
     private static final Color EMERALD_SELECTED = new Color(76, 175, 80);
     private static final Color EMERALD_HOVER = new Color(200, 230, 201);
-
+    private static final Color EMERALD_SELECTED_BG = new Color(220, 248, 198);
+
+    private static final int IMAGE_SIZE = 80;
+    private static final int CELL_WIDTH = 180;
+    private static final int CELL_HEIGHT = 170;
+    private static final Border CARD_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createRaisedBevelBorder(),
+            BorderFactory.createEmptyBorder(10, 10, 10, 10));
+    private static final Border CARD_SELECTED_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(EMERALD_SELECTED, 3),
+            BorderFactory.createEmptyBorder(7, 7, 7, 7));
     // Fuente personalizada
     private Font pokemonFont;
     private Font pokemonFontSmall;
@@ -50,6 +72,7 @@ public class PokemonSelectionGUI extends JDialog {
         super(parent, "Seleccionar Pokémon", true);
         this.trainer = trainer;
         this.selectedPokemons = new ArrayList<>();
+        this.selectedCounts = new HashMap<>();
         this.maxPokemons = maxPokemons;
         this.moveSelectionCallback = callback;
 
@@ -78,7 +101,7 @@ public class PokemonSelectionGUI extends JDialog {
 
     /**
      * Configura los componentes de la interfaz gráfica del diálogo.
-     * Incluye una grilla con todos los Pokémon disponibles y el botón de confirmación.
+     * Incluye un campo de búsqueda, una grilla con los Pokémon disponibles y el botón de confirmación.
      */
     private void setupUI() {
         setLayout(new BorderLayout());
@@ -88,16 +111,14 @@ public class PokemonSelectionGUI extends JDialog {
         JPanel titlePanel = createTitlePanel();
         add(titlePanel, BorderLayout.NORTH);
 
-        // Configurar grilla de Pokémon
-        pokemonGrid = new JPanel(new GridLayout(0, 4, 15, 15));
-        pokemonGrid.setBorder(BorderFactory.createEmptyBorder(20, 20, 10, 20));
+        // Configurar grilla de Pokémon; solo se crean las celdas visibles
+        pokemonGrid = new CatalogGrid<>(CELL_WIDTH, CELL_HEIGHT);
+        pokemonGrid.setBorder(BorderFactory.createEmptyBorder(12, 12, 5, 12));
         pokemonGrid.setBackground(EMERALD_BACKGROUND);
-
-        for (String name : PokemonDataBase.getAvailablePokemonNames()) {
-            Pokemon pokemon = PokemonDataBase.getPokemon(name);
-            JPanel pokemonPanel = createPokemonPanel(pokemon);
-            pokemonGrid.add(pokemonPanel);
-        }
+        pokemonGrid.setCellRenderer(new PokemonCellRenderer());
+        pokemonGrid.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        pokemonGrid.onItemClicked(this::handlePokemonClick);
+        pokemonGrid.setItems(PokemonDataBase.getAllSpecies());
 
         JScrollPane scrollPane = new JScrollPane(pokemonGrid);
         scrollPane.getViewport().setBackground(EMERALD_BACKGROUND);
@@ -133,13 +154,57 @@ public class PokemonSelectionGUI extends JDialog {
         subtitleLabel.setForeground(new Color(230, 230, 230));
         subtitleLabel.setHorizontalAlignment(JLabel.CENTER);
 
+        searchField = new JTextField(20);
+        searchField.setFont(pokemonFontSmall);
+        searchField.setToolTipText("Escribe el comienzo del nombre para filtrar");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+        });
+
+        JLabel searchLabel = new JLabel("Buscar:");
+        searchLabel.setFont(pokemonFontSmall);
+        searchLabel.setForeground(Color.WHITE);
+
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 0));
+        searchPanel.setOpaque(false);
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+        searchPanel.add(searchLabel);
+        searchPanel.add(searchField);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setOpaque(false);
+        southPanel.add(subtitleLabel, BorderLayout.NORTH);
+        southPanel.add(searchPanel, BorderLayout.SOUTH);
+
         titlePanel.setLayout(new BorderLayout());
         titlePanel.add(titleLabel, BorderLayout.CENTER);
-        titlePanel.add(subtitleLabel, BorderLayout.SOUTH);
+        titlePanel.add(southPanel, BorderLayout.SOUTH);
 
         return titlePanel;
     }
 
+    /**
+     * Muestra solo las especies cuyo nombre empieza por el texto de búsqueda.
+     * Sin texto se muestran todas en el orden del catálogo.
+     */
+    private void applyFilter() {
+        String text = searchField.getText();
+        pokemonGrid.setItems(text.isBlank() ? PokemonDataBase.getAllSpecies() : PokemonDataBase.searchSpecies(text));
+    }
+
     /**
      * Crea el panel inferior con el botón de confirmación.
      */
@@ -158,6 +223,7 @@ public class PokemonSelectionGUI extends JDialog {
                 for (Pokemon pokemon : selectedPokemons) {
                     trainer.addPokemonToTeam(pokemon);
                 }
+                SpritePreloader.getInstance().preloadTeam(selectedPokemons);
                 dispose();
                 moveSelectionCallback.onPokemonSelected(new ArrayList<>(selectedPokemons));
             }
@@ -191,165 +257,38 @@ public class PokemonSelectionGUI extends JDialog {
     }
 
     /**
-     * Crea el panel visual para un Pokémon, con su imagen y nombre.
-     * Permite seleccionar múltiples Pokémon del mismo tipo con clic izquierdo y deseleccionar con clic derecho.
+     * Atiende un clic sobre la tarjeta de una especie.
+     * Con clic izquierdo añade un Pokémon de esa especie y con clic derecho quita uno.
      *
-     * @param pokemon el Pokémon a representar gráficamente
-     * @return un panel listo para ser agregado a la grilla
+     * @param species la especie de la tarjeta
+     * @param e       el evento del ratón
      */
-    private JPanel createPokemonPanel(Pokemon pokemon) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(EMERALD_CARD_BG);
-        panel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createRaisedBevelBorder(),
-                BorderFactory.createEmptyBorder(10, 10, 10, 10)
-        ));
-        panel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        // Panel para la imagen
-        JPanel imagePanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 5));
-        imagePanel.setBackground(EMERALD_CARD_BG);
-
-        try {
-            ImageIcon icon = new ImageIcon("src/sprites/" + pokemon.getName().toLowerCase() + "_front.png");
-            Image scaledImage = icon.getImage().getScaledInstance(80, 80, Image.SCALE_SMOOTH);
-            JLabel imageLabel = new JLabel(new ImageIcon(scaledImage));
-            imagePanel.add(imageLabel);
-        } catch (Exception e) {
-            JLabel placeholderLabel = new JLabel("🔵", JLabel.CENTER);
-            placeholderLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 40));
-            placeholderLabel.setForeground(EMERALD_GREEN);
-            imagePanel.add(placeholderLabel);
-        }
-
-        panel.add(imagePanel, BorderLayout.CENTER);
-
-        // Panel para el nombre con contador de selecciones
-        JPanel namePanel = new JPanel(new BorderLayout());
-        namePanel.setBackground(EMERALD_LIGHT_GREEN);
-        namePanel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createMatteBorder(1, 0, 0, 0, EMERALD_GREEN),
-                BorderFactory.createEmptyBorder(5, 5, 5, 5)
-        ));
-
-        JLabel nameLabel = new JLabel(pokemon.getName(), JLabel.CENTER);
-        nameLabel.setFont(pokemonFont);
-        nameLabel.setForeground(Color.WHITE);
-        namePanel.add(nameLabel, BorderLayout.CENTER);
-
-        // Label para mostrar la cantidad seleccionada
-        JLabel countLabel = new JLabel("", JLabel.CENTER);
-        countLabel.setFont(pokemonFontSmall);
-        countLabel.setForeground(Color.WHITE);
-        namePanel.add(countLabel, BorderLayout.SOUTH);
-
-        panel.add(namePanel, BorderLayout.SOUTH);
-
-        // Efectos de hover
-        panel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                int selectedCount = getSelectedCount(pokemon.getName());
-                if (selectedCount == 0) {
-                    panel.setBackground(EMERALD_HOVER);
-                    imagePanel.setBackground(EMERALD_HOVER);
-                }
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                int selectedCount = getSelectedCount(pokemon.getName());
-                if (selectedCount == 0) {
-                    panel.setBackground(EMERALD_CARD_BG);
-                    imagePanel.setBackground(EMERALD_CARD_BG);
-                }
+    private void handlePokemonClick(Species species, MouseEvent e) {
+        String name = species.getName();
+        if (SwingUtilities.isLeftMouseButton(e)) {
+            if (selectedPokemons.size() < maxPokemons) {
+                selectedPokemons.add(PokemonDataBase.getPokemon(name));
+                selectedCounts.merge(name, 1, Integer::sum);
             }
-
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                if (SwingUtilities.isLeftMouseButton(e)) {
-                    // Click izquierdo: añadir Pokémon
-                    if (selectedPokemons.size() < maxPokemons) {
-                        Pokemon clonedPokemon = pokemon.clone();
-                        selectedPokemons.add(clonedPokemon);
-                        updatePokemonPanelStyle(panel, imagePanel, namePanel, countLabel, pokemon.getName());
-
-                        // Animación de selección
-                        Timer timer = new Timer(100, null);
-                        timer.addActionListener(ae -> {
-                            int count = getSelectedCount(pokemon.getName());
-                            if (count > 0) {
-                                panel.setBorder(BorderFactory.createCompoundBorder(
-                                        BorderFactory.createLineBorder(EMERALD_SELECTED, 3),
-                                        BorderFactory.createEmptyBorder(7, 7, 7, 7)
-                                ));
-                            }
-                            timer.stop();
-                        });
-                        timer.start();
-                    }
-                } else if (SwingUtilities.isRightMouseButton(e)) {
-                    // Click derecho: quitar un Pokémon de este tipo
-                    Pokemon toRemove = null;
-                    for (Pokemon p : selectedPokemons) {
-                        if (p.getName().equals(pokemon.getName())) {
-                            toRemove = p;
-                            break;
-                        }
-                    }
-                    if (toRemove != null) {
-                        selectedPokemons.remove(toRemove);
-                        updatePokemonPanelStyle(panel, imagePanel, namePanel, countLabel, pokemon.getName());
-                    }
+        } else if (SwingUtilities.isRightMouseButton(e)) {
+            for (Pokemon p : selectedPokemons) {
+                if (p.getName().equals(name)) {
+                    selectedPokemons.remove(p);
+                    selectedCounts.computeIfPresent(name, (key, count) -> count > 1 ? count - 1 : null);
+                    break;
                 }
-
-                updateConfirmButton();
             }
-        });
-
-        // Actualizar el estilo inicial
-        updatePokemonPanelStyle(panel, imagePanel, namePanel, countLabel, pokemon.getName());
+        }
 
-        return panel;
+        pokemonGrid.repaintCell(pokemonGrid.locationToIndex(e.getPoint()));
+        updateConfirmButton();
     }
 
     /**
      * Obtiene la cantidad de Pokémon seleccionados de un tipo específico.
      */
     private int getSelectedCount(String pokemonName) {
-        return (int) selectedPokemons.stream()
-                .filter(p -> p.getName().equals(pokemonName))
-                .count();
-    }
-
-    /**
-     * Actualiza el estilo visual del panel de un Pokémon según la cantidad seleccionada.
-     */
-    private void updatePokemonPanelStyle(JPanel panel, JPanel imagePanel, JPanel namePanel, JLabel countLabel, String pokemonName) {
-        int selectedCount = getSelectedCount(pokemonName);
-
-        if (selectedCount > 0) {
-            panel.setBackground(new Color(220, 248, 198));
-            imagePanel.setBackground(new Color(220, 248, 198));
-            panel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(EMERALD_SELECTED, 3),
-                    BorderFactory.createEmptyBorder(7, 7, 7, 7)
-            ));
-            namePanel.setBackground(EMERALD_SELECTED);
-            countLabel.setText("x" + selectedCount);
-            countLabel.setVisible(true);
-        } else {
-            panel.setBackground(EMERALD_CARD_BG);
-            imagePanel.setBackground(EMERALD_CARD_BG);
-            panel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createRaisedBevelBorder(),
-                    BorderFactory.createEmptyBorder(10, 10, 10, 10)
-            ));
-            namePanel.setBackground(EMERALD_LIGHT_GREEN);
-            countLabel.setText("");
-            countLabel.setVisible(false);
-        }
-        panel.repaint();
+        return selectedCounts.getOrDefault(pokemonName, 0);
     }
 
     /**
@@ -376,6 +315,97 @@ public class PokemonSelectionGUI extends JDialog {
         }
     }
 
+    /**
+     * Dibuja la tarjeta de una especie: imagen, nombre y cantidad seleccionada.
+     * Una sola instancia se reutiliza para todas las celdas visibles.
+     */
+    private class PokemonCellRenderer implements ListCellRenderer<Species> {
+        private final JPanel cell = new JPanel(new BorderLayout());
+        private final JPanel card = new JPanel(new BorderLayout());
+        private final JLabel imageLabel = new JLabel("", JLabel.CENTER);
+        private final JPanel namePanel = new JPanel(new BorderLayout());
+        private final JLabel nameLabel = new JLabel("", JLabel.CENTER);
+        private final JLabel countLabel = new JLabel("", JLabel.CENTER);
+        private final Font placeholderFont = new Font("Segoe UI Emoji", Font.PLAIN, 40);
+        private BufferedImage image;
+        // Ícono que dibuja la imagen de la celda actual sin crear un ImageIcon por celda
+        private final Icon icon = new Icon() {
+            @Override
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                g.drawImage(image, x, y, null);
+            }
+
+            @Override
+            public int getIconWidth() {
+                return IMAGE_SIZE;
+            }
+
+            @Override
+            public int getIconHeight() {
+                return IMAGE_SIZE;
+            }
+        };
+
+        PokemonCellRenderer() {
+            // El borde exterior hace de separación entre tarjetas
+            cell.setOpaque(false);
+            cell.setBorder(BorderFactory.createEmptyBorder(7, 7, 7, 7));
+            cell.add(card, BorderLayout.CENTER);
+
+            imageLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
+            imageLabel.setPreferredSize(new Dimension(IMAGE_SIZE, IMAGE_SIZE + 10));
+            card.add(imageLabel, BorderLayout.CENTER);
+
+            namePanel.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createMatteBorder(1, 0, 0, 0, EMERALD_GREEN),
+                    BorderFactory.createEmptyBorder(5, 5, 5, 5)
+            ));
+            nameLabel.setFont(pokemonFont);
+            nameLabel.setForeground(Color.WHITE);
+            countLabel.setFont(pokemonFontSmall);
+            countLabel.setForeground(Color.WHITE);
+            namePanel.add(nameLabel, BorderLayout.CENTER);
+            namePanel.add(countLabel, BorderLayout.SOUTH);
+            card.add(namePanel, BorderLayout.SOUTH);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Species> list, Species species,
+                                                      int index, boolean isSelected, boolean cellHasFocus) {
+            String name = species.getName();
+            image = pokemonGrid.getImage(name, SpriteCache.View.FRONT, IMAGE_SIZE, IMAGE_SIZE);
+            if (image != null) {
+                imageLabel.setIcon(icon);
+                imageLabel.setText("");
+            } else {
+                // Mientras la imagen carga (o si no existe) se muestra un marcador del mismo tamaño
+                imageLabel.setIcon(null);
+                imageLabel.setText("🔵");
+                imageLabel.setFont(placeholderFont);
+                imageLabel.setForeground(EMERALD_GREEN);
+            }
+            nameLabel.setText(name);
+
+            int selectedCount = getSelectedCount(name);
+            Color background;
+            if (selectedCount > 0) {
+                background = EMERALD_SELECTED_BG;
+                card.setBorder(CARD_SELECTED_BORDER);
+                namePanel.setBackground(EMERALD_SELECTED);
+                countLabel.setText("x" + selectedCount);
+                countLabel.setVisible(true);
+            } else {
+                background = index == pokemonGrid.getHoverIndex() ? EMERALD_HOVER : EMERALD_CARD_BG;
+                card.setBorder(CARD_BORDER);
+                namePanel.setBackground(EMERALD_LIGHT_GREEN);
+                countLabel.setText("");
+                countLabel.setVisible(false);
+            }
+            card.setBackground(background);
+            return cell;
+        }
+    }
+
     /**
      * Interfaz funcional para manejar la acción posterior a la selección de Pokémon.
      */
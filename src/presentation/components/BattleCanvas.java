@@ -0,0 +1,509 @@
+package presentation.components;
+
+import domain.Pokemon;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escena de batalla pintada en un solo componente: fondo, sprites de los dos Pokémon activos y
+ * sus recuadros de información (nombre, nivel y barra de PS).
+ *
+ * <p>El fondo escalado se dibuja una sola vez por tamaño en una {@link VolatileImage}, que en cada
+ * pintado se copia de un golpe. Los cambios de estado comparan los valores nuevos con los que se
+ * están mostrando y solo piden repintar los rectángulos que cambiaron, de modo que bajar la barra
+ * de PS de un Pokémon no vuelve a pintar el resto de la escena.
+ *
+ * <p>Los cambios de PS no saltan: la barra se desliza hasta el valor nuevo y el sprite del Pokémon
+ * que recibió daño parpadea un momento. Estas animaciones avanzan con los cuadros del
+ * {@link FrameScheduler}, al que la escena solo está suscrita mientras haya algo animándose.
+ *
+ * <p>Las posiciones se definen sobre una escena de {@value #SCENE_WIDTH}x{@value #SCENE_HEIGHT}
+ * y se escalan con el tamaño del componente. Mientras la ventana se está redimensionando, el fondo y
+ * los sprites se dibujan desde las escalas pregeneradas de la {@link SpriteCache} con interpolación
+ * rápida; cuando pasan {@value #RESIZE_SETTLE_MILLIS} ms sin cambios de tamaño se piden en segundo
+ * plano las versiones de alta calidad al tamaño exacto, que reemplazan a las rápidas al llegar.
+ */
+public class BattleCanvas extends JComponent {
+    static final int SCENE_WIDTH = 800;
+    static final int SCENE_HEIGHT = 400;
+    private static final int SPRITE_SIZE = 150;
+    static final int RESIZE_SETTLE_MILLIS = 200;
+    // Tiempo que tarda la barra en recorrer todos los PS
+    private static final long HP_DRAIN_NANOS = TimeUnit.MILLISECONDS.toNanos(1000);
+    private static final long FLASH_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+    private static final long FLASH_BLINK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final Color SKY = new Color(120, 184, 232);
+    private static final Color BOX_BACKGROUND = new Color(255, 255, 200);
+    private static final Color BOX_FAINTED = new Color(200, 200, 200);
+    private static final Color BOX_BORDER = new Color(100, 100, 100);
+    private static final Color TURN_BORDER = new Color(200, 0, 0);
+    private static final Color HP_HIGH = new Color(0, 200, 0);
+    private static final Color HP_MEDIUM = new Color(255, 200, 0);
+    private static final Color HP_LOW = new Color(200, 0, 0);
+    private static final Color HP_TRACK = new Color(238, 238, 238);
+
+    private final SpriteManager spriteManager;
+    private final Font nameFont;
+    private final Font hpFont;
+    private final Combatant player1;
+    private final Combatant player2;
+
+    private BufferedImage backgroundImage;
+    private VolatileImage background;
+    private boolean backgroundStale = true;
+    // Fondo escalado con calidad al tamaño actual; null hasta que lo genere el precargador
+    private BufferedImage sizedBackground;
+    private boolean resizing;
+    private FrameScheduler.Task settleTask;
+    private final FrameScheduler.FrameListener animator = this::animate;
+    private long lastFrame;
+
+    /**
+     * Crea la escena y pide la imagen de fondo; hasta que llegue se pinta un color sólido.
+     *
+     * @param spriteManager gestor de sprites usado para dibujar los Pokémon
+     * @param pokemonFont   fuente del juego
+     */
+    public BattleCanvas(SpriteManager spriteManager, Font pokemonFont) {
+        this.spriteManager = spriteManager;
+        this.nameFont = pokemonFont.deriveFont(Font.BOLD, 14f);
+        this.hpFont = pokemonFont.deriveFont(12f);
+        this.player1 = new Combatant(SpriteCache.View.BACK,
+                new Rectangle(20, 20, 250, 80), new Rectangle(80, 220, 200, 200));
+        this.player2 = new Combatant(SpriteCache.View.FRONT,
+                new Rectangle(SCENE_WIDTH - 270, 20, 250, 80), new Rectangle(SCENE_WIDTH - 300, 90, 200, 200));
+
+        setOpaque(true);
+        setPreferredSize(new Dimension(SCENE_WIDTH, SCENE_HEIGHT));
+        SpritePreloader.getInstance().load(SpritePreloader.BATTLE_BACKGROUND, SpriteCache.View.PLAIN, 0, 0,
+                image -> {
+                    backgroundImage = image;
+                    backgroundStale = true;
+                    if (image != null) {
+                        SpritePreloader.getInstance().preloadScaleBuckets(SpritePreloader.BATTLE_BACKGROUND,
+                                SpriteCache.View.PLAIN, SCENE_WIDTH, SCENE_HEIGHT);
+                        requestSizedImages();
+                    }
+                    repaint();
+                });
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                onResize();
+            }
+        });
+    }
+
+    /**
+     * Registra un cambio de tamaño y pospone la versión de alta calidad hasta que el tamaño
+     * deje de cambiar.
+     */
+    private void onResize() {
+        resizing = true;
+        if (settleTask != null) {
+            settleTask.cancel();
+        }
+        settleTask = FrameScheduler.getInstance().scheduleUi(RESIZE_SETTLE_MILLIS, () -> {
+            settleTask = null;
+            resizing = false;
+            requestSizedImages();
+            repaint();
+        });
+    }
+
+    /**
+     * Pide al precargador el fondo y los sprites escalados con calidad al tamaño actual.
+     * Si el tamaño vuelve a cambiar antes de que lleguen, se descartan.
+     */
+    private void requestSizedImages() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (backgroundImage != null && (sizedBackground == null
+                || sizedBackground.getWidth() != width || sizedBackground.getHeight() != height)) {
+            SpritePreloader.getInstance().load(SpritePreloader.BATTLE_BACKGROUND, SpriteCache.View.PLAIN,
+                    width, height, image -> {
+                        if (image != null && width == getWidth() && height == getHeight()) {
+                            sizedBackground = image;
+                            backgroundStale = true;
+                            repaint();
+                        }
+                    });
+        }
+        player1.requestSizedSprite();
+        player2.requestSizedSprite();
+    }
+
+    private double spriteScale() {
+        return Math.min((double) getWidth() / SCENE_WIDTH, (double) getHeight() / SCENE_HEIGHT);
+    }
+
+    /**
+     * Actualiza la escena con los Pokémon activos y el turno. Solo se repintan los recuadros
+     * y sprites cuyos datos cambiaron.
+     *
+     * @param pokemon1    Pokémon activo del jugador 1 (se ve de espaldas)
+     * @param pokemon2    Pokémon activo del jugador 2 (se ve de frente)
+     * @param player1Turn true si es el turno del jugador 1
+     */
+    public void updateBattle(Pokemon pokemon1, Pokemon pokemon2, boolean player1Turn) {
+        player1.update(pokemon1, player1Turn);
+        player2.update(pokemon2, !player1Turn);
+    }
+
+    /**
+     * Avanza las animaciones un cuadro.
+     *
+     * @return true mientras quede alguna animación en curso
+     */
+    private boolean animate(long now) {
+        long elapsed = now - lastFrame;
+        lastFrame = now;
+        boolean first = player1.advance(now, elapsed);
+        boolean second = player2.advance(now, elapsed);
+        return first || second;
+    }
+
+    private void startAnimating() {
+        FrameScheduler scheduler = FrameScheduler.getInstance();
+        if (!scheduler.isSubscribed(animator)) {
+            lastFrame = System.nanoTime();
+            scheduler.subscribe(animator);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        FrameScheduler.getInstance().unsubscribe(animator);
+        if (settleTask != null) {
+            settleTask.cancel();
+            settleTask = null;
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            paintBackground(g2d);
+            Rectangle clip = g2d.getClipBounds();
+            player1.paint(g2d, clip);
+            player2.paint(g2d, clip);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Copia el fondo desde la imagen acelerada, volviéndola a generar si cambió el tamaño o si
+     * el sistema descartó su contenido. Durante un redimensionado se dibuja directamente desde la
+     * escala pregenerada más cercana, sin regenerar la imagen acelerada en cada cuadro.
+     */
+    private void paintBackground(Graphics2D g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (resizing) {
+            double scale = Math.max((double) width / SCENE_WIDTH, (double) height / SCENE_HEIGHT);
+            BufferedImage bucket = SpriteCache.getInstance().peekBucket(SpritePreloader.BATTLE_BACKGROUND,
+                    SpriteCache.View.PLAIN, SCENE_WIDTH, SCENE_HEIGHT, scale);
+            Image fast = bucket != null ? bucket : sizedBackground != null ? sizedBackground : backgroundImage;
+            if (fast != null) {
+                g.drawImage(fast, 0, 0, width, height, null);
+                backgroundStale = true;
+                return;
+            }
+        }
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config == null || width <= 0 || height <= 0) {
+            renderBackground(g, width, height);
+            return;
+        }
+
+        do {
+            if (background == null || background.getWidth() != width || background.getHeight() != height) {
+                if (background != null) {
+                    background.flush();
+                }
+                background = config.createCompatibleVolatileImage(width, height);
+                backgroundStale = true;
+            }
+            int status = background.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                background.flush();
+                background = null;
+                continue;
+            }
+            if (status == VolatileImage.IMAGE_RESTORED || backgroundStale) {
+                Graphics2D bg = background.createGraphics();
+                try {
+                    renderBackground(bg, width, height);
+                } finally {
+                    bg.dispose();
+                }
+                backgroundStale = false;
+            }
+            g.drawImage(background, 0, 0, null);
+        } while (background == null || background.contentsLost());
+    }
+
+    private void renderBackground(Graphics2D g, int width, int height) {
+        if (sizedBackground != null && sizedBackground.getWidth() == width && sizedBackground.getHeight() == height) {
+            g.drawImage(sizedBackground, 0, 0, null);
+        } else if (backgroundImage != null) {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(backgroundImage, 0, 0, width, height, null);
+        } else {
+            g.setColor(SKY);
+            g.fillRect(0, 0, width, height);
+        }
+    }
+
+    /**
+     * Convierte un rectángulo de la escena original al tamaño actual del componente.
+     */
+    private Rectangle scaled(Rectangle scene) {
+        double scaleX = (double) getWidth() / SCENE_WIDTH;
+        double scaleY = (double) getHeight() / SCENE_HEIGHT;
+        int x = (int) (scene.x * scaleX);
+        int y = (int) (scene.y * scaleY);
+        return new Rectangle(x, y, (int) (scene.width * scaleX), (int) (scene.height * scaleY));
+    }
+
+    /**
+     * Color de la barra de PS: verde (más de 50%), amarillo (más de 20%) o rojo.
+     */
+    private static Color hpColor(int hp, int maxHp) {
+        double percentage = maxHp > 0 ? (double) hp / maxHp : 0;
+        if (percentage > 0.5) return HP_HIGH;
+        if (percentage > 0.2) return HP_MEDIUM;
+        return HP_LOW;
+    }
+
+    /**
+     * Lado de la batalla: lo que se muestra de un Pokémon y dónde.
+     */
+    private final class Combatant {
+        private final SpriteCache.View preferredView;
+        private final Rectangle infoBox;
+        private final Rectangle spriteBox;
+
+        private String name;
+        private int level;
+        private int hp;
+        private int maxHp;
+        private boolean turnActive;
+        private SpriteCache.View view;
+        private boolean spriteReady;
+        // PS que muestra la barra mientras se desliza hacia hp
+        private double shownHp;
+        private long flashStart;
+        private long flashEnd;
+
+        Combatant(SpriteCache.View preferredView, Rectangle infoBox, Rectangle spriteBox) {
+            this.preferredView = preferredView;
+            this.infoBox = infoBox;
+            this.spriteBox = spriteBox;
+        }
+
+        void update(Pokemon pokemon, boolean active) {
+            String newName = pokemon.getName();
+            boolean switched = !newName.equals(name);
+            if (switched) {
+                name = newName;
+                flashEnd = 0;
+                loadSprite();
+                repaint(scaled(spriteBox));
+                repaint(scaled(infoBox));
+            }
+            int newHp = Math.max(0, pokemon.getHp());
+            if (level != pokemon.getLevel() || hp != newHp || maxHp != pokemon.getMaxHp()
+                    || turnActive != active) {
+                if (switched) {
+                    shownHp = newHp;
+                } else if (newHp != hp) {
+                    if (newHp < hp) {
+                        flashStart = System.nanoTime();
+                        flashEnd = flashStart + FLASH_NANOS;
+                    }
+                    startAnimating();
+                }
+                level = pokemon.getLevel();
+                hp = newHp;
+                maxHp = pokemon.getMaxHp();
+                turnActive = active;
+                repaint(scaled(infoBox));
+            }
+        }
+
+        /**
+         * Acerca los PS mostrados al valor real y avanza el parpadeo de daño,
+         * repintando solo lo que se mueve.
+         *
+         * @return true si la animación sigue en curso
+         */
+        boolean advance(long now, long elapsed) {
+            boolean animating = false;
+            if (shownHp != hp) {
+                double step = maxHp * (double) elapsed / HP_DRAIN_NANOS;
+                shownHp = shownHp > hp ? Math.max(hp, shownHp - step) : Math.min(hp, shownHp + step);
+                repaint(scaled(infoBox));
+                animating = shownHp != hp;
+            }
+            if (flashEnd != 0) {
+                if (now >= flashEnd) {
+                    flashEnd = 0;
+                } else {
+                    animating = true;
+                }
+                repaint(scaled(spriteBox));
+            }
+            return animating;
+        }
+
+        private boolean isFlashHidden() {
+            return flashEnd != 0 && ((System.nanoTime() - flashStart) / FLASH_BLINK_NANOS) % 2 == 0;
+        }
+
+        /**
+         * Pide el sprite al precargador para que la página del atlas ya esté leída al pintarlo.
+         */
+        private void loadSprite() {
+            String requested = name;
+            String key = requested.toLowerCase();
+            SpriteCache cache = SpriteCache.getInstance();
+            view = cache.contains(key, preferredView) ? preferredView
+                    : cache.contains(key, SpriteCache.View.PLAIN) ? SpriteCache.View.PLAIN : null;
+            spriteReady = false;
+            if (view == null) {
+                return;
+            }
+            SpriteCache.View requestedView = view;
+            SpritePreloader.getInstance().load(key, view, 0, 0, image -> {
+                if (requested.equals(name)) {
+                    spriteReady = image != null;
+                    if (spriteReady) {
+                        SpritePreloader.getInstance().preloadScaleBuckets(key, requestedView, SPRITE_SIZE, SPRITE_SIZE);
+                        requestSizedSprite();
+                    }
+                    repaint(scaled(spriteBox));
+                }
+            });
+        }
+
+        /**
+         * Pide el sprite escalado con calidad al tamaño actual y repinta su recuadro cuando llega.
+         */
+        void requestSizedSprite() {
+            int size = (int) (SPRITE_SIZE * spriteScale());
+            if (!spriteReady || size <= 0) {
+                return;
+            }
+            String requested = name;
+            SpritePreloader.getInstance().load(requested.toLowerCase(), view, size, size, image -> {
+                if (requested.equals(name)) {
+                    repaint(scaled(spriteBox));
+                }
+            });
+        }
+
+        void paint(Graphics2D g, Rectangle clip) {
+            if (name == null) {
+                return;
+            }
+            Rectangle sprite = scaled(spriteBox);
+            if (clip == null || clip.intersects(sprite)) {
+                paintSprite(g, sprite);
+            }
+            Rectangle box = scaled(infoBox);
+            if (clip == null || clip.intersects(box)) {
+                paintInfoBox(g, box);
+            }
+        }
+
+        private void paintSprite(Graphics2D g, Rectangle area) {
+            if (isFlashHidden()) {
+                return;
+            }
+            if (spriteReady) {
+                double scale = spriteScale();
+                int size = (int) (SPRITE_SIZE * scale);
+                int x = area.x + (area.width - size) / 2;
+                int y = area.y + (area.height - size) / 2;
+                String key = name.toLowerCase();
+                SpriteCache cache = SpriteCache.getInstance();
+                BufferedImage ready = resizing ? cache.peekBucket(key, view, SPRITE_SIZE, SPRITE_SIZE, scale)
+                        : cache.peekImage(key, view, size, size);
+                if (ready != null) {
+                    g.drawImage(ready, x, y, size, size, null);
+                    return;
+                }
+                Graphics2D sg = (Graphics2D) g.create();
+                sg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                boolean drawn = spriteManager.drawSprite(sg, key, view, x, y, size, size);
+                sg.dispose();
+                if (drawn) {
+                    return;
+                }
+            }
+            // Mientras no haya sprite se muestra el nombre, como hacía la etiqueta anterior
+            g.setFont(nameFont);
+            g.setColor(Color.BLACK);
+            FontMetrics metrics = g.getFontMetrics();
+            g.drawString(name, area.x + (area.width - metrics.stringWidth(name)) / 2,
+                    area.y + (area.height + metrics.getAscent() - metrics.getDescent()) / 2);
+        }
+
+        private void paintInfoBox(Graphics2D g, Rectangle box) {
+            int displayed = (int) Math.round(shownHp);
+            boolean fainted = displayed <= 0;
+            g.setColor(fainted ? BOX_FAINTED : BOX_BACKGROUND);
+            g.fillRect(box.x, box.y, box.width, box.height);
+
+            int border = turnActive ? 3 : 2;
+            g.setColor(turnActive ? TURN_BORDER : BOX_BORDER);
+            g.setStroke(new BasicStroke(border));
+            g.drawRect(box.x + border / 2, box.y + border / 2, box.width - border, box.height - border);
+
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(hpFont);
+            FontMetrics hpMetrics = g.getFontMetrics();
+            int barHeight = hpMetrics.getHeight() + 2;
+            Rectangle bar = new Rectangle(box.x + border, box.y + box.height - border - barHeight,
+                    box.width - 2 * border, barHeight);
+
+            // Nombre y nivel, centrados sobre la barra
+            String title = name + " Lv." + level;
+            g.setFont(nameFont);
+            FontMetrics nameMetrics = g.getFontMetrics();
+            int titleArea = bar.y - box.y - border;
+            g.setColor(fainted ? Color.GRAY : Color.BLACK);
+            g.drawString(title, box.x + (box.width - nameMetrics.stringWidth(title)) / 2,
+                    box.y + border + (titleArea + nameMetrics.getAscent() - nameMetrics.getDescent()) / 2);
+
+            // Barra de PS
+            g.setColor(HP_TRACK);
+            g.fillRect(bar.x, bar.y, bar.width, bar.height);
+            int filled = maxHp > 0 ? (int) ((long) bar.width * Math.max(0, displayed) / maxHp) : 0;
+            g.setColor(fainted ? Color.GRAY : hpColor(displayed, maxHp));
+            g.fillRect(bar.x, bar.y, filled, bar.height);
+            g.setStroke(new BasicStroke(1));
+            g.setColor(Color.BLACK);
+            g.drawRect(bar.x, bar.y, bar.width - 1, bar.height - 1);
+
+            String hpText = displayed + "/" + maxHp;
+            g.setFont(hpFont);
+            g.drawString(hpText, bar.x + (bar.width - hpMetrics.stringWidth(hpText)) / 2,
+                    bar.y + (bar.height + hpMetrics.getAscent() - hpMetrics.getDescent()) / 2);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package presentation.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Grilla virtual para mostrar catálogos (especies, movimientos) en los diálogos de selección.
+ *
+ * <p>Es una {@link JList} en modo de filas envolventes con celdas de tamaño fijo: Swing solo pinta
+ * las celdas visibles y las pinta todas con un único componente de renderizado que se reutiliza,
+ * así que abrir el diálogo no depende del tamaño del catálogo. Las imágenes se piden al
+ * {@link SpritePreloader} cuando una celda se pinta por primera vez, es decir, a medida que
+ * entran en pantalla.
+ *
+ * @param <T> tipo de los elementos del catálogo
+ */
+public class CatalogGrid<T> extends JList<T> {
+    private final ItemsModel<T> items = new ItemsModel<>();
+    private final Set<String> pendingImages = new HashSet<>();
+    private int hoverIndex = -1;
+
+    /**
+     * Crea una grilla vacía.
+     *
+     * @param cellWidth  ancho de cada celda
+     * @param cellHeight alto de cada celda
+     */
+    public CatalogGrid(int cellWidth, int cellHeight) {
+        setModel(items);
+        setLayoutOrientation(HORIZONTAL_WRAP);
+        setVisibleRowCount(-1);
+        setFixedCellWidth(cellWidth);
+        setFixedCellHeight(cellHeight);
+        setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        MouseAdapter hover = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverIndex(indexAt(e.getPoint()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverIndex(-1);
+            }
+        };
+        addMouseListener(hover);
+        addMouseMotionListener(hover);
+    }
+
+    /**
+     * Reemplaza los elementos mostrados. La lista no se copia, así que puede ser una vista
+     * de un índice del catálogo.
+     *
+     * @param list elementos a mostrar
+     */
+    public void setItems(List<T> list) {
+        hoverIndex = -1;
+        items.setItems(list);
+    }
+
+    /**
+     * @return índice de la celda bajo el ratón, o -1 si no hay ninguna
+     */
+    public int getHoverIndex() {
+        return hoverIndex;
+    }
+
+    /**
+     * Registra una acción para los clics sobre una celda.
+     *
+     * @param action recibe el elemento de la celda y el evento del ratón
+     */
+    public void onItemClicked(BiConsumer<T, MouseEvent> action) {
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = indexAt(e.getPoint());
+                if (index >= 0) {
+                    action.accept(items.getElementAt(index), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Repinta solo la celda indicada, si existe.
+     *
+     * @param index índice de la celda
+     */
+    public void repaintCell(int index) {
+        if (index >= 0 && index < items.getSize()) {
+            Rectangle bounds = getCellBounds(index, index);
+            if (bounds != null) {
+                repaint(bounds);
+            }
+        }
+    }
+
+    /**
+     * Devuelve la imagen de un sprite si ya está cargada; si no, la pide en segundo plano y
+     * vuelve a pintar la grilla cuando llegue. Pensado para llamarse desde el renderizador.
+     *
+     * @param name   nombre del sprite
+     * @param view   vista del sprite
+     * @param width  ancho deseado
+     * @param height alto deseado
+     * @return la imagen, o null mientras no esté lista o si no existe
+     */
+    public BufferedImage getImage(String name, SpriteCache.View view, int width, int height) {
+        SpriteCache cache = SpriteCache.getInstance();
+        BufferedImage image = cache.peekImage(name, view, width, height);
+        if (image == null && cache.contains(name, view) && pendingImages.add(name + view)) {
+            SpritePreloader.getInstance().load(name, view, width, height, loaded -> {
+                pendingImages.remove(name + view);
+                repaint();
+            });
+        }
+        return image;
+    }
+
+    private int indexAt(Point point) {
+        int index = locationToIndex(point);
+        if (index < 0) {
+            return -1;
+        }
+        Rectangle bounds = getCellBounds(index, index);
+        return bounds != null && bounds.contains(point) ? index : -1;
+    }
+
+    private void setHoverIndex(int index) {
+        if (index != hoverIndex) {
+            int previous = hoverIndex;
+            hoverIndex = index;
+            repaintCell(previous);
+            repaintCell(index);
+        }
+    }
+
+    /**
+     * Modelo respaldado directamente por una lista, sin copiarla.
+     */
+    private static final class ItemsModel<T> extends AbstractListModel<T> {
+        private List<T> list = Collections.emptyList();
+
+        void setItems(List<T> newList) {
+            int oldSize = list.size();
+            list = Collections.emptyList();
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            list = newList;
+            if (!list.isEmpty()) {
+                fireIntervalAdded(this, 0, list.size() - 1);
+            }
+        }
+
+        @Override
+        public int getSize() {
+            return list.size();
+        }
+
+        @Override
+        public T getElementAt(int index) {
+            return list.get(index);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package presentation.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Diálogo modal reutilizable para elegir una opción de una lista (cambiar de Pokémon, elegir un
+ * ítem o su objetivo).
+ *
+ * <p>El diálogo y sus botones se crean una vez por batalla. Cada vez que se muestra recibe el
+ * modelo de filas actual y lo compara con el de la vez anterior: solo cambia el texto, el ícono o el
+ * estado de los botones cuyas filas cambiaron, y solo crea botones si hay más filas que antes.
+ * Los íconos se vuelven a pedir únicamente si cambió el sprite o su tamaño.
+ */
+public class ChoiceDialog extends JDialog {
+    private static final Color DIALOG_BACKGROUND = new Color(152, 251, 152); // Verde Esmeralda
+    private static final Color OPTION_BACKGROUND = new Color(176, 224, 230);
+    private static final Color DISABLED_BACKGROUND = Color.LIGHT_GRAY;
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 16);
+
+    /**
+     * Fila del diálogo. Es inmutable, de modo que comparar dos filas alcanza para saber si el
+     * botón que la muestra tiene que actualizarse.
+     */
+    public static final class Row {
+        private final String label;
+        private final String iconName;
+        private final SpriteCache.View view;
+        private final int iconSize;
+        private final boolean enabled;
+
+        /**
+         * @param label    texto del botón
+         * @param iconName sprite a mostrar, o null para no mostrar ícono
+         * @param view     vista del sprite
+         * @param iconSize lado del ícono en píxeles
+         * @param enabled  si la opción se puede elegir
+         */
+        public Row(String label, String iconName, SpriteCache.View view, int iconSize, boolean enabled) {
+            this.label = label;
+            this.iconName = iconName;
+            this.view = view;
+            this.iconSize = iconSize;
+            this.enabled = enabled;
+        }
+
+        private boolean sameIcon(Row other) {
+            return other != null && Objects.equals(iconName, other.iconName)
+                    && view == other.view && iconSize == other.iconSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Row)) return false;
+            Row other = (Row) o;
+            return enabled == other.enabled && label.equals(other.label) && sameIcon(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, iconName, view, iconSize, enabled);
+        }
+    }
+
+    private final JPanel optionsPanel;
+    private final List<JButton> buttons = new ArrayList<>();
+    private final List<Row> rows = new ArrayList<>();
+    private IntConsumer onChoose;
+    private int updatedRows;
+
+    /**
+     * Crea el diálogo vacío.
+     *
+     * @param owner ventana dueña del diálogo
+     * @param title título de la ventana
+     * @param header texto que se muestra sobre las opciones
+     * @param width ancho del diálogo
+     * @param height alto del diálogo
+     */
+    public ChoiceDialog(Frame owner, String title, String header, int width, int height) {
+        super(owner, title, true);
+        setLayout(new BorderLayout());
+        setSize(width, height);
+        getContentPane().setBackground(DIALOG_BACKGROUND);
+
+        JLabel titleLabel = new JLabel(header, SwingConstants.CENTER);
+        titleLabel.setFont(TITLE_FONT);
+        titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+        add(titleLabel, BorderLayout.NORTH);
+
+        optionsPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        optionsPanel.setBackground(DIALOG_BACKGROUND);
+        JScrollPane scrollPane = new JScrollPane(optionsPanel);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * Actualiza las opciones y muestra el diálogo. Como es modal, el método vuelve cuando el
+     * diálogo se cierra; si se eligió una opción, la acción ya se ejecutó.
+     *
+     * @param model    filas a mostrar
+     * @param onChoose recibe el índice de la fila elegida
+     */
+    public void showChoices(List<Row> model, IntConsumer onChoose) {
+        update(model);
+        this.onChoose = onChoose;
+        setLocationRelativeTo(getOwner());
+        setVisible(true);
+    }
+
+    /**
+     * Aplica un nuevo modelo de filas, tocando solo los botones de las filas que cambiaron.
+     *
+     * @param model filas a mostrar
+     */
+    public void update(List<Row> model) {
+        updatedRows = 0;
+        for (int i = 0; i < model.size(); i++) {
+            Row row = model.get(i);
+            Row previous = i < rows.size() ? rows.get(i) : null;
+            if (row.equals(previous)) {
+                continue;
+            }
+            JButton button = i < buttons.size() ? buttons.get(i) : addButton(i);
+            apply(button, row, previous);
+            if (previous == null) {
+                rows.add(row);
+            } else {
+                rows.set(i, row);
+            }
+            updatedRows++;
+        }
+        boolean removed = false;
+        while (rows.size() > model.size()) {
+            rows.remove(rows.size() - 1);
+            optionsPanel.remove(buttons.remove(buttons.size() - 1));
+            removed = true;
+        }
+        if (removed || updatedRows > 0) {
+            optionsPanel.revalidate();
+            optionsPanel.repaint();
+        }
+    }
+
+    /**
+     * @return número de filas que cambiaron en la última actualización
+     */
+    public int getUpdatedRowCount() {
+        return updatedRows;
+    }
+
+    private JButton addButton(int index) {
+        JButton button = new JButton();
+        button.setHorizontalAlignment(SwingConstants.LEFT);
+        button.setFocusPainted(false);
+        button.addActionListener(e -> {
+            setVisible(false);
+            if (onChoose != null) {
+                onChoose.accept(index);
+            }
+        });
+        buttons.add(button);
+        optionsPanel.add(button);
+        return button;
+    }
+
+    private void apply(JButton button, Row row, Row previous) {
+        if (previous == null || !row.label.equals(previous.label)) {
+            button.setText(row.label);
+        }
+        if (!row.sameIcon(previous)) {
+            button.setIcon(row.iconName == null ? null
+                    : SpriteCache.getInstance().getIcon(row.iconName, row.view, row.iconSize, row.iconSize));
+        }
+        if (previous == null || row.enabled != previous.enabled) {
+            button.setEnabled(row.enabled);
+            button.setBackground(row.enabled ? OPTION_BACKGROUND : DISABLED_BACKGROUND);
+        }
+    }
+}
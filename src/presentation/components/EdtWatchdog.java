@@ -0,0 +1,441 @@
+package presentation.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vigila que el hilo de eventos de Swing (EDT) siga respondiendo.
+ *
+ * <p>Instala una {@link EventQueue} propia que mide cuánto tarda en despacharse cada evento. Un hilo
+ * aparte duerme hasta que el evento en curso lleva la mitad de {@value #LONG_EVENT_MILLIS} ms y desde
+ * ahí toma una muestra de la pila del EDT cada {@value #SAMPLE_MILLIS} ms; mientras no se despacha
+ * nada queda detenido y la cola lo despierta al empezar el siguiente evento. Los eventos que superan
+ * ese límite se guardan con sus muestras, así que el reporte dice qué método estaba bloqueando la
+ * interfaz y por cuánto tiempo.
+ *
+ * <p>Además mide la latencia de entrada a pintado de las acciones marcadas con
+ * {@link #markAction(String)}: desde que empezó a despacharse el evento que originó la acción hasta
+ * que termina el siguiente pintado de la ventana.
+ *
+ * <p>Los eventos que abren un diálogo modal no se cuentan como bloqueos: mientras el diálogo está
+ * abierto el EDT sigue despachando otros eventos.
+ */
+public class EdtWatchdog {
+    /** Duración desde la que un evento se considera un bloqueo. */
+    public static final long LONG_EVENT_MILLIS = 100;
+    /** Archivo donde se guarda el reporte por defecto. */
+    public static final String REPORT_FILE = "edt-report.txt";
+
+    static final long SAMPLE_MILLIS = 20;
+    private static final int MAX_LONG_EVENTS = 50;
+    private static final int MAX_SAMPLES = 25;
+
+    private static EdtWatchdog instance;
+
+    /**
+     * Histograma de latencias con cubetas en potencias de dos de milisegundos
+     * (hasta 1, 2, 4, ... 2048 ms y más).
+     */
+    public static final class Histogram {
+        static final int BUCKETS = 13;
+
+        private final long[] counts = new long[BUCKETS];
+        private long total;
+        private long sumNanos;
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKETS - 1 && millis >= (1L << bucket)) {
+                bucket++;
+            }
+            counts[bucket]++;
+            total++;
+            sumNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        /**
+         * @return número de mediciones
+         */
+        public synchronized long getCount() {
+            return total;
+        }
+
+        /**
+         * @return latencia máxima en milisegundos
+         */
+        public synchronized double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+
+        /**
+         * Cota superior del percentil indicado según las cubetas.
+         *
+         * @param percentile percentil entre 0 y 100
+         * @return latencia en milisegundos, o 0 si no hay mediciones
+         */
+        public synchronized long getPercentileMillis(double percentile) {
+            long target = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return i == BUCKETS - 1 ? TimeUnit.NANOSECONDS.toMillis(maxNanos) : 1L << i;
+                }
+            }
+            return 0;
+        }
+
+        synchronized void print(PrintWriter out) {
+            if (total == 0) {
+                out.println("  sin mediciones");
+                return;
+            }
+            out.printf(Locale.ROOT, "  eventos: %d, promedio: %.2f ms, p50: <%d ms, p99: <%d ms, máximo: %.2f ms%n",
+                    total, sumNanos / 1e6 / total, getPercentileMillis(50), getPercentileMillis(99), getMaxMillis());
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] > 0) {
+                    String range = i == BUCKETS - 1 ? ">= " + (1L << (i - 1)) + " ms" : "< " + (1L << i) + " ms";
+                    out.printf(Locale.ROOT, "  %-10s %d%n", range, counts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evento que tardó más de {@value #LONG_EVENT_MILLIS} ms.
+     */
+    private static final class LongEvent {
+        private final LocalDateTime time = LocalDateTime.now();
+        private final String event;
+        private final long nanos;
+        private final List<StackTraceElement[]> samples;
+
+        LongEvent(String event, long nanos, List<StackTraceElement[]> samples) {
+            this.event = event;
+            this.nanos = nanos;
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * Despacho en curso. Los despachos anidados (diálogos modales) apuntan al que los contiene.
+     */
+    private static final class Dispatch {
+        private final AWTEvent event;
+        private final Dispatch parent;
+        private final List<StackTraceElement[]> samples = Collections.synchronizedList(new ArrayList<>());
+        private volatile long start;
+        private boolean nested;
+
+        Dispatch(AWTEvent event, Dispatch parent) {
+            this.event = event;
+            this.parent = parent;
+            this.start = System.nanoTime();
+        }
+    }
+
+    private final Histogram dispatchLatency = new Histogram();
+    private final Map<String, Histogram> actionLatency = new LinkedHashMap<>();
+    private final Map<String, Long> pendingActions = new LinkedHashMap<>();
+    private final Deque<LongEvent> longEvents = new ArrayDeque<>();
+    private volatile Dispatch current;
+    private volatile Thread dispatchThread;
+    private volatile Thread sampler;
+    // true mientras el hilo de muestreo espera sin plazo a que empiece un despacho
+    private volatile boolean samplerIdle;
+    private boolean installed;
+
+    /**
+     * Obtiene el vigilante de la aplicación, creándolo la primera vez.
+     *
+     * @return el vigilante compartido
+     */
+    public static synchronized EdtWatchdog getInstance() {
+        if (instance == null) {
+            instance = new EdtWatchdog();
+        }
+        return instance;
+    }
+
+    private EdtWatchdog() {
+    }
+
+    /**
+     * Reemplaza la cola de eventos y el administrador de repintado de Swing por versiones que
+     * miden, y arranca el hilo de muestreo. Llamarlo más de una vez no tiene efecto.
+     */
+    public synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new MonitoredQueue());
+        RepaintManager.setCurrentManager(new TimingRepaintManager());
+
+        Thread thread = new Thread(this::sampleLoop, "edt-watchdog");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        sampler = thread;
+        thread.start();
+    }
+
+    /**
+     * @return true si el vigilante está instalado
+     */
+    public synchronized boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * Marca el inicio de una acción del usuario (por ejemplo, un ataque). La latencia se mide desde
+     * que empezó a despacharse el evento actual hasta que termina el siguiente pintado. No hace
+     * nada si el vigilante no está instalado.
+     *
+     * @param action nombre de la acción
+     */
+    public void markAction(String action) {
+        if (!isInstalled()) {
+            return;
+        }
+        Dispatch dispatch = current;
+        long start = dispatch != null && Thread.currentThread() == dispatchThread ? dispatch.start : System.nanoTime();
+        synchronized (this) {
+            pendingActions.putIfAbsent(action, start);
+        }
+    }
+
+    /**
+     * @return histograma de la duración de los eventos despachados
+     */
+    public Histogram getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    /**
+     * @param action nombre de la acción
+     * @return histograma de latencia de entrada a pintado de la acción, o null si no se midió
+     */
+    public synchronized Histogram getActionLatency(String action) {
+        return actionLatency.get(action);
+    }
+
+    /**
+     * Genera el reporte con los histogramas y los bloqueos registrados.
+     *
+     * @return el reporte como texto
+     */
+    public String getReport() {
+        java.io.StringWriter text = new java.io.StringWriter();
+        try (PrintWriter out = new PrintWriter(text)) {
+            writeReport(out);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Guarda el reporte en un archivo.
+     *
+     * @param file archivo de destino
+     * @throws IOException si no se pudo escribir
+     */
+    public void dumpReport(File file) throws IOException {
+        Files.write(file.toPath(), getReport().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeReport(PrintWriter out) {
+        out.println("Reporte de respuesta de la interfaz - " + LocalDateTime.now());
+        out.println();
+        out.println("Duración del despacho de eventos:");
+        dispatchLatency.print(out);
+
+        List<LongEvent> events;
+        Map<String, Histogram> actions;
+        synchronized (this) {
+            actions = new LinkedHashMap<>(actionLatency);
+            events = new ArrayList<>(longEvents);
+        }
+        for (Map.Entry<String, Histogram> entry : actions.entrySet()) {
+            out.println();
+            out.println("Latencia de entrada a pintado - " + entry.getKey() + ":");
+            entry.getValue().print(out);
+        }
+
+        Dispatch running = current;
+        if (running != null) {
+            long elapsed = System.nanoTime() - running.start;
+            if (TimeUnit.NANOSECONDS.toMillis(elapsed) >= LONG_EVENT_MILLIS) {
+                events.add(new LongEvent("(en curso) " + describe(running.event), elapsed,
+                        new ArrayList<>(running.samples)));
+            }
+        }
+
+        out.println();
+        out.println("Eventos de más de " + LONG_EVENT_MILLIS + " ms: " + events.size());
+        for (LongEvent event : events) {
+            out.println();
+            out.printf(Locale.ROOT, "%s  %.1f ms  %s%n", event.time, event.nanos / 1e6, event.event);
+            printHotFrames(out, event.samples);
+        }
+    }
+
+    /**
+     * Resume las muestras de un bloqueo: cada pila se agrupa por sus primeros marcos del juego
+     * (paquetes domain y presentation) y se imprime la más frecuente completa.
+     */
+    private void printHotFrames(PrintWriter out, List<StackTraceElement[]> samples) {
+        if (samples.isEmpty()) {
+            out.println("  sin muestras");
+            return;
+        }
+        Map<String, Integer> frames = new HashMap<>();
+        StackTraceElement[] top = samples.get(0);
+        int topCount = 0;
+        for (StackTraceElement[] stack : samples) {
+            String key = firstGameFrame(stack);
+            int count = frames.merge(key, 1, Integer::sum);
+            if (count > topCount) {
+                topCount = count;
+                top = stack;
+            }
+        }
+        frames.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(e -> out.printf("  %3d/%d  %s%n", e.getValue(), samples.size(), e.getKey()));
+        out.println("  pila más frecuente:");
+        for (int i = 0; i < Math.min(top.length, 30); i++) {
+            out.println("    at " + top[i]);
+        }
+    }
+
+    private static String firstGameFrame(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String name = frame.getClassName();
+            if ((name.startsWith("domain.") || name.startsWith("presentation."))
+                    && !name.startsWith(EdtWatchdog.class.getName())) {
+                return frame.toString();
+            }
+        }
+        return stack.length > 0 ? stack[0].toString() : "?";
+    }
+
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        String sourceName = source == null ? "?" : source.getClass().getName();
+        String kind = event.getClass().getSimpleName();
+        if (event instanceof java.awt.event.InvocationEvent) {
+            return kind + " (invokeLater/Timer)";
+        }
+        return kind + " id=" + event.getID() + " en " + sourceName;
+    }
+
+    private void sampleLoop() {
+        long sampleAfter = TimeUnit.MILLISECONDS.toNanos(LONG_EVENT_MILLIS / 2);
+        while (!Thread.currentThread().isInterrupted()) {
+            Dispatch dispatch = current;
+            if (dispatch == null) {
+                samplerIdle = true;
+                if (current == null) {
+                    LockSupport.park(this);
+                }
+                samplerIdle = false;
+                continue;
+            }
+            long wait = dispatch.start + sampleAfter - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            Thread thread = dispatchThread;
+            if (thread != null && dispatch.samples.size() < MAX_SAMPLES) {
+                StackTraceElement[] stack = thread.getStackTrace();
+                if (current == dispatch) {
+                    dispatch.samples.add(stack);
+                }
+            }
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(SAMPLE_MILLIS));
+        }
+    }
+
+    private void finish(Dispatch dispatch, long nanos) {
+        dispatchLatency.record(nanos);
+        if (TimeUnit.NANOSECONDS.toMillis(nanos) >= LONG_EVENT_MILLIS) {
+            LongEvent event = new LongEvent(describe(dispatch.event), nanos, new ArrayList<>(dispatch.samples));
+            synchronized (this) {
+                if (longEvents.size() == MAX_LONG_EVENTS) {
+                    longEvents.removeFirst();
+                }
+                longEvents.addLast(event);
+            }
+        }
+    }
+
+    private void painted() {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (pendingActions.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Long> entry : pendingActions.entrySet()) {
+                actionLatency.computeIfAbsent(entry.getKey(), k -> new Histogram()).record(now - entry.getValue());
+            }
+            pendingActions.clear();
+        }
+    }
+
+    /**
+     * Cola de eventos que mide cada despacho.
+     */
+    private final class MonitoredQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            dispatchThread = Thread.currentThread();
+            Dispatch parent = current;
+            if (parent != null) {
+                parent.nested = true;
+            }
+            Dispatch dispatch = new Dispatch(event, parent);
+            current = dispatch;
+            if (samplerIdle) {
+                LockSupport.unpark(sampler);
+            }
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long nanos = System.nanoTime() - dispatch.start;
+                current = parent;
+                if (parent != null) {
+                    // El evento exterior sigue desde aquí; el tiempo en el diálogo no es un bloqueo
+                    parent.start = System.nanoTime();
+                    parent.samples.clear();
+                }
+                if (!dispatch.nested) {
+                    finish(dispatch, nanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Administrador de repintado que avisa cuando termina cada pasada de pintado.
+     */
+    private final class TimingRepaintManager extends RepaintManager {
+        @Override
+        public void paintDirtyRegions() {
+            super.paintDirtyRegions();
+            painted();
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package presentation.components;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Única fuente de ticks de la interfaz. Todo el trabajo que depende del tiempo (animaciones de la
+ * barra de PS, destellos de daño, cuenta regresiva del turno, espera del CPU) se suscribe aquí en
+ * lugar de crear su propio {@link Timer}.
+ *
+ * <p>Un solo temporizador de Swing dispara un cuadro cada {@value #FRAME_MILLIS} ms y avisa a todos
+ * los suscriptores con la misma marca de tiempo; los repintados que pidan en ese cuadro los agrupa
+ * Swing en una sola pasada de pintado. El temporizador solo corre mientras haya suscriptores, y si
+ * solo quedan tareas programadas no despierta cada cuadro sino cuando vence la más próxima.
+ *
+ * <p>También es el reloj del juego: al pausarlo ({@link #pause()}) se suspenden todas las tareas
+ * programadas con {@link #schedule} y {@link #scheduleRepeating}, que al reanudar siguen con el
+ * tiempo que les faltaba. Los demás oyentes (animaciones) siguen recibiendo cuadros. Si durante la
+ * pausa no queda ningún oyente de ese tipo, el temporizador se detiene y no hay despertares hasta
+ * reanudar. El trabajo que no debe correr en pausa espera con {@link #whenRunning} (en el hilo de
+ * eventos) o {@link #awaitRunning()} (en otros hilos). El trabajo propio de la interfaz, que no es
+ * parte del juego, se programa con {@link #scheduleUi} y corre aunque el juego esté en pausa.
+ *
+ * <p>Todos los métodos deben llamarse desde el hilo de eventos de Swing, salvo
+ * {@link #isPaused()} y {@link #awaitRunning()}.
+ */
+public class FrameScheduler {
+    /** Duración aproximada de un cuadro (unos 60 por segundo). */
+    public static final int FRAME_MILLIS = 16;
+
+    private static FrameScheduler instance;
+
+    /**
+     * Recibe un aviso en cada cuadro mientras esté suscrito.
+     */
+    public interface FrameListener {
+        /**
+         * @param now marca de tiempo del cuadro, en nanosegundos ({@link System#nanoTime()})
+         * @return true para seguir recibiendo cuadros, false para desuscribirse
+         */
+        boolean onFrame(long now);
+    }
+
+    private final List<FrameListener> listeners = new ArrayList<>();
+    private final List<Runnable> waiting = new ArrayList<>();
+    private final Timer timer;
+    private final ReentrantLock pauseLock = new ReentrantLock();
+    private final Condition running = pauseLock.newCondition();
+    private volatile boolean paused;
+    private long pausedAt;
+    /** Tiempo total que el reloj estuvo en pausa; las tareas descuentan este tiempo. */
+    private long pausedNanos;
+
+    /**
+     * Obtiene el planificador de la aplicación, creándolo la primera vez.
+     *
+     * @return el planificador compartido
+     */
+    public static synchronized FrameScheduler getInstance() {
+        if (instance == null) {
+            instance = new FrameScheduler();
+        }
+        return instance;
+    }
+
+    FrameScheduler() {
+        timer = new Timer(FRAME_MILLIS, e -> tick(System.nanoTime()));
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * Suscribe un oyente. No hace nada si ya estaba suscrito.
+     *
+     * @param listener oyente a suscribir
+     */
+    public void subscribe(FrameListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+            updateTimer();
+        }
+    }
+
+    /**
+     * Desuscribe un oyente. No hace nada si no estaba suscrito.
+     *
+     * @param listener oyente a desuscribir
+     */
+    public void unsubscribe(FrameListener listener) {
+        listeners.remove(listener);
+        updateTimer();
+    }
+
+    /**
+     * @param listener oyente a consultar
+     * @return true si el oyente está suscrito
+     */
+    public boolean isSubscribed(FrameListener listener) {
+        return listeners.contains(listener);
+    }
+
+    /**
+     * @return número de oyentes suscritos
+     */
+    public int getSubscriberCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Pausa el reloj del juego: las tareas programadas dejan de correr y conservan el tiempo que
+     * les faltaba. No hace nada si ya estaba en pausa.
+     */
+    public void pause() {
+        if (paused) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            pausedAt = System.nanoTime();
+            paused = true;
+        } finally {
+            pauseLock.unlock();
+        }
+        updateTimer();
+    }
+
+    /**
+     * Reanuda el reloj del juego. Las tareas programadas siguen desde donde quedaron y se ejecuta
+     * el trabajo que esperaba con {@link #whenRunning}. No hace nada si no estaba en pausa.
+     */
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            pausedNanos += System.nanoTime() - pausedAt;
+            paused = false;
+            running.signalAll();
+        } finally {
+            pauseLock.unlock();
+        }
+        updateTimer();
+        List<Runnable> resumed = new ArrayList<>(waiting);
+        waiting.clear();
+        for (Runnable action : resumed) {
+            action.run();
+        }
+    }
+
+    /**
+     * Se puede consultar desde cualquier hilo.
+     *
+     * @return true si el reloj del juego está en pausa
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Ejecuta una acción enseguida si el reloj corre, o al reanudarlo si está en pausa.
+     *
+     * @param action acción a ejecutar
+     */
+    public void whenRunning(Runnable action) {
+        if (paused) {
+            waiting.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Bloquea el hilo que llama mientras el reloj esté en pausa. Es para trabajo que corre fuera
+     * del hilo de eventos; nunca debe llamarse desde él.
+     *
+     * @throws InterruptedException si se interrumpe el hilo durante la espera
+     */
+    public void awaitRunning() throws InterruptedException {
+        if (!paused) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            while (paused) {
+                running.await();
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una acción una sola vez tras la espera indicada.
+     *
+     * @param delayMillis espera en milisegundos
+     * @param action      acción a ejecutar
+     * @return la tarea, que se puede cancelar o pausar
+     */
+    public Task schedule(long delayMillis, Runnable action) {
+        return start(new Task(action, delayMillis, 0, true));
+    }
+
+    /**
+     * Ejecuta una acción de la interfaz una sola vez tras la espera indicada. A diferencia de
+     * {@link #schedule}, su tiempo corre aunque el juego esté en pausa.
+     *
+     * @param delayMillis espera en milisegundos
+     * @param action      acción a ejecutar
+     * @return la tarea, que se puede cancelar o pausar
+     */
+    public Task scheduleUi(long delayMillis, Runnable action) {
+        return start(new Task(action, delayMillis, 0, false));
+    }
+
+    /**
+     * Ejecuta una acción repetidamente, la primera vez tras un periodo completo.
+     *
+     * @param periodMillis periodo en milisegundos
+     * @param action       acción a ejecutar
+     * @return la tarea, que se puede cancelar o pausar
+     */
+    public Task scheduleRepeating(long periodMillis, Runnable action) {
+        return start(new Task(action, periodMillis, periodMillis, true));
+    }
+
+    private Task start(Task task) {
+        task.due = task.clock() + task.delay;
+        subscribe(task);
+        return task;
+    }
+
+    /**
+     * Avisa a los suscriptores de un nuevo cuadro. Se recorre una copia para que los oyentes
+     * puedan suscribir o desuscribir a otros durante el aviso.
+     */
+    void tick(long now) {
+        for (FrameListener listener : listeners.toArray(new FrameListener[0])) {
+            if (isFrozen(listener)) {
+                continue;
+            }
+            if (listeners.contains(listener) && !listener.onFrame(now)) {
+                unsubscribe(listener);
+            }
+        }
+        updateTimer();
+    }
+
+    /**
+     * @return true si el oyente es una tarea del reloj del juego y el juego está en pausa
+     */
+    private boolean isFrozen(FrameListener listener) {
+        return paused && listener instanceof Task && ((Task) listener).gameClock;
+    }
+
+    /**
+     * @return tiempo del reloj del juego en nanosegundos: el de {@link System#nanoTime()} sin
+     * contar las pausas
+     */
+    private long clock() {
+        return (paused ? pausedAt : System.nanoTime()) - pausedNanos;
+    }
+
+    /**
+     * Ajusta el temporizador a lo que piden los oyentes: un cuadro cada {@value #FRAME_MILLIS} ms
+     * si hay alguno que no es una tarea, la espera hasta la tarea más próxima si solo hay tareas, o
+     * apagado si no hay ninguno. En pausa, las tareas del reloj del juego no cuentan.
+     */
+    private void updateTimer() {
+        long now = System.nanoTime();
+        long wait = Long.MAX_VALUE;
+        for (FrameListener listener : listeners) {
+            if (isFrozen(listener)) {
+                continue;
+            }
+            long left = listener instanceof Task ? ((Task) listener).nanosLeft(now) : 0;
+            wait = Math.min(wait, Math.max(1, TimeUnit.NANOSECONDS.toMillis(left + 999_999)));
+            if (!(listener instanceof Task)) {
+                wait = FRAME_MILLIS;
+                break;
+            }
+        }
+        if (wait == Long.MAX_VALUE) {
+            if (timer.isRunning()) {
+                timer.stop();
+            }
+            return;
+        }
+        int delay = (int) Math.min(Integer.MAX_VALUE, wait);
+        if (!timer.isRunning() || timer.getDelay() != delay) {
+            timer.setInitialDelay(delay);
+            timer.setDelay(delay);
+            timer.restart();
+        }
+    }
+
+    /**
+     * @return la espera actual del temporizador en milisegundos, o -1 si está apagado
+     */
+    int getTimerDelay() {
+        return timer.isRunning() ? timer.getDelay() : -1;
+    }
+
+    /**
+     * Acción programada en el planificador. Al pausarla se guarda el tiempo que le faltaba,
+     * y al reanudarla continúa desde ahí. Salvo las de {@link #scheduleUi}, sus tiempos se miden
+     * con el reloj del juego, así que tampoco corren mientras el reloj está en pausa.
+     */
+    public final class Task implements FrameListener {
+        private final Runnable action;
+        private final long delay;
+        private final long period;
+        private final boolean gameClock;
+        private long due;
+        private long remaining = -1;
+        private boolean cancelled;
+
+        private Task(Runnable action, long delayMillis, long periodMillis, boolean gameClock) {
+            this.action = action;
+            this.delay = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            this.period = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+            this.gameClock = gameClock;
+        }
+
+        /**
+         * @return la hora de un cuadro en el reloj de la tarea
+         */
+        private long time(long frame) {
+            return gameClock ? frame - pausedNanos : frame;
+        }
+
+        private long clock() {
+            return gameClock ? FrameScheduler.this.clock() : System.nanoTime();
+        }
+
+        private long nanosLeft(long frame) {
+            return due - time(frame);
+        }
+
+        @Override
+        public boolean onFrame(long frame) {
+            long now = time(frame);
+            if (cancelled || now < due) {
+                return !cancelled;
+            }
+            if (period <= 0) {
+                cancelled = true;
+                action.run();
+                return false;
+            }
+            due += period;
+            if (due <= now) {
+                due = now + period; // Si hubo un atraso no se acumulan ejecuciones pendientes
+            }
+            action.run();
+            return !cancelled;
+        }
+
+        /**
+         * Cancela la tarea; ya no se ejecutará.
+         */
+        public void cancel() {
+            cancelled = true;
+            remaining = -1;
+            unsubscribe(this);
+        }
+
+        /**
+         * Detiene la tarea conservando el tiempo que le faltaba.
+         */
+        public void pause() {
+            if (!cancelled && remaining < 0) {
+                remaining = Math.max(0, due - clock());
+                unsubscribe(this);
+            }
+        }
+
+        /**
+         * Reanuda una tarea pausada.
+         */
+        public void resume() {
+            if (!cancelled && remaining >= 0) {
+                due = clock() + remaining;
+                remaining = -1;
+                subscribe(this);
+            }
+        }
+
+        /**
+         * @return true si la tarea está pausada
+         */
+        public boolean isPaused() {
+            return remaining >= 0;
+        }
+
+        /**
+         * @return true si la tarea todavía puede ejecutarse (aunque esté pausada)
+         */
+        public boolean isActive() {
+            return !cancelled;
+        }
+    }
+}
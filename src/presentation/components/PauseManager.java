@@ -7,12 +7,12 @@ import java.awt.*;
 /**
  * Clase que gestiona la funcionalidad de pausa del juego.
  * Proporciona métodos para pausar y reanudar el juego, mostrando
- * una superposición visual cuando el juego está pausado.
+ * una superposición visual cuando el juego está pausado. El estado de pausa es el del reloj del
+ * juego ({@link FrameScheduler}), que suspende todas las tareas programadas.
  */
 public class PauseManager {
     private JFrame parentFrame;
     private GameController controller;
-    private boolean isPaused = false;
     private JPanel pauseOverlay;
     private Font pokemonFont;
 
@@ -39,7 +39,7 @@ public class PauseManager {
             return;
         }
 
-        if (isPaused) {
+        if (isPaused()) {
             resumeGame();
         } else {
             pauseGame();
@@ -47,11 +47,10 @@ public class PauseManager {
     }
 
     /**
-     * Pausa el juego, detiene el temporizador y muestra la superposición de pausa.
+     * Pausa el juego, detiene el reloj y muestra la superposición de pausa.
      */
     private void pauseGame() {
-        isPaused = true;
-        controller.pauseTimer();
+        FrameScheduler.getInstance().pause();
 
         createPauseOverlay();
         parentFrame.setGlassPane(pauseOverlay);
@@ -59,16 +58,14 @@ public class PauseManager {
     }
 
     /**
-     * Reanuda el juego, oculta la superposición de pausa y reactiva el temporizador.
+     * Reanuda el juego, oculta la superposición de pausa y reactiva el reloj.
      */
     private void resumeGame() {
-        isPaused = false;
-
         if (pauseOverlay != null) {
             pauseOverlay.setVisible(false);
         }
 
-        controller.resumeTimer();
+        FrameScheduler.getInstance().resume();
     }
 
     /**
@@ -102,6 +99,6 @@ public class PauseManager {
      * @return true si el juego está pausado, false en caso contrario
      */
     public boolean isPaused() {
-        return isPaused;
+        return FrameScheduler.getInstance().isPaused();
     }
 }
\ No newline at end of file
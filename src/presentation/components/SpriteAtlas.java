@@ -0,0 +1,324 @@
+package presentation.components;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Atlas de sprites: reúne los sprites pequeños en unas pocas imágenes grandes (páginas) y guarda
+ * un índice con el rectángulo que ocupa cada uno.
+ *
+ * <p>El atlas se arma la primera vez que se ejecuta el juego y se guarda en la subcarpeta
+ * {@value #FOLDER_NAME} de los sprites, junto con una firma de los archivos originales (nombre,
+ * tamaño y fecha). Mientras la firma coincida se reutiliza; si se agrega o cambia un sprite, se
+ * vuelve a armar. Así, en lugar de abrir y decodificar un archivo por sprite, se decodifica una
+ * sola imagen por página, y los sprites se obtienen como subimágenes que comparten sus píxeles.
+ *
+ * <p>Las imágenes más grandes que {@value #MAX_SPRITE_SIZE} píxeles por lado (fondos, logo) no
+ * entran en el atlas y se siguen leyendo por separado.
+ */
+public class SpriteAtlas {
+    public static final String FOLDER_NAME = "atlas";
+    static final int MAX_SPRITE_SIZE = 256;
+    static final int PAGE_SIZE = 1024;
+    // Borde transparente entre sprites para que el escalado no mezcle píxeles vecinos
+    private static final int PADDING = 1;
+
+    private static final int INDEX_MAGIC = 0x504B4154; // "PKAT"
+    private static final int VERSION = 1;
+    private static final String INDEX_FILE = "atlas.idx";
+
+    /**
+     * Posición de un sprite dentro del atlas.
+     */
+    public static final class Region {
+        private final int page;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        Region(int page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getPage() { return page; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    private final File folder;
+    private final Map<String, Region> regions;
+    private final BufferedImage[] pages;
+
+    private SpriteAtlas(File folder, Map<String, Region> regions, int pageCount) {
+        this.folder = folder;
+        this.regions = regions;
+        this.pages = new BufferedImage[pageCount];
+    }
+
+    /**
+     * Abre el atlas guardado en la carpeta indicada, o lo arma de nuevo si no existe o si los
+     * sprites cambiaron desde que se armó.
+     *
+     * @param sprites sprites disponibles, por clave
+     * @param folder  carpeta donde se guarda el atlas
+     * @return el atlas, o null si no se pudo armar
+     */
+    static SpriteAtlas open(Map<String, File> sprites, File folder) {
+        byte[] signature = signature(sprites);
+        try {
+            SpriteAtlas atlas = readIndex(folder, signature);
+            if (atlas != null) {
+                return atlas;
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer el atlas de sprites: " + e.getMessage());
+        }
+        try {
+            return build(sprites, folder, signature);
+        } catch (IOException e) {
+            System.err.println("Error al armar el atlas de sprites: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param key clave del sprite
+     * @return true si el sprite está en el atlas
+     */
+    public boolean contains(String key) {
+        return regions.containsKey(key);
+    }
+
+    /**
+     * @param key clave del sprite
+     * @return la posición del sprite, o null si no está en el atlas
+     */
+    public Region getRegion(String key) {
+        return regions.get(key);
+    }
+
+    /**
+     * @return número de sprites del atlas
+     */
+    public int size() {
+        return regions.size();
+    }
+
+    /**
+     * @return número de páginas del atlas
+     */
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    /**
+     * Devuelve un sprite como subimagen de su página. La subimagen comparte los píxeles de la
+     * página, así que no ocupa memoria adicional.
+     *
+     * @param key clave del sprite
+     * @return la imagen, o null si no está en el atlas o la página no se pudo leer
+     */
+    public BufferedImage getImage(String key) {
+        Region region = regions.get(key);
+        if (region == null) {
+            return null;
+        }
+        BufferedImage page = getPage(region.page);
+        return page == null ? null : page.getSubimage(region.x, region.y, region.width, region.height);
+    }
+
+    /**
+     * Dibuja un sprite directamente desde su página, escalándolo al rectángulo de destino.
+     *
+     * @param g      contexto gráfico
+     * @param key    clave del sprite
+     * @param x      posición horizontal de destino
+     * @param y      posición vertical de destino
+     * @param width  ancho de destino
+     * @param height alto de destino
+     * @return true si se dibujó; false si el sprite no está en el atlas
+     */
+    public boolean draw(Graphics g, String key, int x, int y, int width, int height) {
+        Region region = regions.get(key);
+        BufferedImage page = region == null ? null : getPage(region.page);
+        if (page == null) {
+            return false;
+        }
+        g.drawImage(page, x, y, x + width, y + height,
+                region.x, region.y, region.x + region.width, region.y + region.height, null);
+        return true;
+    }
+
+    /**
+     * Lee una página la primera vez que se necesita.
+     */
+    private synchronized BufferedImage getPage(int index) {
+        if (pages[index] == null) {
+            File file = pageFile(folder, index);
+            try {
+                BufferedImage image = ImageIO.read(file);
+                if (image == null) {
+                    throw new IOException("formato no reconocido");
+                }
+                pages[index] = image;
+            } catch (IOException e) {
+                System.err.println("Error al leer la página del atlas " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return pages[index];
+    }
+
+    private static SpriteAtlas readIndex(File folder, byte[] signature) throws IOException {
+        File index = new File(folder, INDEX_FILE);
+        if (!index.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(index)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readUnsignedByte() != VERSION) {
+                return null;
+            }
+            byte[] stored = new byte[signature.length];
+            in.readFully(stored);
+            if (!Arrays.equals(stored, signature)) {
+                return null;
+            }
+            int pageCount = in.readUnsignedByte();
+            for (int i = 0; i < pageCount; i++) {
+                if (!pageFile(folder, i).isFile()) {
+                    return null;
+                }
+            }
+            int count = in.readInt();
+            Map<String, Region> regions = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                regions.put(key, new Region(in.readUnsignedByte(), in.readUnsignedShort(),
+                        in.readUnsignedShort(), in.readUnsignedShort(), in.readUnsignedShort()));
+            }
+            return new SpriteAtlas(folder, regions, pageCount);
+        }
+    }
+
+    /**
+     * Arma el atlas con un empaquetado por estantes: los sprites se ordenan de más alto a más bajo
+     * y se colocan en filas de izquierda a derecha; cuando una página se llena se abre otra.
+     */
+    private static SpriteAtlas build(Map<String, File> sprites, File folder, byte[] signature) throws IOException {
+        List<String> keys = new ArrayList<>(sprites.keySet());
+        Collections.sort(keys);
+        Map<String, BufferedImage> images = new HashMap<>();
+        for (String key : keys) {
+            BufferedImage image = ImageIO.read(sprites.get(key));
+            if (image != null && image.getWidth() <= MAX_SPRITE_SIZE && image.getHeight() <= MAX_SPRITE_SIZE) {
+                images.put(key, image);
+            }
+        }
+        keys.retainAll(images.keySet());
+        keys.sort(Comparator.comparingInt((String key) -> images.get(key).getHeight()).reversed());
+
+        Map<String, Region> regions = new HashMap<>(keys.size() * 2);
+        List<Integer> pageHeights = new ArrayList<>();
+        int page = 0, x = 0, y = 0, shelf = 0;
+        for (String key : keys) {
+            BufferedImage image = images.get(key);
+            int w = image.getWidth() + PADDING;
+            int h = image.getHeight() + PADDING;
+            if (x + w > PAGE_SIZE) {
+                x = 0;
+                y += shelf;
+                shelf = 0;
+            }
+            if (y + h > PAGE_SIZE) {
+                pageHeights.add(y);
+                page++;
+                x = 0;
+                y = 0;
+            }
+            regions.put(key, new Region(page, x, y, image.getWidth(), image.getHeight()));
+            x += w;
+            shelf = Math.max(shelf, h);
+        }
+        if (!keys.isEmpty()) {
+            pageHeights.add(y + shelf);
+        }
+
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("no se pudo crear la carpeta " + folder);
+        }
+        SpriteAtlas atlas = new SpriteAtlas(folder, regions, pageHeights.size());
+        for (int i = 0; i < pageHeights.size(); i++) {
+            BufferedImage pageImage = new BufferedImage(PAGE_SIZE, pageHeights.get(i), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = pageImage.createGraphics();
+            for (String key : keys) {
+                Region region = regions.get(key);
+                if (region.page == i) {
+                    g.drawImage(images.get(key), region.x, region.y, null);
+                }
+            }
+            g.dispose();
+            ImageIO.write(pageImage, "png", pageFile(folder, i));
+            atlas.pages[i] = pageImage;
+        }
+        writeIndex(folder, signature, atlas);
+        return atlas;
+    }
+
+    private static void writeIndex(File folder, byte[] signature, SpriteAtlas atlas) throws IOException {
+        File index = new File(folder, INDEX_FILE);
+        File temp = new File(folder, INDEX_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeByte(VERSION);
+            out.write(signature);
+            out.writeByte(atlas.pages.length);
+            out.writeInt(atlas.regions.size());
+            for (Map.Entry<String, Region> entry : atlas.regions.entrySet()) {
+                Region region = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeByte(region.page);
+                out.writeShort(region.x);
+                out.writeShort(region.y);
+                out.writeShort(region.width);
+                out.writeShort(region.height);
+            }
+        }
+        Files.move(temp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Firma de los sprites originales: nombre, tamaño y fecha de modificación de cada archivo.
+     */
+    private static byte[] signature(Map<String, File> sprites) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String key : new TreeSet<>(sprites.keySet())) {
+                File file = sprites.get(key);
+                String line = key + ":" + file.getName() + ":" + file.length() + ":" + file.lastModified() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static File pageFile(File folder, int index) {
+        return new File(folder, "atlas-" + index + ".png");
+    }
+}
@@ -0,0 +1,379 @@
+package presentation.components;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caché de sprites compartida por toda la aplicación.
+ *
+ * <p>Al crearse recorre una sola vez la carpeta de sprites y arma un índice de nombre a archivo,
+ * así que buscar un sprite no vuelve a consultar el disco. Cada imagen se decodifica y se escala
+ * una sola vez por combinación de (nombre, vista, ancho, alto); las siguientes peticiones reciben
+ * la misma imagen ya escalada.
+ *
+ * <p>Las imágenes se guardan con referencias suaves en un LRU limitado por memoria: se descartan
+ * primero las menos usadas cuando se supera el límite, y el recolector de basura puede liberarlas
+ * si falta memoria. Es segura para usarse desde varios hilos.
+ *
+ * <p>Los sprites pequeños se leen del {@link SpriteAtlas}, que se abre la primera vez que hace
+ * falta decodificar una imagen.
+ */
+public class SpriteCache {
+    public static final String BASE_PATH = "src/sprites/";
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    private static final String[] EXTENSIONS = {".png", ".jpg", ".gif"};
+    /**
+     * Escalas que se generan por adelantado para dibujar mientras se redimensiona una ventana,
+     * relativas al tamaño base de cada imagen.
+     */
+    static final double[] SCALE_BUCKETS = {0.5, 1.0, 1.5, 2.0};
+
+    private static SpriteCache instance;
+
+    /**
+     * Vista del sprite, que determina el sufijo del archivo.
+     */
+    public enum View {
+        /** Vista frontal ({@code nombre_front}). */
+        FRONT("_front"),
+        /** Vista trasera ({@code nombre_back}). */
+        BACK("_back"),
+        /** Archivo sin sufijo (ítems, logo, fondos). */
+        PLAIN("");
+
+        private final String suffix;
+
+        View(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    private final File folder;
+    private final Map<String, File> files = new HashMap<>();
+    private final LinkedHashMap<Key, Entry> images = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReferenceQueue<BufferedImage> cleared = new ReferenceQueue<>();
+    private final long maxBytes;
+    private long usedBytes;
+    private SpriteAtlas atlas;
+    private boolean atlasOpened;
+
+    /**
+     * Obtiene la caché de la aplicación, creándola la primera vez.
+     *
+     * @return la caché compartida
+     */
+    public static synchronized SpriteCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteCache(new File(BASE_PATH), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Crea una caché sobre una carpeta de sprites.
+     *
+     * @param folder   carpeta con los sprites
+     * @param maxBytes memoria máxima aproximada de las imágenes guardadas
+     */
+    public SpriteCache(File folder, long maxBytes) {
+        this.folder = folder;
+        this.maxBytes = maxBytes;
+        File[] list = folder.listFiles();
+        if (list == null) {
+            System.err.println("Error al leer la carpeta de sprites: " + folder);
+            return;
+        }
+        // Se respeta el orden de preferencia de extensiones: .png, .jpg, .gif
+        for (String ext : EXTENSIONS) {
+            for (File file : list) {
+                String name = file.getName();
+                if (file.isFile() && name.toLowerCase(Locale.ROOT).endsWith(ext)) {
+                    String base = name.substring(0, name.length() - ext.length()).toLowerCase(Locale.ROOT);
+                    files.putIfAbsent(base, file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si existe un archivo para el sprite.
+     *
+     * @param name nombre del sprite (sin distinguir mayúsculas)
+     * @param view vista del sprite
+     * @return true si hay un archivo para ese sprite
+     */
+    public boolean contains(String name, View view) {
+        return files.containsKey(fileKey(name, view));
+    }
+
+    /**
+     * Devuelve el sprite en su tamaño original.
+     *
+     * @param name nombre del sprite (sin distinguir mayúsculas)
+     * @param view vista del sprite
+     * @return la imagen, o null si no existe o no se pudo leer
+     */
+    public BufferedImage getImage(String name, View view) {
+        return getImage(name, view, 0, 0);
+    }
+
+    /**
+     * Devuelve el sprite escalado al tamaño indicado.
+     *
+     * @param name   nombre del sprite (sin distinguir mayúsculas)
+     * @param view   vista del sprite
+     * @param width  ancho deseado, o 0 para el tamaño original
+     * @param height alto deseado, o 0 para el tamaño original
+     * @return la imagen, o null si no existe o no se pudo leer
+     */
+    public BufferedImage getImage(String name, View view, int width, int height) {
+        String fileKey = fileKey(name, view);
+        File file = files.get(fileKey);
+        if (file == null) {
+            return null;
+        }
+
+        Key key = new Key(fileKey, width, height);
+        BufferedImage image = lookup(key);
+        if (image != null) {
+            return image;
+        }
+
+        if (width <= 0 || height <= 0) {
+            SpriteAtlas spriteAtlas = getAtlas();
+            image = spriteAtlas != null ? spriteAtlas.getImage(fileKey) : null;
+            if (image == null) {
+                image = decode(file);
+            }
+        } else {
+            BufferedImage original = getImage(name, view, 0, 0);
+            image = original == null ? null : scale(original, width, height);
+        }
+        if (image != null) {
+            store(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Devuelve el sprite solo si ya está en la caché, sin leer ni escalar nada.
+     *
+     * @param name   nombre del sprite (sin distinguir mayúsculas)
+     * @param view   vista del sprite
+     * @param width  ancho deseado, o 0 para el tamaño original
+     * @param height alto deseado, o 0 para el tamaño original
+     * @return la imagen, o null si todavía no está cargada
+     */
+    public BufferedImage peekImage(String name, View view, int width, int height) {
+        return lookup(new Key(fileKey(name, view), width, height));
+    }
+
+    /**
+     * Devuelve la versión pregenerada del sprite en la escala de {@link #SCALE_BUCKETS} más
+     * cercana a la pedida (la menor que no sea más chica, para no perder detalle), solo si ya
+     * está en la caché.
+     *
+     * @param name       nombre del sprite (sin distinguir mayúsculas)
+     * @param view       vista del sprite
+     * @param baseWidth  ancho base, al que corresponde la escala 1
+     * @param baseHeight alto base, al que corresponde la escala 1
+     * @param scale      escala deseada
+     * @return la imagen, o null si esa escala todavía no se generó
+     */
+    public BufferedImage peekBucket(String name, View view, int baseWidth, int baseHeight, double scale) {
+        double bucket = bucketFor(scale);
+        return peekImage(name, view, (int) Math.round(baseWidth * bucket), (int) Math.round(baseHeight * bucket));
+    }
+
+    /**
+     * @param scale escala deseada
+     * @return la menor escala de {@link #SCALE_BUCKETS} que no es menor que la pedida, o la mayor
+     */
+    static double bucketFor(double scale) {
+        for (double bucket : SCALE_BUCKETS) {
+            if (bucket >= scale) {
+                return bucket;
+            }
+        }
+        return SCALE_BUCKETS[SCALE_BUCKETS.length - 1];
+    }
+
+    /**
+     * Devuelve el sprite escalado como ícono listo para un componente Swing.
+     *
+     * @param name   nombre del sprite (sin distinguir mayúsculas)
+     * @param view   vista del sprite
+     * @param width  ancho deseado
+     * @param height alto deseado
+     * @return el ícono, o null si el sprite no existe o no se pudo leer
+     */
+    public ImageIcon getIcon(String name, View view, int width, int height) {
+        BufferedImage image = getImage(name, view, width, height);
+        return image == null ? null : new ImageIcon(image);
+    }
+
+    /**
+     * Devuelve el atlas de los sprites, armándolo la primera vez si hace falta.
+     *
+     * @return el atlas, o null si no se pudo abrir ni armar
+     */
+    public synchronized SpriteAtlas getAtlas() {
+        if (!atlasOpened) {
+            atlasOpened = true;
+            atlas = SpriteAtlas.open(files, new File(folder, SpriteAtlas.FOLDER_NAME));
+        }
+        return atlas;
+    }
+
+    /**
+     * @return memoria aproximada ocupada por las imágenes guardadas, en bytes
+     */
+    public synchronized long getUsedBytes() {
+        purgeCleared();
+        return usedBytes;
+    }
+
+    /**
+     * Vacía la caché. El índice de archivos se conserva.
+     */
+    public synchronized void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    private synchronized BufferedImage lookup(Key key) {
+        purgeCleared();
+        Entry entry = images.get(key);
+        if (entry == null) {
+            return null;
+        }
+        BufferedImage image = entry.get();
+        if (image == null) {
+            remove(key);
+        }
+        return image;
+    }
+
+    private synchronized void store(Key key, BufferedImage image) {
+        remove(key);
+        Entry entry = new Entry(key, image, cleared);
+        images.put(key, entry);
+        usedBytes += entry.bytes;
+
+        Iterator<Map.Entry<Key, Entry>> eldest = images.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> next = eldest.next();
+            if (next.getKey().equals(key)) continue;
+            usedBytes -= next.getValue().bytes;
+            eldest.remove();
+        }
+    }
+
+    private void remove(Key key) {
+        Entry old = images.remove(key);
+        if (old != null) {
+            usedBytes -= old.bytes;
+        }
+    }
+
+    /**
+     * Quita las entradas cuyas imágenes ya liberó el recolector de basura.
+     */
+    private void purgeCleared() {
+        Entry entry;
+        while ((entry = (Entry) cleared.poll()) != null) {
+            if (images.get(entry.key) == entry) {
+                remove(entry.key);
+            }
+        }
+    }
+
+    private static BufferedImage decode(File file) {
+        try {
+            return ImageIO.read(file);
+        } catch (IOException e) {
+            System.err.println("Error al cargar el sprite " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escala una imagen reduciéndola a la mitad en varios pasos cuando el cambio es grande,
+     * lo que da un resultado suave sin el costo de {@link Image#SCALE_SMOOTH}.
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    static String fileKey(String name, View view) {
+        return (name + view.suffix).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clave de una imagen guardada: archivo y tamaño (0 x 0 para el tamaño original).
+     */
+    private static final class Key {
+        private final String file;
+        private final int width;
+        private final int height;
+
+        Key(String file, int width, int height) {
+            this.file = file;
+            this.width = Math.max(0, width);
+            this.height = Math.max(0, height);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return width == key.width && height == key.height && file.equals(key.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, width, height);
+        }
+    }
+
+    /**
+     * Referencia suave a una imagen guardada, con su clave y su tamaño en memoria.
+     */
+    private static final class Entry extends SoftReference<BufferedImage> {
+        private final Key key;
+        private final long bytes;
+
+        Entry(Key key, BufferedImage image, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+            this.bytes = 4L * image.getWidth() * image.getHeight();
+        }
+    }
+}
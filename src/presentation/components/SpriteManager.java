@@ -1,21 +1,19 @@
 package presentation.components;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 
 /**
  * Clase que gestiona la carga y manipulación de sprites e imágenes del juego.
  * Proporciona métodos para cargar sprites de Pokémon, imágenes de fondo,
  * y maneja casos de fallo con alternativas de texto.
+ * Las imágenes se obtienen de la {@link SpriteCache} compartida.
  */
 public class SpriteManager {
-    private static final String BASE_PATH = "src/sprites/";
-    private static final int DEFAULT_SPRITE_WIDTH = 150;
-    private static final int DEFAULT_SPRITE_HEIGHT = 150;
+    static final int DEFAULT_SPRITE_WIDTH = 150;
+    static final int DEFAULT_SPRITE_HEIGHT = 150;
+    private static final String SPRITE_KEY = "spriteManager.sprite";
 
     /**
      * Carga un sprite de Pokémon en un JLabel con dimensiones por defecto.
@@ -30,6 +28,8 @@ public class SpriteManager {
 
     /**
      * Carga un sprite de Pokémon en un JLabel con dimensiones personalizadas.
+     * Si el sprite no está todavía en la caché, se muestra el nombre del Pokémon mientras
+     * el {@link SpritePreloader} lo carga en segundo plano, sin bloquear la interfaz.
      *
      * @param label El JLabel donde se mostrará el sprite
      * @param pokemonName Nombre del Pokémon cuyo sprite se cargará
@@ -38,16 +38,71 @@ public class SpriteManager {
      * @param height Alto deseado para el sprite
      */
     public void loadPokemonSprite(JLabel label, String pokemonName, boolean isBackView, int width, int height) {
-        String suffix = isBackView ? "_back" : "_front";
+        SpriteCache cache = SpriteCache.getInstance();
+        SpriteCache.View view = isBackView ? SpriteCache.View.BACK : SpriteCache.View.FRONT;
 
-        // Intentar cargar sprite específico primero
-        if (tryLoadSprite(label, pokemonName + suffix, width, height)) return;
+        // Usar el sprite genérico si no hay uno específico para la vista
+        if (!cache.contains(pokemonName, view)) {
+            view = SpriteCache.View.PLAIN;
+        }
+        if (!cache.contains(pokemonName, view)) {
+            label.putClientProperty(SPRITE_KEY, null);
+            setTextFallback(label, pokemonName);
+            return;
+        }
 
-        // Intentar sprite genérico
-        if (tryLoadSprite(label, pokemonName, width, height)) return;
+        String key = pokemonName + "/" + view + "/" + width + "x" + height;
+        if (key.equals(label.getClientProperty(SPRITE_KEY)) && label.getIcon() != null) {
+            return;
+        }
+        label.putClientProperty(SPRITE_KEY, key);
+
+        BufferedImage cached = cache.peekImage(pokemonName, view, width, height);
+        if (cached != null) {
+            showImage(label, cached);
+            return;
+        }
 
-        // Fallback a texto
         setTextFallback(label, pokemonName);
+        SpritePreloader.getInstance().load(pokemonName, view, width, height, image -> {
+            // El label pudo pasar a mostrar otro Pokémon mientras se cargaba este
+            if (image != null && key.equals(label.getClientProperty(SPRITE_KEY))) {
+                showImage(label, image);
+            }
+        });
+    }
+
+    /**
+     * Dibuja un sprite directamente en un contexto gráfico, para paneles que pintan la escena
+     * por su cuenta. Si el sprite está en el atlas se copia desde su página sin crear imágenes
+     * intermedias; si no, se usa la imagen escalada de la caché.
+     *
+     * @param g      contexto gráfico
+     * @param name   nombre del sprite
+     * @param view   vista del sprite
+     * @param x      posición horizontal de destino
+     * @param y      posición vertical de destino
+     * @param width  ancho de destino
+     * @param height alto de destino
+     * @return true si se dibujó; false si el sprite no existe
+     */
+    public boolean drawSprite(Graphics g, String name, SpriteCache.View view, int x, int y, int width, int height) {
+        SpriteCache cache = SpriteCache.getInstance();
+        SpriteAtlas atlas = cache.getAtlas();
+        if (atlas != null && atlas.draw(g, SpriteCache.fileKey(name, view), x, y, width, height)) {
+            return true;
+        }
+        BufferedImage image = cache.getImage(name, view, width, height);
+        if (image == null) {
+            return false;
+        }
+        g.drawImage(image, x, y, null);
+        return true;
+    }
+
+    private static void showImage(JLabel label, BufferedImage image) {
+        label.setIcon(new ImageIcon(image));
+        label.setText("");
     }
 
     /**
@@ -60,21 +115,26 @@ public class SpriteManager {
      * @return true si la carga fue exitosa, false en caso contrario
      */
     protected boolean tryLoadSprite(JLabel label, String fileName, int width, int height) {
-        for (String ext : new String[]{".png", ".jpg", ".gif"}) {
-            File file = new File(BASE_PATH + fileName + ext);
-            if (file.exists()) {
-                try {
-                    BufferedImage originalImage = ImageIO.read(file);
-                    Image scaledImage = originalImage.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-                    label.setIcon(new ImageIcon(scaledImage));
-                    label.setText("");
-                    return true;
-                } catch (IOException e) {
-                    System.err.println("Error loading sprite: " + e.getMessage());
-                }
-            }
+        return tryLoadSprite(label, fileName, SpriteCache.View.PLAIN, width, height);
+    }
+
+    /**
+     * Intenta mostrar un sprite de la caché en un JLabel.
+     *
+     * @param label El JLabel donde se mostrará la imagen
+     * @param name Nombre del sprite
+     * @param view Vista del sprite
+     * @param width Ancho deseado para la imagen
+     * @param height Alto deseado para la imagen
+     * @return true si la carga fue exitosa, false en caso contrario
+     */
+    private boolean tryLoadSprite(JLabel label, String name, SpriteCache.View view, int width, int height) {
+        BufferedImage image = SpriteCache.getInstance().getImage(name, view, width, height);
+        if (image == null) {
+            return false;
         }
-        return false;
+        showImage(label, image);
+        return true;
     }
 
     /**
@@ -97,11 +157,12 @@ public class SpriteManager {
      * @return BufferedImage cargada, o null si hubo un error
      */
     public BufferedImage loadBackgroundImage(String fileName) {
-        try {
-            return ImageIO.read(new File(BASE_PATH + fileName));
-        } catch (IOException e) {
-            System.err.println("Error loading background: " + e.getMessage());
-            return null;
+        int dot = fileName.lastIndexOf('.');
+        String name = dot > 0 ? fileName.substring(0, dot) : fileName;
+        BufferedImage image = SpriteCache.getInstance().getImage(name, SpriteCache.View.PLAIN);
+        if (image == null) {
+            System.err.println("Error loading background: " + fileName);
         }
+        return image;
     }
 }
\ No newline at end of file
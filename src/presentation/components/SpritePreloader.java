@@ -0,0 +1,222 @@
+package presentation.components;
+
+import domain.Item;
+import domain.Pokemon;
+import domain.Trainer;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decodifica y escala sprites en segundo plano para que la interfaz no se detenga leyendo archivos.
+ *
+ * <p>Las peticiones se atienden en un hilo propio por orden de prioridad (y, a igual prioridad,
+ * por orden de llegada). Las imágenes terminan en la {@link SpriteCache} compartida, y los avisos
+ * de imagen lista se entregan en el hilo de eventos de Swing.
+ */
+public class SpritePreloader {
+    /** Tamaño de los íconos de Pokémon en los diálogos de cambio y de ítems. */
+    public static final int DIALOG_ICON_SIZE = 40;
+    /** Tamaño de los íconos de ítems en el diálogo de ítems. */
+    public static final int ITEM_ICON_SIZE = 32;
+    /** Nombre del fondo de batalla. */
+    public static final String BATTLE_BACKGROUND = "battleBackground";
+
+    private static SpritePreloader instance;
+
+    /**
+     * Prioridad de una petición; las de mayor prioridad se atienden primero.
+     */
+    public enum Priority {
+        /** Imagen que la interfaz espera mostrar ya mismo. */
+        IMMEDIATE,
+        /** Pokémon activos al comenzar la batalla. */
+        ACTIVE,
+        /** Resto de los equipos. */
+        TEAM,
+        /** Ítems, fondos y demás imágenes secundarias. */
+        BACKGROUND
+    }
+
+    private final SpriteCache cache;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Obtiene el precargador de la aplicación, creándolo la primera vez.
+     *
+     * @return el precargador compartido
+     */
+    public static synchronized SpritePreloader getInstance() {
+        if (instance == null) {
+            instance = new SpritePreloader(SpriteCache.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Crea un precargador que guarda las imágenes en la caché indicada.
+     *
+     * @param cache caché donde se guardan las imágenes
+     */
+    public SpritePreloader(SpriteCache cache) {
+        this.cache = cache;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sprite-preloader");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    /**
+     * Pide cargar un sprite en segundo plano sin esperar el resultado.
+     *
+     * @param name     nombre del sprite
+     * @param view     vista del sprite
+     * @param width    ancho deseado, o 0 para el tamaño original
+     * @param height   alto deseado, o 0 para el tamaño original
+     * @param priority prioridad de la petición
+     */
+    public void preload(String name, SpriteCache.View view, int width, int height, Priority priority) {
+        if (!cache.contains(name, view) || cache.peekImage(name, view, width, height) != null) {
+            return;
+        }
+        executor.execute(new LoadTask(name, view, width, height, priority, null));
+    }
+
+    /**
+     * Obtiene un sprite y lo entrega en el hilo de eventos de Swing.
+     * Si ya está en la caché se entrega de inmediato; si no, se carga con la máxima prioridad.
+     * Si el sprite no existe se entrega null.
+     *
+     * @param name    nombre del sprite
+     * @param view    vista del sprite
+     * @param width   ancho deseado, o 0 para el tamaño original
+     * @param height  alto deseado, o 0 para el tamaño original
+     * @param onReady acción que recibe la imagen
+     */
+    public void load(String name, SpriteCache.View view, int width, int height, Consumer<BufferedImage> onReady) {
+        BufferedImage cached = cache.peekImage(name, view, width, height);
+        if (cached != null || !cache.contains(name, view)) {
+            deliver(onReady, cached);
+            return;
+        }
+        executor.execute(new LoadTask(name, view, width, height, Priority.IMMEDIATE, onReady));
+    }
+
+    /**
+     * Precarga todo lo que necesitará una batalla: los Pokémon activos primero (espalda del
+     * jugador 1 y frente del jugador 2), luego el resto de los equipos en ambas vistas y en
+     * tamaño de diálogo, y por último los ítems y el fondo.
+     *
+     * @param player1 entrenador que se ve de espaldas
+     * @param player2 entrenador que se ve de frente
+     */
+    public void preloadBattle(Trainer player1, Trainer player2) {
+        int size = SpriteManager.DEFAULT_SPRITE_WIDTH;
+        Pokemon active1 = player1.getActivePokemon();
+        Pokemon active2 = player2.getActivePokemon();
+        if (active1 != null) preload(active1.getName(), SpriteCache.View.BACK, size, size, Priority.ACTIVE);
+        if (active2 != null) preload(active2.getName(), SpriteCache.View.FRONT, size, size, Priority.ACTIVE);
+
+        preloadTeam(player1.getTeam().getPokemons());
+        preloadTeam(player2.getTeam().getPokemons());
+
+        for (Trainer trainer : new Trainer[]{player1, player2}) {
+            for (Item item : trainer.getItems()) {
+                preload(item.getName(), SpriteCache.View.PLAIN, ITEM_ICON_SIZE, ITEM_ICON_SIZE, Priority.BACKGROUND);
+            }
+        }
+        preload(BATTLE_BACKGROUND, SpriteCache.View.PLAIN, 0, 0, Priority.BACKGROUND);
+    }
+
+    /**
+     * Precarga los sprites de un equipo recién elegido, en ambas vistas y en tamaño de diálogo.
+     *
+     * @param team Pokémon del equipo
+     */
+    public void preloadTeam(List<Pokemon> team) {
+        int size = SpriteManager.DEFAULT_SPRITE_WIDTH;
+        for (Pokemon pokemon : team) {
+            preload(pokemon.getName(), SpriteCache.View.BACK, size, size, Priority.TEAM);
+            preload(pokemon.getName(), SpriteCache.View.FRONT, size, size, Priority.TEAM);
+            preload(pokemon.getName(), SpriteCache.View.FRONT, DIALOG_ICON_SIZE, DIALOG_ICON_SIZE, Priority.TEAM);
+        }
+    }
+
+    /**
+     * Genera en segundo plano las escalas de {@link SpriteCache#SCALE_BUCKETS} de una imagen,
+     * para poder dibujarla mientras se redimensiona la ventana sin escalarla en cada cuadro.
+     *
+     * @param name       nombre del sprite
+     * @param view       vista del sprite
+     * @param baseWidth  ancho base, al que corresponde la escala 1
+     * @param baseHeight alto base, al que corresponde la escala 1
+     */
+    public void preloadScaleBuckets(String name, SpriteCache.View view, int baseWidth, int baseHeight) {
+        for (double bucket : SpriteCache.SCALE_BUCKETS) {
+            preload(name, view, (int) Math.round(baseWidth * bucket), (int) Math.round(baseHeight * bucket),
+                    Priority.BACKGROUND);
+        }
+    }
+
+    /**
+     * @return número de peticiones que esperan ser atendidas
+     */
+    public int getPendingCount() {
+        return executor.getQueue().size();
+    }
+
+    private static void deliver(Consumer<BufferedImage> onReady, BufferedImage image) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            onReady.accept(image);
+        } else {
+            SwingUtilities.invokeLater(() -> onReady.accept(image));
+        }
+    }
+
+    /**
+     * Petición de carga, ordenada por prioridad y luego por orden de llegada.
+     */
+    private final class LoadTask implements Runnable, Comparable<LoadTask> {
+        private final String name;
+        private final SpriteCache.View view;
+        private final int width;
+        private final int height;
+        private final Priority priority;
+        private final Consumer<BufferedImage> onReady;
+        private final long order = sequence.getAndIncrement();
+
+        LoadTask(String name, SpriteCache.View view, int width, int height, Priority priority,
+                 Consumer<BufferedImage> onReady) {
+            this.name = name;
+            this.view = view;
+            this.width = width;
+            this.height = height;
+            this.priority = priority;
+            this.onReady = onReady;
+        }
+
+        @Override
+        public void run() {
+            BufferedImage image = cache.getImage(name, view, width, height);
+            if (onReady != null) {
+                SwingUtilities.invokeLater(() -> onReady.accept(image));
+            }
+        }
+
+        @Override
+        public int compareTo(LoadTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}